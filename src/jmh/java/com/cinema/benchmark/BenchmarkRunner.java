@@ -0,0 +1,76 @@
+package com.cinema.benchmark;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the benchmarks once per thread count and reports throughput, latency
+ * percentiles (sample mode) and allocation rate (GC profiler). Results are also
+ * written as JSON to target/jmh/.
+ *
+ * Arguments (all optional):
+ *   [include-regex]   e.g. "SeatInventory" or "H2"
+ *   -t 1,8,64         thread counts (default 1,4,16,64)
+ *   -f 1              forks
+ *   -wi 5 -i 5        warmup / measurement iterations
+ *   -r 2              seconds per iteration (the DB-backed paths need a few seconds of JIT warmup)
+ */
+public final class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        String include = ".*Benchmark.*";
+        List<Integer> threads = List.of(1, 4, 16, 64);
+        int forks = 1;
+        int warmups = 5;
+        int iterations = 5;
+        int seconds = 2;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-t" -> threads = parseList(args[++i]);
+                case "-f" -> forks = Integer.parseInt(args[++i]);
+                case "-wi" -> warmups = Integer.parseInt(args[++i]);
+                case "-i" -> iterations = Integer.parseInt(args[++i]);
+                case "-r" -> seconds = Integer.parseInt(args[++i]);
+                default -> include = args[i];
+            }
+        }
+
+        new File("target/jmh").mkdirs();
+        for (int t : threads) {
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                    .include(include)
+                    .mode(Mode.Throughput)
+                    .mode(Mode.SampleTime)
+                    .timeUnit(TimeUnit.MICROSECONDS)
+                    .threads(t)
+                    .forks(forks)
+                    .warmupIterations(warmups)
+                    .warmupTime(TimeValue.seconds(seconds))
+                    .measurementIterations(iterations)
+                    .measurementTime(TimeValue.seconds(seconds))
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("target/jmh/result-t" + t + ".json");
+            new Runner(options.build()).run();
+        }
+    }
+
+    private static List<Integer> parseList(String csv) {
+        List<Integer> values = new ArrayList<>();
+        for (String part : csv.split(",")) {
+            values.add(Integer.parseInt(part.trim()));
+        }
+        return values;
+    }
+}
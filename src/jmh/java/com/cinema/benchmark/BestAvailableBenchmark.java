@@ -0,0 +1,80 @@
+package com.cinema.benchmark;
+
+import com.cinema.exception.BusinessRuleViolationException;
+import com.cinema.metrics.BookingMetrics;
+import com.cinema.repository.SeatRepository;
+import com.cinema.service.impl.ShowtimeServiceImpl;
+import com.cinema.service.inventory.PendingTickets;
+import com.cinema.service.inventory.ScreenLayout;
+import com.cinema.service.inventory.SeatBookingCoordinator;
+import com.cinema.service.inventory.SeatInventory;
+import com.cinema.service.inventory.SeatOccupancy;
+import com.cinema.service.tickets.DirectTicketWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * bookBestAvailable for a block of four on an 800-seat screen that is already partly
+ * sold, with the sold seats scattered at random so the free space is fragmented.
+ * As in {@link SeatInventoryBenchmark}, each booked block is cancelled again straight
+ * away, so concurrent threads keep competing for the same best blocks.
+ */
+@State(Scope.Benchmark)
+public class BestAvailableBenchmark {
+
+    @Param({"800"})
+    public int seats;
+
+    /** Share of the seats sold before the run. */
+    @Param({"0.0", "0.5", "0.8"})
+    public double sold;
+
+    private ShowtimeServiceImpl showtimeService;
+    private SeatOccupancy occupancy;
+    private Long showtimeId;
+
+    @Setup
+    public void setup() {
+        InMemoryRepositories repos = new InMemoryRepositories(seats);
+        SeatRepository seatRepo = repos.seatRepository();
+        SeatInventory inventory = new SeatInventory(seatRepo, repos.ticketRepository(), new PendingTickets(), repos.seatLayouts());
+
+        showtimeService = new ShowtimeServiceImpl(repos.showtimeRepository(), null,
+                new DirectTicketWriter(repos.ticketRepository()), inventory,
+                new SeatBookingCoordinator(seatRepo, repos.seatLayouts()),
+                new BookingMetrics(new SimpleMeterRegistry()), null, null, null, null, null, null, new PendingTickets());
+
+        showtimeId = repos.showtime.getId();
+        occupancy = inventory.occupancy(repos.showtime);
+        Random random = new Random(42);
+        for (int pos = 0; pos < seats; pos++) {
+            if (random.nextDouble() < sold) {
+                occupancy.markBooked(pos);
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean bookBestAvailable() {
+        List<Long> seatIds;
+        try {
+            seatIds = showtimeService.bookBestAvailable(showtimeId, 4, null);
+        } catch (BusinessRuleViolationException soldOut) {
+            return false;
+        }
+        ScreenLayout layout = occupancy.getLayout();
+        int[] positions = new int[seatIds.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = layout.positionOf(seatIds.get(i));
+        }
+        occupancy.cancel(positions);
+        return true;
+    }
+}
@@ -0,0 +1,112 @@
+package com.cinema.benchmark;
+
+import com.cinema.entity.Cinema;
+import com.cinema.exception.BusinessRuleViolationException;
+import com.cinema.metrics.DbStatementCounter;
+import com.cinema.repository.TicketRepository;
+import com.cinema.service.SeatMapService;
+import com.cinema.service.ShowtimeService;
+import com.cinema.service.inventory.SeatInventory;
+import com.cinema.web.dto.SeatStatusDto;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * bookSeats and getSeatMapForShowtime through the Spring services against an
+ * embedded H2 database. CENTRE sends every thread to the middle seats of one
+ * showtime (an on-sale spike: one winner, everyone else rejected); RANDOM spreads
+ * bookings over {@value #SHOWTIMES} showtimes on the same screen. Tickets are
+ * wiped after every iteration.
+ *
+ * bookSeats also reports {@link RoundTrips}: SQL statements and successful bookings
+ * per iteration, so statements / bookings is the DB round trips one booking costs.
+ */
+@State(Scope.Benchmark)
+public class BookingH2Benchmark {
+
+    static final int SHOWTIMES = 100;
+
+    @Param({"50", "200", "800"})
+    public int seats;
+
+    @Param({"CENTRE", "RANDOM"})
+    public ContentionPattern pattern;
+
+    private H2Fixture fixture;
+    private ShowtimeService showtimeService;
+    private SeatMapService seatMapService;
+    private SeatInventory inventory;
+    private List<Long> showtimeIds;
+    private List<Long> seatIds;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        fixture = new H2Fixture();
+        showtimeService = fixture.bean(ShowtimeService.class);
+        seatMapService = fixture.bean(SeatMapService.class);
+        inventory = fixture.bean(SeatInventory.class);
+
+        Cinema cinema = fixture.cinema("Bench Multiplex", 1);
+        fixture.seats(cinema, 1, seats);
+        showtimeIds = fixture.showtimes(cinema, 1, SHOWTIMES, "Dune", "Oppenheimer");
+        seatIds = seatMapService.getSeatMapForShowtime(showtimeIds.get(0)).stream()
+                .map(SeatStatusDto::getSeatId).toList();
+    }
+
+    @TearDown(Level.Iteration)
+    public void resetTickets() {
+        fixture.bean(TicketRepository.class).deleteAllInBatch();
+        showtimeIds.forEach(inventory::evict);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        fixture.close();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RoundTrips {
+        public long statements;
+        public long bookings;
+    }
+
+    @Benchmark
+    public boolean bookSeats(RoundTrips roundTrips) {
+        Long showtimeId = pattern == ContentionPattern.CENTRE
+                ? showtimeIds.get(0)
+                : showtimeIds.get(ThreadLocalRandom.current().nextInt(SHOWTIMES));
+        int p = pattern.pickBlock(seats);
+        DbStatementCounter.reset();
+        try {
+            showtimeService.bookSeats(showtimeId, List.of(seatIds.get(p), seatIds.get(p + 1)));
+            roundTrips.statements += DbStatementCounter.current();
+            roundTrips.bookings++;
+            return true;
+        } catch (BusinessRuleViolationException rejected) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public List<SeatStatusDto> seatMapWarm() {
+        return seatMapService.getSeatMapForShowtime(showtimeIds.get(0));
+    }
+
+    /** Seat map with the in-memory occupancy dropped first, i.e. the DB load path. */
+    @Benchmark
+    public List<SeatStatusDto> seatMapCold() {
+        Long showtimeId = showtimeIds.get(ThreadLocalRandom.current().nextInt(SHOWTIMES));
+        inventory.evict(showtimeId);
+        return seatMapService.getSeatMapForShowtime(showtimeId);
+    }
+}
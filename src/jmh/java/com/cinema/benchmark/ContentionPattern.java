@@ -0,0 +1,20 @@
+package com.cinema.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/** Which seats concurrent bookers go for. */
+public enum ContentionPattern {
+
+    /** Everyone wants the two seats in the middle of the screen. */
+    CENTRE,
+    /** Uniformly spread over the screen. */
+    RANDOM;
+
+    /** Picks the first position of a two-seat block on a screen of the given size. */
+    int pickBlock(int seats) {
+        if (this == CENTRE) {
+            return seats / 2 - 1;
+        }
+        return ThreadLocalRandom.current().nextInt(seats - 1);
+    }
+}
@@ -0,0 +1,81 @@
+package com.cinema.benchmark;
+
+import com.cinema.entity.Cinema;
+import com.cinema.entity.Showtime;
+import com.cinema.service.ShowtimeService;
+import com.cinema.service.search.TitleIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ShowtimeService.filter against an embedded H2 database holding
+ * {@value #CINEMAS} cinemas x {@value #SCREENS} screens x {@code perScreen} showtimes.
+ * RARE_TITLE matches a single showtime, so its cost should not grow with {@code perScreen}.
+ */
+@State(Scope.Benchmark)
+public class FilterH2Benchmark {
+
+    static final int CINEMAS = 10;
+    static final int SCREENS = 5;
+
+    public enum Query { TITLE, CINEMA_WINDOW, TITLE_FROM, WINDOW, RARE_TITLE }
+
+    @Param({"TITLE", "CINEMA_WINDOW", "TITLE_FROM", "WINDOW", "RARE_TITLE"})
+    public Query query;
+
+    @Param({"100", "1000"})
+    public int perScreen;
+
+    private H2Fixture fixture;
+    private ShowtimeService showtimeService;
+    private Long cinemaId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        fixture = new H2Fixture();
+        showtimeService = fixture.bean(ShowtimeService.class);
+
+        List<Cinema> cinemas = new ArrayList<>();
+        for (int c = 0; c < CINEMAS; c++) {
+            Cinema cinema = fixture.cinema("Bench Cinema " + c, SCREENS);
+            cinemas.add(cinema);
+            for (int screen = 1; screen <= SCREENS; screen++) {
+                fixture.showtimes(cinema, screen, perScreen,
+                        "Dune: Part Two", "Inside Out 2", "The Batman", "Oppenheimer", "Barbie");
+            }
+        }
+        fixture.showtimes(cinemas.get(0), SCREENS + 1, 1, "Le Fabuleux Destin d'Amélie Poulain");
+        // Seeded through the repository, so the title index has to be told
+        fixture.bean(TitleIndex.class).rebuild();
+        cinemaId = cinemas.get(CINEMAS / 2).getId();
+        from = H2Fixture.FIRST_SHOW.plusDays(3);
+        to = from.plusDays(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public List<Showtime> filter() {
+        return switch (query) {
+            case TITLE -> showtimeService.filter("batman", null, null, null);
+            case CINEMA_WINDOW -> showtimeService.filter(null, cinemaId, from, to);
+            case TITLE_FROM -> showtimeService.filter("dune", null, from, null);
+            case WINDOW -> showtimeService.filter(null, null, from, to);
+            case RARE_TITLE -> showtimeService.filter("amelie", null, null, null);
+        };
+    }
+}
@@ -0,0 +1,76 @@
+package com.cinema.benchmark;
+
+import com.cinema.CinemaBookingApplication;
+import com.cinema.entity.Cinema;
+import com.cinema.entity.Seat;
+import com.cinema.entity.Showtime;
+import com.cinema.repository.CinemaRepository;
+import com.cinema.repository.SeatRepository;
+import com.cinema.repository.ShowtimeRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Boots the application (without the web layer) against a private in-memory H2
+ * database and seeds cinemas, seats and showtimes for the benchmarks.
+ */
+final class H2Fixture implements AutoCloseable {
+
+    static final LocalDateTime FIRST_SHOW = LocalDateTime.of(2030, 1, 1, 10, 0);
+
+    final ConfigurableApplicationContext context;
+
+    H2Fixture() {
+        context = new SpringApplicationBuilder(CinemaBookingApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID()
+                                + ";MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE",
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    Cinema cinema(String name, int screens) {
+        Cinema c = new Cinema();
+        c.setName(name);
+        c.setAddressLine("1 Bench St");
+        c.setCity("Benchville");
+        c.setTotalScreens(screens);
+        return bean(CinemaRepository.class).save(c);
+    }
+
+    /** Seats laid out in rows of 20, like {@link InMemoryRepositories}. */
+    void seats(Cinema cinema, int screen, int count) {
+        List<Seat> seats = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            seats.add(new Seat(cinema, screen, InMemoryRepositories.rowLabel(i / 20), i % 20 + 1));
+        }
+        bean(SeatRepository.class).saveAll(seats);
+    }
+
+    /** Back-to-back two-hour showtimes on one screen. */
+    List<Long> showtimes(Cinema cinema, int screen, int count, String... titles) {
+        List<Showtime> shows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = FIRST_SHOW.plusHours(2L * i);
+            shows.add(new Showtime(titles[i % titles.length], screen, start, start.plusHours(2),
+                    10.0, "EN", "2D", cinema));
+        }
+        return bean(ShowtimeRepository.class).saveAll(shows).stream().map(Showtime::getId).toList();
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
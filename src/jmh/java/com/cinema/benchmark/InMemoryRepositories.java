@@ -0,0 +1,130 @@
+package com.cinema.benchmark;
+
+import com.cinema.entity.Cinema;
+import com.cinema.entity.Seat;
+import com.cinema.entity.Showtime;
+import com.cinema.repository.ScreenLayoutAssignmentRepository;
+import com.cinema.repository.SeatLayoutTemplateRepository;
+import com.cinema.repository.SeatRepository;
+import com.cinema.repository.ShowtimeRepository;
+import com.cinema.repository.TicketRepository;
+import com.cinema.repository.projection.SeatRow;
+import com.cinema.repository.projection.ShowtimeSlot;
+import com.cinema.service.layout.SeatLayouts;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * In-memory stand-ins for the repositories used on the booking and seat-map paths.
+ * Only the methods those paths call are implemented; everything else throws.
+ */
+final class InMemoryRepositories {
+
+    final Cinema cinema;
+    final Showtime showtime;
+    final List<Seat> seats;
+    private final Map<Long, Seat> seatsById = new HashMap<>();
+    private SeatLayouts seatLayouts;
+
+    InMemoryRepositories(int seatCount) {
+        cinema = new Cinema();
+        cinema.setId(1L);
+
+        showtime = new Showtime("Benchmark", 1,
+                LocalDateTime.of(2030, 1, 1, 20, 0), LocalDateTime.of(2030, 1, 1, 22, 0),
+                10.0, "EN", "2D", cinema);
+        showtime.setId(1L);
+
+        seats = new ArrayList<>(seatCount);
+        for (int i = 0; i < seatCount; i++) {
+            Seat seat = new Seat(cinema, 1, rowLabel(i / 20), i % 20 + 1);
+            ReflectionTestUtils.setField(seat, "id", (long) i + 1);
+            seats.add(seat);
+            seatsById.put(seat.getId(), seat);
+        }
+    }
+
+    /** Row labels A..Z, AA..AZ, ... so 800 seats (40 rows of 20) sort like a real screen. */
+    static String rowLabel(int row) {
+        return row < 26 ? String.valueOf((char) ('A' + row))
+                : (char) ('A' + row / 26 - 1) + String.valueOf((char) ('A' + row % 26));
+    }
+
+    private List<SeatRow> seatRows() {
+        List<SeatRow> rows = new ArrayList<>(seats.size());
+        for (Seat seat : seats) {
+            rows.add(new SeatRow(cinema.getId(), 1, seat.getId(), seat.getRowLabel(), seat.getSeatNumber(), false));
+        }
+        return rows;
+    }
+
+    ShowtimeRepository showtimeRepository() {
+        return proxy(ShowtimeRepository.class, Map.of(
+                "findById", args -> Optional.of(showtime)
+        ));
+    }
+
+    SeatRepository seatRepository() {
+        return proxy(SeatRepository.class, Map.of(
+                "findByCinemaIdAndScreenNumberOrderByRowLabelAscSeatNumberAsc", args -> seats,
+                "findLayoutRows", args -> seatRows(),
+                "findSeatMapRows", args -> seatRows(),
+                "findShowtimeSlot", args -> Optional.of(new ShowtimeSlot(showtime.getId(), cinema.getId(),
+                        showtime.getScreenNumber(), showtime.getStartTime(), showtime.getEndTime())),
+                "getReferenceById", args -> seatsById.get((Long) args[0]),
+                "findAllById", args -> {
+                    List<Seat> found = new ArrayList<>();
+                    for (Object id : (Iterable<?>) args[0]) {
+                        Seat seat = seatsById.get((Long) id);
+                        if (seat != null) {
+                            found.add(seat);
+                        }
+                    }
+                    return found;
+                }
+        ));
+    }
+
+    TicketRepository ticketRepository() {
+        return proxy(TicketRepository.class, Map.of(
+                "findBookedSeatIds", args -> List.of(),
+                "saveAll", args -> args[0],
+                "saveAllAndFlush", args -> args[0]
+        ));
+    }
+
+    /** No templates and no screen assignments: the benchmark screen uses its seat rows. */
+    SeatLayouts seatLayouts() {
+        if (seatLayouts == null) {
+            seatLayouts = new SeatLayouts(
+                    proxy(SeatLayoutTemplateRepository.class, Map.of("findById", args -> Optional.empty())),
+                    proxy(ScreenLayoutAssignmentRepository.class, Map.of("findLayoutId", args -> Optional.empty())),
+                    null, "standard-50");
+        }
+        return seatLayouts;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Map<String, Function<Object[], Object>> handlers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+            Function<Object[], Object> handler = handlers.get(method.getName());
+            if (handler != null) {
+                return handler.apply(args);
+            }
+            return switch (method.getName()) {
+                case "toString" -> "InMemory" + type.getSimpleName();
+                case "hashCode" -> System.identityHashCode(self);
+                case "equals" -> self == args[0];
+                default -> throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            };
+        });
+    }
+}
@@ -0,0 +1,85 @@
+package com.cinema.benchmark;
+
+import com.cinema.exception.BusinessRuleViolationException;
+import com.cinema.metrics.BookingMetrics;
+import com.cinema.repository.SeatRepository;
+import com.cinema.service.impl.SeatMapServiceImpl;
+import com.cinema.service.impl.ShowtimeServiceImpl;
+import com.cinema.service.inventory.PendingTickets;
+import com.cinema.service.inventory.SeatBookingCoordinator;
+import com.cinema.service.inventory.SeatInventory;
+import com.cinema.service.inventory.SeatOccupancy;
+import com.cinema.service.tickets.DirectTicketWriter;
+import com.cinema.web.dto.SeatStatusDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * bookSeats and getSeatMapForShowtime on the real services, backed by in-memory
+ * repository stand-ins. Measures the in-process cost (inventory, CAS claims, DTO
+ * building) with the database taken out of the picture.
+ *
+ * Every successful booking is cancelled again straight away so the screen never
+ * sells out; under CENTRE contention most attempts are rejected while another
+ * thread holds the same two seats.
+ */
+@State(Scope.Benchmark)
+public class SeatInventoryBenchmark {
+
+    @Param({"50", "200", "800"})
+    public int seats;
+
+    @Param({"CENTRE", "RANDOM"})
+    public ContentionPattern pattern;
+
+    private ShowtimeServiceImpl showtimeService;
+    private SeatMapServiceImpl seatMapService;
+    private SeatOccupancy occupancy;
+    private Long showtimeId;
+    private List<Long>[] blocks;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        InMemoryRepositories repos = new InMemoryRepositories(seats);
+        SeatRepository seatRepo = repos.seatRepository();
+        SeatInventory inventory = new SeatInventory(seatRepo, repos.ticketRepository(), new PendingTickets(), repos.seatLayouts());
+
+        BookingMetrics metrics = new BookingMetrics(new SimpleMeterRegistry());
+        showtimeService = new ShowtimeServiceImpl(repos.showtimeRepository(), null,
+                new DirectTicketWriter(repos.ticketRepository()), inventory, new SeatBookingCoordinator(seatRepo, repos.seatLayouts()), metrics, null, null, null, null, null, null, new PendingTickets());
+        seatMapService = new SeatMapServiceImpl(inventory, metrics);
+
+        showtimeId = repos.showtime.getId();
+        occupancy = inventory.occupancy(repos.showtime);
+
+        // Request bodies are built up front, as Jackson would have done before the call
+        blocks = new List[seats - 1];
+        for (int p = 0; p < seats - 1; p++) {
+            blocks[p] = List.of(occupancy.getLayout().seatIdAt(p), occupancy.getLayout().seatIdAt(p + 1));
+        }
+    }
+
+    @Benchmark
+    public boolean bookSeats() {
+        int p = pattern.pickBlock(seats);
+        try {
+            showtimeService.bookSeats(showtimeId, blocks[p]);
+        } catch (BusinessRuleViolationException rejected) {
+            return false;
+        }
+        occupancy.cancel(new int[]{p, p + 1});
+        return true;
+    }
+
+    @Benchmark
+    public List<SeatStatusDto> seatMap() {
+        return seatMapService.getSeatMapForShowtime(showtimeId);
+    }
+}
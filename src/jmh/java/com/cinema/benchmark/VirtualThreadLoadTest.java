@@ -0,0 +1,248 @@
+package com.cinema.benchmark;
+
+import com.cinema.CinemaBookingApplication;
+import com.cinema.entity.Cinema;
+import com.cinema.entity.Showtime;
+import com.cinema.repository.CinemaRepository;
+import com.cinema.repository.ShowtimeRepository;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closed-loop HTTP load test of the whole app on an embedded H2 database, once with
+ * Tomcat's platform-thread pool and once with virtual threads (Java 21+ only).
+ *
+ * Half the requests book one best-available seat (a transaction holding a connection,
+ * with {@code -l} ms of simulated database latency at commit); the other half read a
+ * showtime that is in the read cache and need no connection at all. Up to {@code -c}
+ * requests are in flight at any time.
+ *
+ * Arguments (all optional):
+ *   -c 10000              requests in flight (client and server run in this process, so
+ *                         allow about two file descriptors per request: ulimit -n)
+ *   -n 40000              requests per mode
+ *   -l 5                  simulated database latency per transaction, ms
+ *   -m platform,virtual   modes to run
+ */
+public final class VirtualThreadLoadTest {
+
+    private static final int SEATS_PER_SHOWTIME = 50; // the default seat-layout template
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = 10_000;
+        int requests = 40_000;
+        long latencyMs = 5;
+        List<String> modes = List.of("platform", "virtual");
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-c" -> concurrency = Integer.parseInt(args[++i]);
+                case "-n" -> requests = Integer.parseInt(args[++i]);
+                case "-l" -> latencyMs = Long.parseLong(args[++i]);
+                case "-m" -> modes = List.of(args[++i].split(","));
+                default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        List<String> report = new ArrayList<>();
+        report.add(String.format("%-9s %9s %8s %10s %10s %10s %10s %9s",
+                "mode", "req/s", "errors", "book p50", "book p99", "read p50", "read p99", "in flight"));
+        for (String mode : modes) {
+            boolean virtual = mode.equals("virtual");
+            if (virtual && Runtime.version().feature() < 21) {
+                report.add(String.format("%-9s skipped: needs Java 21 (running %s)", mode, Runtime.version()));
+                continue;
+            }
+            report.add(run(virtual, concurrency, requests, latencyMs).format(mode));
+        }
+        System.out.println();
+        System.out.printf("%d requests per mode, %d ms simulated DB latency, 50%% bookings / 50%% cached reads%n",
+                requests, latencyMs);
+        report.forEach(System.out::println);
+    }
+
+    private static Result run(boolean virtual, int concurrency, int requests, long latencyMs) throws Exception {
+        Map<String, Object> props = new HashMap<>();
+        props.put("server.port", 0);
+        props.put("spring.datasource.url", "jdbc:h2:mem:load-" + (virtual ? "virtual" : "platform")
+                + ";MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE");
+        props.put("spring.datasource.username", "sa");
+        props.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        props.put("spring.threads.virtual.enabled", virtual);
+        props.put("server.tomcat.max-connections", concurrency + 1000);
+        props.put("server.tomcat.accept-count", concurrency);
+        props.put("cinema.inventory.snapshot.enabled", false);
+        // Queueing is what is being measured here, so nobody gives up waiting
+        props.put("cinema.db.bulkhead.max-wait", "PT5M");
+        props.put("spring.main.banner-mode", "off");
+        props.put("logging.level.root", "WARN");
+
+        // As command-line arguments: default properties would lose to cinema-defaults.properties
+        String[] appArgs = props.entrySet().stream().map(e -> "--" + e.getKey() + "=" + e.getValue())
+                .toArray(String[]::new);
+        ConfigurableApplicationContext ctx = new SpringApplicationBuilder(CinemaBookingApplication.class)
+                .initializers(c -> c.getBeanFactory().addBeanPostProcessor(new DbLatency(latencyMs)))
+                .run(appArgs);
+        try {
+            int port = ((WebServerApplicationContext) ctx).getWebServer().getPort();
+            List<Long> showtimes = seed(ctx, requests / 2 / SEATS_PER_SHOWTIME + 1);
+            Load load = new Load("http://localhost:" + port, showtimes);
+
+            load.run(Math.min(concurrency, 200), Math.min(requests, 4000)); // JIT warm-up, fills the read cache
+            load.resetShowtimes(seed(ctx, requests / 2 / SEATS_PER_SHOWTIME + 1));
+            return load.run(concurrency, requests);
+        } finally {
+            ctx.close();
+        }
+    }
+
+    private static List<Long> seed(ConfigurableApplicationContext ctx, int count) {
+        Cinema cinema = new Cinema();
+        cinema.setName("Load " + System.nanoTime());
+        cinema.setAddressLine("1 Load St");
+        cinema.setCity("Bench");
+        cinema.setTotalScreens(1);
+        cinema = ctx.getBean(CinemaRepository.class).save(cinema);
+        ShowtimeRepository showtimeRepo = ctx.getBean(ShowtimeRepository.class);
+        List<Showtime> showtimes = new ArrayList<>(count);
+        LocalDateTime start = LocalDateTime.of(2040, 1, 1, 10, 0);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime from = start.plusHours(3L * i);
+            showtimes.add(new Showtime("Load " + i, 1, from, from.plusHours(2), 10.0, "EN", "2D", cinema));
+        }
+        return showtimeRepo.saveAll(showtimes).stream().map(Showtime::getId).toList();
+    }
+
+    private static final class Load {
+        private final String base;
+        private final HttpClient client;
+        private List<Long> showtimes;
+
+        Load(String base, List<Long> showtimes) {
+            this.base = base;
+            this.showtimes = showtimes;
+            ExecutorService callbacks = Executors.newFixedThreadPool(4, r -> {
+                Thread t = new Thread(r, "load-client");
+                t.setDaemon(true);
+                return t;
+            });
+            this.client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .executor(callbacks)
+                    .build();
+        }
+
+        void resetShowtimes(List<Long> showtimes) {
+            this.showtimes = showtimes;
+        }
+
+        Result run(int concurrency, int requests) throws InterruptedException {
+            long[] bookNanos = new long[requests];
+            long[] readNanos = new long[requests];
+            AtomicInteger errors = new AtomicInteger();
+            AtomicInteger maxInFlight = new AtomicInteger();
+            AtomicInteger inFlight = new AtomicInteger();
+            Semaphore slots = new Semaphore(concurrency);
+
+            long began = System.nanoTime();
+            for (int i = 0; i < requests; i++) {
+                slots.acquire();
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                boolean book = (i & 1) == 0;
+                Long showtimeId = showtimes.get((i / 2) % showtimes.size());
+                HttpRequest request = book
+                        ? HttpRequest.newBuilder(URI.create(base + "/api/showtimes/" + showtimeId + "/tickets/best-available"))
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString("{\"count\": 1}"))
+                                .build()
+                        : HttpRequest.newBuilder(URI.create(base + "/api/showtimes/" + showtimeId)).GET().build();
+                int index = i;
+                long sent = System.nanoTime();
+                client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, ex) -> {
+                    long nanos = System.nanoTime() - sent;
+                    (book ? bookNanos : readNanos)[index] = nanos;
+                    if (ex != null || response.statusCode() >= 400) {
+                        errors.incrementAndGet();
+                    }
+                    inFlight.decrementAndGet();
+                    slots.release();
+                });
+            }
+            slots.acquire(concurrency);
+            long elapsed = System.nanoTime() - began;
+            return new Result(requests * 1e9 / elapsed, errors.get(), maxInFlight.get(),
+                    nonZero(bookNanos), nonZero(readNanos));
+        }
+
+        private static long[] nonZero(long[] nanos) {
+            return Arrays.stream(nanos).filter(n -> n > 0).sorted().toArray();
+        }
+    }
+
+    private record Result(double throughput, int errors, int maxInFlight, long[] bookNanos, long[] readNanos) {
+
+        String format(String mode) {
+            return String.format("%-9s %9.0f %8d %8.1fms %8.1fms %8.1fms %8.1fms %9d",
+                    mode, throughput, errors,
+                    percentile(bookNanos, 0.50), percentile(bookNanos, 0.99),
+                    percentile(readNanos, 0.50), percentile(readNanos, 0.99), maxInFlight);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) return Double.NaN;
+            return sorted[Math.min(sorted.length - 1, (int) (p * sorted.length))] / 1e6;
+        }
+    }
+
+    /** Stands in for network and disk time: every commit takes {@code latencyMs} longer. */
+    private record DbLatency(long latencyMs) implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource ds) || !beanName.equals("dataSource")) {
+                return bean;
+            }
+            return new DelegatingDataSource(ds) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    Connection target = super.getConnection();
+                    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                            new Class<?>[]{Connection.class}, (proxy, method, margs) -> {
+                                if (method.getName().equals("commit")) {
+                                    Thread.sleep(latencyMs);
+                                }
+                                try {
+                                    return method.invoke(target, margs);
+                                } catch (InvocationTargetException e) {
+                                    throw e.getCause();
+                                }
+                            });
+                }
+            };
+        }
+    }
+}
@@ -2,8 +2,10 @@ package com.cinema;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.PropertySource;
 
 @SpringBootApplication
+@PropertySource("classpath:cinema-defaults.properties")
 public class CinemaBookingApplication {
     public static void main(String[] args) {
         SpringApplication.run(CinemaBookingApplication.class, args);
@@ -0,0 +1,82 @@
+package com.cinema.bootstrap;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.metamodel.EntityType;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Field;
+
+/**
+ * Moves each pooled id sequence ({@code showtime_seq}, {@code ticket_seq}, {@code seat_seq})
+ * past its table's {@code MAX(id)} at startup, before anything is inserted. {@code ddl-auto=update}
+ * creates them starting at 1, so on a database that already has rows the first pooled block
+ * would reuse existing ids. A sequence that is already far enough along is left as it is.
+ */
+@Component
+public class IdSequences implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequences.class);
+
+    // Column of Hibernate's table-backed sequence emulation (MySQL)
+    private static final String TABLE_VALUE_COLUMN = "next_val";
+
+    private final EntityManagerFactory emf;
+    private final JdbcTemplate jdbc;
+
+    public IdSequences(EntityManagerFactory emf, JdbcTemplate jdbc) {
+        this.emf = emf;
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        seed();
+    }
+
+    /** Raises every entity id sequence so its next pooled block starts above the table's ids. */
+    public void seed() {
+        Dialect dialect = emf.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        for (EntityType<?> entity : emf.getMetamodel().getEntities()) {
+            Class<?> type = entity.getJavaType();
+            Table table = type.getAnnotation(Table.class);
+            for (Field field : type.getDeclaredFields()) {
+                SequenceGenerator generator = field.getAnnotation(SequenceGenerator.class);
+                if (generator != null && table != null) {
+                    seed(dialect, generator, table.name(), field.getName());
+                }
+            }
+        }
+    }
+
+    private void seed(Dialect dialect, SequenceGenerator generator, String table, String idColumn) {
+        String sequence = generator.sequenceName();
+        long maxId = jdbc.queryForObject("SELECT COALESCE(MAX(" + idColumn + "), 0) FROM " + table, Long.class);
+        // A pooled block hands out (value - allocationSize, value], so the next value must be at
+        // least MAX(id) + allocationSize for the whole block to be unused
+        long target = maxId + generator.allocationSize();
+        if (dialect.getSequenceSupport().supportsSequences()) {
+            // Reading the next value uses one up; that only skips a block
+            long next = jdbc.queryForObject(
+                    dialect.getSequenceSupport().getSequenceNextValString(sequence), Long.class);
+            if (next >= target) {
+                return;
+            }
+            jdbc.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + target);
+        } else {
+            int raised = jdbc.update("UPDATE " + sequence + " SET " + TABLE_VALUE_COLUMN + " = ? WHERE "
+                    + TABLE_VALUE_COLUMN + " < ?", target, target);
+            if (raised == 0) {
+                return;
+            }
+        }
+        log.info("Raised {} to {} (MAX(id) of {} is {})", sequence, target, table, maxId);
+    }
+}
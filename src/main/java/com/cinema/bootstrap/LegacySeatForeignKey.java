@@ -0,0 +1,69 @@
+package com.cinema.bootstrap;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drops the {@code tickets.seat_id -> seats.id} foreign key at startup. Tickets of template
+ * screens store seat-layout keys that are not {@code seats} rows, and {@code ddl-auto=update}
+ * never drops a constraint, so databases created before templates would refuse those bookings.
+ */
+@Component
+public class LegacySeatForeignKey implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(LegacySeatForeignKey.class);
+
+    private final EntityManagerFactory emf;
+    private final JdbcTemplate jdbc;
+
+    public LegacySeatForeignKey(EntityManagerFactory emf, JdbcTemplate jdbc) {
+        this.emf = emf;
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        drop();
+    }
+
+    /** Drops every foreign key from {@code tickets.seat_id} to {@code seats}; returns how many there were. */
+    public int drop() {
+        Dialect dialect = emf.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        List<String> names = jdbc.execute((ConnectionCallback<List<String>>) con -> {
+            DatabaseMetaData meta = con.getMetaData();
+            List<String> found = new ArrayList<>();
+            try (ResultSet keys = meta.getImportedKeys(con.getCatalog(), con.getSchema(), table(meta, "tickets"))) {
+                while (keys.next()) {
+                    if ("seat_id".equalsIgnoreCase(keys.getString("FKCOLUMN_NAME"))
+                            && "seats".equalsIgnoreCase(keys.getString("PKTABLE_NAME"))) {
+                        found.add(keys.getString("FK_NAME"));
+                    }
+                }
+            }
+            return found;
+        });
+        for (String name : names) {
+            jdbc.execute("alter table tickets " + dialect.getDropForeignKeyString() + " " + name);
+            log.info("Dropped foreign key {} from tickets.seat_id to seats", name);
+        }
+        return names.size();
+    }
+
+    // Metadata lookups match the stored case of the name
+    private static String table(DatabaseMetaData meta, String name) throws SQLException {
+        return meta.storesUpperCaseIdentifiers() ? name.toUpperCase() : name;
+    }
+}
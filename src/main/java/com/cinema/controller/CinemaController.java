@@ -1,6 +1,7 @@
 package com.cinema.controller;
 
 import com.cinema.entity.Cinema;
+import com.cinema.repository.projection.CinemaSummary;
 import com.cinema.service.CinemaService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -20,9 +21,20 @@ public class CinemaController {
         this.cinemaService = cinemaService;
     }
 
+    /** The cinema list: one summary row per cinema, without showtimes. */
     @GetMapping
-    public List<Cinema> getAllCinemas() {
-        return cinemaService.getAllCinemas();
+    public List<CinemaSummary> getAllCinemas() {
+        return cinemaService.getCinemaSummaries();
+    }
+
+    /**
+     * Full cinemas with their showtimes, keyset-paged by id: ?size= (max 50) and ?cursor= from
+     * the X-Next-Cursor header of the previous page, as on the showtime listings.
+     */
+    @GetMapping(params = "expand=showtimes")
+    public ResponseEntity<List<Cinema>> getCinemasWithShowtimes(@RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) Integer size) {
+        return PagedResponses.of(cinemaService.getCinemasWithShowtimes(cursor, size));
     }
 
     @PostMapping
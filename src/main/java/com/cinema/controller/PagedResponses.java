@@ -0,0 +1,31 @@
+package com.cinema.controller;
+
+import com.cinema.service.paging.KeysetPage;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+
+/** Response shape shared by the keyset-paged list endpoints. */
+final class PagedResponses {
+
+    /** Response header carrying the cursor of the next page; absent on the last page. */
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private PagedResponses() {
+    }
+
+    /** List body plus X-Next-Cursor and a Link rel="next" header when there is another page. */
+    static <T> ResponseEntity<List<T>> of(KeysetPage<T> page) {
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (page.hasNext()) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("cursor", page.nextCursor())
+                    .toUriString();
+            ok.header(NEXT_CURSOR_HEADER, page.nextCursor())
+              .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return ok.body(page.items());
+    }
+}
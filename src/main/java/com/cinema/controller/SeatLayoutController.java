@@ -0,0 +1,79 @@
+package com.cinema.controller;
+
+import com.cinema.entity.SeatCategory;
+import com.cinema.entity.SeatLayoutRow;
+import com.cinema.entity.SeatLayoutTemplate;
+import com.cinema.exception.BusinessRuleViolationException;
+import com.cinema.service.SeatLayoutService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/seat-layouts")
+public class SeatLayoutController {
+
+    private final SeatLayoutService service;
+
+    public SeatLayoutController(SeatLayoutService service) {
+        this.service = service;
+    }
+
+    @GetMapping
+    public List<SeatLayoutTemplate> getAll() {
+        return service.findAll();
+    }
+
+    @GetMapping("/{id}")
+    public SeatLayoutTemplate get(@PathVariable Long id) {
+        return service.get(id);
+    }
+
+    @PostMapping
+    public ResponseEntity<SeatLayoutTemplate> create(@RequestBody SeatLayoutRequest req) {
+        if (req.rows == null) {
+            throw new BusinessRuleViolationException("rows are required");
+        }
+        List<SeatLayoutRow> rows = new ArrayList<>(req.rows.size());
+        for (RowRequest r : req.rows) {
+            String aisles = r.aislesAfter == null ? null
+                    : r.aislesAfter.stream().map(String::valueOf).collect(Collectors.joining(","));
+            rows.add(new SeatLayoutRow(r.label, r.seats, aisles, r.category));
+        }
+        SeatLayoutTemplate saved = service.create(req.name, rows);
+        return ResponseEntity.created(URI.create("/api/seat-layouts/" + saved.getId())).body(saved);
+    }
+
+    /** Lays out a screen by this template. */
+    @PutMapping("/{id}/screens")
+    public ResponseEntity<Void> assign(@PathVariable Long id, @RequestBody ScreenRequest req) {
+        if (req.cinemaId == null) {
+            throw new BusinessRuleViolationException("cinemaId is required");
+        }
+        service.assign(req.cinemaId, req.screenNumber, id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /** Request body for POST / */
+    public static class SeatLayoutRequest {
+        public String name;
+        public List<RowRequest> rows;
+    }
+
+    public static class RowRequest {
+        public String label;
+        public int seats;
+        public List<Integer> aislesAfter;
+        public SeatCategory category;
+    }
+
+    /** Request body for PUT /{id}/screens */
+    public static class ScreenRequest {
+        public Long cinemaId;
+        public int screenNumber;
+    }
+}
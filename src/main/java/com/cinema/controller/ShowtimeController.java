@@ -1,16 +1,38 @@
 package com.cinema.controller;
 
 import com.cinema.entity.Cinema;
+import com.cinema.entity.SeatCategory;
 import com.cinema.entity.Showtime;
 import com.cinema.entity.Ticket;
 import com.cinema.exception.ResourceNotFoundException;
+import com.cinema.service.SeatHoldService;
 import com.cinema.service.SeatMapService;
+import com.cinema.service.ShowtimeImportService;
 import com.cinema.service.ShowtimeService;
+import com.cinema.service.idempotency.IdempotencyStore;
+import com.cinema.service.inventory.SeatHold;
+import com.cinema.service.seatfeed.SeatMapBroadcaster;
+import com.cinema.web.ShowtimeCsvReader;
+import com.cinema.web.dto.BookedSeatsDto;
+import com.cinema.web.dto.SeatHoldDto;
+import com.cinema.web.dto.ShowtimeImportReport;
 import com.cinema.web.dto.SeatStatusDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -26,20 +48,83 @@ import java.util.Optional;
 @RequestMapping("/api/showtimes")
 public class ShowtimeController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int STREAM_FLUSH_EVERY = 256;
+    /** Optional booking request header; retries with the same key get the first outcome back. */
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    /** Set to "true" on a response replayed for an Idempotency-Key. */
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final ShowtimeService service;
     private final SeatMapService seatMapService;
-
-    public ShowtimeController(ShowtimeService service, SeatMapService seatMapService) {
+    private final SeatHoldService seatHoldService;
+    private final ShowtimeImportService importService;
+    private final SeatMapBroadcaster seatMapBroadcaster;
+    private final IdempotencyStore idempotency;
+    private final ObjectMapper objectMapper;
+
+    public ShowtimeController(ShowtimeService service,
+                              SeatMapService seatMapService,
+                              SeatHoldService seatHoldService,
+                              ShowtimeImportService importService,
+                              SeatMapBroadcaster seatMapBroadcaster,
+                              IdempotencyStore idempotency,
+                              ObjectMapper objectMapper) {
         this.service = service;
         this.seatMapService = seatMapService;
+        this.seatHoldService = seatHoldService;
+        this.importService = importService;
+        this.seatMapBroadcaster = seatMapBroadcaster;
+        this.idempotency = idempotency;
+        this.objectMapper = objectMapper;
     }
 
     // ========== LIST / GET ==========
 
+    /*
+     * List endpoints are keyset-paged over (startTime, id): pass ?size= (max 500, default 100)
+     * and the X-Next-Cursor header of the previous response as ?cursor= to get the next page.
+     */
+
     /** Allow GET /api/showtimes (needed by the frontend table) */
     @GetMapping
-    public List<Showtime> getAll() {
-        return service.findAll();
+    public ResponseEntity<List<Showtime>> getAll(@RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer size) {
+        return PagedResponses.of(service.findAll(cursor, size));
+    }
+
+    /**
+     * Streaming variant of GET /api/showtimes, one JSON object per line (NDJSON).
+     * Selected with {@code Accept: application/x-ndjson} or {@code ?stream=ndjson};
+     * rows are written as they are read from a DB cursor instead of being collected first.
+     */
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        ObjectWriter writer = objectMapper.writerFor(Showtime.class)
+                .withRootValueSeparator("")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator gen = writer.createGenerator(out)) {
+                int[] written = {0};
+                service.streamAll(s -> {
+                    try {
+                        writer.writeValue(gen, s);
+                        gen.writeRaw('\n');
+                        if (++written[0] % STREAM_FLUSH_EVERY == 0) {
+                            gen.flush(); // push a chunk to the client
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    @GetMapping(params = "stream=ndjson")
+    public ResponseEntity<StreamingResponseBody> streamAllByParam() {
+        return streamAll();
     }
 
     @GetMapping("/{id}")
@@ -49,42 +134,69 @@ public class ShowtimeController {
                 .orElseThrow(() -> new ResourceNotFoundException("Showtime not found"));
     }
 
-    /** Seat map for a given showtime */
+    /**
+     * Seat map for a given showtime, with a strong ETag naming the version of its seat
+     * state. A matching {@code If-None-Match} gets a 304 straight from the in-memory
+     * inventory, without building the map or querying the database.
+     */
     @GetMapping("/{id}/seats")
-    public List<SeatStatusDto> getSeatMap(@PathVariable Long id) {
-        return seatMapService.getSeatMapForShowtime(id);
+    public ResponseEntity<List<SeatStatusDto>> getSeatMap(@PathVariable Long id, WebRequest request) {
+        String current = seatMapService.currentTag(id);
+        if (current != null && request.checkNotModified(current)) {
+            return null; // 304, headers already set
+        }
+        SeatMapService.SeatMap map = seatMapService.getSeatMap(id);
+        return ResponseEntity.ok().eTag(map.tag()).body(map.seats());
+    }
+
+    /**
+     * Live seat map as Server-Sent Events: a {@code snapshot} event with the full map,
+     * then {@code delta} events with the seats that changed. A client that falls behind
+     * gets another {@code snapshot}.
+     */
+    @GetMapping(value = "/{id}/seats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSeatMap(@PathVariable Long id) {
+        return seatMapBroadcaster.subscribe(id);
     }
 
     @GetMapping("/by-cinema/{cinemaId}")
-    public List<Showtime> byCinema(@PathVariable Long cinemaId) {
-        return service.findByCinema(cinemaId);
+    public ResponseEntity<List<Showtime>> byCinema(@PathVariable Long cinemaId,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(required = false) Integer size) {
+        return PagedResponses.of(service.findByCinema(cinemaId, cursor, size));
     }
 
     // accept q OR movieTitle OR query
     @GetMapping("/search")
-    public List<Showtime> search(@RequestParam(required = false, name = "q") String q,
-                                 @RequestParam(required = false, name = "movieTitle") String movieTitle,
-                                 @RequestParam(required = false, name = "query") String query) {
+    public ResponseEntity<List<Showtime>> search(@RequestParam(required = false, name = "q") String q,
+                                                 @RequestParam(required = false, name = "movieTitle") String movieTitle,
+                                                 @RequestParam(required = false, name = "query") String query,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer size) {
         String term = q != null ? q : (movieTitle != null ? movieTitle : query);
         if (term == null) term = "";
-        return service.searchByTitle(term);
+        return PagedResponses.of(service.searchByTitle(term, cursor, size));
     }
 
     @GetMapping("/window")
-    public List<Showtime> window(@RequestParam Long cinemaId,
-                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
-                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
-        return service.findInWindow(cinemaId, from, to);
+    public ResponseEntity<List<Showtime>> window(@RequestParam Long cinemaId,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer size) {
+        return PagedResponses.of(service.findInWindow(cinemaId, from, to, cursor, size));
     }
 
     @GetMapping("/filter")
-    public List<Showtime> filter(
+    public ResponseEntity<List<Showtime>> filter(
             @RequestParam(required = false) String q,
             @RequestParam(required = false) Long cinemaId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
     ) {
-        return service.filter(q, cinemaId, from, to);
+        return PagedResponses.of(service.filter(q, cinemaId, from, to, cursor, size));
     }
 
     // ========== CREATE ==========
@@ -130,6 +242,28 @@ public class ShowtimeController {
                 .body(saved);
     }
 
+    /**
+     * Bulk create from a JSON array of {@link ShowtimeRequest}s. Valid rows are saved,
+     * rejected ones come back in the report with their 1-based position.
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ShowtimeImportReport> importJson(@RequestBody List<ShowtimeRequest> rows) {
+        return ResponseEntity.ok(importService.importShowtimes(
+                rows.stream().map(r -> r == null ? null : toEntity(r)).toList()));
+    }
+
+    /**
+     * Bulk create from CSV with a header line; see {@link ShowtimeCsvReader} for the columns.
+     * Rejected rows are reported by their line number in the file.
+     */
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<ShowtimeImportReport> importCsv(InputStream body) throws IOException {
+        List<ShowtimeCsvReader.Line> lines = ShowtimeCsvReader.read(body);
+        return ResponseEntity.ok(importService.importShowtimes(
+                lines.stream().map(l -> toEntity(l.request())).toList(),
+                lines.stream().map(ShowtimeCsvReader.Line::number).toList()));
+    }
+
     // ========== UPDATE / DELETE ==========
 
     @PutMapping("/{id}")
@@ -146,16 +280,88 @@ public class ShowtimeController {
 
     // ========== BOOKING ==========
 
+    /*
+     * Both booking endpoints take an optional Idempotency-Key header. A retry with the same
+     * key and body gets the original response (marked Idempotent-Replayed: true) without
+     * booking again; the same key with a different body is a 422, and a retry while the
+     * first request is still running a 409.
+     */
+
     @PostMapping("/{id}/tickets")
     public ResponseEntity<Void> bookSeats(@PathVariable Long id,
-                                          @RequestBody BookSeatsRequest request) {
-        service.bookSeats(id, request.seatIds);
+                                          @RequestBody BookSeatsRequest request,
+                                          @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String key) {
+        if (key == null) {
+            service.bookSeats(id, request.seatIds);
+            return ResponseEntity.noContent().build();
+        }
+        IdempotencyStore.Outcome outcome = idempotency.execute(key, "tickets " + id + " " + request.seatIds, 0, () -> {
+            service.bookSeats(id, request.seatIds);
+            return List.of(); // the response has no body, so there is nothing to replay
+        });
+        return ResponseEntity.noContent().headers(replayed(outcome)).build();
+    }
+
+    /** Books the best free block of {@code count} adjacent seats and says which seats they are. */
+    @PostMapping("/{id}/tickets/best-available")
+    public ResponseEntity<BookedSeatsDto> bookBestAvailable(@PathVariable Long id,
+                                                            @RequestBody BestAvailableRequest request,
+                                                            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String key) {
+        if (key == null) {
+            List<Long> seatIds = service.bookBestAvailable(id, request.count, request.category);
+            return ResponseEntity.ok(new BookedSeatsDto(id, seatIds));
+        }
+        IdempotencyStore.Outcome outcome = idempotency.execute(key,
+                "best-available " + id + " " + request.count + " " + request.category, request.count,
+                () -> service.bookBestAvailable(id, request.count, request.category));
+        return ResponseEntity.ok().headers(replayed(outcome)).body(new BookedSeatsDto(id, outcome.seatIds()));
+    }
+
+    // ========== HOLDS ==========
+
+    /** Temporarily reserve seats while the customer pays; expires automatically. */
+    @PostMapping("/{id}/holds")
+    public ResponseEntity<SeatHoldDto> holdSeats(@PathVariable Long id,
+                                                 @RequestBody BookSeatsRequest request) {
+        SeatHold hold = seatHoldService.hold(id, request.seatIds);
+        return ResponseEntity
+                .created(URI.create("/api/showtimes/" + id + "/holds/" + hold.getId()))
+                .body(new SeatHoldDto(hold.getId(), id, hold.getSeatIds(), hold.getExpiresAt()));
+    }
+
+    @PostMapping("/{id}/holds/best-available")
+    public ResponseEntity<SeatHoldDto> holdBestAvailable(@PathVariable Long id,
+                                                         @RequestBody BestAvailableRequest request) {
+        SeatHold hold = seatHoldService.holdBestAvailable(id, request.count, request.category);
+        return ResponseEntity
+                .created(URI.create("/api/showtimes/" + id + "/holds/" + hold.getId()))
+                .body(new SeatHoldDto(hold.getId(), id, hold.getSeatIds(), hold.getExpiresAt()));
+    }
+
+    @PostMapping("/{id}/holds/{holdId}/confirm")
+    public ResponseEntity<Void> confirmHold(@PathVariable Long id, @PathVariable String holdId) {
+        seatHoldService.confirm(id, holdId);
         return ResponseEntity.noContent().build();
     }
 
+    @DeleteMapping("/{id}/holds/{holdId}")
+    public ResponseEntity<Void> releaseHold(@PathVariable Long id, @PathVariable String holdId) {
+        boolean released = seatHoldService.release(id, holdId);
+        return released ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
 
     // ========== Mapping helpers / DTOs ==========
 
+    private static HttpHeaders replayed(IdempotencyStore.Outcome outcome) {
+        HttpHeaders headers = new HttpHeaders();
+        if (outcome.replayed()) {
+            headers.set(IDEMPOTENT_REPLAYED_HEADER, "true");
+        }
+        return headers;
+    }
+
     private Showtime toEntity(ShowtimeRequest r) {
         Showtime s = new Showtime();
         s.setMovieTitle(r.movieTitle);
@@ -192,8 +398,14 @@ public class ShowtimeController {
         public LocalDateTime endTime;
     }
 
-    /** Request body for booking seats */
+    /** Request body for booking or holding seats */
     public static class BookSeatsRequest {
         public List<Long> seatIds;
     }
+
+    /** Request body for best-available booking or holding; category is optional */
+    public static class BestAvailableRequest {
+        public int count;
+        public SeatCategory category;
+    }
 }
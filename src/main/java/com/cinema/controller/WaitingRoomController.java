@@ -0,0 +1,64 @@
+package com.cinema.controller;
+
+import com.cinema.exception.ResourceNotFoundException;
+import com.cinema.service.ShowtimeService;
+import com.cinema.service.admission.WaitingRoom;
+import com.cinema.web.AdmissionInterceptor;
+import com.cinema.web.dto.QueueStatusDto;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Waiting room of a showtime going on sale. Operators open and close it; clients join
+ * the queue, poll their position, and send the token as {@code X-Queue-Token} on
+ * booking, hold and seat-map requests once admitted.
+ */
+@RestController
+@RequestMapping("/api/showtimes/{id}")
+public class WaitingRoomController {
+
+    private final WaitingRoom waitingRoom;
+    private final ShowtimeService showtimeService;
+
+    public WaitingRoomController(WaitingRoom waitingRoom, ShowtimeService showtimeService) {
+        this.waitingRoom = waitingRoom;
+        this.showtimeService = showtimeService;
+    }
+
+    /** Opens the room; {@code rate} is the starting number of admissions per second. */
+    @PutMapping("/waiting-room")
+    public ResponseEntity<Void> open(@PathVariable Long id, @RequestParam(required = false) Double rate) {
+        showtimeService.findById(id).orElseThrow(() -> new ResourceNotFoundException("Showtime not found: " + id));
+        waitingRoom.open(id, rate);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/waiting-room")
+    public ResponseEntity<Void> close(@PathVariable Long id) {
+        return waitingRoom.close(id) ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    /** Takes a place in the queue. Without an open room the caller is admitted at once, with no token. */
+    @PostMapping("/queue")
+    public ResponseEntity<QueueStatusDto> join(@PathVariable Long id) {
+        return respond(HttpStatus.CREATED, id, waitingRoom.join(id));
+    }
+
+    /** Position of a token; in memory only, so clients may poll it every {@code Retry-After} seconds. */
+    @GetMapping("/queue")
+    public ResponseEntity<QueueStatusDto> status(@PathVariable Long id,
+                                                 @RequestHeader(AdmissionInterceptor.QUEUE_TOKEN_HEADER) String token) {
+        return respond(HttpStatus.OK, id, waitingRoom.status(id, token));
+    }
+
+    private static ResponseEntity<QueueStatusDto> respond(HttpStatus status, Long id, WaitingRoom.Status s) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(status);
+        if (s.retryAfterSeconds() > 0) {
+            response.header(HttpHeaders.RETRY_AFTER, String.valueOf(s.retryAfterSeconds()));
+        }
+        return response.body(new QueueStatusDto(id, s.token(), s.position(), s.admitted(), s.retryAfterSeconds()));
+    }
+}
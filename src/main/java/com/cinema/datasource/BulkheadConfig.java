@@ -0,0 +1,56 @@
+package com.cinema.datasource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Wraps the application DataSource in a {@link BulkheadDataSource} sized like the
+ * connection pool ({@code cinema.db.bulkhead.permits}, default: the Hikari pool size).
+ * On when {@code cinema.db.bulkhead.enabled} is, which defaults to {@code spring.threads.virtual.enabled}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "cinema.db.bulkhead.enabled", havingValue = "true")
+public class BulkheadConfig {
+
+    @Bean
+    static BeanPostProcessor bulkheadDataSourcePostProcessor(Environment env) {
+        int poolSize = env.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+        int permits = env.getProperty("cinema.db.bulkhead.permits", Integer.class, poolSize);
+        Duration maxWait = env.getProperty("cinema.db.bulkhead.max-wait", Duration.class, Duration.ofSeconds(5));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource ds && !(bean instanceof BulkheadDataSource) && beanName.equals("dataSource")) {
+                    return new BulkheadDataSource(ds, permits, maxWait);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    MeterBinder bulkheadMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof BulkheadDataSource bulkhead) {
+                Gauge.builder("cinema.db.bulkhead.waiting", bulkhead, BulkheadDataSource::getWaiting)
+                        .description("Callers waiting for a database connection permit")
+                        .register(registry);
+                Gauge.builder("cinema.db.bulkhead.in-use", bulkhead, BulkheadDataSource::getInUse)
+                        .description("Database connection permits held")
+                        .register(registry);
+                FunctionCounter.builder("cinema.db.bulkhead.rejected", bulkhead, BulkheadDataSource::getRejected)
+                        .description("Callers that gave up waiting for a database connection")
+                        .register(registry);
+            }
+        };
+    }
+}
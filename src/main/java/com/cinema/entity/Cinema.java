@@ -1,11 +1,20 @@
 package com.cinema.entity;
 
 import jakarta.persistence.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
+import java.util.Locale;
+
 
 @Entity
-@Table(name = "cinema")
+@Table(
+        name = "cinema",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_cinema_normalized_name",
+                columnNames = "normalized_name"
+        )
+)
 public class Cinema {
 
     @Id
@@ -15,6 +24,11 @@ public class Cinema {
     @Column(nullable = false, length = 120)
     private String name;
 
+    // Lookup key derived from name (see normalizeName); nullable only so existing rows can be backfilled
+    @JsonIgnore
+    @Column(name = "normalized_name", length = 120)
+    private String normalizedName;
+
     @Column(name ="address_Line", nullable = false, length = 180)
     private String addressLine;
 
@@ -56,7 +70,9 @@ public class Cinema {
 
 
     // --- Relationships ---
+    // Initializing one cinema's showtimes loads those of up to a full expanded page at once
     @OneToMany(mappedBy = "cinema", cascade = CascadeType.ALL, orphanRemoval = true)
+    @org.hibernate.annotations.BatchSize(size = 50)
     @JsonManagedReference
     private java.util.List<Showtime> showtimes = new java.util.ArrayList<>();
 
@@ -89,7 +105,12 @@ public class Cinema {
     }
 
     public String getName() { return name; }
-    public void setName(String name) { this.name = name; }
+    public void setName(String name) {
+        this.name = name;
+        this.normalizedName = normalizeName(name);
+    }
+
+    public String getNormalizedName() { return normalizedName; }
 
     public String getAddressLine() { return addressLine; }
     public void setAddressLine(String addressLine) { this.addressLine = addressLine; }
@@ -128,11 +149,36 @@ public class Cinema {
         java.time.OffsetDateTime now = java.time.OffsetDateTime.now();
         this.createdAt = now;
         this.updatedAt = now;
+        this.normalizedName = normalizeName(name);
     }
 
     @PreUpdate
     protected void onUpdate() {
         this.updatedAt = java.time.OffsetDateTime.now();
+        this.normalizedName = normalizeName(name);
+    }
+
+    /**
+     * Case- and spacing-insensitive form of a cinema name: trimmed, lower-cased and with
+     * runs of whitespace collapsed to one space. Single pass, no regex.
+     */
+    public static String normalizeName(String name) {
+        if (name == null) return null;
+        StringBuilder sb = new StringBuilder(name.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < name.length(); i++) {
+            char ch = name.charAt(i);
+            if (Character.isWhitespace(ch)) {
+                pendingSpace = sb.length() > 0;
+            } else {
+                if (pendingSpace) {
+                    sb.append(' ');
+                    pendingSpace = false;
+                }
+                sb.append(ch);
+            }
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
     }
 
     // --- Helpers for bidirectional relationship ---
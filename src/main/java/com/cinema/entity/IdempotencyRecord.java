@@ -0,0 +1,77 @@
+package com.cinema.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of a booking made with an {@code Idempotency-Key}, kept so retries of the
+ * same request get the same answer. Written in the booking's own transaction.
+ */
+@Entity
+@Table(
+        name = "idempotency_keys",
+        // purge of expired keys
+        indexes = @Index(name = "idx_idempotency_created_at", columnList = "created_at")
+)
+public class IdempotencyRecord implements Persistable<String> {
+
+    @Id
+    @Column(name = "idem_key", length = 64)
+    private String key;
+
+    // Fingerprint of the request the key was first used with
+    @Column(name = "request_hash", nullable = false)
+    private long requestHash;
+
+    // Seat ids the booking returned, 8 bytes each; empty when there is nothing to replay but the status
+    @Column(name = "seat_ids", nullable = false, length = 256)
+    private byte[] seatIds;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Keys are assigned by clients, so save() must insert without checking for an existing row first
+    @Transient
+    private boolean isNew;
+
+    protected IdempotencyRecord() {
+    }
+
+    public IdempotencyRecord(String key, long requestHash, byte[] seatIds, LocalDateTime createdAt) {
+        this.key = key;
+        this.requestHash = requestHash;
+        this.seatIds = seatIds;
+        this.createdAt = createdAt;
+        this.isNew = true;
+    }
+
+    @Override
+    public String getId() {
+        return key;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markStored() {
+        this.isNew = false;
+    }
+
+    public long getRequestHash() {
+        return requestHash;
+    }
+
+    public byte[] getSeatIds() {
+        return seatIds;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
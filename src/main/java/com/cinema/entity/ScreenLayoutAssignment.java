@@ -0,0 +1,61 @@
+package com.cinema.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Which {@link SeatLayoutTemplate} a screen uses. Screens without an assignment keep
+ * their own {@link Seat} rows if they have any, otherwise use the default template.
+ * No foreign key to cinemas: rows of a deleted cinema are never looked up again.
+ */
+@Entity
+@Table(
+        name = "screen_layouts",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_screen_layout_screen",
+                columnNames = {"cinema_id", "screen_number"}
+        )
+)
+public class ScreenLayoutAssignment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cinema_id", nullable = false)
+    private Long cinemaId;
+
+    @Column(name = "screen_number", nullable = false)
+    private int screenNumber;
+
+    @Column(name = "layout_id", nullable = false)
+    private Long layoutId;
+
+    protected ScreenLayoutAssignment() {
+    }
+
+    public ScreenLayoutAssignment(Long cinemaId, int screenNumber, Long layoutId) {
+        this.cinemaId = cinemaId;
+        this.screenNumber = screenNumber;
+        this.layoutId = layoutId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getCinemaId() {
+        return cinemaId;
+    }
+
+    public int getScreenNumber() {
+        return screenNumber;
+    }
+
+    public Long getLayoutId() {
+        return layoutId;
+    }
+
+    public void setLayoutId(Long layoutId) {
+        this.layoutId = layoutId;
+    }
+}
@@ -13,8 +13,10 @@ import java.time.LocalDateTime;
 )
 public class Seat {
 
+    // Pooled sequence so a screen's seats are inserted in batches (see Showtime)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seat_seq")
+    @SequenceGenerator(name = "seat_seq", sequenceName = "seat_seq", allocationSize = 50)
     private Long id;
 
     // Which cinema this seat belongs to
@@ -0,0 +1,8 @@
+package com.cinema.entity;
+
+/** Kind of seat in a {@link SeatLayoutTemplate} row. */
+public enum SeatCategory {
+    STANDARD,
+    PREMIUM,
+    ACCESSIBLE
+}
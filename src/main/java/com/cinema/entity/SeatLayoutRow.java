@@ -0,0 +1,48 @@
+package com.cinema.entity;
+
+import jakarta.persistence.*;
+
+/** One row of a {@link SeatLayoutTemplate}: seats are numbered 1..seats. */
+@Embeddable
+public class SeatLayoutRow {
+
+    @Column(name = "row_label", nullable = false, length = 5)
+    private String label;
+
+    @Column(nullable = false)
+    private int seats;
+
+    // Seat numbers followed by an aisle, comma separated (e.g. "4,12"); empty for none
+    @Column(name = "aisles_after", length = 200)
+    private String aislesAfter;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SeatCategory category = SeatCategory.STANDARD;
+
+    public SeatLayoutRow() {
+    }
+
+    public SeatLayoutRow(String label, int seats, String aislesAfter, SeatCategory category) {
+        this.label = label;
+        this.seats = seats;
+        this.aislesAfter = aislesAfter;
+        this.category = category;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public int getSeats() {
+        return seats;
+    }
+
+    public String getAislesAfter() {
+        return aislesAfter;
+    }
+
+    public SeatCategory getCategory() {
+        return category;
+    }
+}
@@ -0,0 +1,66 @@
+package com.cinema.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Named seating plan shared by any number of screens. Templates never change once
+ * stored: a seat is identified by (template id, position), so tickets stay valid.
+ * A different plan is a new template.
+ */
+@Entity
+@Immutable
+@Table(
+        name = "seat_layouts",
+        uniqueConstraints = @UniqueConstraint(name = "uk_seat_layout_name", columnNames = "name")
+)
+public class SeatLayoutTemplate {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "seat_layout_rows", joinColumns = @JoinColumn(name = "layout_id"))
+    @OrderColumn(name = "row_index")
+    private List<SeatLayoutRow> rows = new ArrayList<>();
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    protected SeatLayoutTemplate() {
+    }
+
+    public SeatLayoutTemplate(String name, List<SeatLayoutRow> rows) {
+        this.name = name;
+        this.rows = new ArrayList<>(rows);
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<SeatLayoutRow> getRows() {
+        return List.copyOf(rows);
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
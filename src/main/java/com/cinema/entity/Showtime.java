@@ -8,11 +8,23 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 
 
 @Entity
-@Table(name = "showtimes")
+@Table(
+        name = "showtimes",
+        indexes = {
+                // cinema listings, cinema + time window filters and keyset paging within a cinema
+                @Index(name = "idx_showtime_cinema_start", columnList = "cinema_id, start_time"),
+                // time-window filters and keyset paging across cinemas
+                @Index(name = "idx_showtime_start", columnList = "start_time"),
+                @Index(name = "idx_showtime_screen", columnList = "screen_number")
+        }
+)
 public class Showtime {
 
+    // Pooled sequence rather than IDENTITY so inserts can be JDBC-batched (bulk import);
+    // on MySQL Hibernate emulates the sequence with a showtime_seq table
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "showtime_seq")
+    @SequenceGenerator(name = "showtime_seq", sequenceName = "showtime_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 150)
@@ -7,14 +7,19 @@ import java.time.LocalDateTime;
 @Table(
         name = "tickets",
         uniqueConstraints = @UniqueConstraint(
-                name = "uk_ticket_showtime_seat",
+                name = Ticket.SEAT_UNIQUE_CONSTRAINT,
                 columnNames = {"showtime_id", "seat_id"}
         )
 )
 public class Ticket {
 
+    /** Unique (showtime_id, seat_id): a seat is sold at most once per showtime. */
+    public static final String SEAT_UNIQUE_CONSTRAINT = "uk_ticket_showtime_seat";
+
+    // Pooled sequence so a booking's tickets go out as one batched INSERT (see Showtime)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ticket_seq")
+    @SequenceGenerator(name = "ticket_seq", sequenceName = "ticket_seq", allocationSize = 50)
     private Long id;
 
     // Which showtime this ticket is for
@@ -22,10 +27,10 @@ public class Ticket {
     @JoinColumn(name = "showtime_id", nullable = false)
     private Showtime showtime;
 
-    // Which seat is booked
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "seat_id", nullable = false)
-    private Seat seat;
+    // Which seat is booked: a Seat row id, or a seat-layout key (layout id << 32 | position)
+    // for screens using a SeatLayoutTemplate, hence no foreign key
+    @Column(name = "seat_id", nullable = false)
+    private Long seatId;
 
     // Price actually paid – we can copy from showtime.ticketPrice when creating
     @Column(nullable = false)
@@ -37,15 +42,17 @@ public class Ticket {
     public Ticket() {
     }
 
-    public Ticket(Showtime showtime, Seat seat, double price) {
+    public Ticket(Showtime showtime, Long seatId, double price) {
         this.showtime = showtime;
-        this.seat = seat;
+        this.seatId = seatId;
         this.price = price;
     }
 
     @PrePersist
     protected void onCreate() {
-        this.bookedAt = LocalDateTime.now();
+        if (this.bookedAt == null) {
+            this.bookedAt = LocalDateTime.now(); // journaled bookings keep their original time
+        }
     }
 
     public Long getId() {
@@ -60,12 +67,12 @@ public class Ticket {
         this.showtime = showtime;
     }
 
-    public Seat getSeat() {
-        return seat;
+    public Long getSeatId() {
+        return seatId;
     }
 
-    public void setSeat(Seat seat) {
-        this.seat = seat;
+    public void setSeatId(Long seatId) {
+        this.seatId = seatId;
     }
 
     public double getPrice() {
@@ -79,4 +86,8 @@ public class Ticket {
     public LocalDateTime getBookedAt() {
         return bookedAt;
     }
+
+    public void setBookedAt(LocalDateTime bookedAt) {
+        this.bookedAt = bookedAt;
+    }
 }
@@ -0,0 +1,6 @@
+package com.cinema.exception;
+
+/** An {@code Idempotency-Key} was sent again with a different request than the one it was first used for. */
+public class IdempotencyKeyReusedException extends RuntimeException {
+    public IdempotencyKeyReusedException(String message) { super(message); }
+}
@@ -0,0 +1,6 @@
+package com.cinema.exception;
+
+/** A request with the same {@code Idempotency-Key} is still being processed. */
+public class IdempotentRequestInProgressException extends RuntimeException {
+    public IdempotentRequestInProgressException(String message) { super(message); }
+}
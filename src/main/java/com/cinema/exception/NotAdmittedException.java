@@ -0,0 +1,16 @@
+package com.cinema.exception;
+
+/** The showtime has an open waiting room and the caller's queue token has not been admitted (or has expired). */
+public class NotAdmittedException extends RuntimeException {
+
+    private final int retryAfterSeconds;
+
+    public NotAdmittedException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
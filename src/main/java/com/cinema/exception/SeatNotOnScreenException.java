@@ -0,0 +1,6 @@
+package com.cinema.exception;
+
+/** One or more requested seats exist but belong to a different screen. */
+public class SeatNotOnScreenException extends BusinessRuleViolationException {
+    public SeatNotOnScreenException(String message) { super(message); }
+}
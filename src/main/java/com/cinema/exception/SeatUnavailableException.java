@@ -0,0 +1,6 @@
+package com.cinema.exception;
+
+/** One or more requested seats are already booked or held. */
+public class SeatUnavailableException extends BusinessRuleViolationException {
+    public SeatUnavailableException(String message) { super(message); }
+}
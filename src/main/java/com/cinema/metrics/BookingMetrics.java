@@ -0,0 +1,111 @@
+package com.cinema.metrics;
+
+import com.cinema.exception.ResourceNotFoundException;
+import com.cinema.exception.SeatNotOnScreenException;
+import com.cinema.exception.SeatUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Booking and seat-map meters, tagged by cinema:
+ * <ul>
+ *   <li>{@code cinema.booking.latency} – bookSeats duration per outcome (histogram)</li>
+ *   <li>{@code cinema.booking.outcomes} – bookSeats calls per outcome</li>
+ *   <li>{@code cinema.booking.seats} – seats per successful booking</li>
+ *   <li>{@code cinema.seatmap.build} – seat-map build time, warm (in memory) vs cold (DB load)</li>
+ * </ul>
+ * Meters are created once per cinema and cached, so recording allocates nothing.
+ */
+@Component
+public class BookingMetrics {
+
+    public enum Outcome {
+        SUCCESS, ALREADY_BOOKED, WRONG_SCREEN, NOT_FOUND, INVALID,
+        /** The booking itself went through, but the transaction it ran in was rolled back. */
+        ROLLED_BACK;
+
+        String tagValue() {
+            return name().toLowerCase();
+        }
+    }
+
+    private static final String UNKNOWN_CINEMA = "unknown";
+
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, CinemaMeters> meters = new ConcurrentHashMap<>();
+
+    public BookingMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /** Maps an exception thrown by the booking path to its outcome. */
+    public static Outcome classify(RuntimeException ex) {
+        if (ex instanceof SeatUnavailableException) return Outcome.ALREADY_BOOKED;
+        if (ex instanceof SeatNotOnScreenException) return Outcome.WRONG_SCREEN;
+        if (ex instanceof ResourceNotFoundException) return Outcome.NOT_FOUND;
+        return Outcome.INVALID;
+    }
+
+    public void recordBooking(Long cinemaId, Outcome outcome, int seats, long nanos) {
+        CinemaMeters m = meters(cinemaId);
+        m.latency[outcome.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+        m.outcomes[outcome.ordinal()].increment();
+        if (outcome == Outcome.SUCCESS) {
+            m.seatsPerBooking.record(seats);
+        }
+    }
+
+    public void recordSeatMapBuild(Long cinemaId, boolean warm, long nanos) {
+        CinemaMeters m = meters(cinemaId);
+        (warm ? m.seatMapWarm : m.seatMapCold).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private CinemaMeters meters(Long cinemaId) {
+        String cinema = cinemaId == null ? UNKNOWN_CINEMA : cinemaId.toString();
+        CinemaMeters m = meters.get(cinema);
+        return m != null ? m : meters.computeIfAbsent(cinema, c -> new CinemaMeters(registry, c));
+    }
+
+    private static final class CinemaMeters {
+        final Timer[] latency = new Timer[Outcome.values().length];
+        final Counter[] outcomes = new Counter[Outcome.values().length];
+        final DistributionSummary seatsPerBooking;
+        final Timer seatMapWarm;
+        final Timer seatMapCold;
+
+        CinemaMeters(MeterRegistry registry, String cinema) {
+            for (Outcome o : Outcome.values()) {
+                latency[o.ordinal()] = Timer.builder("cinema.booking.latency")
+                        .description("bookSeats duration")
+                        .tag("cinema", cinema).tag("outcome", o.tagValue())
+                        .publishPercentileHistogram()
+                        .register(registry);
+                outcomes[o.ordinal()] = Counter.builder("cinema.booking.outcomes")
+                        .description("bookSeats calls by outcome")
+                        .tag("cinema", cinema).tag("outcome", o.tagValue())
+                        .register(registry);
+            }
+            seatsPerBooking = DistributionSummary.builder("cinema.booking.seats")
+                    .description("Seats per successful booking")
+                    .tag("cinema", cinema)
+                    .register(registry);
+            seatMapWarm = seatMapTimer(registry, cinema, "warm");
+            seatMapCold = seatMapTimer(registry, cinema, "cold");
+        }
+
+        private static Timer seatMapTimer(MeterRegistry registry, String cinema, String path) {
+            return Timer.builder("cinema.seatmap.build")
+                    .description("Seat-map build time")
+                    .tag("cinema", cinema).tag("path", path)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.cinema.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    /** Per-endpoint latency histograms (p50/p95/p99) on Spring's http.server.requests timer. */
+    @Bean
+    public MeterFilter httpServerHistograms() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!id.getName().equals("http.server.requests")) {
+                    return config;
+                }
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .percentiles(0.5, 0.95, 0.99)
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounter() {
+        return props -> props.put(AvailableSettings.STATEMENT_INSPECTOR, new DbStatementCounter());
+    }
+
+    @Bean
+    public FilterRegistrationBean<DbRoundTripFilter> dbRoundTripFilter(MeterRegistry registry) {
+        FilterRegistrationBean<DbRoundTripFilter> bean = new FilterRegistrationBean<>(new DbRoundTripFilter(registry));
+        bean.addUrlPatterns("/api/*");
+        return bean;
+    }
+}
@@ -2,9 +2,20 @@ package com.cinema.repository;
 
 
 import com.cinema.entity.Cinema;
+import com.cinema.repository.projection.CinemaNameKey;
+import com.cinema.repository.projection.CinemaSummary;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface CinemaRepository extends JpaRepository<Cinema, Long> {
 
@@ -16,4 +27,29 @@ public interface CinemaRepository extends JpaRepository<Cinema, Long> {
     // Check if a cinema with the same name and address already exists
     boolean existsByNameAndAddressLine(String name, String addressLine);
 
+    // Lookups on the unique normalized-name index (see Cinema.normalizeName)
+    Optional<Cinema> findByNormalizedName(String normalizedName);
+
+    List<Cinema> findByNormalizedNameIsNull();
+
+    @Query("SELECT new com.cinema.repository.projection.CinemaNameKey(c.id, c.normalizedName) FROM Cinema c")
+    List<CinemaNameKey> findAllNameKeys();
+
+    // Which of the given ids exist, in one statement (bulk import validation)
+    @Query("SELECT c.id FROM Cinema c WHERE c.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Every cinema with its upcoming-showtime count and next start, in one grouped statement
+    @Query("""
+           SELECT new com.cinema.repository.projection.CinemaSummary(
+                  c.id, c.name, c.city, c.totalScreens, COUNT(s.id), MIN(s.startTime))
+           FROM Cinema c LEFT JOIN c.showtimes s ON s.startTime >= :now
+           GROUP BY c.id, c.name, c.city, c.totalScreens
+           ORDER BY c.name, c.id
+           """)
+    List<CinemaSummary> findSummaries(@Param("now") LocalDateTime now);
+
+    // Keyset pages over id for the expanded listing
+    Window<Cinema> findAllByOrderByIdAsc(ScrollPosition position, Limit limit);
+
 }
@@ -0,0 +1,19 @@
+package com.cinema.repository;
+
+import com.cinema.entity.ScreenLayoutAssignment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface ScreenLayoutAssignmentRepository extends JpaRepository<ScreenLayoutAssignment, Long> {
+
+    Optional<ScreenLayoutAssignment> findByCinemaIdAndScreenNumber(Long cinemaId, int screenNumber);
+
+    @Query("""
+           SELECT a.layoutId FROM ScreenLayoutAssignment a
+           WHERE a.cinemaId = :cinemaId AND a.screenNumber = :screenNumber
+           """)
+    Optional<Long> findLayoutId(@Param("cinemaId") Long cinemaId, @Param("screenNumber") int screenNumber);
+}
@@ -0,0 +1,13 @@
+package com.cinema.repository;
+
+import com.cinema.entity.SeatLayoutTemplate;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface SeatLayoutTemplateRepository extends JpaRepository<SeatLayoutTemplate, Long> {
+
+    Optional<SeatLayoutTemplate> findByName(String name);
+
+    boolean existsByName(String name);
+}
@@ -1,9 +1,14 @@
 package com.cinema.repository;
 
 import com.cinema.entity.Seat;
+import com.cinema.repository.projection.SeatRow;
+import com.cinema.repository.projection.ShowtimeSlot;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface SeatRepository extends JpaRepository<Seat, Long> {
 
@@ -12,4 +17,38 @@ public interface SeatRepository extends JpaRepository<Seat, Long> {
             Long cinemaId,
             int screenNumber
     );
+
+    // Same seats as plain columns, for building the in-memory layout
+    @Query("""
+            SELECT new com.cinema.repository.projection.SeatRow(
+                       s.cinema.id, s.screenNumber, s.id, s.rowLabel, s.seatNumber, false)
+            FROM Seat s
+            WHERE s.cinema.id = :cinemaId AND s.screenNumber = :screenNumber
+            ORDER BY s.rowLabel, s.seatNumber
+            """)
+    List<SeatRow> findLayoutRows(@Param("cinemaId") Long cinemaId,
+                                 @Param("screenNumber") int screenNumber);
+
+    // Seat map of a showtime in one statement: its screen's seats left-joined to its tickets.
+    // Empty when the showtime does not exist or its screen has no seats yet.
+    @Query("""
+            SELECT new com.cinema.repository.projection.SeatRow(
+                       sh.cinema.id, sh.screenNumber, s.id, s.rowLabel, s.seatNumber,
+                       CASE WHEN t.id IS NULL THEN false ELSE true END)
+            FROM Showtime sh
+            JOIN Seat s ON s.cinema.id = sh.cinema.id AND s.screenNumber = sh.screenNumber
+            LEFT JOIN Ticket t ON t.seatId = s.id AND t.showtime.id = sh.id
+            WHERE sh.id = :showtimeId
+            ORDER BY s.rowLabel, s.seatNumber
+            """)
+    List<SeatRow> findSeatMapRows(@Param("showtimeId") Long showtimeId);
+
+    // Screen of a showtime, so its layout is known before any seat is loaded
+    @Query("""
+            SELECT new com.cinema.repository.projection.ShowtimeSlot(
+                       sh.id, sh.cinema.id, sh.screenNumber, sh.startTime, sh.endTime)
+            FROM Showtime sh
+            WHERE sh.id = :showtimeId
+            """)
+    Optional<ShowtimeSlot> findShowtimeSlot(@Param("showtimeId") Long showtimeId);
 }
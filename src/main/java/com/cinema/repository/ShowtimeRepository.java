@@ -1,13 +1,23 @@
 package com.cinema.repository;
 
 import com.cinema.entity.Showtime;
+import com.cinema.repository.projection.ShowtimeSlot;
+import com.cinema.repository.projection.ShowtimeTitle;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 
 public interface ShowtimeRepository extends JpaRepository<Showtime, Long>, JpaSpecificationExecutor<Showtime> {
@@ -18,6 +28,84 @@ public interface ShowtimeRepository extends JpaRepository<Showtime, Long>, JpaSp
     List<Showtime> findByCinema_IdAndStartTimeBetween(Long cinemaId, LocalDateTime from, LocalDateTime to);
     List<Showtime> findByStartTimeBetween(LocalDateTime from, LocalDateTime to);
 
+    // Whether any of the given showtimes is on a screen (journal-pending tickets before a re-layout)
+    boolean existsByIdInAndCinema_IdAndScreenNumber(Collection<Long> ids, Long cinemaId, int screenNumber);
+
+    // Ordered schedules that back the showtime cache (ShowtimeCache)
+    List<Showtime> findByCinema_IdOrderByStartTimeAscIdAsc(Long cinemaId);
+
+    @Query("""
+           SELECT s FROM Showtime s
+           WHERE s.cinema.id = :cinemaId
+             AND s.startTime >= :from
+             AND s.startTime < :until
+           ORDER BY s.startTime, s.id
+           """)
+    List<Showtime> findSchedule(@Param("cinemaId") Long cinemaId,
+                                @Param("from") LocalDateTime from,
+                                @Param("until") LocalDateTime until);
+
+    // Keyset-paged variants, ordered by (startTime, id) to match ShowtimeCursor
+    Window<Showtime> findAllByOrderByStartTimeAscIdAsc(ScrollPosition position, Limit limit);
+    Window<Showtime> findByCinema_IdOrderByStartTimeAscIdAsc(Long cinemaId, ScrollPosition position, Limit limit);
+    Window<Showtime> findByMovieTitleIgnoreCaseContainingOrderByStartTimeAscIdAsc(
+            String query, ScrollPosition position, Limit limit);
+    Window<Showtime> findByCinema_IdAndStartTimeBetweenOrderByStartTimeAscIdAsc(
+            Long cinemaId, LocalDateTime from, LocalDateTime to, ScrollPosition position, Limit limit);
+
+    // Screen occupancy for the in-memory overlap index (ScheduleIndex). No auto-flush: the
+    // caller's own pending (uncommitted) showtime changes must not end up in the index.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "COMMIT"))
+    @Query("""
+           SELECT new com.cinema.repository.projection.ShowtimeSlot(
+                      s.id, s.cinema.id, s.screenNumber, s.startTime, s.endTime)
+           FROM Showtime s
+           WHERE s.cinema.id = :cinemaId AND s.screenNumber = :screenNumber
+           """)
+    List<ShowtimeSlot> findSlots(@Param("cinemaId") Long cinemaId, @Param("screenNumber") int screenNumber);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+           SELECT new com.cinema.repository.projection.ShowtimeSlot(
+                      s.id, s.cinema.id, s.screenNumber, s.startTime, s.endTime)
+           FROM Showtime s
+           """)
+    Stream<ShowtimeSlot> streamSlots();
+
+    // Titles for the in-memory title search index (TitleIndex)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+           SELECT new com.cinema.repository.projection.ShowtimeTitle(s.id, s.cinema.id, s.startTime, s.movieTitle)
+           FROM Showtime s
+           """)
+    Stream<ShowtimeTitle> streamTitles();
+
+    @Query("""
+           SELECT new com.cinema.repository.projection.ShowtimeTitle(s.id, s.cinema.id, s.startTime, s.movieTitle)
+           FROM Showtime s
+           WHERE s.cinema.id = :cinemaId
+           """)
+    List<ShowtimeTitle> findTitles(@Param("cinemaId") Long cinemaId);
+
+    // Showtimes still open for booking, for restoring the seat-occupancy snapshot
+    @Query("""
+           SELECT new com.cinema.repository.projection.ShowtimeSlot(
+                      s.id, s.cinema.id, s.screenNumber, s.startTime, s.endTime)
+           FROM Showtime s
+           WHERE s.endTime > :now
+           """)
+    List<ShowtimeSlot> findSlotsEndingAfter(@Param("now") LocalDateTime now);
+
+    // Cursor over every showtime for streaming exports; must be consumed inside a transaction
+    // and closed. MySQL only honours the fetch size with useCursorFetch=true, which
+    // cinema-defaults.properties passes to the driver.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s FROM Showtime s ORDER BY s.id")
+    Stream<Showtime> streamAll();
+
 
     // Useful for validation: detect overlapping showtimes on the same screen
     @Query("""
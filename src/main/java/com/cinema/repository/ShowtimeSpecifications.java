@@ -0,0 +1,56 @@
+package com.cinema.repository;
+
+import com.cinema.entity.Showtime;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Composable predicates for {@link ShowtimeRepository}'s JpaSpecificationExecutor.
+ * {@link #filter} turns any mix of title / cinema / time bounds into one WHERE clause,
+ * so every combination is a single indexed statement instead of a broad query
+ * narrowed in Java.
+ */
+public final class ShowtimeSpecifications {
+
+    private ShowtimeSpecifications() {
+    }
+
+    /** All given criteria AND-ed together; null or blank criteria are ignored. */
+    public static Specification<Showtime> filter(String title, Long cinemaId,
+                                                 LocalDateTime from, LocalDateTime to) {
+        return Specification.where(inCinema(cinemaId))
+                .and(startsAtOrAfter(from))
+                .and(startsAtOrBefore(to))
+                .and(titleContains(title));
+    }
+
+    public static Specification<Showtime> inCinema(Long cinemaId) {
+        return cinemaId == null ? null
+                : (root, query, cb) -> cb.equal(root.get("cinema").get("id"), cinemaId);
+    }
+
+    public static Specification<Showtime> startsAtOrAfter(LocalDateTime from) {
+        return from == null ? null
+                : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("startTime"), from);
+    }
+
+    public static Specification<Showtime> startsAtOrBefore(LocalDateTime to) {
+        return to == null ? null
+                : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("startTime"), to);
+    }
+
+    /** Case-insensitive substring match; LIKE wildcards in the term are matched literally. */
+    public static Specification<Showtime> titleContains(String title) {
+        String term = title == null ? "" : title.trim();
+        if (term.isEmpty()) {
+            return null;
+        }
+        String pattern = "%" + escapeLike(term.toLowerCase()) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("movieTitle")), pattern, '\\');
+    }
+
+    private static String escapeLike(String s) {
+        return s.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
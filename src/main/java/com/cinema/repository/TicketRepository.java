@@ -1,8 +1,13 @@
 package com.cinema.repository;
 
 import com.cinema.entity.Ticket;
+import com.cinema.repository.projection.BookedSeat;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface TicketRepository extends JpaRepository<Ticket, Long> {
@@ -12,4 +17,35 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     boolean existsByShowtimeIdAndSeatId(Long showtimeId, Long seatId);
 
     List<Ticket> findByShowtimeIdAndSeatIdIn(Long showtimeId, List<Long> seatIds);
+
+    // Only the seat ids, without hydrating Ticket/Seat entities
+    @Query("SELECT t.seatId FROM Ticket t WHERE t.showtime.id = :showtimeId")
+    List<Long> findBookedSeatIds(@Param("showtimeId") Long showtimeId);
+
+    @Query("""
+           SELECT COUNT(t) > 0 FROM Ticket t
+           WHERE t.showtime.cinema.id = :cinemaId AND t.showtime.screenNumber = :screenNumber
+           """)
+    boolean existsForScreen(@Param("cinemaId") Long cinemaId, @Param("screenNumber") int screenNumber);
+
+    // Removes the tickets of one journaled booking that was cancelled after it was drained
+    @Modifying
+    @Query("""
+           DELETE FROM Ticket t
+           WHERE t.showtime.id = :showtimeId AND t.seatId IN :seatIds AND t.bookedAt = :bookedAt
+           """)
+    int deleteBooking(@Param("showtimeId") Long showtimeId, @Param("seatIds") List<Long> seatIds,
+                      @Param("bookedAt") LocalDateTime bookedAt);
+
+    // Highest ticket id so far, saved with a seat-occupancy snapshot
+    @Query("SELECT COALESCE(MAX(t.id), 0) FROM Ticket t")
+    long findMaxId();
+
+    // Seats of tickets inserted after a given id, to catch a seat-occupancy snapshot up
+    @Query("""
+           SELECT new com.cinema.repository.projection.BookedSeat(t.showtime.id, t.seatId)
+           FROM Ticket t
+           WHERE t.id > :afterId
+           """)
+    List<BookedSeat> findBookedAfterId(@Param("afterId") long afterId);
 }
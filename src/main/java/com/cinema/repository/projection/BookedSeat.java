@@ -0,0 +1,5 @@
+package com.cinema.repository.projection;
+
+/** A booked seat of a showtime, selected as plain ids without hydrating tickets. */
+public record BookedSeat(Long showtimeId, Long seatId) {
+}
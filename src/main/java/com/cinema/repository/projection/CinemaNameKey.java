@@ -0,0 +1,5 @@
+package com.cinema.repository.projection;
+
+/** Cinema id with its normalized name, for warming the name index without loading entities. */
+public record CinemaNameKey(Long id, String normalizedName) {
+}
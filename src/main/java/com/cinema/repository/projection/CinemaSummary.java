@@ -0,0 +1,11 @@
+package com.cinema.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * A cinema as the listing shows it: no showtime graph, just how many showtimes are
+ * still to come and when the next one starts (null when none are scheduled).
+ */
+public record CinemaSummary(Long id, String name, String city, int totalScreens,
+                            long upcomingShowtimes, LocalDateTime nextShowtime) {
+}
@@ -0,0 +1,10 @@
+package com.cinema.repository.projection;
+
+/**
+ * One seat of a screen as plain columns, selected with a JPQL constructor
+ * expression so no {@code Seat}/{@code Ticket} entities are hydrated.
+ * {@code booked} is only meaningful for showtime-specific queries.
+ */
+public record SeatRow(Long cinemaId, int screenNumber, Long seatId,
+                      String rowLabel, int seatNumber, boolean booked) {
+}
@@ -0,0 +1,8 @@
+package com.cinema.repository.projection;
+
+import java.time.LocalDateTime;
+
+/** The part of a showtime that scheduling cares about: which screen, and when. */
+public record ShowtimeSlot(Long id, Long cinemaId, int screenNumber,
+                           LocalDateTime startTime, LocalDateTime endTime) {
+}
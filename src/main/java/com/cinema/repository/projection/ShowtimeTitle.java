@@ -0,0 +1,7 @@
+package com.cinema.repository.projection;
+
+import java.time.LocalDateTime;
+
+/** What title search needs of a showtime: its title, plus the keys it is filtered and ordered by. */
+public record ShowtimeTitle(Long id, Long cinemaId, LocalDateTime startTime, String movieTitle) {
+}
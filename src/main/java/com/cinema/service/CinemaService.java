@@ -1,46 +1,186 @@
 package com.cinema.service;
 
 import com.cinema.entity.Cinema;
+import com.cinema.exception.BusinessRuleViolationException;
 import com.cinema.exception.ResourceNotFoundException;
 import com.cinema.repository.CinemaRepository;
+import com.cinema.repository.projection.CinemaNameKey;
+import com.cinema.repository.projection.CinemaSummary;
+import com.cinema.service.cache.ShowtimeCache;
+import com.cinema.service.paging.CursorCodec;
+import com.cinema.service.paging.KeysetPage;
+import com.cinema.service.schedule.ScheduleIndex;
+import com.cinema.service.search.TitleIndex;
+import com.cinema.service.support.TransactionHooks;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 @Service
 public class CinemaService {
 
+    private static final Logger log = LoggerFactory.getLogger(CinemaService.class);
+
+    /** Largest page of the expanded listing; matches the batch size on Cinema.showtimes. */
+    public static final int EXPANDED_PAGE_MAX = 50;
+
     private final CinemaRepository cinemaRepository;
+    private final ShowtimeCache showtimeCache;
+    private final ScheduleIndex scheduleIndex;
+    private final TitleIndex titleIndex;
+
+    // normalized name -> cinema id; kept in step by create/update/delete below,
+    // misses fall back to the unique normalized_name index
+    private final ConcurrentMap<String, Long> idsByName = new ConcurrentHashMap<>();
 
-    public CinemaService(CinemaRepository cinemaRepository) {
+    public CinemaService(CinemaRepository cinemaRepository, ShowtimeCache showtimeCache,
+                         ScheduleIndex scheduleIndex, TitleIndex titleIndex) {
         this.cinemaRepository = cinemaRepository;
+        this.showtimeCache = showtimeCache;
+        this.scheduleIndex = scheduleIndex;
+        this.titleIndex = titleIndex;
+    }
+
+    /**
+     * Warms the index and backfills normalized names of rows created before the column existed.
+     * A legacy name that normalizes to one already taken is left unset and logged rather than
+     * failing startup on the unique index; renaming one of the two cinemas resolves it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void loadNameIndex() {
+        for (CinemaNameKey key : cinemaRepository.findAllNameKeys()) {
+            if (key.normalizedName() != null) {
+                idsByName.put(key.normalizedName(), key.id());
+            }
+        }
+        int collisions = 0;
+        for (Cinema c : cinemaRepository.findByNormalizedNameIsNull()) {
+            String key = Cinema.normalizeName(c.getName());
+            Long taken = key == null ? null : idsByName.putIfAbsent(key, c.getId());
+            if (taken == null) {
+                c.setName(c.getName());
+            } else {
+                collisions++;
+                log.warn("Cinema {} '{}' has the same normalized name as cinema {}; rename one of them",
+                        c.getId(), c.getName(), taken);
+            }
+        }
+        cinemaRepository.flush();
+        if (collisions > 0) {
+            log.warn("{} cinema(s) left without a normalized name; they are not found by name until renamed",
+                    collisions);
+        }
+    }
+
+    /** Every cinema with its upcoming-showtime count, from one aggregate query. */
+    public List<CinemaSummary> getCinemaSummaries() {
+        return cinemaRepository.findSummaries(LocalDateTime.now());
     }
 
-    public List<Cinema> getAllCinemas() {
-        return cinemaRepository.findAll();
+    /**
+     * A keyset page of cinemas, ordered by id, with their showtimes loaded: the page is one
+     * query and its showtime collections one more (batch-fetched, see Cinema.showtimes).
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<Cinema> getCinemasWithShowtimes(String cursor, Integer size) {
+        int limit = size == null ? EXPANDED_PAGE_MAX : Math.max(1, Math.min(size, EXPANDED_PAGE_MAX));
+        Window<Cinema> window = cinemaRepository.findAllByOrderByIdAsc(position(cursor), Limit.of(limit));
+        List<Cinema> items = window.getContent();
+        if (!items.isEmpty()) {
+            Hibernate.initialize(items.get(0).getShowtimes());
+        }
+        String next = window.hasNext() && !items.isEmpty()
+                ? CursorCodec.encode(items.get(items.size() - 1).getId())
+                : null;
+        return new KeysetPage<>(items, next);
+    }
+
+    /**
+     * Cinema by name, ignoring case and extra whitespace. Known names resolve from memory
+     * to a reference without touching the database.
+     */
+    public Optional<Cinema> findByName(String name) {
+        String key = Cinema.normalizeName(name);
+        if (key == null) return Optional.empty();
+
+        Long id = idsByName.get(key);
+        if (id != null) {
+            return Optional.of(cinemaRepository.getReferenceById(id));
+        }
+        Optional<Cinema> found = cinemaRepository.findByNormalizedName(key);
+        found.ifPresent(c -> TransactionHooks.afterCommit(() -> idsByName.put(key, c.getId())));
+        return found;
     }
 
     public Cinema createCinema(Cinema cinema) {
-        return cinemaRepository.save(cinema);
+        String key = Cinema.normalizeName(cinema.getName());
+        if (key != null && cinemaRepository.findByNormalizedName(key).isPresent()) {
+            throw new BusinessRuleViolationException("A cinema named '" + cinema.getName() + "' already exists");
+        }
+        Cinema saved = cinemaRepository.save(cinema);
+        TransactionHooks.afterCommit(() -> idsByName.put(saved.getNormalizedName(), saved.getId()));
+        return saved;
     }
 
     public void deleteCinema(Long id) {
-        if (!cinemaRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Cinema not found with id: " + id);
-        }
+        Cinema existing = cinemaRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Cinema not found with id: " + id));
         cinemaRepository.deleteById(id);
+        TransactionHooks.afterCommit(() -> {
+            idsByName.remove(existing.getNormalizedName(), id);
+            showtimeCache.invalidateCinema(id); // its showtimes were deleted with it
+            scheduleIndex.dropCinema(id);
+            titleIndex.dropCinema(id);
+        });
     }
 
     public Cinema updateCinema(Long id, Cinema cinema) {
         // If cinema does not exist, fail early (optional but safer)
         Cinema existing = cinemaRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Cinema not found with id " + id));
+        String oldKey = existing.getNormalizedName();
+
+        String newKey = Cinema.normalizeName(cinema.getName());
+        if (newKey != null && cinemaRepository.findByNormalizedName(newKey)
+                .filter(other -> !other.getId().equals(id)).isPresent()) {
+            throw new BusinessRuleViolationException("A cinema named '" + cinema.getName() + "' already exists");
+        }
 
         // Make sure we update the correct record
         cinema.setId(existing.getId());
 
         // Save the full entity (your frontend sends all fields)
-        return cinemaRepository.save(cinema);
+        Cinema saved = cinemaRepository.save(cinema);
+        TransactionHooks.afterCommit(() -> {
+            if (oldKey != null) idsByName.remove(oldKey, id);
+            idsByName.put(saved.getNormalizedName(), id);
+            showtimeCache.invalidateCinema(id); // the save rewrites the cinema's showtime collection
+            scheduleIndex.dropCinema(id);
+            titleIndex.reloadCinema(id);
+        });
+        return saved;
+    }
+
+    private static ScrollPosition position(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        return ScrollPosition.forward(Map.of("id", CursorCodec.decode(cursor, 1, keys -> Long.parseLong(keys[0]))));
     }
 
 }
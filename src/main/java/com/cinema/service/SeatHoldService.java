@@ -0,0 +1,27 @@
+package com.cinema.service;
+
+import com.cinema.entity.SeatCategory;
+import com.cinema.service.inventory.SeatHold;
+
+import java.util.List;
+
+public interface SeatHoldService {
+
+    /**
+     * Puts a time-limited hold on the given seats. Fails if any seat is invalid,
+     * held or booked. Nothing is written to the tickets table.
+     */
+    SeatHold hold(Long showtimeId, List<Long> seatIds);
+
+    /**
+     * Holds the best free block of {@code count} adjacent seats, like
+     * {@link ShowtimeService#bookBestAvailable}, so the customer can pay before it is booked.
+     */
+    SeatHold holdBestAvailable(Long showtimeId, int count, SeatCategory category);
+
+    /** Turns an active hold into booked tickets. */
+    void confirm(Long showtimeId, String holdId);
+
+    /** Gives the held seats back; returns false if the hold is unknown or no longer active. */
+    boolean release(Long showtimeId, String holdId);
+}
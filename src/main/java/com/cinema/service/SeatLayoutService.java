@@ -0,0 +1,18 @@
+package com.cinema.service;
+
+import com.cinema.entity.SeatLayoutRow;
+import com.cinema.entity.SeatLayoutTemplate;
+
+import java.util.List;
+
+public interface SeatLayoutService {
+
+    List<SeatLayoutTemplate> findAll();
+
+    SeatLayoutTemplate get(Long id);
+
+    SeatLayoutTemplate create(String name, List<SeatLayoutRow> rows);
+
+    /** Lays out a screen by a template; only allowed while the screen has no tickets. */
+    void assign(Long cinemaId, int screenNumber, Long layoutId);
+}
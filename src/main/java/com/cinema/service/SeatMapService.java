@@ -6,10 +6,26 @@ import java.util.List;
 
 public interface SeatMapService {
 
+    /** A seat map and the version tag of the seat state it was built from. */
+    record SeatMap(String tag, List<SeatStatusDto> seats) {
+    }
+
     /**
      * Returns the seat map for a given showtime:
      * every seat for the showtime's cinema + screen,
-     * marked FREE or BOOKED.
+     * marked FREE, HELD (temporarily reserved) or BOOKED.
      */
     List<SeatStatusDto> getSeatMapForShowtime(Long showtimeId);
+
+    /**
+     * The seat map with its version tag, which changes whenever a seat of the showtime
+     * is held, released, booked or cancelled. Suitable as a strong ETag.
+     */
+    SeatMap getSeatMap(Long showtimeId);
+
+    /**
+     * Current version tag of the showtime's seat map if its seats are in memory, else null.
+     * Never touches the database, so conditional requests can be answered without it.
+     */
+    String currentTag(Long showtimeId);
 }
@@ -0,0 +1,25 @@
+package com.cinema.service;
+
+import com.cinema.entity.Showtime;
+import com.cinema.web.dto.ShowtimeImportReport;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+public interface ShowtimeImportService {
+
+    /**
+     * Validates and saves many showtimes in one transaction. Rows that break a field rule,
+     * reference an unknown cinema or overlap the existing schedule (or an earlier row of
+     * the same import) are reported and skipped; the rest are inserted in JDBC batches.
+     */
+    default ShowtimeImportReport importShowtimes(List<Showtime> rows) {
+        return importShowtimes(rows, IntStream.rangeClosed(1, rows.size()).boxed().toList());
+    }
+
+    /**
+     * As above, reporting row {@code i} as {@code rowNumbers.get(i)} rather than its 1-based
+     * position, e.g. its line in an uploaded file.
+     */
+    ShowtimeImportReport importShowtimes(List<Showtime> rows, List<Integer> rowNumbers);
+}
@@ -1,11 +1,14 @@
 package com.cinema.service;
 
 import com.cinema.entity.Cinema;
+import com.cinema.entity.SeatCategory;
 import com.cinema.entity.Showtime;
 import com.cinema.entity.Ticket;
+import com.cinema.service.paging.KeysetPage;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface ShowtimeService {
 
@@ -19,9 +22,25 @@ public interface ShowtimeService {
     List<Showtime> findInWindow(Long cinemaId, LocalDateTime from, LocalDateTime to);
     List<Showtime> filter(String q, Long cinemaId, LocalDateTime from, LocalDateTime to);
 
+    // Keyset-paged listings ordered by (startTime, id). cursor is the opaque token from the
+    // previous page (null for the first); size is clamped to PageSize.MAX.
+    KeysetPage<Showtime> findAll(String cursor, Integer size);
+    KeysetPage<Showtime> findByCinema(Long cinemaId, String cursor, Integer size);
+    KeysetPage<Showtime> searchByTitle(String query, String cursor, Integer size);
+    KeysetPage<Showtime> findInWindow(Long cinemaId, LocalDateTime from, LocalDateTime to,
+                                      String cursor, Integer size);
+    KeysetPage<Showtime> filter(String q, Long cinemaId, LocalDateTime from, LocalDateTime to,
+                                String cursor, Integer size);
+
 
     // ✨ Add these two:
     List<Showtime> findAll();
+
+    /**
+     * Feeds every showtime to the consumer one at a time, reading through a DB cursor.
+     * Each entity is detached once consumed, so memory stays flat however many there are.
+     */
+    void streamAll(Consumer<Showtime> consumer);
     Optional<Cinema> findCinemaByName(String name);
 
     /**
@@ -30,5 +49,12 @@ public interface ShowtimeService {
      */
     void bookSeats(Long showtimeId, List<Long> seatIds);
 
+    /**
+     * Books the best free block of {@code count} adjacent seats in one row (centre first),
+     * optionally only seats of the given category, and returns their ids.
+     * Fails if no such block is free.
+     */
+    List<Long> bookBestAvailable(Long showtimeId, int count, SeatCategory category);
+
 
 }
@@ -0,0 +1,340 @@
+package com.cinema.service.admission;
+
+import com.cinema.exception.BusinessRuleViolationException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission queues for showtimes going on sale. While a showtime's room is open, its
+ * booking, hold and seat-map endpoints only serve callers holding an admitted queue
+ * token; everyone else is turned away before any service or database work.
+ * <p>
+ * Joining hands out the next sequence number as a token signed with an HMAC, so checking
+ * a token is a signature check and two comparisons, with nothing stored per user. Every
+ * {@code tick} the admitted range grows at the room's rate, and tokens stay valid for
+ * {@code admission-ttl} after their admission. A room admits at {@code initial-rate} for
+ * its first {@code warmup}, while the first admitted users get through checkout; after
+ * that the rate follows the measured booking throughput of the room (a moving average,
+ * times {@code headroom} for users who drop out) between {@code min-rate} and
+ * {@code max-rate}. It is only adjusted while people are waiting.
+ * <p>
+ * Queues live in memory, so this assumes a single instance.
+ */
+@Component
+public class WaitingRoom {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitingRoom.class);
+
+    private static final String HMAC = "HmacSHA256";
+    // Signature bytes kept in a token
+    private static final int SIGNATURE_BYTES = 16;
+    private static final int MAX_POLL_SECONDS = 30;
+
+    /**
+     * A caller's place in a room. {@code token} is null when the showtime has no open room;
+     * position 0 without admission means the admission expired and the caller must join again.
+     */
+    public record Status(String token, long position, boolean admitted, int retryAfterSeconds) {
+    }
+
+    private final Mac mac;
+    private final double defaultInitialRate;
+    private final double minRate;
+    private final double maxRate;
+    private final double headroom;
+    private final Duration tick;
+    private final Duration admissionTtl;
+    private final Duration rateWindow;
+    private final Duration warmup;
+    private final SecureRandom random = new SecureRandom();
+    private final Map<Long, Room> rooms = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService ticker;
+
+    public WaitingRoom(MeterRegistry registry,
+                       @Value("${cinema.waiting-room.secret:}") String secret,
+                       @Value("${cinema.waiting-room.initial-rate:50}") double initialRate,
+                       @Value("${cinema.waiting-room.min-rate:5}") double minRate,
+                       @Value("${cinema.waiting-room.max-rate:500}") double maxRate,
+                       @Value("${cinema.waiting-room.headroom:1.5}") double headroom,
+                       @Value("${cinema.waiting-room.tick:PT0.2S}") Duration tick,
+                       @Value("${cinema.waiting-room.admission-ttl:PT10M}") Duration admissionTtl,
+                       @Value("${cinema.waiting-room.rate-window:PT10S}") Duration rateWindow,
+                       @Value("${cinema.waiting-room.warmup:PT30S}") Duration warmup) {
+        this.mac = hmac(secret);
+        this.defaultInitialRate = initialRate;
+        this.minRate = minRate;
+        this.maxRate = maxRate;
+        this.headroom = headroom;
+        this.tick = tick;
+        this.admissionTtl = admissionTtl;
+        this.rateWindow = rateWindow;
+        this.warmup = warmup;
+        Gauge.builder("cinema.waitingroom.rooms", rooms, Map::size)
+                .description("Showtimes with an open waiting room")
+                .register(registry);
+        Gauge.builder("cinema.waitingroom.waiting", this, WaitingRoom::waiting)
+                .description("Callers queued and not yet admitted, over all rooms")
+                .register(registry);
+    }
+
+    /** Starts admitting every {@code tick}. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "waiting-room");
+            t.setDaemon(true);
+            return t;
+        });
+        long nanos = tick.toNanos();
+        ticker.scheduleAtFixedRate(this::tickQuietly, nanos, nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    /** Opens a room for the showtime, admitting at {@code initialRate} per second to begin with (default if null). */
+    public void open(Long showtimeId, Double initialRate) {
+        double rate = clamp(initialRate == null ? defaultInitialRate : initialRate);
+        if (rooms.putIfAbsent(showtimeId, new Room(random.nextLong(), rate, System.nanoTime())) == null) {
+            log.info("Waiting room opened for showtime {} at {} admissions/s", showtimeId, rate);
+        }
+    }
+
+    /** Closes the room; the showtime's endpoints serve everyone again. */
+    public boolean close(Long showtimeId) {
+        return rooms.remove(showtimeId) != null;
+    }
+
+    public boolean isOpen(Long showtimeId) {
+        return rooms.containsKey(showtimeId);
+    }
+
+    /** Queues a caller, returning their token and position. */
+    public Status join(Long showtimeId) {
+        Room room = rooms.get(showtimeId);
+        if (room == null) {
+            return new Status(null, 0, true, 0);
+        }
+        long seq = room.next.getAndIncrement();
+        return status(room, seq, token(showtimeId, room, seq));
+    }
+
+    /** Where the token stands; for polling, so it does no more than {@link #admits}. */
+    public Status status(Long showtimeId, String token) {
+        Room room = rooms.get(showtimeId);
+        if (room == null) {
+            return new Status(token, 0, true, 0);
+        }
+        long seq = verify(showtimeId, room, token);
+        if (seq < 0) {
+            throw new BusinessRuleViolationException("Invalid queue token for showtime " + showtimeId);
+        }
+        return status(room, seq, token);
+    }
+
+    /** True if the showtime has no open room, or the token was admitted to it and has not expired. */
+    public boolean admits(Long showtimeId, String token) {
+        Room room = rooms.get(showtimeId);
+        if (room == null) {
+            return true;
+        }
+        long seq = verify(showtimeId, room, token);
+        return seq >= room.validFrom && seq < room.admittedUpTo;
+    }
+
+    /** Seconds an unadmitted caller of the showtime should wait before polling again. */
+    public int retryAfterSeconds(Long showtimeId) {
+        Room room = rooms.get(showtimeId);
+        return room == null ? 0 : pollSeconds(room.next.get() - room.admittedUpTo, room.rate);
+    }
+
+    /** Counts a completed booking towards the room's measured throughput. */
+    public void recordBooking(Long showtimeId) {
+        Room room = rooms.get(showtimeId);
+        if (room != null) {
+            room.bookings.increment();
+        }
+    }
+
+    /** Current admissions per second of the showtime's room, or 0 if it has none. */
+    public double rate(Long showtimeId) {
+        Room room = rooms.get(showtimeId);
+        return room == null ? 0 : room.rate;
+    }
+
+    private long waiting() {
+        long waiting = 0;
+        for (Room room : rooms.values()) {
+            waiting += Math.max(0, room.next.get() - room.admittedUpTo);
+        }
+        return waiting;
+    }
+
+    private Status status(Room room, long seq, String token) {
+        if (seq >= room.admittedUpTo) {
+            long position = seq - room.admittedUpTo + 1;
+            return new Status(token, position, false, pollSeconds(position, room.rate));
+        }
+        return new Status(token, 0, seq >= room.validFrom, 0);
+    }
+
+    private static int pollSeconds(long position, double rate) {
+        if (position <= 0) {
+            return 0;
+        }
+        double seconds = position / Math.max(rate, 1e-3);
+        return (int) Math.max(1, Math.min(MAX_POLL_SECONDS, Math.ceil(seconds / 2)));
+    }
+
+    private double clamp(double rate) {
+        return Math.max(minRate, Math.min(maxRate, rate));
+    }
+
+    void tick() {
+        long now = System.nanoTime();
+        double seconds = tick.toNanos() / 1e9;
+        double alpha = 1 - Math.exp(-tick.toNanos() / (double) rateWindow.toNanos());
+        for (Room room : rooms.values()) {
+            room.tick(now, seconds, alpha);
+        }
+    }
+
+    private void tickQuietly() {
+        try {
+            tick();
+        } catch (RuntimeException ex) {
+            log.warn("Waiting room tick failed", ex);
+        }
+    }
+
+    // Token: "<seq>.<base64url of the first 16 bytes of HMAC(showtimeId, room epoch, seq)>"
+    private String token(Long showtimeId, Room room, long seq) {
+        return seq + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(sign(showtimeId, room, seq));
+    }
+
+    // The token's sequence number, or -1 if it is missing, malformed or not signed for this room
+    private long verify(Long showtimeId, Room room, String token) {
+        if (token == null) {
+            return -1;
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return -1;
+        }
+        try {
+            long seq = Long.parseLong(token, 0, dot, 10);
+            byte[] given = Base64.getUrlDecoder().decode(token.substring(dot + 1));
+            return seq >= 0 && MessageDigest.isEqual(given, sign(showtimeId, room, seq)) ? seq : -1;
+        } catch (IllegalArgumentException ex) {
+            return -1;
+        }
+    }
+
+    private byte[] sign(Long showtimeId, Room room, long seq) {
+        byte[] message = ByteBuffer.allocate(3 * Long.BYTES).putLong(showtimeId).putLong(room.epoch).putLong(seq).array();
+        try {
+            Mac m = (Mac) mac.clone();
+            return Arrays.copyOf(m.doFinal(message), SIGNATURE_BYTES);
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // A blank secret means a random key per start; tokens then do not survive a restart,
+    // which the in-memory queues would not either
+    private Mac hmac(String secret) {
+        byte[] key;
+        if (secret == null || secret.isBlank()) {
+            key = new byte[32];
+            random.nextBytes(key);
+        } else {
+            key = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        try {
+            Mac m = Mac.getInstance(HMAC);
+            m.init(new SecretKeySpec(key, HMAC));
+            return m;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private final class Room {
+        // Distinguishes tokens of this room from those of an earlier room for the same showtime
+        final long epoch;
+        final long warmUntil;
+        final AtomicLong next = new AtomicLong();
+        final LongAdder bookings = new LongAdder();
+        // Tokens in [validFrom, admittedUpTo) are admitted; written by the ticker only
+        volatile long admittedUpTo;
+        volatile long validFrom;
+        volatile double rate;
+        double throughput;
+        double credit;
+        // (admittedUpTo after a tick, time of that tick), oldest first
+        final Deque<long[]> admissions = new ArrayDeque<>();
+
+        Room(long epoch, double rate, long openedAt) {
+            this.epoch = epoch;
+            this.warmUntil = openedAt + warmup.toNanos();
+            this.rate = rate;
+            this.throughput = rate / headroom;
+        }
+
+        void tick(long now, double seconds, double alpha) {
+            double booked = bookings.sumThenReset() / seconds;
+            long waiting = next.get() - admittedUpTo;
+            if (waiting > 0) {
+                throughput += alpha * (booked - throughput);
+                if (now - warmUntil >= 0) {
+                    rate = clamp(throughput * headroom);
+                }
+                credit += rate * seconds;
+                long admit = Math.min(waiting, (long) credit);
+                if (admit > 0) {
+                    credit -= admit;
+                    admittedUpTo += admit;
+                    admissions.addLast(new long[]{admittedUpTo, now});
+                }
+            } else {
+                credit = 0; // no banking admissions while nobody waits
+            }
+            long expired = now - admissionTtl.toNanos();
+            while (!admissions.isEmpty() && admissions.peekFirst()[1] <= expired) {
+                validFrom = admissions.pollFirst()[0];
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.cinema.service.cache;
+
+import com.cinema.entity.Showtime;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for showtime reads: single showtimes by id, the full schedule of
+ * a cinema and one cinema-day of schedule. Lists are immutable and ordered by
+ * (startTime, id) so keyset pages can be sliced straight out of them.
+ * <p>
+ * Writers invalidate the affected keys after their transaction commits. A load that
+ * is still running when its key is invalidated is discarded as well (Caffeine
+ * serialises the two per key), so no pre-write value survives a completed write.
+ * Entries also expire after {@code cinema.cache.ttl} as a backstop for writes that
+ * bypass the service. Reads made inside a read-write transaction skip the cache, since
+ * they may see that transaction's uncommitted changes.
+ * Hit/miss/eviction counts are published as {@code cache.*} meters.
+ */
+@Component
+public class ShowtimeCache {
+
+    private record DayKey(Long cinemaId, LocalDate day) {
+    }
+
+    private final Cache<Long, Showtime> byId;
+    private final Cache<Long, List<Showtime>> byCinema;
+    private final Cache<DayKey, List<Showtime>> byDay;
+
+    public ShowtimeCache(MeterRegistry registry,
+                         @Value("${cinema.cache.showtimes.max-entries:50000}") long maxEntries,
+                         @Value("${cinema.cache.schedules.max-weight:500000}") long maxScheduleWeight,
+                         @Value("${cinema.cache.ttl:PT10M}") Duration ttl) {
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // Schedule caches are bounded by the number of showtimes they hold, not entries
+        this.byCinema = Caffeine.newBuilder()
+                .maximumWeight(maxScheduleWeight)
+                .weigher((Long k, List<Showtime> v) -> Math.max(1, v.size()))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.byDay = Caffeine.newBuilder()
+                .maximumWeight(maxScheduleWeight)
+                .weigher((DayKey k, List<Showtime> v) -> Math.max(1, v.size()))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, byId, "showtimes.byId");
+        CaffeineCacheMetrics.monitor(registry, byCinema, "showtimes.byCinema");
+        CaffeineCacheMetrics.monitor(registry, byDay, "showtimes.byDay");
+    }
+
+    /** Showtime by id, loading it on a miss; a null load (not found) is not cached. */
+    public Showtime get(Long id, Supplier<Showtime> loader) {
+        return writing() ? loader.get() : byId.get(id, k -> loader.get());
+    }
+
+    /** Whole schedule of a cinema; the loader must return it ordered by (startTime, id). */
+    public List<Showtime> cinemaSchedule(Long cinemaId, Supplier<List<Showtime>> loader) {
+        return writing() ? loader.get() : byCinema.get(cinemaId, k -> List.copyOf(loader.get()));
+    }
+
+    /** Showtimes of a cinema starting on the given day, ordered by (startTime, id). */
+    public List<Showtime> day(Long cinemaId, LocalDate day, Supplier<List<Showtime>> loader) {
+        return writing() ? loader.get() : byDay.get(new DayKey(cinemaId, day), k -> List.copyOf(loader.get()));
+    }
+
+    /** Drops every entry a showtime with these coordinates can appear in. */
+    public void invalidate(Long showtimeId, Long cinemaId, LocalDateTime startTime) {
+        if (showtimeId != null) {
+            byId.invalidate(showtimeId);
+        }
+        if (cinemaId != null) {
+            byCinema.invalidate(cinemaId);
+            if (startTime != null) {
+                byDay.invalidate(new DayKey(cinemaId, startTime.toLocalDate()));
+            }
+        }
+    }
+
+    /** Drops everything cached for a cinema, e.g. after it was changed or deleted with its showtimes. */
+    public void invalidateCinema(Long cinemaId) {
+        byCinema.invalidate(cinemaId);
+        byDay.asMap().keySet().removeIf(k -> k.cinemaId().equals(cinemaId));
+        byId.asMap().values().removeIf(s -> s.getCinema() != null && cinemaId.equals(s.getCinema().getId()));
+    }
+
+    private static boolean writing() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    public void invalidateAll() {
+        byId.invalidateAll();
+        byCinema.invalidateAll();
+        byDay.invalidateAll();
+    }
+}
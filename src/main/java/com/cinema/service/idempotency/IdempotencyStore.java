@@ -0,0 +1,271 @@
+package com.cinema.service.idempotency;
+
+import com.cinema.entity.IdempotencyRecord;
+import com.cinema.exception.BusinessRuleViolationException;
+import com.cinema.exception.IdempotencyKeyReusedException;
+import com.cinema.exception.IdempotentRequestInProgressException;
+import com.cinema.repository.IdempotencyRecordRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Outcomes of bookings made with an {@code Idempotency-Key}, so a retried request gets
+ * the original answer instead of being booked again (or failing as "already booked").
+ * A replay does no seat lookups, conflict checks or inserts.
+ * <p>
+ * Outcomes are written to {@code idempotency_keys} in the booking's own transaction,
+ * so a key is stored if and only if the booking commits, and kept in a bounded in-memory
+ * cache in front of the table. Both forget a key {@code cinema.booking.idempotency.ttl}
+ * after it was first used. Only successful bookings are stored: after a failure the
+ * key is free again and a retry runs the booking anew. In journal mode the booking is
+ * journaled as the last step before that commit and cancelled in the journal if the
+ * commit fails; only if even the cancel cannot be written does a booking stand without
+ * its key (see {@code JournaledTicketWriter}).
+ * <p>
+ * A retry that arrives while the first request is still running is rejected rather
+ * than queued. In-flight keys are tracked in memory, like the seat inventory, so this
+ * assumes a single instance.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    public static final int MAX_KEY_LENGTH = 64;
+    // seat_ids column holds this many 8-byte ids
+    static final int MAX_STORED_SEATS = 32;
+
+    /** Seat ids the booking returned, and whether they come from an earlier request. */
+    public record Outcome(List<Long> seatIds, boolean replayed) {
+    }
+
+    private record Stored(long requestHash, List<Long> seatIds, LocalDateTime createdAt) {
+    }
+
+    private final IdempotencyRecordRepository repo;
+    private final TransactionTemplate tx;
+    private final Duration ttl;
+    private final Duration purgeInterval;
+    private final Cache<String, Stored> cache;
+    private final Map<String, Long> inFlight = new ConcurrentHashMap<>();
+    private final Counter replays;
+
+    private ScheduledExecutorService purger;
+
+    public IdempotencyStore(IdempotencyRecordRepository repo,
+                            PlatformTransactionManager txManager,
+                            MeterRegistry registry,
+                            @Value("${cinema.booking.idempotency.max-entries:100000}") long maxEntries,
+                            @Value("${cinema.booking.idempotency.ttl:PT24H}") Duration ttl,
+                            @Value("${cinema.booking.idempotency.purge-interval:PT1H}") Duration purgeInterval) {
+        this.repo = repo;
+        this.tx = new TransactionTemplate(txManager);
+        this.ttl = ttl;
+        this.purgeInterval = purgeInterval;
+        // Entries loaded from the table expire when the key does, not a full ttl after the load
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<String, Stored>() {
+                    @Override
+                    public long expireAfterCreate(String key, Stored value, long currentTime) {
+                        return remaining(value).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Stored value, long currentTime, long currentDuration) {
+                        return remaining(value).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Stored value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "idempotency.keys");
+        this.replays = Counter.builder("cinema.booking.idempotent.replays")
+                .description("Bookings answered from a stored Idempotency-Key outcome")
+                .register(registry);
+    }
+
+    /**
+     * Runs the booking once per key. {@code request} describes the request (endpoint and
+     * body) so a key reused for a different one is refused. {@code seats} is the most seat
+     * ids the booking can return; it is checked against what can be stored before the
+     * booking runs. The booking runs in a transaction that also stores its outcome.
+     */
+    public Outcome execute(String key, String request, int seats, Supplier<List<Long>> booking) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BusinessRuleViolationException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        if (seats > MAX_STORED_SEATS) {
+            throw new BusinessRuleViolationException(
+                    "At most " + MAX_STORED_SEATS + " seats can be booked with an Idempotency-Key");
+        }
+        long hash = fingerprint(request);
+        Stored done = lookup(key);
+        if (done != null) {
+            return replay(done, hash);
+        }
+        Long running = inFlight.putIfAbsent(key, hash);
+        if (running != null) {
+            if (running != hash) {
+                throw reused();
+            }
+            throw new IdempotentRequestInProgressException("A request with this Idempotency-Key is in progress");
+        }
+        try {
+            // The first request may have finished between the lookup and claiming the key
+            done = cache.getIfPresent(key);
+            if (done != null) {
+                return replay(done, hash);
+            }
+            Stored stored = tx.execute(status -> {
+                List<Long> seatIds = List.copyOf(booking.get());
+                if (seatIds.size() > seats) {
+                    throw new IllegalStateException("Booking returned " + seatIds.size() + " seats, expected at most " + seats);
+                }
+                LocalDateTime now = LocalDateTime.now();
+                repo.saveAndFlush(new IdempotencyRecord(key, hash, pack(seatIds), now));
+                return new Stored(hash, seatIds, now);
+            });
+            cache.put(key, stored);
+            return new Outcome(stored.seatIds(), false);
+        } catch (DataIntegrityViolationException ex) {
+            // The key was stored meanwhile (its cache entry evicted before we looked)
+            done = lookup(key);
+            if (done == null) {
+                throw ex;
+            }
+            return replay(done, hash);
+        } finally {
+            inFlight.remove(key);
+        }
+    }
+
+    /** Deletes stored keys older than the ttl every {@code purge-interval}. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        purger = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "idempotency-purge");
+            t.setDaemon(true);
+            return t;
+        });
+        long millis = purgeInterval.toMillis();
+        purger.scheduleWithFixedDelay(this::purgeQuietly, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (purger != null) {
+            purger.shutdownNow();
+        }
+    }
+
+    /** Deletes stored keys older than the ttl; returns how many. */
+    public int purge() {
+        return repo.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+    }
+
+    private void purgeQuietly() {
+        try {
+            int purged = purge();
+            if (purged > 0) {
+                log.debug("Purged {} expired idempotency keys", purged);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Purging expired idempotency keys failed", ex);
+        }
+    }
+
+    private Stored lookup(String key) {
+        Stored cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        IdempotencyRecord record = repo.findById(key).orElse(null);
+        if (record == null) {
+            return null;
+        }
+        Stored stored = new Stored(record.getRequestHash(), unpack(record.getSeatIds()), record.getCreatedAt());
+        if (remaining(stored).isZero()) {
+            // Expired but not purged yet; make room for the new use of the key
+            repo.delete(record);
+            return null;
+        }
+        cache.put(key, stored);
+        return stored;
+    }
+
+    private Outcome replay(Stored done, long hash) {
+        if (done.requestHash() != hash) {
+            throw reused();
+        }
+        replays.increment();
+        return new Outcome(done.seatIds(), true);
+    }
+
+    private static IdempotencyKeyReusedException reused() {
+        return new IdempotencyKeyReusedException("Idempotency-Key was already used for a different request");
+    }
+
+    private Duration remaining(Stored stored) {
+        Duration left = Duration.between(LocalDateTime.now(), stored.createdAt().plus(ttl));
+        return left.isNegative() ? Duration.ZERO : left;
+    }
+
+    // First 8 bytes of the SHA-256 of the request description
+    static long fingerprint(String request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(request.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static byte[] pack(List<Long> seatIds) {
+        ByteBuffer buf = ByteBuffer.allocate(Long.BYTES * seatIds.size());
+        seatIds.forEach(buf::putLong);
+        return buf.array();
+    }
+
+    static List<Long> unpack(byte[] packed) {
+        ByteBuffer buf = ByteBuffer.wrap(packed);
+        List<Long> seatIds = new ArrayList<>(packed.length / Long.BYTES);
+        while (buf.remaining() >= Long.BYTES) {
+            seatIds.add(buf.getLong());
+        }
+        return List.copyOf(seatIds);
+    }
+}
@@ -0,0 +1,106 @@
+package com.cinema.service.impl;
+
+import com.cinema.entity.SeatCategory;
+import com.cinema.entity.Showtime;
+import com.cinema.exception.ResourceNotFoundException;
+import com.cinema.exception.SeatUnavailableException;
+import com.cinema.repository.ShowtimeRepository;
+import com.cinema.service.SeatHoldService;
+import com.cinema.service.inventory.SeatBookingCoordinator;
+import com.cinema.service.inventory.SeatHold;
+import com.cinema.service.inventory.SeatHoldRegistry;
+import com.cinema.service.inventory.SeatInventory;
+import com.cinema.service.inventory.SeatOccupancy;
+import com.cinema.service.tickets.TicketWriter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+public class SeatHoldServiceImpl implements SeatHoldService {
+
+    private final ShowtimeRepository showtimeRepo;
+    private final TicketWriter ticketWriter;
+    private final SeatInventory seatInventory;
+    private final SeatBookingCoordinator bookingCoordinator;
+    private final SeatHoldRegistry holds;
+
+    public SeatHoldServiceImpl(ShowtimeRepository showtimeRepo,
+                               TicketWriter ticketWriter,
+                               SeatInventory seatInventory,
+                               SeatBookingCoordinator bookingCoordinator,
+                               SeatHoldRegistry holds) {
+        this.showtimeRepo = showtimeRepo;
+        this.ticketWriter = ticketWriter;
+        this.seatInventory = seatInventory;
+        this.bookingCoordinator = bookingCoordinator;
+        this.holds = holds;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SeatHold hold(Long showtimeId, List<Long> seatIds) {
+        SeatOccupancy occupancy = occupancy(showtimeId);
+        int[] positions = bookingCoordinator.resolvePositions(occupancy.getLayout(), seatIds);
+        if (!occupancy.tryClaim(positions)) {
+            throw new SeatUnavailableException("One or more seats are already booked or held");
+        }
+        return holds.register(showtimeId, occupancy, positions, seatIds);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SeatHold holdBestAvailable(Long showtimeId, int count, SeatCategory category) {
+        SeatOccupancy occupancy = occupancy(showtimeId);
+        int[] positions = bookingCoordinator.reserveBest(occupancy, count, category);
+        return holds.register(showtimeId, occupancy, positions, occupancy.getLayout().seatIdsAt(positions));
+    }
+
+    @Override
+    @Transactional
+    public void confirm(Long showtimeId, String holdId) {
+        SeatHold current = holds.get(holdId);
+        if (current == null || !current.getShowtimeId().equals(showtimeId)) {
+            throw new ResourceNotFoundException("Hold not found or expired: " + holdId);
+        }
+        SeatHold hold = holds.takeForConfirmation(holdId);
+        if (hold == null) {
+            throw new ResourceNotFoundException("Hold not found or expired: " + holdId);
+        }
+
+        Showtime showtime = showtimeRepo.findById(showtimeId)
+                .orElseThrow(() -> new ResourceNotFoundException("Showtime not found: " + showtimeId));
+        SeatOccupancy occupancy = seatInventory.occupancy(showtime);
+        int[] positions = hold.getPositions();
+        if (occupancy == hold.getOccupancy()) {
+            bookingCoordinator.bookOnCommit(occupancy, positions);
+        } else {
+            // The occupancy was evicted and reloaded while the hold was open, so the held claim only
+            // exists on the dropped copy: claim the held seats again on the current one
+            hold.getOccupancy().release(positions);
+            positions = bookingCoordinator.resolvePositions(occupancy.getLayout(), hold.getSeatIds());
+            bookingCoordinator.claim(occupancy, positions);
+        }
+        ticketWriter.write(showtime, occupancy, positions);
+    }
+
+    @Override
+    public boolean release(Long showtimeId, String holdId) {
+        SeatHold hold = holds.get(holdId);
+        if (hold == null || !hold.getShowtimeId().equals(showtimeId)) {
+            return false;
+        }
+        return holds.release(holdId);
+    }
+
+    private SeatOccupancy occupancy(Long showtimeId) {
+        SeatOccupancy occupancy = seatInventory.cached(showtimeId);
+        if (occupancy != null) {
+            return occupancy;
+        }
+        Showtime showtime = showtimeRepo.findById(showtimeId)
+                .orElseThrow(() -> new ResourceNotFoundException("Showtime not found: " + showtimeId));
+        return seatInventory.occupancy(showtime);
+    }
+}
@@ -0,0 +1,163 @@
+package com.cinema.service.impl;
+
+import com.cinema.entity.Cinema;
+import com.cinema.entity.ScreenLayoutAssignment;
+import com.cinema.entity.SeatCategory;
+import com.cinema.entity.SeatLayoutRow;
+import com.cinema.entity.SeatLayoutTemplate;
+import com.cinema.exception.BusinessRuleViolationException;
+import com.cinema.exception.ResourceNotFoundException;
+import com.cinema.repository.CinemaRepository;
+import com.cinema.repository.ScreenLayoutAssignmentRepository;
+import com.cinema.repository.SeatLayoutTemplateRepository;
+import com.cinema.repository.ShowtimeRepository;
+import com.cinema.repository.TicketRepository;
+import com.cinema.service.SeatLayoutService;
+import com.cinema.service.inventory.PendingTickets;
+import com.cinema.service.inventory.ScreenKey;
+import com.cinema.service.inventory.SeatHoldRegistry;
+import com.cinema.service.inventory.SeatInventory;
+import com.cinema.service.layout.SeatLayout;
+import com.cinema.service.layout.SeatLayouts;
+import com.cinema.service.support.TransactionHooks;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional
+public class SeatLayoutServiceImpl implements SeatLayoutService {
+
+    static final int MAX_ROWS = 100;
+    static final int MAX_SEATS_PER_ROW = 200;
+
+    private final SeatLayoutTemplateRepository templateRepo;
+    private final ScreenLayoutAssignmentRepository assignmentRepo;
+    private final CinemaRepository cinemaRepo;
+    private final TicketRepository ticketRepo;
+    private final ShowtimeRepository showtimeRepo;
+    private final SeatLayouts seatLayouts;
+    private final SeatInventory seatInventory;
+    private final SeatHoldRegistry holds;
+    private final PendingTickets pending;
+
+    public SeatLayoutServiceImpl(SeatLayoutTemplateRepository templateRepo,
+                                 ScreenLayoutAssignmentRepository assignmentRepo,
+                                 CinemaRepository cinemaRepo,
+                                 TicketRepository ticketRepo,
+                                 ShowtimeRepository showtimeRepo,
+                                 SeatLayouts seatLayouts,
+                                 SeatInventory seatInventory,
+                                 SeatHoldRegistry holds,
+                                 PendingTickets pending) {
+        this.templateRepo = templateRepo;
+        this.assignmentRepo = assignmentRepo;
+        this.cinemaRepo = cinemaRepo;
+        this.ticketRepo = ticketRepo;
+        this.showtimeRepo = showtimeRepo;
+        this.seatLayouts = seatLayouts;
+        this.seatInventory = seatInventory;
+        this.holds = holds;
+        this.pending = pending;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SeatLayoutTemplate> findAll() {
+        return templateRepo.findAll();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SeatLayoutTemplate get(Long id) {
+        return templateRepo.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Seat layout not found: " + id));
+    }
+
+    @Override
+    public SeatLayoutTemplate create(String name, List<SeatLayoutRow> rows) {
+        if (name == null || name.isBlank() || name.length() > 100) {
+            throw new BusinessRuleViolationException("name is required (max 100 characters)");
+        }
+        if (templateRepo.existsByName(name.trim())) {
+            throw new BusinessRuleViolationException("A seat layout named '" + name.trim() + "' already exists");
+        }
+        SeatLayoutTemplate saved = templateRepo.save(new SeatLayoutTemplate(name.trim(), validRows(rows)));
+        TransactionHooks.afterCommit(() -> seatLayouts.intern(saved));
+        return saved;
+    }
+
+    @Override
+    public void assign(Long cinemaId, int screenNumber, Long layoutId) {
+        Cinema cinema = cinemaRepo.findById(cinemaId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cinema not found: " + cinemaId));
+        if (screenNumber < 1 || screenNumber > cinema.getTotalScreens()) {
+            throw new BusinessRuleViolationException("Cinema " + cinemaId + " has no screen " + screenNumber);
+        }
+        if (layoutId == null || !templateRepo.existsById(layoutId)) {
+            throw new ResourceNotFoundException("Seat layout not found: " + layoutId);
+        }
+        // Existing tickets, live holds and journaled tickets not yet drained all name seats of the current layout
+        ScreenKey screen = new ScreenKey(cinemaId, screenNumber);
+        if (ticketRepo.existsForScreen(cinemaId, screenNumber)) {
+            throw new BusinessRuleViolationException("Screen " + screenNumber + " already has tickets; its seat layout cannot change");
+        }
+        if (holds.hasHolds(screen)) {
+            throw new BusinessRuleViolationException("Screen " + screenNumber + " has seats on hold; its seat layout cannot change");
+        }
+        Set<Long> pendingShowtimes = pending.showtimeIds();
+        if (!pendingShowtimes.isEmpty()
+                && showtimeRepo.existsByIdInAndCinema_IdAndScreenNumber(pendingShowtimes, cinemaId, screenNumber)) {
+            throw new BusinessRuleViolationException("Screen " + screenNumber + " has bookings still being written; its seat layout cannot change");
+        }
+
+        ScreenLayoutAssignment assignment = assignmentRepo.findByCinemaIdAndScreenNumber(cinemaId, screenNumber)
+                .orElseGet(() -> new ScreenLayoutAssignment(cinemaId, screenNumber, layoutId));
+        assignment.setLayoutId(layoutId);
+        assignmentRepo.save(assignment);
+
+        TransactionHooks.afterCommit(() -> {
+            seatLayouts.forgetScreen(screen);
+            seatInventory.evictLayout(screen);
+        });
+    }
+
+    private static List<SeatLayoutRow> validRows(List<SeatLayoutRow> rows) {
+        if (rows == null || rows.isEmpty() || rows.size() > MAX_ROWS) {
+            throw new BusinessRuleViolationException("A seat layout needs 1.." + MAX_ROWS + " rows");
+        }
+        Set<String> labels = new HashSet<>();
+        List<SeatLayoutRow> valid = new ArrayList<>(rows.size());
+        for (SeatLayoutRow row : rows) {
+            String label = row.getLabel() == null ? "" : row.getLabel().trim();
+            if (label.isEmpty() || label.length() > 5 || !labels.add(label)) {
+                throw new BusinessRuleViolationException("Row labels must be unique, 1-5 characters: '" + label + "'");
+            }
+            if (row.getSeats() < 1 || row.getSeats() > MAX_SEATS_PER_ROW) {
+                throw new BusinessRuleViolationException("Row " + label + " needs 1.." + MAX_SEATS_PER_ROW + " seats");
+            }
+            TreeSet<Integer> aisles = new TreeSet<>();
+            try {
+                for (int after : SeatLayout.aislesAfter(row)) {
+                    if (after < 1 || after >= row.getSeats()) {
+                        throw new BusinessRuleViolationException("Row " + label + ": an aisle must follow a seat 1.." + (row.getSeats() - 1));
+                    }
+                    aisles.add(after);
+                }
+            } catch (NumberFormatException ex) {
+                throw new BusinessRuleViolationException("Row " + label + ": aisles must be seat numbers");
+            }
+            String aislesAfter = aisles.isEmpty() ? null
+                    : aisles.stream().map(String::valueOf).collect(Collectors.joining(","));
+            SeatCategory category = row.getCategory() == null ? SeatCategory.STANDARD : row.getCategory();
+            valid.add(new SeatLayoutRow(label, row.getSeats(), aislesAfter, category));
+        }
+        return valid;
+    }
+}
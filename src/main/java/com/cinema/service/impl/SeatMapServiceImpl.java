@@ -1,96 +1,87 @@
 package com.cinema.service.impl;
 
-import com.cinema.entity.Cinema;
-import com.cinema.entity.Seat;
-import com.cinema.entity.Showtime;
-import com.cinema.entity.Ticket;
 import com.cinema.exception.ResourceNotFoundException;
-import com.cinema.repository.SeatRepository;
-import com.cinema.repository.ShowtimeRepository;
-import com.cinema.repository.TicketRepository;
+import com.cinema.metrics.BookingMetrics;
 import com.cinema.service.SeatMapService;
+import com.cinema.service.inventory.ScreenLayout;
+import com.cinema.service.inventory.SeatInventory;
+import com.cinema.service.inventory.SeatOccupancy;
 import com.cinema.web.dto.SeatStatus;
 import com.cinema.web.dto.SeatStatusDto;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 
 @Service
 public class SeatMapServiceImpl implements SeatMapService {
 
 
-    private final ShowtimeRepository showtimeRepo;
-    private final SeatRepository seatRepo;
-    private final TicketRepository ticketRepo;
+    private final SeatInventory inventory;
+    private final BookingMetrics metrics;
 
-    public SeatMapServiceImpl(ShowtimeRepository showtimeRepo,
-                              SeatRepository seatRepo,
-                              TicketRepository ticketRepo) {
-        this.showtimeRepo = showtimeRepo;
-        this.seatRepo = seatRepo;
-        this.ticketRepo = ticketRepo;
+    public SeatMapServiceImpl(SeatInventory inventory,
+                              BookingMetrics metrics) {
+        this.inventory = inventory;
+        this.metrics = metrics;
     }
 
     @Override
-    @Transactional
+    @Transactional(readOnly = true)
     public List<SeatStatusDto> getSeatMapForShowtime(Long showtimeId) {
-        Showtime showtime = showtimeRepo.findById(showtimeId)
-                .orElseThrow(() -> new ResourceNotFoundException("Showtime not found: " + showtimeId));
-
-        Long cinemaId = showtime.getCinema().getId();
-        int screenNumber = showtime.getScreenNumber();
-
-        // Try to load seats for this cinema + screen
-        List<Seat> seats = seatRepo
-                .findByCinemaIdAndScreenNumberOrderByRowLabelAscSeatNumberAsc(cinemaId, screenNumber);
+        return getSeatMap(showtimeId).seats();
+    }
 
-        // If none exist yet, auto-generate a simple seating plan (A–E, 1–10)
-        if (seats.isEmpty()) {
-            seats = createDefaultSeatsForScreen(showtime.getCinema(), screenNumber);
+    @Override
+    @Transactional(readOnly = true)
+    public SeatMap getSeatMap(Long showtimeId) {
+        long start = System.nanoTime();
+        // Warm path: layout + bitset already in memory, no DB access
+        SeatOccupancy occupancy = inventory.cached(showtimeId);
+        boolean warm = occupancy != null;
+        if (!warm) {
+            // Cold path: the showtime's screen, then its booked seats (seat rows too, for the first
+            // showtime of a screen that has them) as projections, no entity hydration
+            occupancy = inventory.occupancy(showtimeId);
         }
+        if (occupancy == null) {
+            throw new ResourceNotFoundException("Showtime not found: " + showtimeId);
+        }
+        // Tag first: the seats read after it are at least as new as the version it names
+        String tag = tag(occupancy);
+        List<SeatStatusDto> result = toDtos(occupancy);
+        metrics.recordSeatMapBuild(occupancy.getLayout().getScreen().cinemaId(), warm, System.nanoTime() - start);
+        return new SeatMap(tag, result);
+    }
 
-        // All tickets for that showtime (booked seats)
-        List<Ticket> tickets = ticketRepo.findByShowtimeId(showtimeId);
-        Set<Long> bookedSeatIds = tickets.stream()
-                .map(t -> t.getSeat().getId())
-                .collect(Collectors.toCollection(HashSet::new));
-
-        // Map to DTOs
-        return seats.stream()
-                .map(seat -> {
-                    SeatStatus status = bookedSeatIds.contains(seat.getId())
-                            ? SeatStatus.BOOKED
-                            : SeatStatus.FREE;
-                    return new SeatStatusDto(
-                            seat.getId(),
-                            seat.getRowLabel(),
-                            seat.getSeatNumber(),
-                            status
-                    );
-                })
-                .toList();
+    @Override
+    public String currentTag(Long showtimeId) {
+        SeatOccupancy occupancy = inventory.cached(showtimeId);
+        return occupancy == null ? null : tag(occupancy);
     }
 
-    private List<Seat> createDefaultSeatsForScreen(Cinema cinema, int screenNumber) {
-        List<Seat> newSeats = new ArrayList<>();
+    private static String tag(SeatOccupancy occupancy) {
+        return Long.toHexString(occupancy.epoch()) + "-" + occupancy.version();
+    }
 
-        // Rows A–E, seats 1–10
-        for (char row = 'A'; row <= 'E'; row++) {
-            String rowLabel = String.valueOf(row);
-            for (int num = 1; num <= 10; num++) {
-                Seat seat = new Seat(cinema, screenNumber, rowLabel, num);
-                newSeats.add(seat);
-            }
+    private List<SeatStatusDto> toDtos(SeatOccupancy occupancy) {
+        ScreenLayout layout = occupancy.getLayout();
+        List<SeatStatusDto> result = new ArrayList<>(layout.size());
+        for (int pos = 0; pos < layout.size(); pos++) {
+            SeatStatus status = occupancy.isBooked(pos) ? SeatStatus.BOOKED
+                    : occupancy.isHeld(pos) ? SeatStatus.HELD
+                    : SeatStatus.FREE;
+            result.add(new SeatStatusDto(
+                    layout.seatIdAt(pos),
+                    layout.rowLabelAt(pos),
+                    layout.seatNumberAt(pos),
+                    status,
+                    layout.categoryAt(pos),
+                    layout.aisleAfter(pos)
+            ));
         }
-
-        return seatRepo.saveAll(newSeats);
+        return result;
     }
-
-
 }
@@ -0,0 +1,151 @@
+package com.cinema.service.impl;
+
+import com.cinema.entity.Showtime;
+import com.cinema.exception.BusinessRuleViolationException;
+import com.cinema.repository.CinemaRepository;
+import com.cinema.repository.ShowtimeRepository;
+import com.cinema.repository.projection.ShowtimeTitle;
+import com.cinema.service.ShowtimeImportService;
+import com.cinema.service.cache.ShowtimeCache;
+import com.cinema.service.inventory.ScreenKey;
+import com.cinema.service.schedule.ScheduleIndex;
+import com.cinema.service.search.TitleIndex;
+import com.cinema.service.support.TransactionHooks;
+import com.cinema.web.dto.ShowtimeImportReport;
+import com.cinema.web.dto.ShowtimeImportReport.RowError;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@Transactional
+public class ShowtimeImportServiceImpl implements ShowtimeImportService {
+
+    // The persistence context is flushed and cleared every this many rows so it stays small
+    static final int FLUSH_EVERY = 1000;
+
+    private final ShowtimeRepository showtimeRepo;
+    private final CinemaRepository cinemaRepo;
+    private final ScheduleIndex scheduleIndex;
+    private final ShowtimeCache cache;
+    private final TitleIndex titleIndex;
+    private final EntityManager entityManager;
+
+    public ShowtimeImportServiceImpl(ShowtimeRepository showtimeRepo,
+                                     CinemaRepository cinemaRepo,
+                                     ScheduleIndex scheduleIndex,
+                                     ShowtimeCache cache,
+                                     TitleIndex titleIndex,
+                                     EntityManager entityManager) {
+        this.showtimeRepo = showtimeRepo;
+        this.cinemaRepo = cinemaRepo;
+        this.scheduleIndex = scheduleIndex;
+        this.cache = cache;
+        this.titleIndex = titleIndex;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public ShowtimeImportReport importShowtimes(List<Showtime> rows, List<Integer> rowNumbers) {
+        if (rowNumbers.size() != rows.size()) {
+            throw new IllegalArgumentException("Expected one row number per row");
+        }
+        List<RowError> errors = new ArrayList<>();
+        List<Integer> candidates = validRows(rows, rowNumbers, errors);
+
+        // One pass over the rows in (cinema, screen, start) order: an accepted row can only
+        // clash with the previous accepted row of its screen, or with the stored schedule
+        candidates.sort(Comparator
+                .comparing((Integer i) -> rows.get(i).getCinema().getId())
+                .thenComparingInt(i -> rows.get(i).getScreenNumber())
+                .thenComparing(i -> rows.get(i).getStartTime()));
+
+        List<Integer> accepted = new ArrayList<>(candidates.size());
+        List<ScheduleIndex.Reservation> slots = new ArrayList<>(candidates.size());
+        ScreenKey screen = null;
+        int previous = -1;
+        for (int i : candidates) {
+            Showtime s = rows.get(i);
+            ScreenKey key = new ScreenKey(s.getCinema().getId(), s.getScreenNumber());
+            if (!key.equals(screen)) {
+                screen = key;
+                previous = -1;
+            }
+            if (previous >= 0 && s.getStartTime().isBefore(rows.get(previous).getEndTime())) {
+                errors.add(new RowError(rowNumbers.get(i), "Overlaps row " + rowNumbers.get(previous) + " of this import"));
+                continue;
+            }
+            ScheduleIndex.Reservation slot = scheduleIndex.reserve(key, s.getStartTime(), s.getEndTime());
+            boolean clash = slot != null
+                    ? !slot.isGranted()
+                    : showtimeRepo.existsOverlappingShowtimeExcludingId(
+                            key.cinemaId(), key.screenNumber(), s.getStartTime(), s.getEndTime(), null);
+            if (clash) {
+                errors.add(new RowError(rowNumbers.get(i),
+                        "Overlapping showtime for cinema=" + key.cinemaId() + ", screen=" + key.screenNumber()));
+                continue;
+            }
+            accepted.add(i);
+            slots.add(slot);
+            previous = i;
+        }
+
+        Set<Long> cinemaIds = new HashSet<>();
+        List<ShowtimeTitle> titles = new ArrayList<>(accepted.size());
+        for (int n = 0; n < accepted.size(); n++) {
+            Showtime s = rows.get(accepted.get(n));
+            Long cinemaId = s.getCinema().getId();
+            cinemaIds.add(cinemaId);
+            s.setCinema(cinemaRepo.getReferenceById(cinemaId));
+            entityManager.persist(s); // the pooled sequence assigns the id without an INSERT
+            if (slots.get(n) != null) slots.get(n).bind(s.getId());
+            titles.add(new ShowtimeTitle(s.getId(), cinemaId, s.getStartTime(), s.getMovieTitle()));
+            if ((n + 1) % FLUSH_EVERY == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        TransactionHooks.afterCommit(() -> {
+            cinemaIds.forEach(cache::invalidateCinema);
+            titleIndex.putAll(titles);
+        });
+
+        errors.sort(Comparator.comparingInt(RowError::getRow));
+        return new ShowtimeImportReport(rows.size(), accepted.size(), errors);
+    }
+
+    /** Indexes of rows that pass the field rules and name an existing cinema. */
+    private List<Integer> validRows(List<Showtime> rows, List<Integer> rowNumbers, List<RowError> errors) {
+        Set<Long> referenced = new HashSet<>();
+        for (Showtime s : rows) {
+            if (s != null && s.getCinema() != null && s.getCinema().getId() != null) {
+                referenced.add(s.getCinema().getId());
+            }
+        }
+        Set<Long> existing = referenced.isEmpty() ? Set.of() : cinemaRepo.findExistingIds(referenced);
+
+        List<Integer> valid = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Showtime s = rows.get(i);
+            try {
+                if (s == null) throw new BusinessRuleViolationException("row is empty");
+                ShowtimeServiceImpl.validateFields(s);
+                Long cinemaId = ShowtimeServiceImpl.requireCinemaId(s.getCinema());
+                if (!existing.contains(cinemaId)) {
+                    throw new BusinessRuleViolationException("Cinema not found: " + cinemaId);
+                }
+                valid.add(i);
+            } catch (BusinessRuleViolationException ex) {
+                errors.add(new RowError(rowNumbers.get(i), ex.getMessage()));
+            }
+        }
+        return valid;
+    }
+}
@@ -1,96 +1,182 @@
 package com.cinema.service.impl;
 
 import com.cinema.entity.Cinema;
+import com.cinema.entity.SeatCategory;
 import com.cinema.entity.Showtime;
 import com.cinema.exception.BusinessRuleViolationException;
 import com.cinema.exception.OverlappingShowtimeException;
 import com.cinema.exception.ResourceNotFoundException;
+import com.cinema.metrics.BookingMetrics;
 import com.cinema.repository.CinemaRepository;
 import com.cinema.repository.ShowtimeRepository;
+import com.cinema.repository.ShowtimeSpecifications;
+import com.cinema.repository.projection.ShowtimeTitle;
+import com.cinema.service.CinemaService;
+import com.cinema.service.cache.ShowtimeCache;
 import com.cinema.service.ShowtimeService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import com.cinema.entity.Seat;
-import com.cinema.entity.Ticket;
-import com.cinema.repository.SeatRepository;
-import com.cinema.repository.TicketRepository;
+import com.cinema.service.inventory.PendingTickets;
+import com.cinema.service.inventory.ScreenKey;
+import com.cinema.service.inventory.SeatBookingCoordinator;
+import com.cinema.service.inventory.SeatHoldRegistry;
+import com.cinema.service.inventory.SeatInventory;
+import com.cinema.service.inventory.SeatOccupancy;
+import com.cinema.service.paging.KeysetPage;
+import com.cinema.service.paging.PageSize;
+import com.cinema.service.paging.ShowtimeCursor;
+import com.cinema.service.schedule.ScheduleIndex;
+import com.cinema.service.search.TitleIndex;
+import com.cinema.service.support.TransactionHooks;
+import com.cinema.service.tickets.TicketWriter;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class ShowtimeServiceImpl implements ShowtimeService{
 
+    // Windows up to this many days are assembled from cached cinema-days; longer ones go to the DB
+    static final int MAX_CACHED_WINDOW_DAYS = 31;
+
+    // Title-search matches are fetched by primary key in IN lists of at most this many ids
+    static final int ID_BATCH = PageSize.MAX;
+
     private final ShowtimeRepository showtimeRepo;
     private final CinemaRepository cinemaRepo;
-    private final SeatRepository seatRepo;
-    private final TicketRepository ticketRepo;
-
+    private final TicketWriter ticketWriter;
+    private final SeatInventory seatInventory;
+    private final SeatBookingCoordinator bookingCoordinator;
+    private final BookingMetrics metrics;
+    private final EntityManager entityManager;
+    private final CinemaService cinemaService;
+    private final ShowtimeCache cache;
+    private final ScheduleIndex scheduleIndex;
+    private final TitleIndex titleIndex;
+    private final SeatHoldRegistry holds;
+    private final PendingTickets pending;
 
     public ShowtimeServiceImpl(ShowtimeRepository showtimeRepo,
                                CinemaRepository cinemaRepo,
-                               SeatRepository seatRepo,
-                               TicketRepository ticketRepo) {
+                               TicketWriter ticketWriter,
+                               SeatInventory seatInventory,
+                               SeatBookingCoordinator bookingCoordinator,
+                               BookingMetrics metrics,
+                               EntityManager entityManager,
+                               CinemaService cinemaService,
+                               ShowtimeCache cache,
+                               ScheduleIndex scheduleIndex,
+                               TitleIndex titleIndex,
+                               SeatHoldRegistry holds,
+                               PendingTickets pending) {
         this.showtimeRepo = showtimeRepo;
         this.cinemaRepo = cinemaRepo;
-        this.seatRepo = seatRepo;
-        this.ticketRepo = ticketRepo;
+        this.ticketWriter = ticketWriter;
+        this.seatInventory = seatInventory;
+        this.bookingCoordinator = bookingCoordinator;
+        this.metrics = metrics;
+        this.entityManager = entityManager;
+        this.cinemaService = cinemaService;
+        this.cache = cache;
+        this.scheduleIndex = scheduleIndex;
+        this.titleIndex = titleIndex;
+        this.holds = holds;
+        this.pending = pending;
     }
 
     @Override
     @Transactional
     public void bookSeats(Long showtimeId, List<Long> seatIds) {
-        if (seatIds == null || seatIds.isEmpty()) {
-            throw new BusinessRuleViolationException("seatIds must not be empty");
-        }
-
-        Showtime showtime = showtimeRepo.findById(showtimeId)
-                .orElseThrow(() -> new ResourceNotFoundException("Showtime not found: " + showtimeId));
-
-        List<Seat> seats = seatRepo.findAllById(seatIds);
-        if (seats.size() != seatIds.size()) {
-            throw new ResourceNotFoundException("One or more seats not found");
-        }
-
-        Long cinemaId = showtime.getCinema().getId();
-        int screen = showtime.getScreenNumber();
-        boolean allMatch = seats.stream()
-                .allMatch(seat -> seat.getCinema().getId().equals(cinemaId)
-                        && seat.getScreenNumber() == screen);
-        if (!allMatch) {
-            throw new BusinessRuleViolationException("One or more seats do not belong to this showtime's screen");
+        long start = System.nanoTime();
+        Long cinemaId = null;
+        try {
+            if (seatIds == null || seatIds.isEmpty()) {
+                throw new BusinessRuleViolationException("seatIds must not be empty");
+            }
+
+            Showtime showtime = showtimeRepo.findById(showtimeId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Showtime not found: " + showtimeId));
+            cinemaId = showtime.getCinema().getId();
+
+            // Seat validation and conflict checks run against the in-memory inventory;
+            // the DB is only hit for seats this request actually won
+            SeatOccupancy occupancy = seatInventory.occupancy(showtime);
+            int[] positions = bookingCoordinator.resolvePositions(occupancy.getLayout(), seatIds);
+            bookingCoordinator.claim(occupancy, positions);
+
+            ticketWriter.write(showtime, occupancy, positions);
+            recordOnCompletion(cinemaId, positions.length, start);
+        } catch (RuntimeException ex) {
+            metrics.recordBooking(cinemaId, BookingMetrics.classify(ex), 0, System.nanoTime() - start);
+            throw ex;
         }
+    }
 
-        List<Ticket> existing = ticketRepo.findByShowtimeIdAndSeatIdIn(showtimeId, seatIds);
-        if (!existing.isEmpty()) {
-            throw new BusinessRuleViolationException("One or more seats are already booked");
+    @Override
+    @Transactional
+    public List<Long> bookBestAvailable(Long showtimeId, int count, SeatCategory category) {
+        long start = System.nanoTime();
+        Long cinemaId = null;
+        try {
+            Showtime showtime = showtimeRepo.findById(showtimeId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Showtime not found: " + showtimeId));
+            cinemaId = showtime.getCinema().getId();
+
+            SeatOccupancy occupancy = seatInventory.occupancy(showtime);
+            int[] positions = bookingCoordinator.claimBest(occupancy, count, category);
+
+            List<Long> booked = ticketWriter.write(showtime, occupancy, positions);
+            recordOnCompletion(cinemaId, positions.length, start);
+            return booked;
+        } catch (RuntimeException ex) {
+            metrics.recordBooking(cinemaId, BookingMetrics.classify(ex), 0, System.nanoTime() - start);
+            throw ex;
         }
-
-        double price = showtime.getTicketPrice();
-        List<Ticket> ticketsToSave = seats.stream()
-                .map(seat -> new Ticket(showtime, seat, price))
-                .toList();
-
-        ticketRepo.saveAll(ticketsToSave); // no return
     }
 
 
-
+    // A booking counts as a success only once the transaction it runs in (possibly the caller's) commits
+    private void recordOnCompletion(Long cinemaId, int seats, long start) {
+        TransactionHooks.afterCommit(() ->
+                metrics.recordBooking(cinemaId, BookingMetrics.Outcome.SUCCESS, seats, System.nanoTime() - start));
+        TransactionHooks.afterRollback(() ->
+                metrics.recordBooking(cinemaId, BookingMetrics.Outcome.ROLLED_BACK, 0, System.nanoTime() - start));
+    }
 
     @Override
     public Showtime create(Showtime s) {
         validateFields(s);
         Long cinemaId = requireCinemaId(s.getCinema());
         ensureCinemaExists(cinemaId);
-        ensureNoOverlap(cinemaId, s.getScreenNumber(), s.getStartTime(), s.getEndTime(), null);
-        return showtimeRepo.save(s);
+        ScheduleIndex.Reservation slot = reserveSlot(cinemaId, s.getScreenNumber(), s.getStartTime(), s.getEndTime(), null);
+        Showtime saved = showtimeRepo.save(s);
+        if (slot != null) slot.bind(saved.getId());
+        ShowtimeTitle title = new ShowtimeTitle(saved.getId(), cinemaId, saved.getStartTime(), saved.getMovieTitle());
+        TransactionHooks.afterCommit(() -> {
+            cache.invalidate(saved.getId(), cinemaId, saved.getStartTime());
+            titleIndex.put(title);
+        });
+        return saved;
     }
 
     @Override
     public Showtime update(Long id, Showtime u) {
         Showtime existing = showtimeRepo.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Showtime not found: " + id));
+        Long oldCinemaId = existing.getCinema() == null ? null : existing.getCinema().getId();
+        LocalDateTime oldStart = existing.getStartTime();
+        int oldScreen = existing.getScreenNumber();
 
         // Apply allowed field changes
         if (u.getMovieTitle() != null) existing.setMovieTitle(u.getMovieTitle());
@@ -105,42 +191,76 @@ public class ShowtimeServiceImpl implements ShowtimeService{
         validateFields(existing);
         Long cinemaId = requireCinemaId(existing.getCinema());
         ensureCinemaExists(cinemaId);
-        ensureNoOverlap(cinemaId, existing.getScreenNumber(),
+        // Holds and journaled tickets name seats of the current screen; they cannot follow a move
+        boolean moved = !cinemaId.equals(oldCinemaId) || existing.getScreenNumber() != oldScreen;
+        if (moved && holds.hasHolds(id)) {
+            throw new BusinessRuleViolationException("Showtime " + id + " has seats on hold; it cannot move to another screen");
+        }
+        if (moved && !pending.seatIds(id).isEmpty()) {
+            throw new BusinessRuleViolationException("Showtime " + id + " has bookings still being written; it cannot move to another screen");
+        }
+        ScheduleIndex.Reservation slot = reserveSlot(cinemaId, existing.getScreenNumber(),
                 existing.getStartTime(), existing.getEndTime(), id);
 
-        return showtimeRepo.save(existing);
+        Showtime saved = showtimeRepo.save(existing);
+        scheduleIndex.moveOnCommit(id, oldCinemaId == null ? null : new ScreenKey(oldCinemaId, oldScreen),
+                new ScreenKey(cinemaId, saved.getScreenNumber()), slot);
+        ShowtimeTitle title = new ShowtimeTitle(id, cinemaId, saved.getStartTime(), saved.getMovieTitle());
+        TransactionHooks.afterCommit(() -> {
+            if (moved) {
+                seatInventory.evict(id); // the cached seat bitset is of the old screen
+            }
+            cache.invalidate(id, oldCinemaId, oldStart);
+            cache.invalidate(id, cinemaId, saved.getStartTime());
+            titleIndex.put(title);
+        });
+        return saved;
     }
 
     @Override
     public boolean delete(Long id) {
         return showtimeRepo.findById(id)
-                .map(s -> { showtimeRepo.deleteById(id); return true; })
+                .map(s -> {
+                    Long cinemaId = s.getCinema().getId();
+                    LocalDateTime start = s.getStartTime();
+                    showtimeRepo.deleteById(id);
+                    scheduleIndex.removeOnCommit(id, new ScreenKey(cinemaId, s.getScreenNumber()));
+                    TransactionHooks.afterCommit(() -> {
+                        seatInventory.evict(id);
+                        cache.invalidate(id, cinemaId, start);
+                        titleIndex.remove(id);
+                    });
+                    return true;
+                })
                 .orElse(false);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<Showtime> findById(Long id) {
-        return showtimeRepo.findById(id);
+        return Optional.ofNullable(cache.get(id, () -> showtimeRepo.findById(id).map(this::detached).orElse(null)));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Showtime> findByCinema(Long cinemaId) {
-        return showtimeRepo.findByCinema_Id(cinemaId);
+        return cinemaSchedule(cinemaId);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Showtime> searchByTitle(String query) {
-        return showtimeRepo.findByMovieTitleIgnoreCaseContaining(query == null ? "" : query);
+        return titleIndex.search(query, null, null, null)
+                .map(this::byIds)
+                .orElseGet(() -> showtimeRepo.findByMovieTitleIgnoreCaseContaining(query == null ? "" : query));
     }
 
 
     @Override
     @Transactional(readOnly = true)
     public List<Showtime> findInWindow(Long cinemaId, LocalDateTime from, LocalDateTime to) {
-        return showtimeRepo.findByCinema_IdAndStartTimeBetween(cinemaId, from, to);
+        List<Showtime> window = cachedWindow(cinemaId, from, to);
+        return window != null ? window : showtimeRepo.findByCinema_IdAndStartTimeBetween(cinemaId, from, to);
     }
 
     @Override
@@ -150,57 +270,168 @@ public class ShowtimeServiceImpl implements ShowtimeService{
     }
 
     @Override
-    public Optional<Cinema> findCinemaByName(String name) {
-        if (name == null) return Optional.empty();
-        String target = normalize(name);
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<Showtime> consumer) {
+        try (Stream<Showtime> showtimes = showtimeRepo.streamAll()) {
+            showtimes.forEach(s -> {
+                consumer.accept(s);
+                entityManager.detach(s); // keep the persistence context from growing with the cursor
+            });
+        }
+    }
 
-        // Fallback: normalize all names and compare (robust for spaces/case differences)
-        return cinemaRepo.findAll().stream()
-                .filter(c -> normalize(c.getName()).equals(target))
-                .findFirst();
+    @Override
+    public Optional<Cinema> findCinemaByName(String name) {
+        return cinemaService.findByName(name);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Showtime> filter(String q, Long cinemaId, LocalDateTime from, LocalDateTime to) {
-        String term = (q == null) ? "" : q.trim();
-        boolean hasTitle = !term.isEmpty();
-        boolean hasCinema = cinemaId != null;
-        boolean hasFrom = from != null;
-        boolean hasTo = to != null;
+        return titleIndex.search(q, cinemaId, from, to)
+                .map(this::byIds)
+                .orElseGet(() -> showtimeRepo.findAll(ShowtimeSpecifications.filter(q, cinemaId, from, to)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<Showtime> findAll(String cursor, Integer size) {
+        return page(showtimeRepo.findAllByOrderByStartTimeAscIdAsc(
+                ShowtimeCursor.position(cursor), PageSize.of(size)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<Showtime> findByCinema(Long cinemaId, String cursor, Integer size) {
+        return ShowtimeCursor.slice(cinemaSchedule(cinemaId), cursor, size);
+    }
 
-        List<Showtime> base;
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<Showtime> searchByTitle(String query, String cursor, Integer size) {
+        Optional<List<ShowtimeTitle>> matches = titleIndex.search(query, null, null, null);
+        if (matches.isPresent()) {
+            return indexedPage(matches.get(), cursor, size);
+        }
+        return page(showtimeRepo.findByMovieTitleIgnoreCaseContainingOrderByStartTimeAscIdAsc(
+                query == null ? "" : query, ShowtimeCursor.position(cursor), PageSize.of(size)));
+    }
 
-        // Pick the broadest efficient query first
-        if (hasCinema && hasFrom && hasTo) {
-            base = showtimeRepo.findByCinema_IdAndStartTimeBetween(cinemaId, from, to);
-        } else if (!hasCinema && hasFrom && hasTo) {
-            base = showtimeRepo.findByStartTimeBetween(from, to);
-        } else if (hasCinema && !hasFrom && !hasTo) {
-            base = showtimeRepo.findByCinema_Id(cinemaId);
-        } else if (!hasCinema && !hasFrom && !hasTo && hasTitle) {
-            base = showtimeRepo.findByMovieTitleIgnoreCaseContaining(term);
-        } else {
-            base = showtimeRepo.findAll();
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<Showtime> findInWindow(Long cinemaId, LocalDateTime from, LocalDateTime to,
+                                             String cursor, Integer size) {
+        List<Showtime> window = cachedWindow(cinemaId, from, to);
+        if (window != null) {
+            return ShowtimeCursor.slice(window, cursor, size);
         }
+        return page(showtimeRepo.findByCinema_IdAndStartTimeBetweenOrderByStartTimeAscIdAsc(
+                cinemaId, from, to, ShowtimeCursor.position(cursor), PageSize.of(size)));
+    }
 
-        if (hasTitle) {
-            String lc = term.toLowerCase();
-            base = base.stream()
-                    .filter(s -> s.getMovieTitle() != null && s.getMovieTitle().toLowerCase().contains(lc))
-                    .toList();
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetPage<Showtime> filter(String q, Long cinemaId, LocalDateTime from, LocalDateTime to,
+                                       String cursor, Integer size) {
+        Optional<List<ShowtimeTitle>> matches = titleIndex.search(q, cinemaId, from, to);
+        if (matches.isPresent()) {
+            return indexedPage(matches.get(), cursor, size);
         }
+        ScrollPosition position = ShowtimeCursor.position(cursor);
+        int limit = PageSize.of(size).max();
+        return page(showtimeRepo.findBy(ShowtimeSpecifications.filter(q, cinemaId, from, to),
+                query -> query.sortBy(ShowtimeCursor.ORDER).limit(limit).scroll(position)));
+    }
 
-        return base;
+    private List<Showtime> cinemaSchedule(Long cinemaId) {
+        return cache.cinemaSchedule(cinemaId,
+                () -> detached(showtimeRepo.findByCinema_IdOrderByStartTimeAscIdAsc(cinemaId)));
     }
 
+    /**
+     * [from, to] window of a cinema built from cached cinema-days, or null when the
+     * window is too long to be worth assembling from the cache.
+     */
+    private List<Showtime> cachedWindow(Long cinemaId, LocalDateTime from, LocalDateTime to) {
+        if (cinemaId == null || from == null || to == null) {
+            return null;
+        }
+        if (to.isBefore(from)) {
+            return List.of();
+        }
+        LocalDate first = from.toLocalDate();
+        LocalDate last = to.toLocalDate();
+        if (ChronoUnit.DAYS.between(first, last) >= MAX_CACHED_WINDOW_DAYS) {
+            return null;
+        }
+        List<Showtime> result = new ArrayList<>();
+        for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+            LocalDate d = day;
+            for (Showtime s : cache.day(cinemaId, d, () -> detached(showtimeRepo.findSchedule(
+                    cinemaId, d.atStartOfDay(), d.plusDays(1).atStartOfDay())))) {
+                if (!s.getStartTime().isBefore(from) && !s.getStartTime().isAfter(to)) {
+                    result.add(s);
+                }
+            }
+        }
+        return result;
+    }
+
+    // Cached showtimes are shared across requests, so they must not stay attached to this one's session
+    private Showtime detached(Showtime s) {
+        entityManager.detach(s);
+        return s;
+    }
+
+    private List<Showtime> detached(List<Showtime> showtimes) {
+        showtimes.forEach(entityManager::detach);
+        return showtimes;
+    }
 
-    private String normalize(String s) {
-        return s == null ? "" : s.toLowerCase().trim().replaceAll("\\s+", " ");
+    // Page of title-index matches (already in cursor order); only the page's rows are fetched
+    private KeysetPage<Showtime> indexedPage(List<ShowtimeTitle> matches, String cursor, Integer size) {
+        int from = ShowtimeCursor.start(matches, cursor, m -> new ShowtimeCursor(m.startTime(), m.id()));
+        int to = Math.min(matches.size(), from + PageSize.of(size).max());
+        String next = to < matches.size() && to > from
+                ? new ShowtimeCursor(matches.get(to - 1).startTime(), matches.get(to - 1).id()).encode()
+                : null;
+        return new KeysetPage<>(byIds(matches.subList(from, to)), next);
     }
 
+    // Primary-key fetch of index matches, kept in match order; rows deleted since are skipped
+    private List<Showtime> byIds(List<ShowtimeTitle> matches) {
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Showtime> rows = new HashMap<>();
+        for (int i = 0; i < matches.size(); i += ID_BATCH) {
+            List<Long> ids = matches.subList(i, Math.min(matches.size(), i + ID_BATCH)).stream()
+                    .map(ShowtimeTitle::id).toList();
+            for (Showtime s : showtimeRepo.findAllById(ids)) {
+                rows.put(s.getId(), s);
+            }
+        }
+        List<Showtime> ordered = new ArrayList<>(matches.size());
+        for (ShowtimeTitle m : matches) {
+            Showtime s = rows.get(m.id());
+            if (s != null) ordered.add(s);
+        }
+        return ordered;
+    }
+
+    private static KeysetPage<Showtime> page(Window<Showtime> window) {
+        List<Showtime> items = window.getContent();
+        String next = window.hasNext() && !items.isEmpty()
+                ? ShowtimeCursor.after(items.get(items.size() - 1)).encode()
+                : null;
+        return new KeysetPage<>(items, next);
+    }
+
+
     // --- helpers ---
 
-    private void validateFields(Showtime s) {
+    // Shared with the bulk importer
+    static void validateFields(Showtime s) {
         if (s.getMovieTitle() == null || s.getMovieTitle().isBlank())
             throw new BusinessRuleViolationException("movieTitle is required");
         if (s.getStartTime() == null || s.getEndTime() == null)
@@ -215,12 +446,26 @@ public class ShowtimeServiceImpl implements ShowtimeService{
             throw new BusinessRuleViolationException("cinema is required");
     }
 
-    private void ensureNoOverlap(Long cinemaId, int screen, LocalDateTime start, LocalDateTime end, Long excludeId) {
-        boolean clash = showtimeRepo.existsOverlappingShowtimeExcludingId(cinemaId, screen, start, end, excludeId);
+    // Overlap checks are answered by the in-memory index, which also holds the slot until the
+    // transaction ends; the COUNT query only runs for screens the index cannot vouch for (then null)
+    private ScheduleIndex.Reservation reserveSlot(Long cinemaId, int screen, LocalDateTime start, LocalDateTime end,
+                                                  Long excludeId) {
+        ScreenKey key = new ScreenKey(cinemaId, screen);
+        ScheduleIndex.Reservation slot = excludeId == null
+                ? scheduleIndex.reserve(key, start, end)
+                : scheduleIndex.reserve(key, excludeId, start, end);
+        boolean clash = slot != null
+                ? !slot.isGranted()
+                : showtimeRepo.existsOverlappingShowtimeExcludingId(cinemaId, screen, start, end, excludeId);
         if (clash) {
-            throw new OverlappingShowtimeException(
-                    "Overlapping showtime for cinema=" + cinemaId + ", screen=" + screen);
+            throw overlap(cinemaId, screen);
         }
+        return slot;
+    }
+
+    private static OverlappingShowtimeException overlap(Long cinemaId, int screen) {
+        return new OverlappingShowtimeException(
+                "Overlapping showtime for cinema=" + cinemaId + ", screen=" + screen);
     }
 
     private void ensureCinemaExists(Long cinemaId) {
@@ -229,7 +474,7 @@ public class ShowtimeServiceImpl implements ShowtimeService{
         }
     }
 
-    private Long requireCinemaId(Cinema c) {
+    static Long requireCinemaId(Cinema c) {
         if (c.getId() == null)
             throw new BusinessRuleViolationException("cinema.id is required");
         return c.getId();
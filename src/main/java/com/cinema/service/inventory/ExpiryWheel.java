@@ -0,0 +1,155 @@
+package com.cinema.service.inventory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timer wheel for expiring large numbers of short-lived items (seat holds).
+ * Scheduling and cancelling are O(1); a single worker thread advances the wheel
+ * once per tick and only looks at the bucket for that tick, so there is no thread
+ * per item and no scan over all live items. Expiry fires within one tick of the deadline.
+ */
+public final class ExpiryWheel<T> {
+
+    private final long tickNanos;
+    private final ArrayDeque<Entry<T>>[] buckets;
+    private final int mask;
+    private final Consumer<T> onExpire;
+    private final Queue<Entry<T>> pending = new ConcurrentLinkedQueue<>();
+
+    private volatile Thread worker;
+    private volatile boolean running;
+    private long startNanos;
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    public ExpiryWheel(Duration tickDuration, int wheelSize, Consumer<T> onExpire) {
+        if (tickDuration.isZero() || tickDuration.isNegative()) {
+            throw new IllegalArgumentException("tickDuration must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(wheelSize, 1) - 1) << 1;
+        this.tickNanos = tickDuration.toNanos();
+        this.buckets = new ArrayDeque[Math.max(size, 1)];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.mask = buckets.length - 1;
+        this.onExpire = onExpire;
+    }
+
+    /** Handle returned by {@link #schedule}; cancelling is a flag flip picked up lazily by the worker. */
+    public interface Timeout {
+        boolean cancel();
+    }
+
+    public synchronized void start(String threadName) {
+        if (running) {
+            return;
+        }
+        running = true;
+        startNanos = System.nanoTime();
+        Thread t = new Thread(this::run, threadName);
+        t.setDaemon(true);
+        worker = t;
+        t.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        Thread t = worker;
+        if (t != null) {
+            t.interrupt();
+        }
+    }
+
+    public Timeout schedule(T item, Duration delay) {
+        Entry<T> entry = new Entry<>(item, System.nanoTime() + Math.max(delay.toNanos(), 0));
+        pending.add(entry);
+        return entry;
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = startNanos + (tick + 1) * tickNanos;
+            long sleep = deadline - System.nanoTime();
+            if (sleep > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleep);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        return;
+                    }
+                    continue;
+                }
+            }
+            transferPending();
+            expireBucket(buckets[(int) (tick & mask)], deadline);
+            tick++;
+        }
+    }
+
+    // Moves newly scheduled entries into their buckets; only the worker touches buckets
+    private void transferPending() {
+        Entry<T> entry;
+        while ((entry = pending.poll()) != null) {
+            if (entry.cancelled) {
+                continue;
+            }
+            long ticks = Math.max((entry.deadlineNanos - startNanos) / tickNanos, tick);
+            entry.remainingRounds = (ticks - tick) / buckets.length;
+            buckets[(int) (ticks & mask)].add(entry);
+        }
+    }
+
+    private void expireBucket(ArrayDeque<Entry<T>> bucket, long deadline) {
+        Iterator<Entry<T>> it = bucket.iterator();
+        while (it.hasNext()) {
+            Entry<T> entry = it.next();
+            if (entry.cancelled) {
+                it.remove();
+            } else if (entry.remainingRounds <= 0 && entry.deadlineNanos <= deadline) {
+                it.remove();
+                fire(entry);
+            } else {
+                entry.remainingRounds--;
+            }
+        }
+    }
+
+    private void fire(Entry<T> entry) {
+        if (!entry.cancel()) {
+            return;
+        }
+        try {
+            onExpire.accept(entry.item);
+        } catch (RuntimeException ignored) {
+            // one bad callback must not stop the wheel
+        }
+    }
+
+    private static final class Entry<T> implements Timeout {
+        private final T item;
+        private final long deadlineNanos;
+        private long remainingRounds;
+        private volatile boolean cancelled;
+
+        private Entry(T item, long deadlineNanos) {
+            this.item = item;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public synchronized boolean cancel() {
+            if (cancelled) {
+                return false;
+            }
+            cancelled = true;
+            return true;
+        }
+    }
+}
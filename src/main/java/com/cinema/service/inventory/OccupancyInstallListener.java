@@ -0,0 +1,12 @@
+package com.cinema.service.inventory;
+
+/**
+ * Told when {@link SeatInventory} installs a new {@link SeatOccupancy} for a showtime
+ * (first load, reload after an eviction, or a restored snapshot). Called on the loading
+ * thread before the occupancy is handed out, so it must not block.
+ */
+@FunctionalInterface
+public interface OccupancyInstallListener {
+
+    void occupancyInstalled(Long showtimeId, SeatOccupancy occupancy);
+}
@@ -0,0 +1,268 @@
+package com.cinema.service.inventory;
+
+import com.cinema.repository.ShowtimeRepository;
+import com.cinema.repository.TicketRepository;
+import com.cinema.repository.projection.BookedSeat;
+import com.cinema.repository.projection.ShowtimeSlot;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodic on-disk copy of the booked bitsets of every loaded showtime, so a restart
+ * comes up warm instead of rebuilding each showtime with its own query.
+ *
+ * At startup the file is memory-mapped and each bitset is copied straight into a fresh
+ * {@link SeatOccupancy}, provided the showtime is still upcoming, on the same screen,
+ * and the screen's layout has the same fingerprint. Tickets inserted since the snapshot
+ * are then applied from one query on ticket ids above the highest one it saw. Anything
+ * missing or stale is simply left to the normal lazy load.
+ *
+ * File layout: int magic, int version, long highest ticket id, int count, then per
+ * showtime: long id, long cinemaId, int screenNumber, long layout fingerprint, int word
+ * count and the booked words.
+ */
+@Component
+public class OccupancySnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(OccupancySnapshot.class);
+
+    private static final int MAGIC = 0x43534e50; // "CSNP"
+    private static final int VERSION = 2;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4;
+    private static final int ENTRY_HEADER_BYTES = 8 + 8 + 4 + 8 + 4;
+
+    private final SeatInventory inventory;
+    private final ShowtimeRepository showtimeRepo;
+    private final TicketRepository ticketRepo;
+    private final PendingTickets pending;
+    private final boolean enabled;
+    private final Path file;
+    private final Duration interval;
+
+    private ScheduledExecutorService scheduler;
+
+    public OccupancySnapshot(SeatInventory inventory,
+                             ShowtimeRepository showtimeRepo,
+                             TicketRepository ticketRepo,
+                             PendingTickets pending,
+                             @Value("${cinema.inventory.snapshot.enabled:false}") boolean enabled,
+                             @Value("${cinema.inventory.snapshot.file:data/seat-occupancy.snap}") Path file,
+                             @Value("${cinema.inventory.snapshot.interval:PT1M}") Duration interval) {
+        this.inventory = inventory;
+        this.showtimeRepo = showtimeRepo;
+        this.ticketRepo = ticketRepo;
+        this.pending = pending;
+        this.enabled = enabled;
+        this.file = file;
+        this.interval = interval;
+    }
+
+    /** Restores the last snapshot, then writes a new one every {@code interval}. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        long began = System.nanoTime();
+        int restored = restore();
+        log.info("Restored seat occupancy of {} showtimes from {} in {} ms",
+                restored, file, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - began));
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "occupancy-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+        long millis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::writeQuietly, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    /** Stops the periodic writes and takes a last snapshot for the next start. */
+    @PreDestroy
+    public void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writeQuietly();
+    }
+
+    /**
+     * Writes every loaded occupancy without seats on hold or being booked to the snapshot
+     * file; returns the number of showtimes written.
+     */
+    int write() throws IOException {
+        // Read before the bitsets: a booking claims its seats before its tickets get ids, so a
+        // ticket whose seat is neither booked nor claimed in a saved bitset has a higher id
+        long maxTicketId = ticketRepo.findMaxId();
+        List<Long> ids = new ArrayList<>();
+        List<SeatOccupancy> occupancies = new ArrayList<>();
+        List<long[]> bookedWords = new ArrayList<>();
+        inventory.forEachOccupancy((id, occupancy) -> {
+            long[] booked = occupancy.bookedWords();
+            // Held or mid-booking seats (claimed, not booked) may still get a lower ticket id;
+            // such a showtime is left to the lazy load
+            if (settled(booked, occupancy.claimedWords())) {
+                ids.add(id);
+                occupancies.add(occupancy);
+                bookedWords.add(booked);
+            }
+        });
+
+        long size = HEADER_BYTES;
+        for (long[] words : bookedWords) {
+            size += ENTRY_HEADER_BYTES + (long) Long.BYTES * words.length;
+        }
+
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = parent.resolve(file.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buf.putInt(MAGIC).putInt(VERSION)
+               .putLong(maxTicketId)
+               .putInt(ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                SeatOccupancy o = occupancies.get(i);
+                ScreenLayout layout = o.getLayout();
+                long[] words = bookedWords.get(i);
+                buf.putLong(ids.get(i))
+                   .putLong(layout.getScreen().cinemaId())
+                   .putInt(layout.getScreen().screenNumber())
+                   .putLong(layout.fingerprint())
+                   .putInt(words.length);
+                for (long word : words) {
+                    buf.putLong(word);
+                }
+            }
+            buf.force();
+        }
+        Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return ids.size();
+    }
+
+    /** Loads the snapshot into the inventory; returns the number of showtimes restored. */
+    int restore() {
+        if (!Files.isRegularFile(file)) {
+            return 0;
+        }
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            if (buf.getInt() != MAGIC || buf.getInt() != VERSION) {
+                log.warn("Ignoring {}: not a seat-occupancy snapshot of this version", file);
+                return 0;
+            }
+            long maxTicketId = buf.getLong();
+            int count = buf.getInt();
+
+            Map<Long, ShowtimeSlot> upcoming = new HashMap<>();
+            for (ShowtimeSlot slot : showtimeRepo.findSlotsEndingAfter(LocalDateTime.now())) {
+                upcoming.put(slot.id(), slot);
+            }
+
+            Map<Long, SeatOccupancy> restored = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                long showtimeId = buf.getLong();
+                ScreenKey screen = new ScreenKey(buf.getLong(), buf.getInt());
+                long fingerprint = buf.getLong();
+                int words = buf.getInt();
+                SeatOccupancy occupancy = occupancyFor(upcoming.get(showtimeId), screen, fingerprint, words);
+                if (occupancy == null) {
+                    buf.position(buf.position() + words * Long.BYTES);
+                    continue;
+                }
+                for (int w = 0; w < words; w++) {
+                    occupancy.markBookedWord(w, buf.getLong());
+                }
+                restored.put(showtimeId, occupancy);
+            }
+
+            for (BookedSeat seat : ticketRepo.findBookedAfterId(maxTicketId)) {
+                markBooked(restored.get(seat.showtimeId()), seat.seatId());
+            }
+            int installed = 0;
+            for (Map.Entry<Long, SeatOccupancy> e : restored.entrySet()) {
+                for (Long seatId : pending.seatIds(e.getKey())) {
+                    markBooked(e.getValue(), seatId);
+                }
+                if (inventory.restore(e.getKey(), e.getValue())) {
+                    installed++;
+                }
+            }
+            return installed;
+        } catch (IOException | RuntimeException ex) {
+            // Nothing is installed from a bad file; showtimes load from the database as usual
+            log.warn("Could not restore seat occupancy from {}", file, ex);
+            return 0;
+        }
+    }
+
+    // A fresh occupancy if the saved bitset still applies to the showtime, otherwise null
+    private SeatOccupancy occupancyFor(ShowtimeSlot slot, ScreenKey savedScreen, long fingerprint, int words) {
+        if (slot == null || !savedScreen.equals(new ScreenKey(slot.cinemaId(), slot.screenNumber()))) {
+            return null; // past, deleted or moved to another screen
+        }
+        ScreenLayout layout = inventory.layout(savedScreen);
+        if (layout.isEmpty() || layout.fingerprint() != fingerprint) {
+            return null;
+        }
+        SeatOccupancy occupancy = new SeatOccupancy(layout);
+        return occupancy.wordCount() == words ? occupancy : null;
+    }
+
+    private static boolean settled(long[] booked, long[] claimed) {
+        for (int w = 0; w < booked.length; w++) {
+            if ((claimed[w] & ~booked[w]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void markBooked(SeatOccupancy occupancy, Long seatId) {
+        if (occupancy == null) {
+            return;
+        }
+        int pos = occupancy.getLayout().positionOf(seatId);
+        if (pos >= 0) {
+            occupancy.markBooked(pos);
+        }
+    }
+
+    private void writeQuietly() {
+        try {
+            write();
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Could not write seat-occupancy snapshot to {}", file, ex);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.cinema.service.inventory;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Seats whose tickets are committed to the booking journal but not yet written to
+ * the database. {@link SeatInventory} counts them as booked when it loads a showtime,
+ * so an eviction or reload during write-behind cannot hand them out again.
+ * Seats are counted per journal entry: a seat booked, cancelled and booked again
+ * before the drainer catches up stays pending until both bookings are drained.
+ * Always empty unless the journal is enabled.
+ */
+@Component
+public class PendingTickets {
+
+    private final ConcurrentMap<Long, Map<Long, Integer>> byShowtime = new ConcurrentHashMap<>();
+
+    public void add(Long showtimeId, Collection<Long> seatIds) {
+        byShowtime.compute(showtimeId, (id, seats) -> {
+            Map<Long, Integer> counts = seats != null ? seats : new ConcurrentHashMap<>();
+            for (Long seatId : seatIds) {
+                counts.merge(seatId, 1, Integer::sum);
+            }
+            return counts;
+        });
+    }
+
+    public void remove(Long showtimeId, Collection<Long> seatIds) {
+        byShowtime.computeIfPresent(showtimeId, (id, seats) -> {
+            for (Long seatId : seatIds) {
+                seats.computeIfPresent(seatId, (s, n) -> n > 1 ? n - 1 : null);
+            }
+            return seats.isEmpty() ? null : seats;
+        });
+    }
+
+    /** Showtimes that have journaled tickets not yet in the database. */
+    public Set<Long> showtimeIds() {
+        return Set.copyOf(byShowtime.keySet());
+    }
+
+    public Set<Long> seatIds(Long showtimeId) {
+        Map<Long, Integer> seats = byShowtime.get(showtimeId);
+        return seats == null ? Set.of() : Set.copyOf(seats.keySet());
+    }
+}
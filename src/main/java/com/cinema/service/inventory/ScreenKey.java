@@ -0,0 +1,5 @@
+package com.cinema.service.inventory;
+
+/** Identifies one screen (auditorium) inside a cinema. */
+public record ScreenKey(Long cinemaId, int screenNumber) {
+}
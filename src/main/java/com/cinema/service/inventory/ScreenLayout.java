@@ -0,0 +1,175 @@
+package com.cinema.service.inventory;
+
+import com.cinema.entity.Seat;
+import com.cinema.entity.SeatCategory;
+import com.cinema.repository.projection.SeatRow;
+import com.cinema.service.layout.SeatLayout;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable seat layout of one screen. Seats are addressed by their position
+ * (0..size-1) in grid order, which is also the bit index used by {@link SeatOccupancy}.
+ * A layout is loaded once per screen and shared by every showtime on that screen.
+ */
+public final class ScreenLayout {
+
+    private final ScreenKey screen;
+    // Set for screens using a seat-layout template; the per-seat arrays below are then unused
+    private final SeatLayout template;
+    private final long[] seatIds;
+    private final String[] rowLabels;
+    private final int[] seatNumbers;
+    private final Map<Long, Integer> positions;
+    private final long fingerprint;
+    private volatile SeatBlocks blocks;
+
+    private ScreenLayout(ScreenKey screen, long[] seatIds, String[] rowLabels, int[] seatNumbers) {
+        this.screen = screen;
+        this.template = null;
+        this.seatIds = seatIds;
+        this.rowLabels = rowLabels;
+        this.seatNumbers = seatNumbers;
+        this.positions = new HashMap<>(seatIds.length * 2);
+        for (int i = 0; i < seatIds.length; i++) {
+            positions.put(seatIds[i], i);
+        }
+        this.fingerprint = fingerprint(seatIds);
+    }
+
+    private ScreenLayout(ScreenKey screen, SeatLayout template) {
+        this.screen = screen;
+        this.template = template;
+        this.seatIds = null;
+        this.rowLabels = null;
+        this.seatNumbers = null;
+        this.positions = null;
+        long[] keys = new long[template.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = template.seatKeyAt(i);
+        }
+        this.fingerprint = fingerprint(keys);
+    }
+
+    /** A screen laid out by a shared template; seat ids are the template's seat keys. */
+    public static ScreenLayout of(ScreenKey screen, SeatLayout template) {
+        return new ScreenLayout(screen, template);
+    }
+
+    /** Builds a layout from seats already ordered by row label and seat number. */
+    public static ScreenLayout of(ScreenKey screen, List<Seat> orderedSeats) {
+        int n = orderedSeats.size();
+        long[] ids = new long[n];
+        String[] rows = new String[n];
+        int[] numbers = new int[n];
+        for (int i = 0; i < n; i++) {
+            Seat seat = orderedSeats.get(i);
+            ids[i] = seat.getId();
+            rows[i] = seat.getRowLabel().intern();
+            numbers[i] = seat.getSeatNumber();
+        }
+        return new ScreenLayout(screen, ids, rows, numbers);
+    }
+
+    /** Builds a layout from projected rows already ordered by row label and seat number. */
+    public static ScreenLayout ofRows(ScreenKey screen, List<SeatRow> orderedRows) {
+        int n = orderedRows.size();
+        long[] ids = new long[n];
+        String[] rows = new String[n];
+        int[] numbers = new int[n];
+        for (int i = 0; i < n; i++) {
+            SeatRow row = orderedRows.get(i);
+            ids[i] = row.seatId();
+            rows[i] = row.rowLabel().intern();
+            numbers[i] = row.seatNumber();
+        }
+        return new ScreenLayout(screen, ids, rows, numbers);
+    }
+
+    public ScreenKey getScreen() {
+        return screen;
+    }
+
+    public int size() {
+        return template != null ? template.size() : seatIds.length;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /** Template this screen is laid out by, or null for a screen with its own seat rows. */
+    public SeatLayout getTemplate() {
+        return template;
+    }
+
+    /** Position of the seat in this layout, or -1 when the seat is not part of it. */
+    public int positionOf(Long seatId) {
+        if (seatId == null) {
+            return -1;
+        }
+        if (template != null) {
+            return template.positionOfKey(seatId);
+        }
+        Integer pos = positions.get(seatId);
+        return pos == null ? -1 : pos;
+    }
+
+    public long seatIdAt(int position) {
+        return template != null ? template.seatKeyAt(position) : seatIds[position];
+    }
+
+    public List<Long> seatIdsAt(int[] positions) {
+        List<Long> ids = new ArrayList<>(positions.length);
+        for (int pos : positions) {
+            ids.add(seatIdAt(pos));
+        }
+        return ids;
+    }
+
+    public String rowLabelAt(int position) {
+        return template != null ? template.rowLabelAt(position) : rowLabels[position];
+    }
+
+    public int seatNumberAt(int position) {
+        return template != null ? template.seatNumberAt(position) : seatNumbers[position];
+    }
+
+    public SeatCategory categoryAt(int position) {
+        return template != null ? template.categoryAt(position) : SeatCategory.STANDARD;
+    }
+
+    public boolean aisleAfter(int position) {
+        return template != null && template.aisleAfter(position);
+    }
+
+    /** Best-available block rankings for this layout, built on first use. */
+    SeatBlocks blocks() {
+        SeatBlocks b = blocks;
+        if (b == null) {
+            // Building it twice in a race is harmless; both results are the same
+            blocks = b = new SeatBlocks(this);
+        }
+        return b;
+    }
+
+    /**
+     * Hash of the seat ids in position order. Bitsets saved for one layout are only
+     * valid for another layout with the same fingerprint (see {@link OccupancySnapshot}).
+     */
+    public long fingerprint() {
+        return fingerprint;
+    }
+
+    // FNV-1a over the ids, then the length
+    private static long fingerprint(long[] seatIds) {
+        long h = 0xcbf29ce484222325L;
+        for (long id : seatIds) {
+            h = (h ^ id) * 0x100000001b3L;
+        }
+        return (h ^ seatIds.length) * 0x100000001b3L;
+    }
+}
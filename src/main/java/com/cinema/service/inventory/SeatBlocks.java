@@ -0,0 +1,104 @@
+package com.cinema.service.inventory;
+
+import com.cinema.entity.SeatCategory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Every block of N adjacent seats a screen has, best first, for best-available allocation.
+ * A block stays within one row and never spans an aisle. Blocks are ranked by how far
+ * their middle is from the middle of the row, plus {@link #ROW_WEIGHT} per row away from
+ * the preferred row ({@link #PREFERRED_ROW} of the way from front to back).
+ *
+ * The ranking only depends on the layout, so it is computed once per block size and
+ * category and shared by every showtime on the screen; a request then just walks it
+ * against the showtime's bitset.
+ */
+final class SeatBlocks {
+
+    /** Largest block that can be asked for. */
+    static final int MAX_SEATS = 10;
+
+    static final double PREFERRED_ROW = 0.6;
+    static final double ROW_WEIGHT = 1.5;
+
+    private final ScreenLayout layout;
+    // Row of each position, counted from the front (0), and the rows' [start, end) positions
+    private final int[] rowOf;
+    private final int[] rowStarts;
+    private final ConcurrentMap<Integer, int[]> ranked = new ConcurrentHashMap<>();
+
+    SeatBlocks(ScreenLayout layout) {
+        this.layout = layout;
+        int n = layout.size();
+        this.rowOf = new int[n];
+        List<Integer> starts = new ArrayList<>();
+        for (int pos = 0; pos < n; pos++) {
+            if (pos == 0 || !layout.rowLabelAt(pos).equals(layout.rowLabelAt(pos - 1))) {
+                starts.add(pos);
+            }
+            rowOf[pos] = starts.size() - 1;
+        }
+        starts.add(n);
+        this.rowStarts = starts.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * First positions of the blocks of {@code count} seats, best first. With a category
+     * every seat of a block has it; without one, blocks with accessible seats are left
+     * out, as those are only handed out when asked for.
+     */
+    int[] ranked(int count, SeatCategory category) {
+        int key = count * (SeatCategory.values().length + 1) + (category == null ? 0 : category.ordinal() + 1);
+        return ranked.computeIfAbsent(key, k -> rank(count, category));
+    }
+
+    private int[] rank(int count, SeatCategory category) {
+        int rows = rowStarts.length - 1;
+        double preferredRow = PREFERRED_ROW * (rows - 1);
+        List<Integer> blocks = new ArrayList<>();
+        List<Double> scores = new ArrayList<>();
+        for (int start = 0; start + count <= layout.size(); start++) {
+            if (fits(start, count, category)) {
+                int row = rowOf[start];
+                double rowMiddle = (rowStarts[row] + rowStarts[row + 1] - 1) / 2.0;
+                double blockMiddle = start + (count - 1) / 2.0;
+                blocks.add(start);
+                scores.add(Math.abs(blockMiddle - rowMiddle) + ROW_WEIGHT * Math.abs(row - preferredRow));
+            }
+        }
+        Integer[] order = new Integer[blocks.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.<Integer>comparingDouble(scores::get).thenComparing(blocks::get));
+        int[] result = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            result[i] = blocks.get(order[i]);
+        }
+        return result;
+    }
+
+    // Whether [start, start + count) is one row, crosses no aisle and matches the category
+    private boolean fits(int start, int count, SeatCategory category) {
+        int last = start + count - 1;
+        if (rowOf[last] != rowOf[start]) {
+            return false;
+        }
+        for (int pos = start; pos <= last; pos++) {
+            if (pos < last && layout.aisleAfter(pos)) {
+                return false;
+            }
+            SeatCategory c = layout.categoryAt(pos);
+            if (category != null ? c != category : c == SeatCategory.ACCESSIBLE) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
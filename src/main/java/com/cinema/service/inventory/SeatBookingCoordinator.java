@@ -0,0 +1,118 @@
+package com.cinema.service.inventory;
+
+import com.cinema.entity.SeatCategory;
+import com.cinema.exception.BusinessRuleViolationException;
+import com.cinema.exception.ResourceNotFoundException;
+import com.cinema.exception.SeatNotOnScreenException;
+import com.cinema.exception.SeatUnavailableException;
+import com.cinema.repository.SeatRepository;
+import com.cinema.service.layout.SeatLayout;
+import com.cinema.service.layout.SeatLayouts;
+import com.cinema.service.support.TransactionHooks;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Claims seats in the in-memory inventory before anything is written to the database.
+ * A claim covers all requested seats of a showtime in one atomic step; losers are
+ * rejected up front, so only winners go on to insert tickets (or keep a hold).
+ */
+@Component
+public class SeatBookingCoordinator {
+
+    private final SeatRepository seatRepo;
+    private final SeatLayouts seatLayouts;
+
+    public SeatBookingCoordinator(SeatRepository seatRepo, SeatLayouts seatLayouts) {
+        this.seatRepo = seatRepo;
+        this.seatLayouts = seatLayouts;
+    }
+
+    /**
+     * Maps seat ids to layout positions. Ids outside the layout are checked once
+     * (template keys in memory, seat rows in the DB) to tell "unknown seat" apart
+     * from "seat on another screen".
+     */
+    public int[] resolvePositions(ScreenLayout layout, List<Long> seatIds) {
+        if (seatIds == null || seatIds.isEmpty()) {
+            throw new BusinessRuleViolationException("seatIds must not be empty");
+        }
+        int[] positions = new int[seatIds.size()];
+        List<Long> unknown = new ArrayList<>();
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = layout.positionOf(seatIds.get(i));
+            if (positions[i] < 0) {
+                unknown.add(seatIds.get(i));
+            }
+        }
+
+        if (!unknown.isEmpty()) {
+            List<Long> seatRowIds = new ArrayList<>();
+            for (Long id : unknown) {
+                if (SeatLayout.layoutIdOf(id) == 0) {
+                    seatRowIds.add(id);
+                } else if (!seatLayouts.isSeatKey(id)) {
+                    throw new ResourceNotFoundException("One or more seats not found");
+                }
+            }
+            if (!seatRowIds.isEmpty() && seatRepo.findAllById(seatRowIds).size() != seatRowIds.size()) {
+                throw new ResourceNotFoundException("One or more seats not found");
+            }
+            throw new SeatNotOnScreenException("One or more seats do not belong to this showtime's screen");
+        }
+        if (Arrays.stream(positions).distinct().count() != positions.length) {
+            throw new BusinessRuleViolationException("seatIds must not contain duplicates");
+        }
+        return positions;
+    }
+
+    /**
+     * Claims all positions for a booking in the current transaction, or throws
+     * {@link SeatUnavailableException} if any is taken. The seats flip to
+     * BOOKED after commit and are released again if the transaction rolls back.
+     */
+    public void claim(SeatOccupancy occupancy, int[] positions) {
+        if (!occupancy.tryClaim(positions)) {
+            throw new SeatUnavailableException("One or more seats are already booked or held");
+        }
+        bookOnCommit(occupancy, positions);
+    }
+
+    /**
+     * Like {@link #claim}, for the best free block of {@code count} adjacent seats
+     * instead of given seats. Returns the claimed positions.
+     */
+    public int[] claimBest(SeatOccupancy occupancy, int count, SeatCategory category) {
+        int[] positions = reserveBest(occupancy, count, category);
+        bookOnCommit(occupancy, positions);
+        return positions;
+    }
+
+    /**
+     * Claims the best free block of {@code count} adjacent seats outside of any transaction
+     * (for a hold), or throws {@link SeatUnavailableException} if there is none.
+     */
+    public int[] reserveBest(SeatOccupancy occupancy, int count, SeatCategory category) {
+        if (count < 1 || count > SeatBlocks.MAX_SEATS) {
+            throw new BusinessRuleViolationException("count must be between 1 and " + SeatBlocks.MAX_SEATS);
+        }
+        int[] positions = occupancy.tryClaimBest(count, category);
+        if (positions == null) {
+            throw new SeatUnavailableException("No " + count + " adjacent seats available"
+                    + (category == null ? "" : " in category " + category));
+        }
+        return positions;
+    }
+
+    /**
+     * Books positions that are already claimed (by a hold) in the current transaction:
+     * BOOKED after commit, released again on rollback.
+     */
+    public void bookOnCommit(SeatOccupancy occupancy, int[] positions) {
+        TransactionHooks.afterCommit(() -> occupancy.markBooked(positions));
+        TransactionHooks.afterRollback(() -> occupancy.release(positions));
+    }
+}
@@ -0,0 +1,11 @@
+package com.cinema.service.inventory;
+
+/**
+ * Told which positions of a {@link SeatOccupancy} changed state (claimed, released,
+ * booked or cancelled). Called on the thread making the change, so it must not block.
+ */
+@FunctionalInterface
+public interface SeatChangeListener {
+
+    void seatsChanged(int[] positions);
+}
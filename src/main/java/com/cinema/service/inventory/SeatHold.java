@@ -0,0 +1,60 @@
+package com.cinema.service.inventory;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A time-limited claim on seats of one showtime. Lives only in memory; nothing is
+ * written to the database until the hold is confirmed.
+ */
+public final class SeatHold {
+
+    public enum State { ACTIVE, CONFIRMED, RELEASED, EXPIRED }
+
+    private final String id;
+    private final Long showtimeId;
+    private final SeatOccupancy occupancy;
+    private final int[] positions;
+    private final List<Long> seatIds;
+    private final Instant expiresAt;
+    private final AtomicReference<State> state = new AtomicReference<>(State.ACTIVE);
+    private volatile ExpiryWheel.Timeout timeout;
+
+    public SeatHold(String id, Long showtimeId, SeatOccupancy occupancy,
+                    int[] positions, List<Long> seatIds, Instant expiresAt) {
+        this.id = id;
+        this.showtimeId = showtimeId;
+        this.occupancy = occupancy;
+        this.positions = positions;
+        this.seatIds = List.copyOf(seatIds);
+        this.expiresAt = expiresAt;
+    }
+
+    public String getId() { return id; }
+    public Long getShowtimeId() { return showtimeId; }
+    public SeatOccupancy getOccupancy() { return occupancy; }
+    public int[] getPositions() { return positions; }
+    public List<Long> getSeatIds() { return seatIds; }
+    public Instant getExpiresAt() { return expiresAt; }
+    public State getState() { return state.get(); }
+
+    void setTimeout(ExpiryWheel.Timeout timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Moves an ACTIVE hold to its final state. Exactly one of confirm / release /
+     * expire wins; the loser sees false.
+     */
+    public boolean finish(State target) {
+        if (!state.compareAndSet(State.ACTIVE, target)) {
+            return false;
+        }
+        ExpiryWheel.Timeout t = timeout;
+        if (t != null && target != State.EXPIRED) {
+            t.cancel();
+        }
+        return true;
+    }
+}
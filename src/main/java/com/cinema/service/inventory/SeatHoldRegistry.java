@@ -0,0 +1,115 @@
+package com.cinema.service.inventory;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Live seat holds, keyed by hold id, with expiry driven by an {@link ExpiryWheel}.
+ * An expired hold simply gives its seats back to the showtime's occupancy.
+ */
+@Component
+public class SeatHoldRegistry {
+
+    private final Duration ttl;
+    private final ConcurrentMap<String, SeatHold> holds = new ConcurrentHashMap<>();
+    private final ExpiryWheel<SeatHold> wheel;
+
+    public SeatHoldRegistry(@Value("${cinema.holds.ttl:PT10M}") Duration ttl,
+                            @Value("${cinema.holds.tick:PT1S}") Duration tick,
+                            @Value("${cinema.holds.wheel-size:512}") int wheelSize) {
+        this.ttl = ttl;
+        this.wheel = new ExpiryWheel<>(tick, wheelSize, this::expire);
+    }
+
+    @PostConstruct
+    void start() {
+        wheel.start("seat-hold-expiry");
+    }
+
+    @PreDestroy
+    void stop() {
+        wheel.stop();
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    /** Registers a hold for positions the caller has already claimed. */
+    public SeatHold register(Long showtimeId, SeatOccupancy occupancy, int[] positions, List<Long> seatIds) {
+        SeatHold hold = new SeatHold(UUID.randomUUID().toString(), showtimeId, occupancy,
+                positions, seatIds, Instant.now().plus(ttl));
+        holds.put(hold.getId(), hold);
+        hold.setTimeout(wheel.schedule(hold, ttl));
+        return hold;
+    }
+
+    public SeatHold get(String holdId) {
+        return holdId == null ? null : holds.get(holdId);
+    }
+
+    /**
+     * Takes an active hold out of the registry for confirmation. The seats stay claimed;
+     * the caller turns them into bookings (or releases them on failure).
+     */
+    public SeatHold takeForConfirmation(String holdId) {
+        SeatHold hold = get(holdId);
+        if (hold == null || !hold.finish(SeatHold.State.CONFIRMED)) {
+            return null;
+        }
+        holds.remove(holdId, hold);
+        return hold;
+    }
+
+    /** Releases an active hold and frees its seats; false if it was no longer active. */
+    public boolean release(String holdId) {
+        SeatHold hold = get(holdId);
+        if (hold == null || !hold.finish(SeatHold.State.RELEASED)) {
+            return false;
+        }
+        hold.getOccupancy().release(hold.getPositions());
+        holds.remove(holdId, hold);
+        return true;
+    }
+
+    public int size() {
+        return holds.size();
+    }
+
+    /** Whether the showtime has any active hold. */
+    public boolean hasHolds(Long showtimeId) {
+        for (SeatHold hold : holds.values()) {
+            if (hold.getShowtimeId().equals(showtimeId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Whether any active hold is on a showtime of the given screen. */
+    public boolean hasHolds(ScreenKey screen) {
+        for (SeatHold hold : holds.values()) {
+            if (hold.getOccupancy().getLayout().getScreen().equals(screen)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void expire(SeatHold hold) {
+        if (hold.finish(SeatHold.State.EXPIRED)) {
+            // Seats first, so a hold that is gone from the registry never still blocks them
+            hold.getOccupancy().release(hold.getPositions());
+            holds.remove(hold.getId(), hold);
+        }
+    }
+}
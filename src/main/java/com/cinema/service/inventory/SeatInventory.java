@@ -0,0 +1,198 @@
+package com.cinema.service.inventory;
+
+import com.cinema.entity.Showtime;
+import com.cinema.repository.SeatRepository;
+import com.cinema.repository.TicketRepository;
+import com.cinema.repository.projection.SeatRow;
+import com.cinema.repository.projection.ShowtimeSlot;
+import com.cinema.service.layout.SeatLayout;
+import com.cinema.service.layout.SeatLayouts;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+
+/**
+ * In-memory seat inventory: one {@link ScreenLayout} per screen and one
+ * {@link SeatOccupancy} bitset per showtime. The database stays the durable
+ * record; this is loaded from it on first use and kept in step by the booking path.
+ */
+@Component
+public class SeatInventory {
+
+    private final SeatRepository seatRepo;
+    private final TicketRepository ticketRepo;
+    private final PendingTickets pending;
+    private final SeatLayouts seatLayouts;
+
+    private final ConcurrentMap<ScreenKey, ScreenLayout> layouts = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, SeatOccupancy> occupancies = new ConcurrentHashMap<>();
+    private volatile OccupancyInstallListener installListener;
+
+    public SeatInventory(SeatRepository seatRepo, TicketRepository ticketRepo, PendingTickets pending,
+                         SeatLayouts seatLayouts) {
+        this.seatRepo = seatRepo;
+        this.ticketRepo = ticketRepo;
+        this.pending = pending;
+        this.seatLayouts = seatLayouts;
+    }
+
+    /** Listener for occupancies installed from now on; null to remove it. */
+    public void setInstallListener(OccupancyInstallListener listener) {
+        this.installListener = listener;
+    }
+
+    /** Occupancy for a showtime if it is already loaded, otherwise null. */
+    public SeatOccupancy cached(Long showtimeId) {
+        return occupancies.get(showtimeId);
+    }
+
+    /**
+     * Occupancy for the given showtime, loading the screen layout and the booked
+     * seats from the database on first use. Screens without seats are not cached.
+     */
+    public SeatOccupancy occupancy(Showtime showtime) {
+        SeatOccupancy cached = occupancies.get(showtime.getId());
+        if (cached != null) {
+            return cached;
+        }
+        return load(showtime.getId(), new ScreenKey(showtime.getCinema().getId(), showtime.getScreenNumber()));
+    }
+
+    /**
+     * Occupancy for a showtime known only by id. Its screen is looked up first: a template
+     * screen (or one whose layout is loaded) only needs the booked seats, while the first
+     * showtime of a screen with its own seat rows gets seats and booked flags from one
+     * joined projection query. Returns null when the showtime does not exist.
+     */
+    public SeatOccupancy occupancy(Long showtimeId) {
+        SeatOccupancy cached = occupancies.get(showtimeId);
+        if (cached != null) {
+            return cached;
+        }
+        ShowtimeSlot slot = seatRepo.findShowtimeSlot(showtimeId).orElse(null);
+        if (slot == null) {
+            return null;
+        }
+        ScreenKey screen = new ScreenKey(slot.cinemaId(), slot.screenNumber());
+        if (layouts.containsKey(screen) || seatLayouts.forScreen(screen) != null) {
+            return load(showtimeId, screen);
+        }
+        // Read before the DB so a journaled booking drained in between is seen in one or the other
+        Set<Long> journaled = pending.seatIds(showtimeId);
+        List<SeatRow> rows = seatRepo.findSeatMapRows(showtimeId);
+        if (rows.isEmpty()) {
+            return load(showtimeId, screen); // no seat rows: the default template
+        }
+        ScreenLayout layout = cacheLayout(ScreenLayout.ofRows(screen, rows));
+        if (layout.getTemplate() != null) {
+            return load(showtimeId, screen); // assigned a template meanwhile: these rows are not its seats
+        }
+        SeatOccupancy loaded = new SeatOccupancy(layout);
+        for (SeatRow row : rows) {
+            if (row.booked() || journaled.contains(row.seatId())) {
+                int pos = layout.positionOf(row.seatId());
+                if (pos >= 0) {
+                    loaded.markBooked(pos);
+                }
+            }
+        }
+        // A booking that got in first already created the shared occupancy; use that one
+        return install(showtimeId, loaded);
+    }
+
+    /**
+     * Layout for a screen; loaded once and then shared by all of its showtimes. A screen
+     * uses its assigned template, else its own seat rows, else the default template.
+     */
+    public ScreenLayout layout(ScreenKey screen) {
+        ScreenLayout cached = layouts.get(screen);
+        if (cached != null) {
+            return cached;
+        }
+        SeatLayout template = seatLayouts.forScreen(screen);
+        ScreenLayout layout;
+        if (template != null) {
+            layout = ScreenLayout.of(screen, template);
+        } else {
+            layout = ScreenLayout.ofRows(screen,
+                    seatRepo.findLayoutRows(screen.cinemaId(), screen.screenNumber()));
+            if (layout.isEmpty() && seatLayouts.defaultLayout() != null) {
+                layout = ScreenLayout.of(screen, seatLayouts.defaultLayout());
+            }
+        }
+        return layout.isEmpty() ? layout : cacheLayout(layout);
+    }
+
+    /** Drops the cached layout of a screen, together with every occupancy built on it. */
+    public void evictLayout(ScreenKey screen) {
+        layouts.remove(screen);
+        occupancies.values().removeIf(o -> o.getLayout().getScreen().equals(screen));
+    }
+
+    /** Visits every loaded occupancy. */
+    public void forEachOccupancy(BiConsumer<Long, SeatOccupancy> action) {
+        occupancies.forEach(action);
+    }
+
+    /**
+     * Installs an occupancy rebuilt outside the normal load path (a startup snapshot);
+     * one already loaded from the database wins. Returns whether it was installed.
+     */
+    public boolean restore(Long showtimeId, SeatOccupancy occupancy) {
+        return install(showtimeId, occupancy) == occupancy;
+    }
+
+    /** Drops the cached occupancy of a showtime; the next access reloads it from the database. */
+    public void evict(Long showtimeId) {
+        occupancies.remove(showtimeId);
+    }
+
+    // Installs the occupancy unless another load got in first, and tells the listener if it did
+    private SeatOccupancy install(Long showtimeId, SeatOccupancy loaded) {
+        SeatOccupancy raced = occupancies.putIfAbsent(showtimeId, loaded);
+        if (raced != null) {
+            return raced;
+        }
+        OccupancyInstallListener l = installListener;
+        if (l != null) {
+            l.occupancyInstalled(showtimeId, loaded);
+        }
+        return loaded;
+    }
+
+    private ScreenLayout cacheLayout(ScreenLayout layout) {
+        ScreenLayout raced = layouts.putIfAbsent(layout.getScreen(), layout);
+        return raced != null ? raced : layout;
+    }
+
+    private SeatOccupancy load(Long showtimeId, ScreenKey screen) {
+        ScreenLayout layout = layout(screen);
+        if (layout.isEmpty()) {
+            return new SeatOccupancy(layout);
+        }
+        // Loaded outside the map: a computeIfAbsent would hold the bin lock across JDBC, which pins a
+        // virtual thread. Two concurrent loads are harmless; the first one installed is used
+        return install(showtimeId, loadBooked(showtimeId, layout));
+    }
+
+    private SeatOccupancy loadBooked(Long showtimeId, ScreenLayout layout) {
+        SeatOccupancy occupancy = new SeatOccupancy(layout);
+        Set<Long> journaled = pending.seatIds(showtimeId);
+        markBooked(occupancy, ticketRepo.findBookedSeatIds(showtimeId));
+        markBooked(occupancy, journaled);
+        return occupancy;
+    }
+
+    private static void markBooked(SeatOccupancy occupancy, Iterable<Long> seatIds) {
+        for (Long seatId : seatIds) {
+            int pos = occupancy.getLayout().positionOf(seatId);
+            if (pos >= 0) {
+                occupancy.markBooked(pos);
+            }
+        }
+    }
+}
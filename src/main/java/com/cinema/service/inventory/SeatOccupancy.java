@@ -0,0 +1,253 @@
+package com.cinema.service.inventory;
+
+import com.cinema.entity.SeatCategory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Seat state for a single showtime, indexed by {@link ScreenLayout} position.
+ * Two bitsets are kept: {@code claimed} (held or booked) and {@code booked}
+ * (ticket committed). A seat is FREE, HELD (claimed only) or BOOKED.
+ * Reads are lock-free; an 800-seat screen fits in 13 words per bitset. Multi-seat
+ * claims are all-or-nothing CAS updates on the claimed words, so bookings for
+ * different showtimes never contend and bookings for the same showtime never block.
+ * Every change bumps a version after the bits are written, so state read after reading
+ * version v is at least as new as v.
+ */
+public final class SeatOccupancy {
+
+    private final ScreenLayout layout;
+    private final AtomicLongArray claimed;
+    private final AtomicLongArray booked;
+    private volatile SeatChangeListener listener;
+    // Random per instance, so versions of a reloaded occupancy never repeat an earlier one's
+    private final long epoch = ThreadLocalRandom.current().nextLong();
+    private final AtomicLong version = new AtomicLong();
+
+    public SeatOccupancy(ScreenLayout layout) {
+        this.layout = layout;
+        int words = (layout.size() + 63) >>> 6;
+        this.claimed = new AtomicLongArray(words);
+        this.booked = new AtomicLongArray(words);
+    }
+
+    public ScreenLayout getLayout() {
+        return layout;
+    }
+
+    /**
+     * Listener for claims, releases, cancellations and {@link #markBooked(int[])}; null to
+     * remove it. Single positions marked booked while loading are not reported.
+     */
+    public void setListener(SeatChangeListener listener) {
+        this.listener = listener;
+    }
+
+    /** Identifies this occupancy instance; together with {@link #version()} it names one state of the seats. */
+    public long epoch() {
+        return epoch;
+    }
+
+    /** Number of changes so far; grows with every claim, release, cancellation and booking. */
+    public long version() {
+        return version.get();
+    }
+
+    public boolean isBooked(int position) {
+        return (booked.get(position >>> 6) & (1L << position)) != 0;
+    }
+
+    /** Claimed by a hold or an in-flight booking, but not (yet) booked. */
+    public boolean isHeld(int position) {
+        long bit = 1L << position;
+        int w = position >>> 6;
+        return (claimed.get(w) & bit) != 0 && (booked.get(w) & bit) == 0;
+    }
+
+    /** Marks a seat as booked (and therefore claimed). Used when loading and after commit. */
+    public void markBooked(int position) {
+        long bit = 1L << position;
+        claimed.getAndAccumulate(position >>> 6, bit, (word, b) -> word | b);
+        booked.getAndAccumulate(position >>> 6, bit, (word, b) -> word | b);
+        version.incrementAndGet();
+    }
+
+    public void markBooked(int[] positions) {
+        for (int pos : positions) {
+            markBooked(pos);
+        }
+        changed(positions);
+    }
+
+    /**
+     * Atomically claims every given position, or none of them if any is already taken.
+     * Words are updated in ascending order; on a conflict the words already claimed
+     * by this call are rolled back before returning false.
+     */
+    public boolean tryClaim(int[] positions) {
+        long[] masks = masks(positions);
+        for (int w = 0; w < masks.length; w++) {
+            long mask = masks[w];
+            if (mask == 0) {
+                continue;
+            }
+            while (true) {
+                long current = claimed.get(w);
+                if ((current & mask) != 0) {
+                    if (clear(masks, w)) {
+                        changed(positions); // a reader may have seen the rolled-back words
+                    }
+                    return false;
+                }
+                if (claimed.compareAndSet(w, current, current | mask)) {
+                    break;
+                }
+            }
+        }
+        changed(positions);
+        return true;
+    }
+
+    /**
+     * Claims the best free block of {@code count} adjacent seats (see {@link SeatBlocks})
+     * and returns its positions, or null if no such block is free. The ranked blocks are
+     * checked against one copy of the claimed words; only a block that looks free is
+     * claimed, and if another claim got there first the copy is refreshed and the walk
+     * goes on from the next block.
+     */
+    public int[] tryClaimBest(int count, SeatCategory category) {
+        if (count < 1 || count > SeatBlocks.MAX_SEATS) {
+            throw new IllegalArgumentException("count must be between 1 and " + SeatBlocks.MAX_SEATS);
+        }
+        int[] starts = layout.blocks().ranked(count, category);
+        long[] taken = claimedWords();
+        for (int start : starts) {
+            if (anySet(taken, start, count)) {
+                continue;
+            }
+            int[] positions = new int[count];
+            for (int i = 0; i < count; i++) {
+                positions[i] = start + i;
+            }
+            if (tryClaim(positions)) {
+                return positions;
+            }
+            taken = claimedWords();
+        }
+        return null;
+    }
+
+    /**
+     * Releases positions previously claimed with {@link #tryClaim(int[])}. Seats already
+     * marked booked stay claimed; only {@link #cancel(int[])} frees those.
+     */
+    public void release(int[] positions) {
+        long[] masks = masks(positions);
+        for (int w = 0; w < masks.length; w++) {
+            masks[w] &= ~booked.get(w);
+        }
+        clear(masks, masks.length);
+        changed(positions);
+    }
+
+    /** Frees booked seats again, e.g. when a booking is cancelled. */
+    public void cancel(int[] positions) {
+        long[] masks = masks(positions);
+        for (int w = 0; w < masks.length; w++) {
+            if (masks[w] != 0) {
+                booked.getAndAccumulate(w, masks[w], (word, m) -> word & ~m);
+            }
+        }
+        clear(masks, masks.length);
+        changed(positions);
+    }
+
+    /** Copy of the booked bitset, one word per 64 positions. */
+    public long[] bookedWords() {
+        long[] words = new long[booked.length()];
+        for (int w = 0; w < words.length; w++) {
+            words[w] = booked.get(w);
+        }
+        return words;
+    }
+
+    /** Copy of the claimed (held or booked) bitset. */
+    public long[] claimedWords() {
+        long[] words = new long[claimed.length()];
+        for (int w = 0; w < words.length; w++) {
+            words[w] = claimed.get(w);
+        }
+        return words;
+    }
+
+    public int wordCount() {
+        return booked.length();
+    }
+
+    /** Marks every position set in {@code bits} as booked; {@code word} covers positions 64*word and up. */
+    public void markBookedWord(int word, long bits) {
+        if (bits != 0) {
+            claimed.getAndAccumulate(word, bits, (w, b) -> w | b);
+            booked.getAndAccumulate(word, bits, (w, b) -> w | b);
+            version.incrementAndGet();
+        }
+    }
+
+    public int bookedCount() {
+        return count(booked);
+    }
+
+    /** Seats that are held or booked. */
+    public int claimedCount() {
+        return count(claimed);
+    }
+
+    private static int count(AtomicLongArray bits) {
+        int count = 0;
+        for (int i = 0; i < bits.length(); i++) {
+            count += Long.bitCount(bits.get(i));
+        }
+        return count;
+    }
+
+    private void changed(int[] positions) {
+        version.incrementAndGet();
+        SeatChangeListener l = listener;
+        if (l != null) {
+            l.seatsChanged(positions);
+        }
+    }
+
+    // Whether any bit in [from, from + count) is set; a block spans at most two words
+    private static boolean anySet(long[] words, int from, int count) {
+        int last = from + count - 1;
+        long firstMask = -1L << from;
+        if (from >>> 6 == last >>> 6) {
+            return (words[from >>> 6] & firstMask & (-1L >>> (63 - (last & 63)))) != 0;
+        }
+        return (words[from >>> 6] & firstMask) != 0
+                || (words[last >>> 6] & (-1L >>> (63 - (last & 63)))) != 0;
+    }
+
+    private long[] masks(int[] positions) {
+        long[] masks = new long[claimed.length()];
+        for (int pos : positions) {
+            masks[pos >>> 6] |= 1L << pos;
+        }
+        return masks;
+    }
+
+    // Clears the masked claim bits in words [0, upTo); returns whether there were any
+    private boolean clear(long[] masks, int upTo) {
+        boolean any = false;
+        for (int w = 0; w < upTo; w++) {
+            if (masks[w] != 0) {
+                claimed.getAndAccumulate(w, masks[w], (word, m) -> word & ~m);
+                any = true;
+            }
+        }
+        return any;
+    }
+}
@@ -0,0 +1,371 @@
+package com.cinema.service.journal;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, fsync'd journal of confirmed bookings with group commit: a single
+ * writer thread takes every append that is waiting, writes them in one go and
+ * forces the file once, so under load many bookings share one fsync.
+ *
+ * The journal lives in a directory of segment files {@code bookings-<firstSeq>.log}
+ * plus a {@code checkpoint} file holding the last sequence number known to be in the
+ * database. On open, entries after the checkpoint are recovered for replay and a torn
+ * tail (a crash mid-write) is cut off. Segments entirely before the checkpoint are deleted.
+ *
+ * Record layout: int payload length, int CRC32C of the payload, then seq, showtimeId,
+ * price, bookedAt (epoch millis, UTC), seat count and the seat ids. A cancel record
+ * stores its seat count as {@code -(count + 1)} and the cancelled seq before the seat ids.
+ */
+public class BookingJournal implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingJournal.class);
+
+    private static final String SEGMENT_PREFIX = "bookings-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT = "checkpoint";
+    private static final int HEADER_BYTES = 8;
+    private static final int FIXED_PAYLOAD_BYTES = 8 + 8 + 8 + 8 + 4;
+
+    private final Path dir;
+    private final long segmentBytes;
+    private final int maxGroup;
+    private final DistributionSummary groupSizes;
+    private final List<JournalEntry> recovered;
+
+    private final BlockingQueue<Append> appends = new LinkedBlockingQueue<>();
+    // first seq -> segment file; the last one is being written
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    private FileChannel channel;
+    private long lastSeq;
+    private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+
+    private Thread writer;
+    private boolean closed;
+
+    private record Append(JournalEntry entry, CompletableFuture<JournalEntry> done) {
+    }
+
+    private static final Append STOP = new Append(null, null);
+
+    private BookingJournal(Path dir, long segmentBytes, int maxGroup, MeterRegistry meters) throws IOException {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.maxGroup = maxGroup;
+        this.groupSizes = DistributionSummary.builder("cinema.journal.group.size")
+                .description("Bookings written per journal fsync")
+                .register(meters);
+        Files.createDirectories(dir);
+        long checkpoint = readCheckpoint();
+        this.recovered = recover(checkpoint);
+        this.lastSeq = Math.max(lastSeq, checkpoint);
+        openSegment(lastSeq + 1);
+    }
+
+    /** Opens (or creates) the journal in {@code dir} and recovers entries that never reached the database. */
+    public static BookingJournal open(Path dir, long segmentBytes, int maxGroup, MeterRegistry meters) throws IOException {
+        return new BookingJournal(dir, segmentBytes, maxGroup, meters);
+    }
+
+    /** Entries found after the checkpoint when the journal was opened, in sequence order. */
+    public List<JournalEntry> recovered() {
+        return recovered;
+    }
+
+    /**
+     * Starts the writer thread. {@code onDurable} gets every group right after its fsync,
+     * on the writer thread and in sequence order.
+     */
+    public synchronized void start(Consumer<List<JournalEntry>> onDurable) {
+        if (writer != null) {
+            throw new IllegalStateException("Journal already started");
+        }
+        writer = new Thread(() -> writeLoop(onDurable), "booking-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues an entry; the future completes with the sequenced entry once it is on disk,
+     * or exceptionally if the journal is closed or failed.
+     */
+    public CompletableFuture<JournalEntry> append(JournalEntry entry) {
+        Append append = new Append(entry, new CompletableFuture<>());
+        synchronized (this) {
+            if (closed || writer == null) {
+                return CompletableFuture.failedFuture(new IOException("Booking journal is not accepting writes"));
+            }
+            appends.add(append);
+        }
+        return append.done;
+    }
+
+    /** Records that everything up to {@code seq} is in the database and drops segments no longer needed. */
+    public void checkpoint(long seq) throws IOException {
+        Path tmp = dir.resolve(CHECKPOINT + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ch.write(ByteBuffer.allocate(Long.BYTES).putLong(0, seq));
+            ch.force(true);
+        }
+        Files.move(tmp, dir.resolve(CHECKPOINT), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        List<Path> obsolete = new ArrayList<>();
+        synchronized (segments) {
+            // A segment can go once the next one starts at or before seq + 1
+            while (segments.size() > 1) {
+                Map.Entry<Long, Path> oldest = segments.firstEntry();
+                Long next = segments.higherKey(oldest.getKey());
+                if (next - 1 > seq) break;
+                obsolete.add(oldest.getValue());
+                segments.pollFirstEntry();
+            }
+        }
+        for (Path file : obsolete) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /** Writes out whatever was appended before this call, then stops the writer. */
+    @Override
+    public void close() throws IOException {
+        Thread w;
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            w = writer;
+            if (w != null) appends.add(STOP);
+        }
+        if (w != null) {
+            try {
+                w.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        failRemaining(new IOException("Booking journal closed"));
+        channel.close();
+    }
+
+    // --- writer thread ---
+
+    private void writeLoop(Consumer<List<JournalEntry>> onDurable) {
+        List<Append> group = new ArrayList<>(maxGroup);
+        boolean stop = false;
+        while (!stop) {
+            try {
+                group.add(appends.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            appends.drainTo(group, maxGroup - 1);
+            if (group.remove(STOP)) {
+                stop = true;
+            }
+            if (group.isEmpty()) continue;
+            try {
+                List<JournalEntry> written = writeGroup(group);
+                groupSizes.record(written.size());
+                onDurable.accept(written);
+                for (int i = 0; i < group.size(); i++) {
+                    group.get(i).done.complete(written.get(i));
+                }
+            } catch (IOException | RuntimeException e) {
+                // The file may now end in a partial record; it is cut off on the next open
+                log.error("Booking journal write failed; no further bookings will be accepted", e);
+                group.forEach(a -> a.done.completeExceptionally(e));
+                synchronized (this) {
+                    closed = true;
+                }
+                failRemaining(e);
+                return;
+            }
+            group.clear();
+        }
+    }
+
+    private List<JournalEntry> writeGroup(List<Append> group) throws IOException {
+        if (channel.size() >= segmentBytes) {
+            openSegment(lastSeq + 1);
+        }
+        List<JournalEntry> written = new ArrayList<>(group.size());
+        buffer.clear();
+        for (Append a : group) {
+            JournalEntry entry = a.entry.withSeq(++lastSeq);
+            encode(entry);
+            written.add(entry);
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+        return written;
+    }
+
+    private void encode(JournalEntry e) {
+        int extra = e.isCancel() ? 1 : 0;
+        int payload = FIXED_PAYLOAD_BYTES + Long.BYTES * (e.seatIds().size() + extra);
+        if (buffer.remaining() < HEADER_BYTES + payload) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + HEADER_BYTES + payload));
+            buffer.flip();
+            bigger.put(buffer);
+            buffer = bigger;
+        }
+        int start = buffer.position();
+        buffer.putInt(payload).putInt(0);
+        buffer.putLong(e.seq())
+              .putLong(e.showtimeId())
+              .putDouble(e.price())
+              .putLong(e.bookedAt().toInstant(ZoneOffset.UTC).toEpochMilli())
+              .putInt(e.isCancel() ? -(e.seatIds().size() + 1) : e.seatIds().size());
+        if (e.isCancel()) {
+            buffer.putLong(e.cancels());
+        }
+        for (Long seatId : e.seatIds()) {
+            buffer.putLong(seatId);
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), start + HEADER_BYTES, payload);
+        buffer.putInt(start + Integer.BYTES, (int) crc.getValue());
+    }
+
+    private void failRemaining(Exception cause) {
+        List<Append> left = new ArrayList<>();
+        appends.drainTo(left);
+        for (Append a : left) {
+            if (a != STOP) a.done.completeExceptionally(cause);
+        }
+    }
+
+    // --- files ---
+
+    private void openSegment(long firstSeq) throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+        Path file = dir.resolve(SEGMENT_PREFIX + String.format("%020d", firstSeq) + SEGMENT_SUFFIX);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        syncDirectory();
+        synchronized (segments) {
+            segments.put(firstSeq, file);
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path file = dir.resolve(CHECKPOINT);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        return bytes.length == Long.BYTES ? ByteBuffer.wrap(bytes).getLong() : 0;
+    }
+
+    private List<JournalEntry> recover(long checkpoint) throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(dir)) {
+            files = list.filter(p -> {
+                String name = p.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).sorted().toList();
+        }
+        List<JournalEntry> entries = new ArrayList<>();
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long firstSeq = Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+            synchronized (segments) {
+                segments.put(firstSeq, file);
+            }
+            readSegment(file, checkpoint, entries);
+        }
+        return Collections.unmodifiableList(entries);
+    }
+
+    private void readSegment(Path file, long checkpoint, List<JournalEntry> out) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buf = ByteBuffer.allocate((int) ch.size());
+            while (buf.hasRemaining() && ch.read(buf) >= 0) {
+                // read the whole segment
+            }
+            buf.flip();
+            int validEnd = 0;
+            while (buf.remaining() >= HEADER_BYTES) {
+                int start = buf.position();
+                int payload = buf.getInt();
+                int crc = buf.getInt();
+                if (payload < FIXED_PAYLOAD_BYTES || payload > buf.remaining()
+                        || (payload - FIXED_PAYLOAD_BYTES) % Long.BYTES != 0) {
+                    break;
+                }
+                CRC32C actual = new CRC32C();
+                actual.update(buf.array(), buf.position(), payload);
+                if ((int) actual.getValue() != crc) {
+                    break;
+                }
+                JournalEntry entry = decode(buf);
+                lastSeq = Math.max(lastSeq, entry.seq());
+                if (entry.seq() > checkpoint) {
+                    out.add(entry);
+                }
+                validEnd = start + HEADER_BYTES + payload;
+            }
+            if (validEnd < ch.size()) {
+                log.warn("Cutting {} bytes of incomplete records off {}", ch.size() - validEnd, file);
+                ch.truncate(validEnd);
+                ch.force(true);
+            }
+        }
+    }
+
+    private static JournalEntry decode(ByteBuffer buf) {
+        long seq = buf.getLong();
+        long showtimeId = buf.getLong();
+        double price = buf.getDouble();
+        LocalDateTime bookedAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(buf.getLong()), ZoneOffset.UTC);
+        int count = buf.getInt();
+        long cancels = 0;
+        if (count < 0) {
+            count = -count - 1;
+            cancels = buf.getLong();
+        }
+        List<Long> seatIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            seatIds.add(buf.getLong());
+        }
+        return new JournalEntry(seq, showtimeId, price, bookedAt, List.copyOf(seatIds), cancels);
+    }
+
+    // Makes a newly created segment file itself durable; not supported on every platform
+    private void syncDirectory() {
+        try (FileChannel d = FileChannel.open(dir, StandardOpenOption.READ)) {
+            d.force(true);
+        } catch (IOException | UnsupportedOperationException ignored) {
+            // best effort
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.cinema.service.journal;
+
+import com.cinema.repository.ShowtimeRepository;
+import com.cinema.repository.TicketRepository;
+import com.cinema.service.inventory.PendingTickets;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Write-behind booking mode ({@code cinema.booking.journal.enabled=true}): bookings are
+ * committed to a local journal and written to the database in the background.
+ * Assumes a single application instance owns the journal directory.
+ */
+@Configuration
+@ConditionalOnProperty(name = "cinema.booking.journal.enabled", havingValue = "true")
+public class JournalConfig {
+
+    @Bean(destroyMethod = "close")
+    public BookingJournal bookingJournal(@Value("${cinema.booking.journal.dir:data/journal}") Path dir,
+                                         @Value("${cinema.booking.journal.segment-bytes:67108864}") long segmentBytes,
+                                         @Value("${cinema.booking.journal.max-group:1000}") int maxGroup,
+                                         MeterRegistry registry) throws IOException {
+        return BookingJournal.open(dir, segmentBytes, maxGroup, registry);
+    }
+
+    @Bean(destroyMethod = "close")
+    public JournalDrainer journalDrainer(BookingJournal journal,
+                                         PlatformTransactionManager txManager,
+                                         ShowtimeRepository showtimeRepo,
+                                         TicketRepository ticketRepo,
+                                         PendingTickets pending,
+                                         @Value("${cinema.booking.journal.drain-batch:500}") int batchSize,
+                                         MeterRegistry registry) {
+        JournalDrainer drainer = new JournalDrainer(journal, new TransactionTemplate(txManager),
+                showtimeRepo, ticketRepo, pending, batchSize, registry);
+
+        // Bookings that did not reach the database before the last stop count as booked
+        // before any seat map is loaded, and go first in the drain queue
+        for (JournalEntry e : journal.recovered()) {
+            if (!e.isCancel()) pending.add(e.showtimeId(), e.seatIds());
+        }
+        drainer.enqueue(journal.recovered());
+        journal.start(drainer::enqueue);
+        drainer.start();
+
+        Gauge.builder("cinema.journal.backlog", drainer, JournalDrainer::backlog)
+                .description("Journaled bookings not yet written to the database")
+                .register(registry);
+        return drainer;
+    }
+
+    @Bean
+    public JournaledTicketWriter journaledTicketWriter(BookingJournal journal, JournalDrainer drainer,
+                                                       PendingTickets pending) {
+        // Depends on the drainer so the journal is started before the first booking
+        return new JournaledTicketWriter(journal, pending);
+    }
+}
@@ -0,0 +1,190 @@
+package com.cinema.service.journal;
+
+import com.cinema.entity.Showtime;
+import com.cinema.entity.Ticket;
+import com.cinema.repository.ShowtimeRepository;
+import com.cinema.repository.TicketRepository;
+import com.cinema.service.inventory.PendingTickets;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background writer that moves journaled bookings into the {@code tickets} table,
+ * many entries per transaction, and then checkpoints the journal past them.
+ *
+ * Entries are applied in journal order; a cancel record deletes the tickets of the
+ * booking it cancels. A batch that hits a constraint is retried entry by entry. An
+ * entry whose tickets are already there (a replay after a crash between insert and
+ * checkpoint) is skipped; one that conflicts with other tickets, or whose showtime is
+ * gone, is a booking that cannot be honoured: it is logged as an error and counted in
+ * {@code cinema.journal.conflicts}. Any other database error is retried with backoff,
+ * so the DB being down only grows the backlog.
+ */
+public class JournalDrainer implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalDrainer.class);
+    private static final long MAX_BACKOFF_MS = 5_000;
+
+    private final BookingJournal journal;
+    private final TransactionTemplate tx;
+    private final ShowtimeRepository showtimeRepo;
+    private final TicketRepository ticketRepo;
+    private final PendingTickets pending;
+    private final int batchSize;
+    private final Counter conflicts;
+
+    private final BlockingQueue<JournalEntry> queue = new LinkedBlockingQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    public JournalDrainer(BookingJournal journal, TransactionTemplate tx, ShowtimeRepository showtimeRepo,
+                          TicketRepository ticketRepo, PendingTickets pending,
+                          int batchSize, MeterRegistry registry) {
+        this.journal = journal;
+        this.tx = tx;
+        this.showtimeRepo = showtimeRepo;
+        this.ticketRepo = ticketRepo;
+        this.pending = pending;
+        this.batchSize = batchSize;
+        this.conflicts = Counter.builder("cinema.journal.conflicts")
+                .description("Journaled bookings that could not be written to the database")
+                .register(registry);
+        this.thread = new Thread(this::drainLoop, "booking-journal-drainer");
+        this.thread.setDaemon(true);
+    }
+
+    /** Queues durable entries for insertion; called by the journal writer in sequence order. */
+    public void enqueue(List<JournalEntry> entries) {
+        queue.addAll(entries);
+    }
+
+    /** Journaled bookings not yet in the database. */
+    public int backlog() {
+        return queue.size() + inFlight.get();
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    /** Drains what is queued (unless the database is failing) and stops; the rest is replayed on next start. */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainLoop() {
+        List<JournalEntry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            JournalEntry first;
+            try {
+                first = queue.poll(200, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (first == null) continue;
+            batch.add(first);
+            queue.drainTo(batch, batchSize - 1);
+            inFlight.set(batch.size());
+            if (!drain(batch)) return;
+            inFlight.set(0);
+            batch.clear();
+        }
+    }
+
+    /** Writes one batch; false if it gave up because the drainer is stopping. */
+    boolean drain(List<JournalEntry> batch) {
+        long backoff = 100;
+        while (true) {
+            try {
+                try {
+                    tx.executeWithoutResult(status -> insert(batch));
+                } catch (DataIntegrityViolationException conflict) {
+                    batch.forEach(this::insertOne);
+                }
+                break;
+            } catch (DataAccessException | TransactionException ex) {
+                if (!running) return false;
+                log.warn("Draining {} journaled bookings failed, retrying in {} ms", batch.size(), backoff, ex);
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+            }
+        }
+        try {
+            journal.checkpoint(batch.get(batch.size() - 1).seq());
+        } catch (IOException ex) {
+            // Harmless: the entries are replayed on next start and skipped as already stored
+            log.warn("Could not checkpoint the booking journal", ex);
+        }
+        for (JournalEntry e : batch) {
+            if (!e.isCancel()) pending.remove(e.showtimeId(), e.seatIds());
+        }
+        return true;
+    }
+
+    private void insertOne(JournalEntry entry) {
+        try {
+            tx.executeWithoutResult(status -> insert(List.of(entry)));
+        } catch (DataIntegrityViolationException ex) {
+            if (alreadyStored(entry)) {
+                log.debug("Journal entry {} is already in the database", entry.seq());
+                return;
+            }
+            conflicts.increment();
+            log.error("Journaled booking {} (showtime {}, seats {}) conflicts with the database and was not written",
+                    entry.seq(), entry.showtimeId(), entry.seatIds(), ex);
+        }
+    }
+
+    // Whether every ticket of the entry exists and was written from this very entry
+    private boolean alreadyStored(JournalEntry entry) {
+        List<Ticket> existing = ticketRepo.findByShowtimeIdAndSeatIdIn(entry.showtimeId(), entry.seatIds());
+        return existing.size() == entry.seatIds().size()
+                && existing.stream().allMatch(t -> entry.bookedAt().equals(t.getBookedAt()));
+    }
+
+    private void insert(List<JournalEntry> entries) {
+        List<Ticket> tickets = new ArrayList<>();
+        for (JournalEntry e : entries) {
+            if (e.isCancel()) {
+                // Tickets queued so far may include the cancelled booking's
+                ticketRepo.saveAllAndFlush(tickets);
+                tickets.clear();
+                ticketRepo.deleteBooking(e.showtimeId(), e.seatIds(), e.bookedAt());
+                continue;
+            }
+            Showtime showtime = showtimeRepo.getReferenceById(e.showtimeId());
+            for (Long seatId : e.seatIds()) {
+                Ticket ticket = new Ticket(showtime, seatId, e.price());
+                ticket.setBookedAt(e.bookedAt());
+                tickets.add(ticket);
+            }
+        }
+        ticketRepo.saveAllAndFlush(tickets);
+    }
+}
@@ -0,0 +1,34 @@
+package com.cinema.service.journal;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One confirmed booking as recorded in the {@link BookingJournal}: the tickets it
+ * stands for are written to the database later by the {@link JournalDrainer}.
+ * {@code seq} is assigned by the journal on append and is 0 before that.
+ *
+ * An entry with {@code cancels > 0} is a compensating record instead: the booking
+ * with that sequence number was rolled back after it was journaled, and its tickets
+ * (same showtime, seats and {@code bookedAt}) must not stay in the database.
+ */
+public record JournalEntry(long seq, Long showtimeId, double price, LocalDateTime bookedAt, List<Long> seatIds,
+                           long cancels) {
+
+    public JournalEntry(long seq, Long showtimeId, double price, LocalDateTime bookedAt, List<Long> seatIds) {
+        this(seq, showtimeId, price, bookedAt, seatIds, 0);
+    }
+
+    /** The compensating record for a journaled booking. */
+    public static JournalEntry cancelling(JournalEntry booking) {
+        return new JournalEntry(0, booking.showtimeId, booking.price, booking.bookedAt, booking.seatIds, booking.seq);
+    }
+
+    public boolean isCancel() {
+        return cancels > 0;
+    }
+
+    JournalEntry withSeq(long seq) {
+        return new JournalEntry(seq, showtimeId, price, bookedAt, seatIds, cancels);
+    }
+}
@@ -0,0 +1,112 @@
+package com.cinema.service.journal;
+
+import com.cinema.entity.Showtime;
+import com.cinema.service.inventory.PendingTickets;
+import com.cinema.service.inventory.SeatOccupancy;
+import com.cinema.service.tickets.TicketWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Write-behind ticket writer: a booking is done once its entry is fsync'd to the
+ * {@link BookingJournal}; the {@link JournalDrainer} inserts the tickets later.
+ * The seats are registered as pending first so a reload of the showtime's
+ * occupancy cannot see them as free before they reach the database.
+ *
+ * Inside a transaction the entry is appended just before the commit, after everything
+ * else the transaction does. If the commit still fails, a cancel record is journaled
+ * before the claim on the seats is released; if even that cannot be written, the
+ * booking stands (it is drained like any other) and its seats stay booked.
+ */
+public class JournaledTicketWriter implements TicketWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(JournaledTicketWriter.class);
+
+    private final BookingJournal journal;
+    private final PendingTickets pending;
+
+    public JournaledTicketWriter(BookingJournal journal, PendingTickets pending) {
+        this.journal = journal;
+        this.pending = pending;
+    }
+
+    @Override
+    public List<Long> write(Showtime showtime, SeatOccupancy occupancy, int[] positions) {
+        List<Long> seats = List.copyOf(occupancy.getLayout().seatIdsAt(positions));
+        // Millisecond precision, as stored in the journal, so a replayed entry matches its tickets
+        JournalEntry entry = new JournalEntry(0, showtime.getId(), showtime.getTicketPrice(),
+                LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS), seats);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new JournalOnCommit(entry, occupancy, positions));
+        } else {
+            append(entry);
+        }
+        return seats;
+    }
+
+    private JournalEntry append(JournalEntry entry) {
+        pending.add(entry.showtimeId(), entry.seatIds());
+        try {
+            // join() ignores interrupts: once appended the entry may still reach disk, and then the
+            // booking stands. Every append is completed by the journal writer or failed when it stops.
+            return journal.append(entry).join();
+        } catch (CompletionException e) {
+            pending.remove(entry.showtimeId(), entry.seatIds());
+            throw new IllegalStateException("Booking journal write failed", e.getCause());
+        }
+    }
+
+    // Ordered first so its afterCompletion runs before the booking's claim is released
+    private final class JournalOnCommit implements TransactionSynchronization {
+
+        private final JournalEntry entry;
+        private final SeatOccupancy occupancy;
+        private final int[] positions;
+        private JournalEntry appended;
+
+        JournalOnCommit(JournalEntry entry, SeatOccupancy occupancy, int[] positions) {
+            this.entry = entry;
+            this.occupancy = occupancy;
+            this.positions = positions;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            appended = append(entry);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (appended == null || status == STATUS_COMMITTED) {
+                return;
+            }
+            if (status == STATUS_ROLLED_BACK) {
+                try {
+                    journal.append(JournalEntry.cancelling(appended)).join();
+                    return;
+                } catch (CompletionException e) {
+                    log.error("Could not journal the cancellation of booking {} (showtime {}, seats {})",
+                            appended.seq(), appended.showtimeId(), appended.seatIds(), e.getCause());
+                }
+            } else {
+                log.error("Outcome of the transaction for journaled booking {} is unknown; keeping it",
+                        appended.seq());
+            }
+            // The booking stays in the journal, so the seats must stay taken; release() leaves booked seats alone
+            occupancy.markBooked(positions);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.cinema.service.layout;
+
+import com.cinema.entity.SeatCategory;
+import com.cinema.entity.SeatLayoutRow;
+import com.cinema.entity.SeatLayoutTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * In-memory, immutable form of a {@link SeatLayoutTemplate}: seats flattened into
+ * positions in row order. A seat is identified by its key {@code layoutId << 32 | position},
+ * so the same template yields the same seat ids on every screen that uses it, and
+ * keys never collide with (sequence-generated) {@code Seat} row ids.
+ */
+public final class SeatLayout {
+
+    private final long id;
+    private final String name;
+    private final String[] rowLabels;
+    private final int[] seatNumbers;
+    private final SeatCategory[] categories;
+    private final boolean[] aisleAfter;
+
+    private SeatLayout(long id, String name, String[] rowLabels, int[] seatNumbers,
+                       SeatCategory[] categories, boolean[] aisleAfter) {
+        this.id = id;
+        this.name = name;
+        this.rowLabels = rowLabels;
+        this.seatNumbers = seatNumbers;
+        this.categories = categories;
+        this.aisleAfter = aisleAfter;
+    }
+
+    public static SeatLayout of(SeatLayoutTemplate template) {
+        List<SeatLayoutRow> rows = template.getRows();
+        int size = rows.stream().mapToInt(SeatLayoutRow::getSeats).sum();
+        String[] labels = new String[size];
+        int[] numbers = new int[size];
+        SeatCategory[] categories = new SeatCategory[size];
+        boolean[] aisles = new boolean[size];
+        int pos = 0;
+        for (SeatLayoutRow row : rows) {
+            String label = row.getLabel().intern();
+            int first = pos;
+            for (int n = 1; n <= row.getSeats(); n++, pos++) {
+                labels[pos] = label;
+                numbers[pos] = n;
+                categories[pos] = row.getCategory();
+            }
+            for (int after : aislesAfter(row)) {
+                aisles[first + after - 1] = true;
+            }
+        }
+        return new SeatLayout(template.getId(), template.getName(), labels, numbers, categories, aisles);
+    }
+
+    /** Seat numbers an aisle follows, parsed from the row's comma-separated list. */
+    public static int[] aislesAfter(SeatLayoutRow row) {
+        String spec = row.getAislesAfter();
+        if (spec == null || spec.isBlank()) {
+            return new int[0];
+        }
+        return Arrays.stream(spec.split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+    }
+
+    public static long seatKey(long layoutId, int position) {
+        return (layoutId << 32) | position;
+    }
+
+    /** Layout id encoded in a seat key; 0 for a {@code Seat} row id. */
+    public static long layoutIdOf(long seatId) {
+        return seatId >>> 32;
+    }
+
+    public static int positionOf(long seatKey) {
+        return (int) seatKey;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return rowLabels.length;
+    }
+
+    public long seatKeyAt(int position) {
+        return seatKey(id, position);
+    }
+
+    /** Position of a seat key of this layout, or -1. */
+    public int positionOfKey(long seatKey) {
+        if (layoutIdOf(seatKey) != id) {
+            return -1;
+        }
+        int pos = positionOf(seatKey);
+        return pos >= 0 && pos < rowLabels.length ? pos : -1;
+    }
+
+    public String rowLabelAt(int position) {
+        return rowLabels[position];
+    }
+
+    public int seatNumberAt(int position) {
+        return seatNumbers[position];
+    }
+
+    public SeatCategory categoryAt(int position) {
+        return categories[position];
+    }
+
+    /** Whether an aisle follows this seat in its row. */
+    public boolean aisleAfter(int position) {
+        return aisleAfter[position];
+    }
+}
@@ -0,0 +1,123 @@
+package com.cinema.service.layout;
+
+import com.cinema.entity.SeatCategory;
+import com.cinema.entity.SeatLayoutRow;
+import com.cinema.entity.SeatLayoutTemplate;
+import com.cinema.repository.ScreenLayoutAssignmentRepository;
+import com.cinema.repository.SeatLayoutTemplateRepository;
+import com.cinema.service.inventory.ScreenKey;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Interned seat-layout templates and the screen -> template assignments. Each
+ * template is loaded and compiled once and the same {@link SeatLayout} instance is
+ * shared by every screen that uses it.
+ *
+ * The default template (used by screens that have neither an assignment nor seat rows)
+ * is created at startup if missing, so serving a seat map never writes.
+ */
+@Component
+public class SeatLayouts implements SmartInitializingSingleton {
+
+    private static final long NONE = 0L;
+
+    private final SeatLayoutTemplateRepository templateRepo;
+    private final ScreenLayoutAssignmentRepository assignmentRepo;
+    private final TransactionTemplate tx;
+    private final String defaultName;
+
+    private final ConcurrentMap<Long, SeatLayout> byId = new ConcurrentHashMap<>();
+    private final ConcurrentMap<ScreenKey, Long> screenLayoutIds = new ConcurrentHashMap<>();
+    private volatile SeatLayout defaultLayout;
+
+    public SeatLayouts(SeatLayoutTemplateRepository templateRepo,
+                       ScreenLayoutAssignmentRepository assignmentRepo,
+                       PlatformTransactionManager txManager,
+                       @Value("${cinema.seating.default-layout:standard-50}") String defaultName) {
+        this.templateRepo = templateRepo;
+        this.assignmentRepo = assignmentRepo;
+        this.tx = new TransactionTemplate(txManager);
+        this.defaultName = defaultName;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        SeatLayoutTemplate template;
+        try {
+            template = tx.execute(status -> templateRepo.findByName(defaultName)
+                    .orElseGet(() -> templateRepo.save(defaultTemplate(defaultName))));
+        } catch (DataIntegrityViolationException raced) {
+            // Another instance created it first
+            template = templateRepo.findByName(defaultName).orElseThrow(() -> raced);
+        }
+        defaultLayout = intern(template);
+    }
+
+    /** Layout for screens without an assignment or seat rows of their own. */
+    public SeatLayout defaultLayout() {
+        return defaultLayout;
+    }
+
+    /** Template by id, or null if there is none. */
+    public SeatLayout get(long layoutId) {
+        SeatLayout cached = byId.get(layoutId);
+        if (cached != null) {
+            return cached;
+        }
+        // Queried outside the map so no bin lock is held across JDBC (see SeatInventory.occupancy)
+        SeatLayout loaded = templateRepo.findById(layoutId).map(SeatLayout::of).orElse(null);
+        if (loaded == null) {
+            return null;
+        }
+        SeatLayout raced = byId.putIfAbsent(layoutId, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    /** Template assigned to a screen, or null if the screen has no assignment. */
+    public SeatLayout forScreen(ScreenKey screen) {
+        Long layoutId = screenLayoutIds.get(screen);
+        if (layoutId == null) {
+            layoutId = assignmentRepo.findLayoutId(screen.cinemaId(), screen.screenNumber()).orElse(NONE);
+            screenLayoutIds.putIfAbsent(screen, layoutId);
+        }
+        return layoutId == NONE ? null : get(layoutId);
+    }
+
+    /** Whether a seat id is a valid seat key of some template. */
+    public boolean isSeatKey(long seatId) {
+        long layoutId = SeatLayout.layoutIdOf(seatId);
+        if (layoutId == NONE) {
+            return false;
+        }
+        SeatLayout layout = get(layoutId);
+        return layout != null && layout.positionOfKey(seatId) >= 0;
+    }
+
+    /** Forgets a screen's cached assignment, e.g. after it was changed. */
+    public void forgetScreen(ScreenKey screen) {
+        screenLayoutIds.remove(screen);
+    }
+
+    public SeatLayout intern(SeatLayoutTemplate template) {
+        return byId.computeIfAbsent(template.getId(), id -> SeatLayout.of(template));
+    }
+
+    // Rows A-E with 10 seats each, the plan screens used to get generated
+    private static SeatLayoutTemplate defaultTemplate(String name) {
+        List<SeatLayoutRow> rows = new ArrayList<>();
+        for (char row = 'A'; row <= 'E'; row++) {
+            rows.add(new SeatLayoutRow(String.valueOf(row), 10, null, SeatCategory.STANDARD));
+        }
+        return new SeatLayoutTemplate(name, rows);
+    }
+}
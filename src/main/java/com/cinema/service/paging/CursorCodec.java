@@ -0,0 +1,45 @@
+package com.cinema.service.paging;
+
+import com.cinema.exception.BusinessRuleViolationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.StringJoiner;
+import java.util.function.Function;
+
+/**
+ * Token format shared by every keyset-paged listing: the position's key values joined
+ * by '|' and base64url-encoded, so clients only ever see an opaque URL-safe string.
+ */
+public final class CursorCodec {
+
+    private CursorCodec() {
+    }
+
+    public static String encode(Object... keys) {
+        StringJoiner raw = new StringJoiner("|");
+        for (Object key : keys) {
+            raw.add(String.valueOf(key));
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Splits a token into its {@code keys} values and parses them; a malformed token
+     * (or one {@code parse} rejects) is a {@link BusinessRuleViolationException}.
+     */
+    public static <T> T decode(String token, int keys, Function<String[], T> parse) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] values = raw.split("\\|", -1);
+            if (values.length != keys) {
+                throw new IllegalArgumentException("Expected " + keys + " keys");
+            }
+            return parse.apply(values);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessRuleViolationException("Invalid cursor");
+        }
+    }
+}
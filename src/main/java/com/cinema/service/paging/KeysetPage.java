@@ -0,0 +1,11 @@
+package com.cinema.service.paging;
+
+import java.util.List;
+
+/** One page of a keyset-paged listing; {@code nextCursor} is null on the last page. */
+public record KeysetPage<T>(List<T> items, String nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,21 @@
+package com.cinema.service.paging;
+
+import org.springframework.data.domain.Limit;
+
+/** Server-side page size policy for list endpoints. */
+public final class PageSize {
+
+    public static final int DEFAULT = 100;
+    public static final int MAX = 500;
+
+    private PageSize() {
+    }
+
+    /** The requested size clamped to 1..{@link #MAX}, or {@link #DEFAULT} when none was asked for. */
+    public static Limit of(Integer requested) {
+        if (requested == null) {
+            return Limit.of(DEFAULT);
+        }
+        return Limit.of(Math.max(1, Math.min(requested, MAX)));
+    }
+}
@@ -0,0 +1,85 @@
+package com.cinema.service.paging;
+
+import com.cinema.entity.Showtime;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Keyset position in showtime listings ordered by (startTime, id). Clients only
+ * ever see it as an opaque URL-safe token; the next page starts strictly after it,
+ * so a deep page costs the same index seek as the first one.
+ */
+public record ShowtimeCursor(LocalDateTime startTime, long id) {
+
+    /** The order every paged showtime query must use for the cursor to be valid. */
+    public static final Sort ORDER = Sort.by("startTime", "id");
+
+    public static ShowtimeCursor after(Showtime last) {
+        return new ShowtimeCursor(last.getStartTime(), last.getId());
+    }
+
+    /** Scroll position for a token, or the initial position when the token is null/blank. */
+    public static ScrollPosition position(String token) {
+        if (token == null || token.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        return decode(token).toPosition();
+    }
+
+    public static ShowtimeCursor decode(String token) {
+        return CursorCodec.decode(token, 2,
+                keys -> new ShowtimeCursor(LocalDateTime.parse(keys[0]), Long.parseLong(keys[1])));
+    }
+
+    /**
+     * Page of an in-memory list already ordered by (startTime, id), with the same
+     * cursor semantics as the keyset queries. The start is found by binary search.
+     */
+    public static KeysetPage<Showtime> slice(List<Showtime> ordered, String token, Integer size) {
+        int from = start(ordered, token, ShowtimeCursor::after);
+        int to = Math.min(ordered.size(), from + PageSize.of(size).max());
+        String next = to < ordered.size() && to > from ? after(ordered.get(to - 1)).encode() : null;
+        return new KeysetPage<>(ordered.subList(from, to), next);
+    }
+
+    /**
+     * Index of the first element of a list ordered by (startTime, id) that comes after the
+     * token's position (0 for a null/blank token); {@code key} gives an element's position.
+     */
+    public static <T> int start(List<T> ordered, String token, Function<T, ShowtimeCursor> key) {
+        if (token == null || token.isBlank()) {
+            return 0;
+        }
+        ShowtimeCursor cursor = decode(token);
+        int lo = 0, hi = ordered.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (cursor.compareTo(key.apply(ordered.get(mid))) >= 0) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+
+    /** Orders this position against a showtime by (startTime, id). */
+    public int compareTo(Showtime s) {
+        return compareTo(after(s));
+    }
+
+    public int compareTo(ShowtimeCursor other) {
+        int byTime = startTime.compareTo(other.startTime);
+        return byTime != 0 ? byTime : Long.compare(id, other.id);
+    }
+
+    public String encode() {
+        return CursorCodec.encode(startTime, id);
+    }
+
+    public KeysetScrollPosition toPosition() {
+        return ScrollPosition.forward(Map.of("startTime", startTime, "id", id));
+    }
+}
@@ -0,0 +1,237 @@
+package com.cinema.service.schedule;
+
+import com.cinema.repository.ShowtimeRepository;
+import com.cinema.repository.projection.ShowtimeSlot;
+import com.cinema.service.inventory.ScreenKey;
+import com.cinema.service.schedule.ScreenSchedule.Slot;
+import com.cinema.service.support.TransactionHooks;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+/**
+ * In-memory interval index of every screen's showtimes, so overlap checks on
+ * create/update are an O(log n) lookup instead of a COUNT query per call.
+ *
+ * A screen is loaded from the DB the first time it is touched (and all screens are
+ * warmed at startup); from then on it is kept in step with committed writes. Every
+ * write loads its screens before it commits and changes the copy installed in the
+ * index, so a load that loses the race to install is simply dropped. Screens
+ * whose stored rows already overlap cannot be answered and callers fall back to
+ * the DB query.
+ */
+@Component
+public class ScheduleIndex {
+
+    private final ShowtimeRepository showtimeRepo;
+    private final ConcurrentMap<ScreenKey, ScreenSchedule> screens = new ConcurrentHashMap<>();
+
+    public ScheduleIndex(ShowtimeRepository showtimeRepo) {
+        this.showtimeRepo = showtimeRepo;
+    }
+
+    /** Loads every screen in one pass; screens a request already loaded are kept. */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        Map<ScreenKey, ScreenSchedule> loaded = new HashMap<>();
+        try (Stream<ShowtimeSlot> slots = showtimeRepo.streamSlots()) {
+            slots.forEach(s -> loaded
+                    .computeIfAbsent(new ScreenKey(s.cinemaId(), s.screenNumber()), k -> new ScreenSchedule())
+                    .load(s.id(), s.startTime(), s.endTime()));
+        }
+        loaded.forEach(screens::putIfAbsent);
+    }
+
+    /**
+     * Checks a new showtime against its screen and, if the slot is free, takes it in the
+     * index straight away so concurrent checks see it; a rollback gives it back.
+     * Returns null when the screen cannot be answered from memory.
+     */
+    public Reservation reserve(ScreenKey screen, LocalDateTime start, LocalDateTime end) {
+        ScreenSchedule schedule = schedule(screen);
+        Slot slot = new Slot(null, start, end);
+        synchronized (schedule) {
+            if (!schedule.isConsistent()) {
+                return null;
+            }
+            if (schedule.overlaps(start, end, null)) {
+                return new Reservation(schedule, null, null, null);
+            }
+            schedule.add(slot);
+        }
+        Reservation reservation = new Reservation(schedule, slot, null, slot);
+        TransactionHooks.afterRollback(reservation::cancel);
+        return reservation;
+    }
+
+    /**
+     * Like {@link #reserve}, for an existing showtime moving to [start, end) on the screen. Its
+     * current slot stays held as well until the transaction ends, so a rollback can always go
+     * back to it; {@link #moveOnCommit} then keeps only the new one.
+     */
+    public Reservation reserve(ScreenKey screen, Long showtimeId, LocalDateTime start, LocalDateTime end) {
+        ScreenSchedule schedule = schedule(screen);
+        Slot wanted = new Slot(showtimeId, start, end);
+        Slot held;
+        Slot current;
+        synchronized (schedule) {
+            if (!schedule.isConsistent()) {
+                return null;
+            }
+            if (schedule.overlaps(start, end, showtimeId)) {
+                return new Reservation(schedule, null, null, null);
+            }
+            current = schedule.slotOf(showtimeId);
+            held = wanted;
+            if (current != null && current.start.isBefore(end) && start.isBefore(current.end)) {
+                // Overlaps its own slot: hold the union so the intervals in the schedule stay disjoint
+                schedule.remove(current);
+                held = new Slot(showtimeId, min(start, current.start), max(end, current.end));
+            }
+            schedule.add(held);
+        }
+        Reservation reservation = new Reservation(schedule, held, current, wanted);
+        TransactionHooks.afterRollback(reservation::cancel);
+        return reservation;
+    }
+
+    /**
+     * Whether [start, end) overlaps another showtime than {@code excludeId} on the screen;
+     * empty when the screen cannot be answered from memory.
+     */
+    public Optional<Boolean> overlaps(ScreenKey screen, LocalDateTime start, LocalDateTime end, Long excludeId) {
+        ScreenSchedule schedule = schedule(screen);
+        synchronized (schedule) {
+            return schedule.isConsistent()
+                    ? Optional.of(schedule.overlaps(start, end, excludeId))
+                    : Optional.empty();
+        }
+    }
+
+    /**
+     * Moves an updated showtime to the slot it reserved on {@code to} once the transaction
+     * commits, freeing its old one. {@code from} is null if it had no screen before; a null
+     * reservation means {@code to} could not be answered from memory and is left to the DB.
+     */
+    public void moveOnCommit(Long showtimeId, ScreenKey from, ScreenKey to, Reservation slot) {
+        if (from != null) {
+            schedule(from);
+        }
+        TransactionHooks.afterCommit(() -> {
+            if (from != null && !from.equals(to)) {
+                remove(from, showtimeId);
+            }
+            if (slot != null) {
+                slot.settle();
+            } else {
+                screens.remove(to); // reload from the DB, with this showtime, on next use
+            }
+        });
+    }
+
+    /** Frees a deleted showtime's slot once the transaction commits. */
+    public void removeOnCommit(Long showtimeId, ScreenKey screen) {
+        schedule(screen);
+        TransactionHooks.afterCommit(() -> remove(screen, showtimeId));
+    }
+
+    /** Forgets a cinema's screens, e.g. after the cinema (and its showtimes) changed wholesale. */
+    public void dropCinema(Long cinemaId) {
+        screens.keySet().removeIf(key -> key.cinemaId().equals(cinemaId));
+    }
+
+    private void remove(ScreenKey screen, Long showtimeId) {
+        screens.computeIfPresent(screen, (key, schedule) -> {
+            synchronized (schedule) {
+                if (!schedule.isConsistent()) {
+                    return null; // the overlap may be gone now; reload on next use
+                }
+                Slot slot = schedule.slotOf(showtimeId);
+                if (slot != null) schedule.remove(slot);
+                return schedule;
+            }
+        });
+    }
+
+    // Loaded outside the map: a computeIfAbsent would hold the bin lock across JDBC, which pins a
+    // virtual thread. Writes only ever change the installed schedule, so the first one installed is used
+    private ScreenSchedule schedule(ScreenKey screen) {
+        ScreenSchedule cached = screens.get(screen);
+        if (cached != null) {
+            return cached;
+        }
+        ScreenSchedule loaded = load(screen);
+        ScreenSchedule raced = screens.putIfAbsent(screen, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private ScreenSchedule load(ScreenKey screen) {
+        ScreenSchedule schedule = new ScreenSchedule();
+        List<ShowtimeSlot> slots = showtimeRepo.findSlots(screen.cinemaId(), screen.screenNumber());
+        for (ShowtimeSlot s : slots) {
+            schedule.load(s.id(), s.startTime(), s.endTime());
+        }
+        return schedule;
+    }
+
+    /** A slot taken by {@link #reserve}; not granted means the requested time clashes. */
+    public static final class Reservation {
+        private final ScreenSchedule schedule;
+        private final Slot slot;
+        private final Slot previous; // an updated showtime's slot, held alongside until the end
+        private final Slot wanted;
+
+        private Reservation(ScreenSchedule schedule, Slot slot, Slot previous, Slot wanted) {
+            this.schedule = schedule;
+            this.slot = slot;
+            this.previous = previous;
+            this.wanted = wanted;
+        }
+
+        public boolean isGranted() {
+            return slot != null;
+        }
+
+        /** Attaches the id of the saved showtime so later updates and deletes can find the slot. */
+        public void bind(Long showtimeId) {
+            synchronized (schedule) {
+                schedule.bind(slot, showtimeId);
+            }
+        }
+
+        void cancel() {
+            synchronized (schedule) {
+                schedule.remove(slot);
+                if (previous != null) schedule.add(previous);
+            }
+        }
+
+        // Committed: keep exactly the requested slot
+        void settle() {
+            synchronized (schedule) {
+                schedule.remove(slot);
+                if (previous != null) schedule.remove(previous);
+                schedule.add(wanted);
+            }
+        }
+    }
+}
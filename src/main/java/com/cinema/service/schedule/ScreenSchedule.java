@@ -0,0 +1,88 @@
+package com.cinema.service.schedule;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Showtimes of one screen as non-overlapping [start, end) intervals keyed by start.
+ * Because no two intervals overlap, the only candidate for a clash with [start, end)
+ * is the interval starting latest before {@code end}, so a check is one
+ * {@code lowerEntry} lookup: O(log n). Callers synchronise on the instance.
+ */
+final class ScreenSchedule {
+
+    static final class Slot {
+        Long showtimeId; // null while a new showtime is reserved but not yet saved
+        final LocalDateTime start;
+        final LocalDateTime end;
+
+        Slot(Long showtimeId, LocalDateTime start, LocalDateTime end) {
+            this.showtimeId = showtimeId;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private final TreeMap<LocalDateTime, Slot> byStart = new TreeMap<>();
+    private final Map<Long, Slot> byId = new HashMap<>();
+
+    /** False when the stored rows already overlap; such a screen cannot be answered from memory. */
+    private boolean consistent = true;
+
+    boolean isConsistent() {
+        return consistent;
+    }
+
+    /** Loads an existing row; overlapping rows (legacy data) mark the schedule inconsistent. */
+    void load(Long showtimeId, LocalDateTime start, LocalDateTime end) {
+        if (overlaps(start, end, null)) {
+            consistent = false;
+            return;
+        }
+        add(new Slot(showtimeId, start, end));
+    }
+
+    /** True if [start, end) overlaps any slot other than the one of {@code excludeId}. */
+    boolean overlaps(LocalDateTime start, LocalDateTime end, Long excludeId) {
+        Map.Entry<LocalDateTime, Slot> e = byStart.lowerEntry(end);
+        while (e != null) {
+            Slot slot = e.getValue();
+            if (excludeId == null || !excludeId.equals(slot.showtimeId)) {
+                return slot.end.isAfter(start);
+            }
+            e = byStart.lowerEntry(e.getKey());
+        }
+        return false;
+    }
+
+    Slot slotOf(Long showtimeId) {
+        return byId.get(showtimeId);
+    }
+
+    void add(Slot slot) {
+        byStart.put(slot.start, slot);
+        if (slot.showtimeId != null) {
+            byId.put(slot.showtimeId, slot);
+        }
+    }
+
+    void remove(Slot slot) {
+        byStart.remove(slot.start, slot);
+        if (slot.showtimeId != null) {
+            byId.remove(slot.showtimeId, slot);
+        }
+    }
+
+    void bind(Slot slot, Long showtimeId) {
+        slot.showtimeId = showtimeId;
+        if (byStart.get(slot.start) == slot) {
+            byId.put(showtimeId, slot);
+        }
+    }
+
+    int size() {
+        return byStart.size();
+    }
+}
@@ -0,0 +1,183 @@
+package com.cinema.service.search;
+
+import com.cinema.repository.projection.ShowtimeTitle;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * N-gram inverted index over distinct showtime titles. Every 1-, 2- and 3-character
+ * substring of a normalized title is a gram with a posting list (a bitset of title
+ * numbers). A query of up to three characters is one posting-list lookup; a longer one
+ * intersects the lists of its trigrams and confirms the few candidates with a plain
+ * substring check. Showtimes hang off their title, so a query costs the same however
+ * many showtimes share the titles it does not match.
+ *
+ * Not thread-safe; {@link TitleIndex} guards it.
+ */
+final class TitleGrams {
+
+    static final int GRAM = 3;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Comparator<ShowtimeTitle> ORDER =
+            Comparator.comparing(ShowtimeTitle::startTime).thenComparing(ShowtimeTitle::id);
+
+    private static final class Title {
+        final String text;
+        final int number;
+        final Map<Long, ShowtimeTitle> showtimes = new HashMap<>();
+
+        Title(String text, int number) {
+            this.text = text;
+            this.number = number;
+        }
+    }
+
+    private final Map<Long, Title> byShowtime = new HashMap<>();
+    private final Map<String, Title> byText = new HashMap<>();
+    private final List<Title> byNumber = new ArrayList<>();
+    private final Deque<Integer> freeNumbers = new ArrayDeque<>();
+    private final Map<String, BitSet> postings = new HashMap<>();
+
+    /** Lower case with accents stripped ("Amélie" and "AMELIE" both become "amelie"). */
+    static String normalize(String s) {
+        String decomposed = Normalizer.normalize(s, Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    int size() {
+        return byShowtime.size();
+    }
+
+    int titleCount() {
+        return byText.size();
+    }
+
+    /** Adds a showtime, or moves it if its title, cinema or start time changed. */
+    void put(ShowtimeTitle showtime) {
+        remove(showtime.id());
+        if (showtime.movieTitle() == null) {
+            return;
+        }
+        Title title = byText.computeIfAbsent(normalize(showtime.movieTitle()), this::newTitle);
+        title.showtimes.put(showtime.id(), showtime);
+        byShowtime.put(showtime.id(), title);
+    }
+
+    void remove(Long showtimeId) {
+        Title title = byShowtime.remove(showtimeId);
+        if (title == null) {
+            return;
+        }
+        title.showtimes.remove(showtimeId);
+        if (title.showtimes.isEmpty()) {
+            dropTitle(title);
+        }
+    }
+
+    /** Current entry of a showtime, or null if it is not indexed. */
+    ShowtimeTitle get(Long showtimeId) {
+        Title title = byShowtime.get(showtimeId);
+        return title == null ? null : title.showtimes.get(showtimeId);
+    }
+
+    /** Ids of the indexed showtimes that match the predicate. */
+    List<Long> ids(Predicate<ShowtimeTitle> which) {
+        List<Long> ids = new ArrayList<>();
+        for (Title title : byText.values()) {
+            for (ShowtimeTitle s : title.showtimes.values()) {
+                if (which.test(s)) ids.add(s.id());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Showtimes whose normalized title contains the normalized query and that pass the
+     * filter, ordered by (startTime, id). The query must not be empty.
+     */
+    List<ShowtimeTitle> search(String query, Predicate<ShowtimeTitle> filter) {
+        List<ShowtimeTitle> result = new ArrayList<>();
+        BitSet titles = matchingTitles(query);
+        for (int n = titles.nextSetBit(0); n >= 0; n = titles.nextSetBit(n + 1)) {
+            for (ShowtimeTitle s : byNumber.get(n).showtimes.values()) {
+                if (filter.test(s)) result.add(s);
+            }
+        }
+        result.sort(ORDER);
+        return result;
+    }
+
+    private BitSet matchingTitles(String query) {
+        if (query.length() <= GRAM) {
+            BitSet exact = postings.get(query);
+            return exact == null ? new BitSet() : exact;
+        }
+        // Intersect the trigram lists, shortest first, then weed out titles that have
+        // every trigram but not in the right order
+        List<BitSet> lists = new ArrayList<>(query.length() - GRAM + 1);
+        for (int i = 0; i + GRAM <= query.length(); i++) {
+            BitSet list = postings.get(query.substring(i, i + GRAM));
+            if (list == null) {
+                return new BitSet();
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(BitSet::cardinality));
+        BitSet candidates = (BitSet) lists.get(0).clone();
+        for (int i = 1; i < lists.size() && !candidates.isEmpty(); i++) {
+            candidates.and(lists.get(i));
+        }
+        for (int n = candidates.nextSetBit(0); n >= 0; n = candidates.nextSetBit(n + 1)) {
+            if (!byNumber.get(n).text.contains(query)) candidates.clear(n);
+        }
+        return candidates;
+    }
+
+    private Title newTitle(String text) {
+        int number;
+        if (freeNumbers.isEmpty()) {
+            number = byNumber.size();
+            byNumber.add(null);
+        } else {
+            number = freeNumbers.pop();
+        }
+        Title title = new Title(text, number);
+        byNumber.set(number, title);
+        forEachGram(text, gram -> postings.computeIfAbsent(gram, g -> new BitSet()).set(number));
+        return title;
+    }
+
+    private void dropTitle(Title title) {
+        byText.remove(title.text);
+        byNumber.set(title.number, null);
+        freeNumbers.push(title.number);
+        forEachGram(title.text, gram -> {
+            BitSet list = postings.get(gram);
+            if (list != null) {
+                list.clear(title.number);
+                if (list.isEmpty()) postings.remove(gram);
+            }
+        });
+    }
+
+    private static void forEachGram(String text, Consumer<String> action) {
+        for (int len = 1; len <= GRAM; len++) {
+            for (int i = 0; i + len <= text.length(); i++) {
+                action.accept(text.substring(i, i + len));
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.cinema.service.search;
+
+import com.cinema.repository.ShowtimeRepository;
+import com.cinema.repository.projection.ShowtimeTitle;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * In-memory title search, so "title contains" queries are posting-list lookups
+ * ({@link TitleGrams}) instead of a {@code LIKE '%term%'} scan of the showtimes table.
+ * Matching ignores case and accents. Results are showtime keys; callers fetch the rows
+ * by primary key.
+ *
+ * The index is built at startup and then kept in step with committed writes. Until the
+ * first build has finished it answers nothing and callers query the DB. A write that
+ * commits while a (re)load is reading is not overwritten by the older row the load saw.
+ */
+@Component
+public class TitleIndex {
+
+    private final ShowtimeRepository showtimeRepo;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TitleGrams grams = new TitleGrams();
+    private volatile boolean ready;
+
+    // Showtimes written while a load is running, and how many loads are
+    private final Set<Long> touched = new HashSet<>();
+    private int loading;
+
+    public TitleIndex(ShowtimeRepository showtimeRepo) {
+        this.showtimeRepo = showtimeRepo;
+    }
+
+    /** Indexes every showtime; also usable to resync after writes that bypassed the services. */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        startLoad();
+        List<ShowtimeTitle> rows;
+        try (Stream<ShowtimeTitle> titles = showtimeRepo.streamTitles()) {
+            rows = titles.toList();
+        } catch (RuntimeException ex) {
+            endLoad(s -> false, List.of());
+            throw ex;
+        }
+        endLoad(s -> true, rows);
+        ready = true;
+    }
+
+    /** Re-reads one cinema's showtimes, e.g. after a cinema update rewrote its collection. */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void reloadCinema(Long cinemaId) {
+        startLoad();
+        List<ShowtimeTitle> rows;
+        try {
+            rows = showtimeRepo.findTitles(cinemaId);
+        } catch (RuntimeException ex) {
+            endLoad(s -> false, List.of());
+            throw ex;
+        }
+        endLoad(s -> cinemaId.equals(s.cinemaId()), rows);
+    }
+
+    /**
+     * Showtimes whose title contains {@code query} (ignoring case and accents), within the
+     * optional cinema and start-time bounds, ordered by (startTime, id). Empty when the
+     * index cannot answer: not built yet, a blank query, or a read-write transaction
+     * (which may have uncommitted showtime changes of its own).
+     */
+    public Optional<List<ShowtimeTitle>> search(String query, Long cinemaId,
+                                                LocalDateTime from, LocalDateTime to) {
+        if (!ready || query == null || query.isBlank() || writing()) {
+            return Optional.empty();
+        }
+        String term = TitleGrams.normalize(query.trim());
+        lock.readLock().lock();
+        try {
+            return Optional.of(grams.search(term, s ->
+                    (cinemaId == null || cinemaId.equals(s.cinemaId()))
+                            && (from == null || !s.startTime().isBefore(from))
+                            && (to == null || !s.startTime().isAfter(to))));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Indexes a committed create or update. */
+    public void put(ShowtimeTitle showtime) {
+        putAll(List.of(showtime));
+    }
+
+    public void putAll(List<ShowtimeTitle> showtimes) {
+        lock.writeLock().lock();
+        try {
+            for (ShowtimeTitle s : showtimes) {
+                grams.put(s);
+                if (loading > 0) touched.add(s.id());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Drops a committed delete. */
+    public void remove(Long showtimeId) {
+        lock.writeLock().lock();
+        try {
+            grams.remove(showtimeId);
+            if (loading > 0) touched.add(showtimeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Drops a deleted cinema's showtimes. */
+    public void dropCinema(Long cinemaId) {
+        lock.writeLock().lock();
+        try {
+            for (Long id : grams.ids(s -> cinemaId.equals(s.cinemaId()))) {
+                grams.remove(id);
+                if (loading > 0) touched.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static boolean writing() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private void startLoad() {
+        lock.writeLock().lock();
+        try {
+            loading++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Replaces the entries the load covers with the rows it read, except for showtimes
+    // written since it started
+    private void endLoad(Predicate<ShowtimeTitle> covered, List<ShowtimeTitle> rows) {
+        lock.writeLock().lock();
+        try {
+            for (Long id : grams.ids(covered)) {
+                if (!touched.contains(id)) grams.remove(id);
+            }
+            for (ShowtimeTitle row : rows) {
+                if (!touched.contains(row.id())) grams.put(row);
+            }
+            if (--loading == 0) {
+                touched.clear();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.cinema.service.seatfeed;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One open seat-map stream. Deltas wait in a bounded queue until a sender thread writes
+ * them out; a client too slow to keep up overflows it, loses the queued deltas and gets
+ * a fresh snapshot instead. At most one sender works on a subscriber at a time.
+ */
+final class FeedSubscriber {
+
+    private final SseEmitter emitter;
+    private final BlockingQueue<String> queue;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    // A new subscriber starts with a snapshot
+    private volatile boolean resync = true;
+    private volatile boolean ping;
+    private volatile boolean closed;
+
+    FeedSubscriber(SseEmitter emitter, int queueSize) {
+        this.emitter = emitter;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    /** Queues a delta; returns false if the queue was full and the client was dropped to a resync. */
+    boolean offer(String delta) {
+        if (queue.offer(delta)) {
+            return true;
+        }
+        resync = true;
+        queue.clear();
+        return false;
+    }
+
+    void requestResync() {
+        resync = true;
+    }
+
+    void requestPing() {
+        ping = true;
+    }
+
+    /** True once if a snapshot is due; queued deltas are dropped as the snapshot supersedes them. */
+    boolean takeResync() {
+        if (!resync) {
+            return false;
+        }
+        resync = false;
+        queue.clear();
+        return true;
+    }
+
+    boolean takePing() {
+        if (!ping) {
+            return false;
+        }
+        ping = false;
+        return true;
+    }
+
+    boolean isResyncDue() {
+        return resync;
+    }
+
+    String poll() {
+        return queue.poll();
+    }
+
+    boolean hasWork() {
+        return !closed && (resync || ping || !queue.isEmpty());
+    }
+
+    boolean startDrain() {
+        return draining.compareAndSet(false, true);
+    }
+
+    void endDrain() {
+        draining.set(false);
+    }
+
+    void close() {
+        closed = true;
+        queue.clear();
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+}
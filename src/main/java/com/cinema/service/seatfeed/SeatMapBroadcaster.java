@@ -0,0 +1,259 @@
+package com.cinema.service.seatfeed;
+
+import com.cinema.entity.Showtime;
+import com.cinema.exception.ResourceNotFoundException;
+import com.cinema.repository.ShowtimeRepository;
+import com.cinema.service.SeatMapService;
+import com.cinema.service.inventory.SeatInventory;
+import com.cinema.service.inventory.SeatOccupancy;
+import com.cinema.web.dto.SeatChangeDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes seat-map changes to Server-Sent Events subscribers, one {@link ShowtimeFeed}
+ * per showtime with at least one open stream. A subscriber first gets a {@code snapshot}
+ * event (the full seat map), then {@code delta} events listing the seats that changed,
+ * with their current status. Each delta is serialized once and queued for every
+ * subscriber of the showtime; a subscriber whose queue overflows is sent a new
+ * snapshot instead, so a slow client never holds up the others or the booking path.
+ */
+@Component
+public class SeatMapBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatMapBroadcaster.class);
+
+    private final SeatInventory inventory;
+    private final ShowtimeRepository showtimeRepo;
+    private final SeatMapService seatMapService;
+    private final ObjectMapper objectMapper;
+    private final int queueSize;
+    private final Duration flushInterval;
+    private final Duration timeout;
+
+    private final ConcurrentMap<Long, ShowtimeFeed> feeds = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Counter resyncs;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService senders;
+
+    public SeatMapBroadcaster(SeatInventory inventory,
+                              ShowtimeRepository showtimeRepo,
+                              SeatMapService seatMapService,
+                              ObjectMapper objectMapper,
+                              MeterRegistry registry,
+                              @Value("${cinema.seatfeed.queue-size:64}") int queueSize,
+                              @Value("${cinema.seatfeed.flush-interval:PT0.1S}") Duration flushInterval,
+                              @Value("${cinema.seatfeed.heartbeat:PT15S}") Duration heartbeat,
+                              @Value("${cinema.seatfeed.timeout:PT30M}") Duration timeout,
+                              @Value("${cinema.seatfeed.sender-threads:8}") int senderThreads) {
+        this.inventory = inventory;
+        this.showtimeRepo = showtimeRepo;
+        this.seatMapService = seatMapService;
+        this.objectMapper = objectMapper;
+        this.queueSize = queueSize;
+        this.flushInterval = flushInterval;
+        this.timeout = timeout;
+
+        Gauge.builder("cinema.seatfeed.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open seat-map streams")
+                .register(registry);
+        this.resyncs = Counter.builder("cinema.seatfeed.resyncs")
+                .description("Seat-map streams dropped to a snapshot because they fell behind")
+                .register(registry);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemon("seatfeed-flush"));
+        this.senders = Executors.newFixedThreadPool(senderThreads, daemon("seatfeed-send"));
+        inventory.setInstallListener(this::occupancyInstalled);
+        long hb = heartbeat.toMillis();
+        scheduler.scheduleWithFixedDelay(this::heartbeat, hb, hb, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a seat-map stream for a showtime. Throws {@link ResourceNotFoundException}
+     * if the showtime does not exist.
+     */
+    public SseEmitter subscribe(Long showtimeId) {
+        SeatOccupancy occupancy = currentOccupancy(showtimeId);
+        if (occupancy == null) {
+            throw new ResourceNotFoundException("Showtime not found: " + showtimeId);
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        FeedSubscriber subscriber = new FeedSubscriber(emitter, queueSize);
+        ShowtimeFeed feed = feeds.compute(showtimeId, (id, existing) -> {
+            ShowtimeFeed f = existing != null ? existing : new ShowtimeFeed(id, occupancy, () -> scheduleFlush(id));
+            f.add(subscriber);
+            return f;
+        });
+        subscriberCount.incrementAndGet();
+        emitter.onCompletion(() -> unsubscribe(showtimeId, subscriber));
+        emitter.onTimeout(() -> unsubscribe(showtimeId, subscriber));
+        emitter.onError(ex -> unsubscribe(showtimeId, subscriber));
+        drain(feed, subscriber);
+        return emitter;
+    }
+
+    /** Number of showtimes with open streams. */
+    int feedCount() {
+        return feeds.size();
+    }
+
+    @PreDestroy
+    public void stop() {
+        inventory.setInstallListener(null);
+        scheduler.shutdownNow();
+        senders.shutdownNow();
+        feeds.values().forEach(feed -> feed.subscribers().forEach(s -> s.emitter().complete()));
+    }
+
+    private void unsubscribe(Long showtimeId, FeedSubscriber subscriber) {
+        if (subscriber.isClosed()) {
+            return;
+        }
+        subscriber.close();
+        subscriberCount.decrementAndGet();
+        feeds.computeIfPresent(showtimeId, (id, feed) -> {
+            feed.remove(subscriber);
+            if (!feed.isEmpty()) {
+                return feed;
+            }
+            feed.detach();
+            return null;
+        });
+    }
+
+    // A showtime's occupancy was evicted and loaded again: move its feed over before the
+    // reloaded one is handed out, so no change to it is missed, and resync the subscribers
+    private void occupancyInstalled(Long showtimeId, SeatOccupancy occupancy) {
+        ShowtimeFeed feed = feeds.get(showtimeId);
+        if (feed == null || feed.occupancy() == occupancy) {
+            return;
+        }
+        feed.attach(occupancy);
+        feed.subscribers().forEach(subscriber -> drain(feed, subscriber));
+    }
+
+    private void scheduleFlush(Long showtimeId) {
+        scheduler.schedule(() -> flush(showtimeId), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void flush(Long showtimeId) {
+        ShowtimeFeed feed = feeds.get(showtimeId);
+        if (feed == null) {
+            return;
+        }
+        List<SeatChangeDto> changes = feed.takeChanges();
+        if (changes.isEmpty()) {
+            return;
+        }
+        String delta;
+        try {
+            delta = objectMapper.writeValueAsString(changes);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+        for (FeedSubscriber subscriber : feed.subscribers()) {
+            if (!subscriber.offer(delta)) {
+                resyncs.increment();
+            }
+            drain(feed, subscriber);
+        }
+    }
+
+    // Writes out whatever the subscriber has pending on a sender thread, unless one is already on it
+    private void drain(ShowtimeFeed feed, FeedSubscriber subscriber) {
+        if (!subscriber.hasWork() || !subscriber.startDrain()) {
+            return;
+        }
+        senders.execute(() -> {
+            try {
+                if (subscriber.takeResync()) {
+                    send(subscriber, "snapshot", objectMapper.writeValueAsString(
+                            seatMapService.getSeatMapForShowtime(feed.showtimeId())));
+                }
+                String delta;
+                while (!subscriber.isResyncDue() && (delta = subscriber.poll()) != null) {
+                    send(subscriber, "delta", delta);
+                }
+                if (subscriber.takePing()) {
+                    subscriber.emitter().send(SseEmitter.event().comment("ping"));
+                }
+            } catch (IOException | RuntimeException ex) {
+                // Client gone (or the showtime is); the emitter callbacks may not fire for a dead socket
+                log.debug("Closing seat-map stream of showtime {}: {}", feed.showtimeId(), ex.toString());
+                unsubscribe(feed.showtimeId(), subscriber);
+                subscriber.emitter().completeWithError(ex);
+            } finally {
+                subscriber.endDrain();
+            }
+            drain(feed, subscriber);
+        });
+    }
+
+    private static void send(FeedSubscriber subscriber, String event, String json) throws IOException {
+        subscriber.emitter().send(SseEmitter.event().name(event).data(json, MediaType.APPLICATION_JSON));
+    }
+
+    // Keeps idle streams open through proxies, finds dead ones, and re-attaches a feed whose
+    // occupancy was evicted but not loaded again since (nothing else touched the showtime)
+    private void heartbeat() {
+        for (ShowtimeFeed feed : feeds.values()) {
+            try {
+                SeatOccupancy current = currentOccupancy(feed.showtimeId());
+                if (current == null) {
+                    feed.subscribers().forEach(s -> s.emitter().complete());
+                    continue;
+                }
+                if (current != feed.occupancy()) {
+                    feed.attach(current);
+                }
+                for (FeedSubscriber subscriber : feed.subscribers()) {
+                    subscriber.requestPing();
+                    drain(feed, subscriber);
+                }
+            } catch (RuntimeException ex) {
+                log.warn("Seat-map heartbeat failed for showtime {}", feed.showtimeId(), ex);
+            }
+        }
+    }
+
+    private SeatOccupancy currentOccupancy(Long showtimeId) {
+        SeatOccupancy cached = inventory.cached(showtimeId);
+        if (cached != null) {
+            return cached;
+        }
+        Showtime showtime = showtimeRepo.findById(showtimeId).orElse(null);
+        return showtime == null ? null : inventory.occupancy(showtime);
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, name + "-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
@@ -0,0 +1,111 @@
+package com.cinema.service.seatfeed;
+
+import com.cinema.service.inventory.ScreenLayout;
+import com.cinema.service.inventory.SeatChangeListener;
+import com.cinema.service.inventory.SeatOccupancy;
+import com.cinema.web.dto.SeatChangeDto;
+import com.cinema.web.dto.SeatStatus;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The subscribers of one showtime and the seats that changed since the last flush.
+ * It listens on the showtime's {@link SeatOccupancy}; a change only marks positions
+ * dirty, and the flush reads their current state once for all subscribers, so a burst
+ * of bookings becomes one delta per flush interval.
+ */
+final class ShowtimeFeed implements SeatChangeListener {
+
+    private final Long showtimeId;
+    private final Set<FeedSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Runnable scheduleFlush;
+
+    private SeatOccupancy occupancy;
+    private final BitSet dirty = new BitSet();
+    private boolean flushScheduled;
+
+    ShowtimeFeed(Long showtimeId, SeatOccupancy occupancy, Runnable scheduleFlush) {
+        this.showtimeId = showtimeId;
+        this.scheduleFlush = scheduleFlush;
+        attach(occupancy);
+    }
+
+    Long showtimeId() {
+        return showtimeId;
+    }
+
+    synchronized SeatOccupancy occupancy() {
+        return occupancy;
+    }
+
+    /** Follows a new occupancy (the old one was evicted); every subscriber gets a snapshot. */
+    synchronized void attach(SeatOccupancy replacement) {
+        if (occupancy != null) {
+            occupancy.setListener(null);
+        }
+        occupancy = replacement;
+        dirty.clear();
+        replacement.setListener(this);
+        subscribers.forEach(FeedSubscriber::requestResync);
+    }
+
+    synchronized void detach() {
+        occupancy.setListener(null);
+    }
+
+    @Override
+    public void seatsChanged(int[] positions) {
+        boolean schedule;
+        synchronized (this) {
+            for (int pos : positions) {
+                dirty.set(pos);
+            }
+            schedule = !flushScheduled;
+            flushScheduled = true;
+        }
+        if (schedule) {
+            scheduleFlush.run();
+        }
+    }
+
+    /** Current state of every seat that changed since the last call; empty if none. */
+    List<SeatChangeDto> takeChanges() {
+        SeatOccupancy current;
+        int[] positions;
+        synchronized (this) {
+            flushScheduled = false;
+            positions = dirty.stream().toArray();
+            dirty.clear();
+            current = occupancy;
+        }
+        ScreenLayout layout = current.getLayout();
+        List<SeatChangeDto> changes = new ArrayList<>(positions.length);
+        for (int pos : positions) {
+            SeatStatus status = current.isBooked(pos) ? SeatStatus.BOOKED
+                    : current.isHeld(pos) ? SeatStatus.HELD
+                    : SeatStatus.FREE;
+            changes.add(new SeatChangeDto(layout.seatIdAt(pos), status));
+        }
+        return changes;
+    }
+
+    void add(FeedSubscriber subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    void remove(FeedSubscriber subscriber) {
+        subscribers.remove(subscriber);
+    }
+
+    boolean isEmpty() {
+        return subscribers.isEmpty();
+    }
+
+    Set<FeedSubscriber> subscribers() {
+        return subscribers;
+    }
+}
@@ -0,0 +1,70 @@
+package com.cinema.service.tickets;
+
+import com.cinema.entity.Showtime;
+import com.cinema.entity.Ticket;
+import com.cinema.exception.SeatUnavailableException;
+import com.cinema.repository.TicketRepository;
+import com.cinema.service.inventory.SeatOccupancy;
+import com.cinema.service.support.TransactionHooks;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/** Default writer: inserts the tickets in the caller's transaction. */
+@Component
+@ConditionalOnProperty(name = "cinema.booking.journal.enabled", havingValue = "false", matchIfMissing = true)
+public class DirectTicketWriter implements TicketWriter {
+
+    private final TicketRepository ticketRepo;
+
+    public DirectTicketWriter(TicketRepository ticketRepo) {
+        this.ticketRepo = ticketRepo;
+    }
+
+    @Override
+    public List<Long> write(Showtime showtime, SeatOccupancy occupancy, int[] positions) {
+        List<Long> seatIds = occupancy.getLayout().seatIdsAt(positions);
+        double price = showtime.getTicketPrice();
+        List<Ticket> tickets = new ArrayList<>(seatIds.size());
+        for (Long seatId : seatIds) {
+            tickets.add(new Ticket(showtime, seatId, price));
+        }
+        // One batched INSERT; flushed here so a constraint violation surfaces in the booking call
+        try {
+            ticketRepo.saveAllAndFlush(tickets);
+        } catch (DataIntegrityViolationException e) {
+            if (!isSeatTaken(e)) {
+                throw e;
+            }
+            // The bitset missed a stored ticket (e.g. a row written around the service): once rolled
+            // back, mark what the database holds as booked so the seat is not offered again
+            Long showtimeId = showtime.getId();
+            TransactionHooks.afterRollback(() -> markStored(showtimeId, occupancy));
+            throw new SeatUnavailableException("One or more seats are already booked or held");
+        }
+        return seatIds;
+    }
+
+    private void markStored(Long showtimeId, SeatOccupancy occupancy) {
+        for (Long seatId : ticketRepo.findBookedSeatIds(showtimeId)) {
+            int pos = occupancy.getLayout().positionOf(seatId);
+            if (pos >= 0) {
+                occupancy.markBooked(pos);
+            }
+        }
+    }
+
+    private static boolean isSeatTaken(DataIntegrityViolationException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof ConstraintViolationException cve && cve.getConstraintName() != null) {
+                return cve.getConstraintName().toLowerCase(Locale.ROOT).contains(Ticket.SEAT_UNIQUE_CONSTRAINT);
+            }
+        }
+        return false;
+    }
+}
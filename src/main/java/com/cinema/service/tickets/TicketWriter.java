@@ -0,0 +1,16 @@
+package com.cinema.service.tickets;
+
+import com.cinema.entity.Showtime;
+import com.cinema.service.inventory.SeatOccupancy;
+
+import java.util.List;
+
+/**
+ * Records the tickets of a booking whose seats have already been claimed in the
+ * in-memory inventory. Throwing rolls the booking back and frees the seats.
+ */
+public interface TicketWriter {
+
+    /** Writes tickets for the claimed {@code positions} of {@code occupancy}; returns their seat ids. */
+    List<Long> write(Showtime showtime, SeatOccupancy occupancy, int[] positions);
+}
@@ -0,0 +1,78 @@
+package com.cinema.web;
+
+import com.cinema.controller.ShowtimeController;
+import com.cinema.exception.NotAdmittedException;
+import com.cinema.service.admission.WaitingRoom;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Gate in front of the booking, hold and seat-map endpoints of a showtime: while the
+ * showtime has an open {@link WaitingRoom}, requests without an admitted
+ * {@value #QUEUE_TOKEN_HEADER} are answered with 429 before the controller runs.
+ * Successful bookings (not replays of an earlier one) are reported back to the room as
+ * its throughput measure.
+ */
+public class AdmissionInterceptor implements HandlerInterceptor {
+
+    /** Request header carrying the token from POST /api/showtimes/{id}/queue. */
+    public static final String QUEUE_TOKEN_HEADER = "X-Queue-Token";
+
+    private final WaitingRoom waitingRoom;
+
+    public AdmissionInterceptor(WaitingRoom waitingRoom) {
+        this.waitingRoom = waitingRoom;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Long showtimeId = showtimeId(request);
+        if (showtimeId == null || !waitingRoom.isOpen(showtimeId)
+                || waitingRoom.admits(showtimeId, request.getHeader(QUEUE_TOKEN_HEADER))) {
+            return true;
+        }
+        throw new NotAdmittedException("Showtime " + showtimeId + " has a waiting room; join the queue first",
+                waitingRoom.retryAfterSeconds(showtimeId));
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (ex == null && isBooking(request) && HttpStatus.valueOf(response.getStatus()).is2xxSuccessful()
+                && !isReplay(response)) {
+            Long showtimeId = showtimeId(request);
+            if (showtimeId != null) {
+                waitingRoom.recordBooking(showtimeId);
+            }
+        }
+    }
+
+    // Ticket purchases, direct or by confirming a hold
+    private static boolean isBooking(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return "POST".equals(request.getMethod()) && (uri.contains("/tickets") || uri.endsWith("/confirm"));
+    }
+
+    // An Idempotency-Key retry answered from the stored response: nothing was booked
+    private static boolean isReplay(HttpServletResponse response) {
+        return "true".equals(response.getHeader(ShowtimeController.IDEMPOTENT_REPLAYED_HEADER));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Long showtimeId(HttpServletRequest request) {
+        Map<String, String> vars = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String id = vars == null ? null : vars.get("id");
+        if (id == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(id);
+        } catch (NumberFormatException ex) {
+            return null; // the controller reports the bad id
+        }
+    }
+}
@@ -1,10 +1,16 @@
 package com.cinema.web;
 
 import com.cinema.exception.BusinessRuleViolationException;
+import com.cinema.exception.IdempotencyKeyReusedException;
+import com.cinema.exception.IdempotentRequestInProgressException;
+import com.cinema.exception.NotAdmittedException;
 import com.cinema.exception.OverlappingShowtimeException;
 import com.cinema.exception.ResourceNotFoundException;
+import com.cinema.exception.SeatUnavailableException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
@@ -41,6 +47,33 @@ public class GlobalExceptionHandler {
         return body(HttpStatus.CONFLICT, ex.getMessage());
     }
 
+    // Another customer got the seats first: the request was valid, the state changed under it
+    @ExceptionHandler(SeatUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> seatTaken(SeatUnavailableException ex) {
+        return body(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<Map<String, Object>> keyReused(IdempotencyKeyReusedException ex) {
+        return body(HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage());
+    }
+
+    // The first request with the key has not finished yet; its retry should wait a moment
+    @ExceptionHandler(IdempotentRequestInProgressException.class)
+    public ResponseEntity<Map<String, Object>> inProgress(IdempotentRequestInProgressException ex) {
+        ResponseEntity<Map<String, Object>> conflict = body(HttpStatus.CONFLICT, ex.getMessage());
+        return ResponseEntity.status(conflict.getStatusCode()).header(HttpHeaders.RETRY_AFTER, "1").body(conflict.getBody());
+    }
+
+    // Thrown by AdmissionInterceptor before the controller; Retry-After is the suggested polling delay
+    @ExceptionHandler(NotAdmittedException.class)
+    public ResponseEntity<Map<String, Object>> notAdmitted(NotAdmittedException ex) {
+        ResponseEntity<Map<String, Object>> tooMany = body(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage());
+        return ResponseEntity.status(tooMany.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfterSeconds())))
+                .body(tooMany.getBody());
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> validation(MethodArgumentNotValidException ex) {
         String details = ex.getBindingResult().getFieldErrors().stream()
@@ -54,4 +87,11 @@ public class GlobalExceptionHandler {
         String msg = "Invalid value for parameter '" + ex.getName() + "'";
         return body(HttpStatus.BAD_REQUEST, msg);
     }
+
+    // No database connection within cinema.db.bulkhead.max-wait (or the pool's timeout)
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<Map<String, Object>> busy(CannotCreateTransactionException ex) {
+        ResponseEntity<Map<String, Object>> busy = body(HttpStatus.SERVICE_UNAVAILABLE, "Database busy, try again");
+        return ResponseEntity.status(busy.getStatusCode()).header(HttpHeaders.RETRY_AFTER, "1").body(busy.getBody());
+    }
 }
@@ -0,0 +1,136 @@
+package com.cinema.web;
+
+import com.cinema.controller.ShowtimeController.ShowtimeRequest;
+import com.cinema.exception.BusinessRuleViolationException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads showtime rows from CSV for the bulk import endpoint. The first line names the
+ * columns (any order): movieTitle, screenNumber, startTime, endTime, ticketPrice,
+ * language, format, cinemaId. Fields may be double-quoted, with "" for a quote inside.
+ * Times are ISO-8601 local date-times. A malformed line rejects the whole upload.
+ */
+public final class ShowtimeCsvReader {
+
+    /** A data row with its 1-based line number in the file (the header is line 1). */
+    public record Line(int number, ShowtimeRequest request) {
+    }
+
+    private static final List<String> COLUMNS = List.of(
+            "movieTitle", "screenNumber", "startTime", "endTime", "ticketPrice", "language", "format", "cinemaId");
+
+    private ShowtimeCsvReader() {
+    }
+
+    public static List<Line> read(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (header == null) {
+            return List.of();
+        }
+        if (header.startsWith("\uFEFF")) header = header.substring(1); // UTF-8 BOM from spreadsheet exports
+        Map<String, Integer> column = columns(split(header, 1));
+
+        List<Line> rows = new ArrayList<>();
+        int lineNo = 1;
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            lineNo++;
+            if (line.isBlank()) continue;
+            rows.add(new Line(lineNo, toRequest(split(line, lineNo), column, lineNo)));
+        }
+        return rows;
+    }
+
+    private static Map<String, Integer> columns(List<String> names) {
+        Map<String, Integer> column = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).trim();
+            if (!COLUMNS.contains(name)) {
+                throw new BusinessRuleViolationException("Unknown CSV column: " + name);
+            }
+            column.put(name, i);
+        }
+        return column;
+    }
+
+    private static ShowtimeRequest toRequest(List<String> fields, Map<String, Integer> column, int lineNo) {
+        ShowtimeRequest r = new ShowtimeRequest();
+        String current = null;
+        try {
+            current = "movieTitle";
+            r.movieTitle = field(fields, column, current);
+            current = "screenNumber";
+            String screen = field(fields, column, current);
+            r.screenNumber = screen == null ? 0 : Integer.parseInt(screen);
+            current = "startTime";
+            String start = field(fields, column, current);
+            r.startTime = start == null ? null : LocalDateTime.parse(start);
+            current = "endTime";
+            String end = field(fields, column, current);
+            r.endTime = end == null ? null : LocalDateTime.parse(end);
+            current = "ticketPrice";
+            String price = field(fields, column, current);
+            r.ticketPrice = price == null ? 0.0 : Double.parseDouble(price);
+            current = "language";
+            r.language = field(fields, column, current);
+            current = "format";
+            r.format = field(fields, column, current);
+            current = "cinemaId";
+            String cinemaId = field(fields, column, current);
+            r.cinemaId = cinemaId == null ? null : Long.valueOf(cinemaId);
+        } catch (NumberFormatException | DateTimeParseException ex) {
+            throw new BusinessRuleViolationException("CSV line " + lineNo + ": invalid " + current);
+        }
+        return r;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> column, String name) {
+        Integer i = column.get(name);
+        if (i == null || i >= fields.size()) return null;
+        String value = fields.get(i).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // RFC 4180 style split of one physical line; quoted fields may not span lines
+    static List<String> split(String line, int lineNo) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new BusinessRuleViolationException("CSV line " + lineNo + ": unterminated quote");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
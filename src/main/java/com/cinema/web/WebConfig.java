@@ -1,15 +1,31 @@
 package com.cinema.web;
 
+import com.cinema.service.admission.WaitingRoom;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.util.List;
 
 @Configuration
-public class WebConfig {
+public class WebConfig implements WebMvcConfigurer {
+
+    private final WaitingRoom waitingRoom;
+
+    public WebConfig(WaitingRoom waitingRoom) {
+        this.waitingRoom = waitingRoom;
+    }
+
+    /** Keeps callers not yet admitted by a showtime's waiting room away from its seats. */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AdmissionInterceptor(waitingRoom))
+                .addPathPatterns("/api/showtimes/*/tickets/**", "/api/showtimes/*/holds/**", "/api/showtimes/*/seats/**");
+    }
 
     @Bean
     public CorsFilter corsFilter() {
@@ -18,6 +34,7 @@ public class WebConfig {
         config.setAllowedOrigins(List.of("http://localhost:5173"));
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         config.setAllowedHeaders(List.of("*"));
+        config.setExposedHeaders(List.of("X-Next-Cursor", "Link", "Idempotent-Replayed", "Retry-After", "ETag"));
         config.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
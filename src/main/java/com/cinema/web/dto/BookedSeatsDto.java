@@ -0,0 +1,33 @@
+package com.cinema.web.dto;
+
+import java.util.List;
+
+public class BookedSeatsDto {
+
+    private Long showtimeId;
+    private List<Long> seatIds;
+
+    public BookedSeatsDto() {
+    }
+
+    public BookedSeatsDto(Long showtimeId, List<Long> seatIds) {
+        this.showtimeId = showtimeId;
+        this.seatIds = seatIds;
+    }
+
+    public Long getShowtimeId() {
+        return showtimeId;
+    }
+
+    public void setShowtimeId(Long showtimeId) {
+        this.showtimeId = showtimeId;
+    }
+
+    public List<Long> getSeatIds() {
+        return seatIds;
+    }
+
+    public void setSeatIds(List<Long> seatIds) {
+        this.seatIds = seatIds;
+    }
+}
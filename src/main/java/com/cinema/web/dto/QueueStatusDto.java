@@ -0,0 +1,61 @@
+package com.cinema.web.dto;
+
+public class QueueStatusDto {
+
+    private Long showtimeId;
+    private String token;
+    private long position;
+    private boolean admitted;
+    private int retryAfterSeconds;
+
+    public QueueStatusDto() {
+    }
+
+    public QueueStatusDto(Long showtimeId, String token, long position, boolean admitted, int retryAfterSeconds) {
+        this.showtimeId = showtimeId;
+        this.token = token;
+        this.position = position;
+        this.admitted = admitted;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public Long getShowtimeId() {
+        return showtimeId;
+    }
+
+    public void setShowtimeId(Long showtimeId) {
+        this.showtimeId = showtimeId;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public long getPosition() {
+        return position;
+    }
+
+    public void setPosition(long position) {
+        this.position = position;
+    }
+
+    public boolean isAdmitted() {
+        return admitted;
+    }
+
+    public void setAdmitted(boolean admitted) {
+        this.admitted = admitted;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public void setRetryAfterSeconds(int retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,32 @@
+package com.cinema.web.dto;
+
+/** New state of one seat, as pushed to seat-map subscribers. */
+public class SeatChangeDto {
+
+    private Long seatId;
+    private SeatStatus status;
+
+    public SeatChangeDto() {
+    }
+
+    public SeatChangeDto(Long seatId, SeatStatus status) {
+        this.seatId = seatId;
+        this.status = status;
+    }
+
+    public Long getSeatId() {
+        return seatId;
+    }
+
+    public void setSeatId(Long seatId) {
+        this.seatId = seatId;
+    }
+
+    public SeatStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(SeatStatus status) {
+        this.status = status;
+    }
+}
@@ -0,0 +1,54 @@
+package com.cinema.web.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public class SeatHoldDto {
+
+    private String holdId;
+    private Long showtimeId;
+    private List<Long> seatIds;
+    private Instant expiresAt;
+
+    public SeatHoldDto() {
+    }
+
+    public SeatHoldDto(String holdId, Long showtimeId, List<Long> seatIds, Instant expiresAt) {
+        this.holdId = holdId;
+        this.showtimeId = showtimeId;
+        this.seatIds = seatIds;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getHoldId() {
+        return holdId;
+    }
+
+    public void setHoldId(String holdId) {
+        this.holdId = holdId;
+    }
+
+    public Long getShowtimeId() {
+        return showtimeId;
+    }
+
+    public void setShowtimeId(Long showtimeId) {
+        this.showtimeId = showtimeId;
+    }
+
+    public List<Long> getSeatIds() {
+        return seatIds;
+    }
+
+    public void setSeatIds(List<Long> seatIds) {
+        this.seatIds = seatIds;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
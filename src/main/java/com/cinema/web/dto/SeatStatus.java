@@ -2,5 +2,6 @@ package com.cinema.web.dto;
 
 public enum SeatStatus {
     FREE,
+    HELD,
     BOOKED
 }
@@ -1,11 +1,15 @@
 package com.cinema.web.dto;
 
+import com.cinema.entity.SeatCategory;
+
 public class SeatStatusDto {
 
     private Long seatId;
     private String rowLabel;
     private int seatNumber;
     private SeatStatus status;
+    private SeatCategory category;
+    private boolean aisleAfter;
 
     public SeatStatusDto() {
     }
@@ -17,6 +21,13 @@ public class SeatStatusDto {
         this.status = status;
     }
 
+    public SeatStatusDto(Long seatId, String rowLabel, int seatNumber, SeatStatus status,
+                         SeatCategory category, boolean aisleAfter) {
+        this(seatId, rowLabel, seatNumber, status);
+        this.category = category;
+        this.aisleAfter = aisleAfter;
+    }
+
     public Long getSeatId() {
         return seatId;
     }
@@ -48,4 +59,21 @@ public class SeatStatusDto {
     public void setStatus(SeatStatus status) {
         this.status = status;
     }
+
+    public SeatCategory getCategory() {
+        return category;
+    }
+
+    public void setCategory(SeatCategory category) {
+        this.category = category;
+    }
+
+    /** Whether an aisle follows this seat in its row. */
+    public boolean isAisleAfter() {
+        return aisleAfter;
+    }
+
+    public void setAisleAfter(boolean aisleAfter) {
+        this.aisleAfter = aisleAfter;
+    }
 }
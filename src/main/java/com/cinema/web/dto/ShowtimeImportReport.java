@@ -0,0 +1,78 @@
+package com.cinema.web.dto;
+
+import java.util.List;
+
+/** Outcome of a bulk showtime import: rows that failed are listed, all others were saved. */
+public class ShowtimeImportReport {
+
+    private int received;
+    private int imported;
+    private List<RowError> errors;
+
+    public ShowtimeImportReport() {
+    }
+
+    public ShowtimeImportReport(int received, int imported, List<RowError> errors) {
+        this.received = received;
+        this.imported = imported;
+        this.errors = errors;
+    }
+
+    public int getReceived() {
+        return received;
+    }
+
+    public void setReceived(int received) {
+        this.received = received;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    /**
+     * A rejected row; {@code row} is 1-based in the order the rows were sent, or for a CSV
+     * upload the row's line number in the file.
+     */
+    public static class RowError {
+
+        private int row;
+        private String message;
+
+        public RowError() {
+        }
+
+        public RowError(int row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public void setRow(int row) {
+            this.row = row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
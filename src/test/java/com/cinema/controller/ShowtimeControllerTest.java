@@ -3,7 +3,9 @@ package com.cinema.controller;
 import com.cinema.entity.Showtime;
 import com.cinema.exception.BusinessRuleViolationException;
 import com.cinema.exception.OverlappingShowtimeException;
+import com.cinema.exception.SeatUnavailableException;
 import com.cinema.service.ShowtimeService;
+import com.cinema.service.seatfeed.SeatMapBroadcaster;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,8 +18,17 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import com.cinema.service.SeatMapService;
+import com.cinema.service.SeatHoldService;
+import com.cinema.service.ShowtimeImportService;
+import com.cinema.service.admission.WaitingRoom;
+import com.cinema.service.idempotency.IdempotencyStore;
+import com.cinema.web.dto.ShowtimeImportReport;
+import org.mockito.ArgumentCaptor;
+import com.cinema.service.inventory.SeatHold;
+import com.cinema.service.paging.KeysetPage;
 
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 
 import java.util.List;
@@ -25,6 +36,7 @@ import java.util.Optional;
 import org.springframework.context.annotation.Import;
 import com.cinema.web.GlobalExceptionHandler;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -45,6 +57,21 @@ public class ShowtimeControllerTest {
     @MockBean
     private SeatMapService seatMapService;
 
+    @MockBean
+    private SeatHoldService seatHoldService;
+
+    @MockBean
+    private ShowtimeImportService importService;
+
+    @MockBean
+    private SeatMapBroadcaster seatMapBroadcaster;
+
+    @MockBean
+    private IdempotencyStore idempotencyStore;
+
+    @MockBean
+    private WaitingRoom waitingRoom;
+
 
     private ObjectMapper mapper;
 
@@ -176,22 +203,74 @@ public class ShowtimeControllerTest {
                 .andExpect(jsonPath("$.error", containsString("not found")));
     }
 
+    @Test
+    @DisplayName("GET /api/showtimes with Accept: application/x-ndjson -> one showtime per line")
+    void getAll_ndjson() throws Exception {
+        Mockito.doAnswer(inv -> {
+            java.util.function.Consumer<Showtime> consumer = inv.getArgument(0);
+            consumer.accept(sampleShowtime(1L));
+            consumer.accept(sampleShowtime(2L));
+            return null;
+        }).when(showtimeService).streamAll(any());
+
+        var result = mockMvc.perform(get(BASE).accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        org.junit.jupiter.api.Assertions.assertEquals(2, lines.length);
+        org.junit.jupiter.api.Assertions.assertEquals(2, mapper.readTree(lines[1]).get("id").asInt());
+        Mockito.verify(showtimeService, Mockito.never()).findAll(any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /api/showtimes without ndjson -> plain JSON array")
+    void getAll_jsonArray() throws Exception {
+        Mockito.when(showtimeService.findAll(isNull(), isNull()))
+                .thenReturn(new KeysetPage<>(List.of(sampleShowtime(1L)), null));
+
+        mockMvc.perform(get(BASE).accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        mockMvc.perform(get(BASE).param("stream", "ndjson"))
+                .andExpect(request().asyncStarted());
+    }
+
     @Test
     @DisplayName("GET /api/showtimes/by-cinema/{cinemaId} -> 200 OK")
     void getByCinema_ok() throws Exception {
-        Mockito.when(showtimeService.findByCinema(1L))
-                .thenReturn(List.of(sampleShowtime(1L), sampleShowtime(2L)));
+        Mockito.when(showtimeService.findByCinema(eq(1L), isNull(), isNull()))
+                .thenReturn(new KeysetPage<>(List.of(sampleShowtime(1L), sampleShowtime(2L)), null));
 
         mockMvc.perform(get(BASE + "/by-cinema/{cinemaId}", 1))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(2)));
     }
 
+    @Test
+    @DisplayName("GET /api/showtimes/by-cinema/{cinemaId}?cursor=..&size=.. -> next cursor in headers")
+    void getByCinema_paged() throws Exception {
+        Mockito.when(showtimeService.findByCinema(1L, "abc", 2))
+                .thenReturn(new KeysetPage<>(List.of(sampleShowtime(3L), sampleShowtime(4L)), "def"));
+
+        mockMvc.perform(get(BASE + "/by-cinema/{cinemaId}?cursor=abc&size=2", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(header().string("X-Next-Cursor", "def"))
+                .andExpect(header().string("Link", containsString("cursor=def")))
+                .andExpect(header().string("Link", containsString("size=2")));
+    }
+
     @Test
     @DisplayName("GET /api/showtimes/search?movieTitle=Inception -> 200 OK")
     void search_ok() throws Exception {
-        Mockito.when(showtimeService.searchByTitle("Inception"))
-                .thenReturn(List.of(sampleShowtime(5L)));
+        Mockito.when(showtimeService.searchByTitle(eq("Inception"), isNull(), isNull()))
+                .thenReturn(new KeysetPage<>(List.of(sampleShowtime(5L)), null));
 
         mockMvc.perform(get(BASE + "/search").param("movieTitle", "Inception"))
                 .andExpect(status().isOk())
@@ -205,8 +284,8 @@ public class ShowtimeControllerTest {
         LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
         LocalDateTime to   = LocalDateTime.of(2030, 1, 2, 0, 0);
 
-        Mockito.when(showtimeService.findInWindow(1L, from, to))
-                .thenReturn(List.of(sampleShowtime(7L)));
+        Mockito.when(showtimeService.findInWindow(eq(1L), eq(from), eq(to), isNull(), isNull()))
+                .thenReturn(new KeysetPage<>(List.of(sampleShowtime(7L)), null));
 
         mockMvc.perform(get(BASE + "/window")
                         .param("cinemaId", "1")
@@ -263,4 +342,100 @@ public class ShowtimeControllerTest {
         mockMvc.perform(delete(BASE + "/{id}", 999))
                 .andExpect(status().isNotFound());
     }
+
+    // ---------- BULK IMPORT ----------
+    @Test
+    @DisplayName("POST /api/showtimes/bulk (CSV) -> rows mapped by header, report returned")
+    @SuppressWarnings("unchecked")
+    void bulkCsv_mapsRowsByHeader() throws Exception {
+        Mockito.when(importService.importShowtimes(anyList(), anyList()))
+                .thenReturn(new ShowtimeImportReport(2, 1, List.of(new ShowtimeImportReport.RowError(2, "bad"))));
+
+        String csv = "cinemaId,movieTitle,screenNumber,startTime,endTime,ticketPrice\n"
+                + "7,\"Dune, Part Two\",2,2030-01-01T18:00,2030-01-01T21:00,11.5\n"
+                + "\n"
+                + "7,\"The \"\"Batman\"\"\",3,2030-01-01T18:00,2030-01-01T21:00,9\n";
+        mockMvc.perform(post(BASE + "/bulk").contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(2));
+
+        ArgumentCaptor<List<Showtime>> rows = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<Integer>> lines = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(importService).importShowtimes(rows.capture(), lines.capture());
+        assertThat(lines.getValue()).containsExactly(2, 4); // the header is line 1, line 3 is blank
+        assertThat(rows.getValue()).hasSize(2);
+        assertThat(rows.getValue().get(0).getMovieTitle()).isEqualTo("Dune, Part Two");
+        assertThat(rows.getValue().get(0).getCinema().getId()).isEqualTo(7L);
+        assertThat(rows.getValue().get(1).getMovieTitle()).isEqualTo("The \"Batman\"");
+        assertThat(rows.getValue().get(1).getScreenNumber()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("POST /api/showtimes/bulk (CSV) -> 400 with the line number of a malformed value")
+    void bulkCsv_malformed() throws Exception {
+        mockMvc.perform(post(BASE + "/bulk").contentType("text/csv")
+                        .content("movieTitle,startTime\nDune,tomorrow\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("CSV line 2: invalid startTime"));
+        Mockito.verifyNoInteractions(importService);
+    }
+
+    // ---------- SEAT MAP ----------
+    @Test
+    @DisplayName("GET /api/showtimes/{id}/seats -> ETag; a matching If-None-Match -> 304 without building the map")
+    void seatMap_conditional() throws Exception {
+        Mockito.when(seatMapService.currentTag(10L)).thenReturn("5f-3");
+        Mockito.when(seatMapService.getSeatMap(10L)).thenReturn(new SeatMapService.SeatMap("5f-3", List.of()));
+
+        mockMvc.perform(get(BASE + "/{id}/seats", 10))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5f-3\""));
+
+        Mockito.clearInvocations(seatMapService);
+        mockMvc.perform(get(BASE + "/{id}/seats", 10).header("If-None-Match", "\"5f-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"5f-3\""));
+        Mockito.verify(seatMapService, Mockito.never()).getSeatMap(Mockito.any());
+
+        mockMvc.perform(get(BASE + "/{id}/seats", 10).header("If-None-Match", "\"5f-2\""))
+                .andExpect(status().isOk());
+    }
+
+    // ---------- HOLDS ----------
+    @Test
+    @DisplayName("POST /api/showtimes/{id}/holds -> 201 Created with hold id and expiry")
+    void hold_created() throws Exception {
+        SeatHold hold = new SeatHold("h-1", 10L, null, new int[]{0, 1}, List.of(1L, 2L),
+                Instant.parse("2030-01-01T19:40:00Z"));
+        Mockito.when(seatHoldService.hold(10L, List.of(1L, 2L))).thenReturn(hold);
+
+        mockMvc.perform(post(BASE + "/{id}/holds", 10)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"seatIds\": [1, 2]}"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", containsString(BASE + "/10/holds/h-1")))
+                .andExpect(jsonPath("$.holdId").value("h-1"))
+                .andExpect(jsonPath("$.seatIds", hasSize(2)));
+    }
+
+    @Test
+    @DisplayName("DELETE /api/showtimes/{id}/holds/{holdId} -> 404 when hold is gone")
+    void releaseHold_notFound() throws Exception {
+        Mockito.when(seatHoldService.release(10L, "gone")).thenReturn(false);
+
+        mockMvc.perform(delete(BASE + "/{id}/holds/{holdId}", 10, "gone"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("POST /api/showtimes/{id}/holds/{holdId}/confirm -> 409 when the held seats were taken")
+    void confirmHold_seatTaken() throws Exception {
+        Mockito.doThrow(new SeatUnavailableException("One or more seats are already booked or held"))
+                .when(seatHoldService).confirm(10L, "h-1");
+
+        mockMvc.perform(post(BASE + "/{id}/holds/{holdId}/confirm", 10, "h-1"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error", containsString("already booked")));
+    }
 }
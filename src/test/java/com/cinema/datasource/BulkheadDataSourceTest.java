@@ -0,0 +1,45 @@
+package com.cinema.datasource;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadDataSourceTest {
+
+    private static BulkheadDataSource bulkhead(int permits) {
+        DriverManagerDataSource h2 = new DriverManagerDataSource("jdbc:h2:mem:bulkhead;DB_CLOSE_DELAY=-1", "sa", "");
+        return new BulkheadDataSource(h2, permits, Duration.ofMillis(50));
+    }
+
+    @Test
+    @DisplayName("a caller that finds every permit taken gives up after max-wait")
+    void full_rejectsAfterMaxWait() throws Exception {
+        BulkheadDataSource ds = bulkhead(1);
+        try (Connection held = ds.getConnection()) {
+            assertEquals(1, ds.getInUse());
+            assertThrows(SQLTransientConnectionException.class, ds::getConnection);
+            assertEquals(1, ds.getRejected());
+        }
+        assertEquals(0, ds.getInUse());
+        ds.getConnection().close();
+    }
+
+    @Test
+    @DisplayName("closing a connection twice returns its permit once")
+    void doubleClose_releasesOnce() throws Exception {
+        BulkheadDataSource ds = bulkhead(2);
+        Connection first = ds.getConnection();
+        Connection second = ds.getConnection();
+        first.close();
+        first.close();
+        assertEquals(1, ds.getInUse());
+        second.close();
+        assertEquals(0, ds.getInUse());
+    }
+}
@@ -0,0 +1,112 @@
+package com.cinema.integration;
+
+import com.cinema.entity.Cinema;
+import com.cinema.entity.Showtime;
+import com.cinema.metrics.DbStatementCounter;
+import com.cinema.repository.CinemaRepository;
+import com.cinema.repository.ShowtimeRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class CinemaListingIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private CinemaRepository cinemaRepo;
+    @Autowired private ShowtimeRepository showtimeRepo;
+
+    private Cinema busy;
+    private Cinema quiet;
+
+    @BeforeEach
+    void seed() {
+        busy = cinema("Listing Busy " + System.nanoTime());
+        quiet = cinema("Listing Quiet " + System.nanoTime());
+        LocalDateTime next = LocalDateTime.of(2039, 3, 1, 18, 0);
+        showtimeRepo.save(new Showtime("Past Film", 1, LocalDateTime.of(2001, 1, 1, 18, 0),
+                LocalDateTime.of(2001, 1, 1, 20, 0), 5.0, "EN", "2D", busy));
+        showtimeRepo.save(new Showtime("Next Film", 1, next, next.plusHours(2), 9.0, "EN", "2D", busy));
+        showtimeRepo.save(new Showtime("Later Film", 2, next.plusDays(1), next.plusDays(1).plusHours(2), 9.0, "EN", "2D", busy));
+        for (int i = 0; i < 3; i++) {
+            cinema("Listing Extra " + i + " " + System.nanoTime());
+        }
+    }
+
+    @Test
+    @DisplayName("GET /api/cinemas returns summaries with upcoming counts from a single statement")
+    void list_summariesInOneStatement() throws Exception {
+        DbStatementCounter.reset();
+        String body = mockMvc.perform(get("/api/cinemas"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(DbStatementCounter.current()).isEqualTo(1);
+
+        Map<Long, JsonNode> byId = new HashMap<>();
+        objectMapper.readTree(body).forEach(c -> byId.put(c.get("id").asLong(), c));
+        JsonNode b = byId.get(busy.getId());
+        assertThat(b.get("upcomingShowtimes").asLong()).isEqualTo(2);
+        assertThat(b.get("nextShowtime").asText()).isEqualTo("2039-03-01T18:00:00");
+        assertThat(b.get("city").asText()).isEqualTo("Test City");
+        assertThat(b.has("showtimes")).isFalse();
+        JsonNode q = byId.get(quiet.getId());
+        assertThat(q.get("upcomingShowtimes").asLong()).isZero();
+        assertThat(q.get("nextShowtime").isNull()).isTrue();
+    }
+
+    @Test
+    @DisplayName("?expand=showtimes pages full cinemas, each page a query plus one batched showtime fetch")
+    void list_expandedIsPagedAndBatched() throws Exception {
+        Map<Long, JsonNode> byId = new HashMap<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var request = get("/api/cinemas").param("expand", "showtimes").param("size", "2");
+            if (cursor != null) request.param("cursor", cursor);
+            DbStatementCounter.reset();
+            MockHttpServletResponse response = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(org.hamcrest.Matchers.lessThanOrEqualTo(2)))
+                    .andReturn().getResponse();
+            assertThat(DbStatementCounter.current()).isLessThanOrEqualTo(2);
+            objectMapper.readTree(response.getContentAsString()).forEach(c -> byId.put(c.get("id").asLong(), c));
+            cursor = response.getHeader("X-Next-Cursor");
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isGreaterThanOrEqualTo(3);
+        assertThat(byId.get(busy.getId()).get("showtimes")).hasSize(3);
+        assertThat(byId.get(quiet.getId()).get("showtimes")).isEmpty();
+
+        mockMvc.perform(get("/api/cinemas").param("expand", "showtimes").param("cursor", "!"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Cinema cinema(String name) {
+        Cinema c = new Cinema();
+        c.setName(name);
+        c.setAddressLine("1 List St");
+        c.setCity("Test City");
+        c.setTotalScreens(2);
+        return cinemaRepo.save(c);
+    }
+}
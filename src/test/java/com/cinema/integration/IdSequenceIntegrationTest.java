@@ -0,0 +1,58 @@
+package com.cinema.integration;
+
+import com.cinema.bootstrap.IdSequences;
+import com.cinema.entity.Cinema;
+import com.cinema.entity.Showtime;
+import com.cinema.entity.Ticket;
+import com.cinema.repository.CinemaRepository;
+import com.cinema.repository.ShowtimeRepository;
+import com.cinema.repository.TicketRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Own database: no ticket may have been inserted (and an id block cached) before the test
+@SpringBootTest(properties =
+        "spring.datasource.url=jdbc:h2:mem:idseq;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class IdSequenceIntegrationTest {
+
+    @Autowired private CinemaRepository cinemaRepo;
+    @Autowired private ShowtimeRepository showtimeRepo;
+    @Autowired private TicketRepository ticketRepo;
+    @Autowired private IdSequences idSequences;
+    @Autowired private JdbcTemplate jdbc;
+
+    @Test
+    @DisplayName("seed: a table that already has rows gets ids above them")
+    void seed_prePopulatedTable() {
+        Cinema cinema = new Cinema();
+        cinema.setName("Legacy Cinema");
+        cinema.setAddressLine("1 Old St");
+        cinema.setCity("Test City");
+        cinema.setTotalScreens(1);
+        cinema = cinemaRepo.save(cinema);
+        LocalDateTime start = LocalDateTime.of(2034, 1, 1, 20, 0);
+        Showtime show = showtimeRepo.save(new Showtime("Alien", 1, start, start.plusHours(2), 9.0, "EN", "2D", cinema));
+
+        // Tickets written before the sequence existed, and the fresh sequence ddl-auto creates
+        for (long id = 1; id <= 3; id++) {
+            jdbc.update("INSERT INTO tickets (id, showtime_id, seat_id, price, booked_at) VALUES (?, ?, ?, 9.0, ?)",
+                    id, show.getId(), id, start.minusDays(1));
+        }
+        jdbc.execute("ALTER SEQUENCE ticket_seq RESTART WITH 1");
+
+        idSequences.seed();
+        Ticket ticket = ticketRepo.saveAndFlush(new Ticket(show, 4L, 9.0));
+
+        assertThat(ticket.getId()).isGreaterThan(3L);
+        assertThat(ticketRepo.count()).isEqualTo(4);
+    }
+}
@@ -0,0 +1,111 @@
+package com.cinema.integration;
+
+import com.cinema.entity.Cinema;
+import com.cinema.entity.Showtime;
+import com.cinema.repository.CinemaRepository;
+import com.cinema.repository.IdempotencyRecordRepository;
+import com.cinema.repository.ShowtimeRepository;
+import com.cinema.repository.TicketRepository;
+import com.cinema.service.layout.SeatLayout;
+import com.cinema.service.layout.SeatLayouts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Not @Transactional: outcomes are stored by the booking's own transaction
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class IdempotentBookingIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private CinemaRepository cinemaRepo;
+    @Autowired private ShowtimeRepository showtimeRepo;
+    @Autowired private TicketRepository ticketRepo;
+    @Autowired private IdempotencyRecordRepository idempotencyRepo;
+    @Autowired private SeatLayouts seatLayouts;
+
+    private Showtime show;
+    private SeatLayout layout;
+
+    @BeforeEach
+    void seed() {
+        Cinema cinema = new Cinema();
+        cinema.setName("Retry Cinema " + System.nanoTime());
+        cinema.setAddressLine("1 Again St");
+        cinema.setCity("Test City");
+        cinema.setTotalScreens(1);
+        cinema = cinemaRepo.save(cinema);
+        LocalDateTime start = LocalDateTime.of(2037, 5, 1, 20, 0);
+        show = showtimeRepo.save(new Showtime("Groundhog Day", 1, start, start.plusHours(2), 8.0, "EN", "2D", cinema));
+        layout = seatLayouts.defaultLayout();
+    }
+
+    @Test
+    @DisplayName("a retried booking with the same key is replayed, not booked again or refused")
+    void bookSeats_retryReplayed() throws Exception {
+        String body = "{\"seatIds\": [" + layout.seatKeyAt(0) + ", " + layout.seatKeyAt(1) + "]}";
+        mockMvc.perform(post("/api/showtimes/{id}/tickets", show.getId())
+                        .header("Idempotency-Key", "k-" + show.getId())
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isNoContent())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"));
+
+        mockMvc.perform(post("/api/showtimes/{id}/tickets", show.getId())
+                        .header("Idempotency-Key", "k-" + show.getId())
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("Idempotent-Replayed", "true"));
+        assertThat(ticketRepo.findBookedSeatIds(show.getId())).hasSize(2);
+        assertThat(idempotencyRepo.existsById("k-" + show.getId())).isTrue();
+
+        // Same key, different seats
+        mockMvc.perform(post("/api/showtimes/{id}/tickets", show.getId())
+                        .header("Idempotency-Key", "k-" + show.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"seatIds\": [" + layout.seatKeyAt(2) + "]}"))
+                .andExpect(status().isUnprocessableEntity());
+
+        // Without a key the same request is a double booking
+        mockMvc.perform(post("/api/showtimes/{id}/tickets", show.getId())
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    @DisplayName("best-available replays return the seats first picked; failures are not stored")
+    void bestAvailable_retryReplayed() throws Exception {
+        String key = "best-" + show.getId();
+        String first = mockMvc.perform(post("/api/showtimes/{id}/tickets/best-available", show.getId())
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"count\": 2}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(post("/api/showtimes/{id}/tickets/best-available", show.getId())
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"count\": 2}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(content().json(first, true));
+        assertThat(ticketRepo.findBookedSeatIds(show.getId())).hasSize(2);
+
+        mockMvc.perform(post("/api/showtimes/{id}/tickets/best-available", show.getId())
+                        .header("Idempotency-Key", key + "-bad")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"count\": 11}"))
+                .andExpect(status().isBadRequest());
+        assertThat(idempotencyRepo.existsById(key + "-bad")).isFalse();
+    }
+}
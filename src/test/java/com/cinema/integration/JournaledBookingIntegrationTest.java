@@ -0,0 +1,140 @@
+package com.cinema.integration;
+
+import com.cinema.entity.Cinema;
+import com.cinema.entity.Seat;
+import com.cinema.entity.Showtime;
+import com.cinema.exception.SeatUnavailableException;
+import com.cinema.repository.CinemaRepository;
+import com.cinema.repository.SeatRepository;
+import com.cinema.repository.ShowtimeRepository;
+import com.cinema.repository.TicketRepository;
+import com.cinema.service.ShowtimeService;
+import com.cinema.service.inventory.SeatInventory;
+import com.cinema.service.journal.JournaledTicketWriter;
+import com.cinema.service.layout.SeatLayouts;
+import com.cinema.service.tickets.TicketWriter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class JournaledBookingIntegrationTest {
+
+    @TempDir
+    static Path journalDir;
+
+    @DynamicPropertySource
+    static void journal(DynamicPropertyRegistry registry) {
+        registry.add("cinema.booking.journal.enabled", () -> "true");
+        registry.add("cinema.booking.journal.dir", journalDir::toString);
+    }
+
+    @Autowired private CinemaRepository cinemaRepo;
+    @Autowired private ShowtimeRepository showtimeRepo;
+    @Autowired private SeatRepository seatRepo;
+    @Autowired private TicketRepository ticketRepo;
+    @Autowired private ShowtimeService showtimeService;
+    @Autowired private SeatInventory seatInventory;
+    @Autowired private TicketWriter ticketWriter;
+    @Autowired private SeatLayouts seatLayouts;
+    @Autowired private PlatformTransactionManager txManager;
+
+    @Test
+    @DisplayName("journal mode: bookings are written behind and stay booked across a reload")
+    void bookSeats_writesBehind() throws Exception {
+        assertThat(ticketWriter).isInstanceOf(JournaledTicketWriter.class);
+
+        Cinema cinema = new Cinema();
+        cinema.setName("Journal Cinema");
+        cinema.setAddressLine("1 Log St");
+        cinema.setCity("Test City");
+        cinema.setTotalScreens(1);
+        cinema = cinemaRepo.save(cinema);
+
+        Showtime showtime = new Showtime();
+        showtime.setMovieTitle("Memento");
+        showtime.setScreenNumber(1);
+        showtime.setStartTime(LocalDateTime.of(2031, 1, 1, 19, 0));
+        showtime.setEndTime(LocalDateTime.of(2031, 1, 1, 21, 0));
+        showtime.setTicketPrice(9.0);
+        showtime.setLanguage("EN");
+        showtime.setFormat("2D");
+        showtime.setCinema(cinema);
+        showtime = showtimeRepo.save(showtime);
+
+        List<Seat> seats = new ArrayList<>();
+        for (int n = 1; n <= 6; n++) {
+            seats.add(new Seat(cinema, 1, "A", n));
+        }
+        List<Long> seatIds = seatRepo.saveAll(seats).stream().map(Seat::getId).toList();
+        Long showtimeId = showtime.getId();
+
+        showtimeService.bookSeats(showtimeId, seatIds.subList(0, 2));
+        showtimeService.bookSeats(showtimeId, seatIds.subList(2, 5));
+
+        // Even if the occupancy is rebuilt before the drainer catches up, the seats stay taken
+        seatInventory.evict(showtimeId);
+        assertThatThrownBy(() -> showtimeService.bookSeats(showtimeId, seatIds.subList(1, 2)))
+                .isInstanceOf(SeatUnavailableException.class);
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (ticketRepo.findBookedSeatIds(showtimeId).size() < 5 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(ticketRepo.findBookedSeatIds(showtimeId)).containsExactlyInAnyOrderElementsOf(seatIds.subList(0, 5));
+    }
+
+    @Test
+    @DisplayName("journal mode: a booking rolled back after it was journaled is cancelled and its seats freed")
+    void bookSeats_rolledBackAfterJournal_isCancelled() throws Exception {
+        Cinema cinema = new Cinema();
+        cinema.setName("Journal Rollback Cinema");
+        cinema.setAddressLine("2 Log St");
+        cinema.setCity("Test City");
+        cinema.setTotalScreens(1);
+        cinema = cinemaRepo.save(cinema);
+        LocalDateTime start = LocalDateTime.of(2031, 2, 1, 19, 0);
+        Showtime showtime = showtimeRepo.save(new Showtime("Tenet", 1, start, start.plusHours(2), 9.0, "EN", "2D", cinema));
+        Long showtimeId = showtime.getId();
+        List<Long> seatIds = List.of(seatLayouts.defaultLayout().seatKeyAt(0), seatLayouts.defaultLayout().seatKeyAt(1));
+
+        // Fails the commit after the journal append, the way a failing database commit would
+        assertThatThrownBy(() -> new TransactionTemplate(txManager).executeWithoutResult(status -> {
+            showtimeService.bookSeats(showtimeId, seatIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    throw new IllegalStateException("commit failed");
+                }
+            });
+        })).hasMessage("commit failed");
+
+        // The seats are free again, and only the retried booking reaches the database
+        showtimeService.bookSeats(showtimeId, seatIds.subList(0, 1));
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (ticketRepo.findBookedSeatIds(showtimeId).size() != 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        Thread.sleep(200); // let the drainer apply anything still queued
+        assertThat(ticketRepo.findBookedSeatIds(showtimeId)).containsExactly(seatIds.get(0));
+        assertThat(seatInventory.cached(showtimeId).isBooked(1)).isFalse();
+    }
+}
@@ -0,0 +1,54 @@
+package com.cinema.integration;
+
+import com.cinema.bootstrap.LegacySeatForeignKey;
+import com.cinema.entity.Cinema;
+import com.cinema.entity.Showtime;
+import com.cinema.entity.Ticket;
+import com.cinema.repository.CinemaRepository;
+import com.cinema.repository.ShowtimeRepository;
+import com.cinema.repository.TicketRepository;
+import com.cinema.service.layout.SeatLayouts;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class LegacySeatForeignKeyIntegrationTest {
+
+    @Autowired private CinemaRepository cinemaRepo;
+    @Autowired private ShowtimeRepository showtimeRepo;
+    @Autowired private TicketRepository ticketRepo;
+    @Autowired private SeatLayouts seatLayouts;
+    @Autowired private LegacySeatForeignKey legacyForeignKey;
+    @Autowired private JdbcTemplate jdbc;
+
+    @Test
+    @DisplayName("drop: removes the old tickets.seat_id foreign key so template seats can be booked")
+    void drop_allowsTemplateSeatTickets() {
+        // What ddl-auto left behind on a database created before seat-layout templates
+        jdbc.execute("ALTER TABLE tickets ADD CONSTRAINT fk_legacy_ticket_seat FOREIGN KEY (seat_id) REFERENCES seats(id)");
+
+        assertThat(legacyForeignKey.drop()).isEqualTo(1);
+        assertThat(legacyForeignKey.drop()).isZero();
+
+        Cinema cinema = new Cinema();
+        cinema.setName("Upgraded Cinema");
+        cinema.setAddressLine("3 New St");
+        cinema.setCity("Test City");
+        cinema.setTotalScreens(1);
+        cinema = cinemaRepo.save(cinema);
+        LocalDateTime start = LocalDateTime.of(2034, 2, 1, 20, 0);
+        Showtime show = showtimeRepo.save(new Showtime("Brazil", 1, start, start.plusHours(2), 9.0, "EN", "2D", cinema));
+        long templateSeat = seatLayouts.defaultLayout().seatKeyAt(0);
+
+        ticketRepo.saveAndFlush(new Ticket(show, templateSeat, 9.0));
+
+        assertThat(ticketRepo.findBookedSeatIds(show.getId())).containsExactly(templateSeat);
+    }
+}
@@ -0,0 +1,262 @@
+package com.cinema.integration;
+
+import com.cinema.entity.Cinema;
+import com.cinema.entity.Showtime;
+import com.cinema.entity.Ticket;
+import com.cinema.exception.SeatUnavailableException;
+import com.cinema.metrics.DbStatementCounter;
+import com.cinema.repository.CinemaRepository;
+import com.cinema.repository.SeatRepository;
+import com.cinema.repository.ShowtimeRepository;
+import com.cinema.repository.TicketRepository;
+import com.cinema.service.SeatHoldService;
+import com.cinema.service.ShowtimeService;
+import com.cinema.service.inventory.SeatHold;
+import com.cinema.service.inventory.SeatInventory;
+import com.cinema.service.inventory.SeatOccupancy;
+import com.cinema.service.layout.SeatLayout;
+import com.cinema.service.layout.SeatLayouts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class SeatLayoutIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private CinemaRepository cinemaRepo;
+    @Autowired private ShowtimeRepository showtimeRepo;
+    @Autowired private SeatRepository seatRepo;
+    @Autowired private TicketRepository ticketRepo;
+    @Autowired private ShowtimeService showtimeService;
+    @Autowired private SeatHoldService seatHoldService;
+    @Autowired private SeatInventory seatInventory;
+    @Autowired private SeatLayouts seatLayouts;
+
+    private Cinema cinema;
+    private int nextHour;
+
+    @BeforeEach
+    void seed() {
+        cinema = new Cinema();
+        cinema.setName("Layout Cinema " + System.nanoTime());
+        cinema.setAddressLine("1 Grid St");
+        cinema.setCity("Test City");
+        cinema.setTotalScreens(3);
+        cinema = cinemaRepo.save(cinema);
+    }
+
+    private Showtime showtime(int screen) {
+        LocalDateTime start = LocalDateTime.of(2032, 1, 1, 10, 0).plusHours(3L * nextHour++);
+        return showtimeRepo.save(new Showtime("Tenet", screen, start, start.plusHours(2), 11.0, "EN", "2D", cinema));
+    }
+
+    @Test
+    @DisplayName("seat map of a screen without seats uses the default template and writes nothing")
+    void seatMap_defaultTemplate() throws Exception {
+        Showtime show = showtime(1);
+        long seatRowsBefore = seatRepo.count();
+        long firstSeat = seatLayouts.defaultLayout().seatKeyAt(0);
+
+        mockMvc.perform(get("/api/showtimes/{id}/seats", show.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(50))
+                .andExpect(jsonPath("$[0].seatId").value(firstSeat))
+                .andExpect(jsonPath("$[0].rowLabel").value("A"))
+                .andExpect(jsonPath("$[0].category").value("STANDARD"));
+
+        assertThat(seatRepo.count()).isEqualTo(seatRowsBefore);
+
+        showtimeService.bookSeats(show.getId(), List.of(firstSeat));
+        assertThat(ticketRepo.findBookedSeatIds(show.getId())).containsExactly(firstSeat);
+    }
+
+    @Test
+    @DisplayName("a screen laid out by a template serves its rows, categories and aisles; tickets then lock the layout")
+    void assignTemplate() throws Exception {
+        String body = """
+                {"name": "boutique-%d", "rows": [
+                  {"label": "A", "seats": 6, "aislesAfter": [3], "category": "PREMIUM"},
+                  {"label": "B", "seats": 4}
+                ]}""".formatted(System.nanoTime());
+        String location = mockMvc.perform(post("/api/seat-layouts")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.rows.length()").value(2))
+                .andReturn().getResponse().getHeader("Location");
+        long layoutId = Long.parseLong(location.substring(location.lastIndexOf('/') + 1));
+
+        Showtime show = showtime(2);
+        String screen = "{\"cinemaId\": " + cinema.getId() + ", \"screenNumber\": 2}";
+        mockMvc.perform(put("/api/seat-layouts/{id}/screens", layoutId)
+                        .contentType(MediaType.APPLICATION_JSON).content(screen))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/showtimes/{id}/seats", show.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(10))
+                .andExpect(jsonPath("$[2].aisleAfter").value(true))
+                .andExpect(jsonPath("$[0].category").value("PREMIUM"))
+                .andExpect(jsonPath("$[6].rowLabel").value("B"))
+                .andExpect(jsonPath("$[6].category").value("STANDARD"));
+
+        showtimeService.bookSeats(show.getId(), List.of(SeatLayout.seatKey(layoutId, 6)));
+
+        mockMvc.perform(put("/api/seat-layouts/{id}/screens", layoutId)
+                        .contentType(MediaType.APPLICATION_JSON).content(screen))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("a screen with seats on hold cannot be re-laid out")
+    void assignTemplate_refusedWhileHeld() throws Exception {
+        String body = """
+                {"name": "held-%d", "rows": [{"label": "A", "seats": 4}]}""".formatted(System.nanoTime());
+        String location = mockMvc.perform(post("/api/seat-layouts")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getHeader("Location");
+        long layoutId = Long.parseLong(location.substring(location.lastIndexOf('/') + 1));
+
+        Showtime show = showtime(1);
+        mockMvc.perform(post("/api/showtimes/{id}/holds", show.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"seatIds\": [" + seatLayouts.defaultLayout().seatKeyAt(0) + "]}"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(put("/api/seat-layouts/{id}/screens", layoutId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"cinemaId\": " + cinema.getId() + ", \"screenNumber\": 1}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value(containsString("on hold")));
+    }
+
+    @Test
+    @DisplayName("seat map ETag: an unchanged map is a 304 with no SQL, a booking changes the tag")
+    void seatMap_etag() throws Exception {
+        Showtime show = showtime(2);
+        String tag = mockMvc.perform(get("/api/showtimes/{id}/seats", show.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        DbStatementCounter.reset();
+        mockMvc.perform(get("/api/showtimes/{id}/seats", show.getId()).header("If-None-Match", tag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        assertThat(DbStatementCounter.current()).isZero();
+
+        showtimeService.bookSeats(show.getId(), List.of(seatLayouts.defaultLayout().seatKeyAt(7)));
+        String after = mockMvc.perform(get("/api/showtimes/{id}/seats", show.getId()).header("If-None-Match", tag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[7].status").value("BOOKED"))
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(after).isNotEqualTo(tag);
+    }
+
+    @Test
+    @DisplayName("best-available: books then holds the best free pair, centre of the preferred row first")
+    void bestAvailable() throws Exception {
+        Showtime show = showtime(3);
+        SeatLayout layout = seatLayouts.defaultLayout();
+
+        // Rows A-E: C is nearest 0.6 of the way back, seats 5-6 its centre; D is next
+        mockMvc.perform(post("/api/showtimes/{id}/tickets/best-available", show.getId())
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"count\": 2}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.seatIds[0]").value(layout.seatKeyAt(24)))
+                .andExpect(jsonPath("$.seatIds[1]").value(layout.seatKeyAt(25)));
+        assertThat(ticketRepo.findBookedSeatIds(show.getId()))
+                .containsExactlyInAnyOrder(layout.seatKeyAt(24), layout.seatKeyAt(25));
+
+        mockMvc.perform(post("/api/showtimes/{id}/holds/best-available", show.getId())
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"count\": 2}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.seatIds[0]").value(layout.seatKeyAt(34)))
+                .andExpect(jsonPath("$.seatIds[1]").value(layout.seatKeyAt(35)));
+
+        mockMvc.perform(post("/api/showtimes/{id}/tickets/best-available", show.getId())
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"count\": 11}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/showtimes/{id}/tickets/best-available", show.getId())
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"count\": 2, \"category\": \"PREMIUM\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("No 2 adjacent seats available in category PREMIUM"));
+    }
+
+    @Test
+    @DisplayName("confirming a hold after its showtime's occupancy was reloaded books the seats in the new one")
+    void confirmHold_afterEviction() {
+        Showtime show = showtime(3);
+        long seat = seatLayouts.defaultLayout().seatKeyAt(12);
+        SeatHold hold = seatHoldService.hold(show.getId(), List.of(seat));
+
+        seatInventory.evict(show.getId());
+        SeatOccupancy reloaded = seatInventory.occupancy(show);
+        seatHoldService.confirm(show.getId(), hold.getId());
+
+        assertThat(seatInventory.cached(show.getId())).isSameAs(reloaded);
+        assertThat(reloaded.isBooked(12)).isTrue();
+        assertThatThrownBy(() -> showtimeService.bookSeats(show.getId(), List.of(seat)))
+                .isInstanceOf(SeatUnavailableException.class);
+    }
+
+    @Test
+    @DisplayName("a held seat stays held across a price edit of its showtime")
+    void hold_survivesPriceEdit() {
+        Showtime show = showtime(3);
+        long seat = seatLayouts.defaultLayout().seatKeyAt(13);
+        SeatHold hold = seatHoldService.hold(show.getId(), List.of(seat));
+
+        Showtime price = new Showtime();
+        price.setTicketPrice(15.0);
+        showtimeService.update(show.getId(), price);
+
+        assertThatThrownBy(() -> showtimeService.bookSeats(show.getId(), List.of(seat)))
+                .isInstanceOf(SeatUnavailableException.class);
+        seatHoldService.confirm(show.getId(), hold.getId());
+        assertThat(ticketRepo.findBookedSeatIds(show.getId())).containsExactly(seat);
+    }
+
+    @Test
+    @DisplayName("a ticket the bitset missed makes the booking a seat conflict, and the seat is then known as booked")
+    void bookSeats_storedTicketMissedByBitset() {
+        Showtime show = showtime(1);
+        long seat = seatLayouts.defaultLayout().seatKeyAt(20);
+        SeatOccupancy occupancy = seatInventory.occupancy(show);
+        ticketRepo.saveAndFlush(new Ticket(show, seat, 11.0)); // written around the service
+
+        assertThatThrownBy(() -> showtimeService.bookSeats(show.getId(), List.of(seat)))
+                .isInstanceOf(SeatUnavailableException.class);
+        assertThat(occupancy.isBooked(20)).isTrue();
+        assertThatThrownBy(() -> showtimeService.bookSeats(show.getId(), List.of(seat)))
+                .isInstanceOf(SeatUnavailableException.class);
+        showtimeService.bookSeats(show.getId(), List.of(seatLayouts.defaultLayout().seatKeyAt(21)));
+    }
+
+    @Test
+    @DisplayName("POST /api/seat-layouts rejects an aisle outside the row")
+    void create_invalidAisle() throws Exception {
+        mockMvc.perform(post("/api/seat-layouts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"bad\", \"rows\": [{\"label\": \"A\", \"seats\": 4, \"aislesAfter\": [4]}]}"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,109 @@
+package com.cinema.integration;
+
+import com.cinema.entity.Cinema;
+import com.cinema.entity.Showtime;
+import com.cinema.repository.CinemaRepository;
+import com.cinema.repository.ShowtimeRepository;
+import com.cinema.service.ShowtimeService;
+import com.cinema.service.inventory.SeatInventory;
+import com.cinema.service.layout.SeatLayouts;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class SeatMapStreamIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private CinemaRepository cinemaRepo;
+    @Autowired private ShowtimeRepository showtimeRepo;
+    @Autowired private ShowtimeService showtimeService;
+    @Autowired private SeatLayouts seatLayouts;
+    @Autowired private SeatInventory inventory;
+
+    @Test
+    @DisplayName("GET /seats/stream sends a snapshot, then a delta when a seat is booked")
+    void stream_snapshotThenDelta() throws Exception {
+        Cinema cinema = new Cinema();
+        cinema.setName("Stream Cinema");
+        cinema.setAddressLine("1 Push St");
+        cinema.setCity("Test City");
+        cinema.setTotalScreens(1);
+        cinema = cinemaRepo.save(cinema);
+        LocalDateTime start = LocalDateTime.of(2033, 1, 1, 20, 0);
+        Showtime show = showtimeRepo.save(new Showtime("Heat", 1, start, start.plusHours(3), 9.0, "EN", "2D", cinema));
+
+        MvcResult result = mockMvc.perform(get("/api/showtimes/{id}/seats/stream", show.getId())
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MockHttpServletResponse response = result.getResponse();
+        awaitContent(response, "event:snapshot");
+
+        long seatId = seatLayouts.defaultLayout().seatKeyAt(7);
+        showtimeService.bookSeats(show.getId(), List.of(seatId));
+
+        // the claim may show up as HELD first if a flush falls between claim and commit
+        awaitContent(response, "{\"seatId\":" + seatId + ",\"status\":\"BOOKED\"}");
+        assertThat(response.getContentAsString()).contains("event:delta");
+    }
+
+    @Test
+    @DisplayName("GET /seats/stream follows a reloaded occupancy without waiting for the heartbeat")
+    void stream_followsReloadedOccupancy() throws Exception {
+        Cinema cinema = new Cinema();
+        cinema.setName("Reload Cinema");
+        cinema.setAddressLine("2 Push St");
+        cinema.setCity("Test City");
+        cinema.setTotalScreens(1);
+        cinema = cinemaRepo.save(cinema);
+        LocalDateTime start = LocalDateTime.of(2033, 1, 2, 20, 0);
+        Showtime show = showtimeRepo.save(new Showtime("Ronin", 1, start, start.plusHours(2), 9.0, "EN", "2D", cinema));
+
+        MvcResult result = mockMvc.perform(get("/api/showtimes/{id}/seats/stream", show.getId())
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MockHttpServletResponse response = result.getResponse();
+        awaitContent(response, "event:snapshot");
+
+        // the booking reloads the occupancy; the feed has to move to it well before the 15 s heartbeat
+        inventory.evict(show.getId());
+        long seatId = seatLayouts.defaultLayout().seatKeyAt(3);
+        showtimeService.bookSeats(show.getId(), List.of(seatId));
+
+        awaitContent(response, "{\"seatId\":" + seatId + ",\"status\":\"BOOKED\"}");
+    }
+
+    @Test
+    @DisplayName("GET /seats/stream for an unknown showtime is 404")
+    void stream_unknownShowtime() throws Exception {
+        mockMvc.perform(get("/api/showtimes/{id}/seats/stream", 987654L))
+                .andExpect(status().isNotFound());
+    }
+
+    private static void awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!response.getContentAsString().contains(expected)) {
+            assertThat(System.nanoTime()).as("waiting for " + expected).isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
@@ -1,11 +1,17 @@
 package com.cinema.integration;
 
 import com.cinema.entity.Cinema;
+import com.cinema.entity.Seat;
 import com.cinema.entity.Showtime;
+import com.cinema.metrics.DbStatementCounter;
 import com.cinema.repository.CinemaRepository;
+import com.cinema.repository.SeatRepository;
 import com.cinema.repository.ShowtimeRepository;
+import com.cinema.service.SeatMapService;
+import com.cinema.service.ShowtimeService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,6 +24,8 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -32,6 +40,10 @@ class ShowtimeIntegrationTest {
     @Autowired private MockMvc mockMvc;
     @Autowired private CinemaRepository cinemaRepo;
     @Autowired private ShowtimeRepository showtimeRepo;
+    @Autowired private SeatRepository seatRepo;
+    @Autowired private ShowtimeService showtimeService;
+    @Autowired private SeatMapService seatMapService;
+    @Autowired private EntityManager entityManager;
 
     private final ObjectMapper om = new ObjectMapper().registerModule(new JavaTimeModule());
 
@@ -56,7 +68,7 @@ class ShowtimeIntegrationTest {
         existing.setLanguage("EN");
         existing.setFormat("2D");
         existing.setCinema(cinema);
-        existing = showtimeRepo.save(existing);
+        existing = showtimeRepo.saveAndFlush(existing);
     }
 
     // --- DTO mirrors your controller's inner class ---
@@ -171,6 +183,25 @@ class ShowtimeIntegrationTest {
                 .andExpect(jsonPath("$[0].movieTitle").value("Inception"));
     }
 
+    @Test
+    @DisplayName("bookSeats: 10 tickets go out as one batched INSERT, not one statement each")
+    void bookSeats_batchesTicketInserts() {
+        List<Seat> seats = new ArrayList<>();
+        for (int n = 1; n <= 11; n++) {
+            seats.add(new Seat(cinema, 1, "A", n));
+        }
+        List<Long> seatIds = seatRepo.saveAllAndFlush(seats).stream().map(Seat::getId).toList();
+        seatMapService.getSeatMapForShowtime(existing.getId()); // warm the in-memory seat inventory
+        showtimeService.bookSeats(existing.getId(), seatIds.subList(10, 11)); // first use of ticket_seq
+        entityManager.clear();
+
+        DbStatementCounter.reset();
+        showtimeService.bookSeats(existing.getId(), seatIds.subList(0, 10));
+
+        // SELECT of the showtime + one batched INSERT, plus a sequence call at most every 50 tickets
+        assertThat(DbStatementCounter.current()).isBetween(2, 3);
+    }
+
     @Test
     @DisplayName("POST overlap -> 409 Conflict from GlobalExceptionHandler")
     void create_overlap_409() throws Exception {
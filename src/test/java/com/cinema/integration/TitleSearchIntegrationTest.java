@@ -0,0 +1,68 @@
+package com.cinema.integration;
+
+import com.cinema.entity.Cinema;
+import com.cinema.entity.Showtime;
+import com.cinema.repository.CinemaRepository;
+import com.cinema.service.ShowtimeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Not @Transactional: the title index only sees committed writes
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class TitleSearchIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private CinemaRepository cinemaRepo;
+    @Autowired private ShowtimeService showtimeService;
+
+    @Test
+    @DisplayName("title search follows creates, renames and deletes, ignoring case and accents")
+    void search_followsWrites() throws Exception {
+        Cinema cinema = new Cinema();
+        cinema.setName("Search Cinema " + System.nanoTime());
+        cinema.setAddressLine("1 Index St");
+        cinema.setCity("Test City");
+        cinema.setTotalScreens(2);
+        cinema = cinemaRepo.save(cinema);
+        LocalDateTime start = LocalDateTime.of(2036, 3, 1, 18, 0);
+        Showtime show = showtimeService.create(
+                new Showtime("Le Fabuleux Destin d'Amélie Poulain", 1, start, start.plusHours(2), 9.0, "FR", "2D", cinema));
+
+        mockMvc.perform(get("/api/showtimes/search").param("q", "AMELIE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(show.getId()));
+        mockMvc.perform(get("/api/showtimes/filter")
+                        .param("q", "destin d'amé")
+                        .param("cinemaId", String.valueOf(cinema.getId())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(show.getId()));
+
+        Showtime rename = new Showtime();
+        rename.setMovieTitle("Caché");
+        showtimeService.update(show.getId(), rename);
+        mockMvc.perform(get("/api/showtimes/search").param("q", "amelie"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(get("/api/showtimes/search").param("q", "cache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].movieTitle").value("Caché"));
+
+        showtimeService.delete(show.getId());
+        mockMvc.perform(get("/api/showtimes/search").param("q", "cache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+}
@@ -0,0 +1,128 @@
+package com.cinema.integration;
+
+import com.cinema.entity.Cinema;
+import com.cinema.entity.Showtime;
+import com.cinema.repository.CinemaRepository;
+import com.cinema.repository.ShowtimeRepository;
+import com.cinema.service.SeatHoldService;
+import com.cinema.service.ShowtimeService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the booking path on virtual threads under JFR and fails on any pinned park
+ * (a virtual thread blocking while it holds a monitor). The bulkhead is cut to two
+ * permits so most of the threads really do block waiting for a connection.
+ * H2's own locking is ignored: it is the test database, not the production driver.
+ */
+@SpringBootTest(properties = {"cinema.db.bulkhead.enabled=true", "cinema.db.bulkhead.permits=2"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadPinningTest {
+
+    private static final int THREADS = 32;
+
+    @Autowired private CinemaRepository cinemaRepo;
+    @Autowired private ShowtimeRepository showtimeRepo;
+    @Autowired private ShowtimeService showtimeService;
+    @Autowired private SeatHoldService seatHoldService;
+
+    @Test
+    @DisplayName("booking and holding seats on virtual threads never pins a carrier outside the driver")
+    void bookingPath_doesNotPin() throws Exception {
+        Cinema cinema = new Cinema();
+        cinema.setName("Pinning Cinema " + System.nanoTime());
+        cinema.setAddressLine("1 Carrier St");
+        cinema.setCity("Test City");
+        cinema.setTotalScreens(1);
+        cinema = cinemaRepo.save(cinema);
+        List<Long> showtimes = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            LocalDateTime start = LocalDateTime.of(2034, 1, 1, 10, 0).plusHours(3L * i);
+            showtimes.add(showtimeRepo.save(
+                    new Showtime("Loom", 1, start, start.plusHours(2), 9.0, "EN", "2D", cinema)).getId());
+        }
+        // Class loading and first-time initialisation are allowed to block
+        showtimeService.bookBestAvailable(showtimes.get(0), 1, null);
+
+        Path dump = Files.createTempFile("pinning", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+            ExecutorService executor = virtualThreadPerTask();
+            try {
+                List<Future<?>> done = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    Long showtimeId = showtimes.get(i % showtimes.size());
+                    boolean hold = i % 2 == 1;
+                    done.add(executor.submit(() -> {
+                        if (hold) {
+                            seatHoldService.confirm(showtimeId,
+                                    seatHoldService.holdBestAvailable(showtimeId, 2, null).getId());
+                        } else {
+                            showtimeService.bookBestAvailable(showtimeId, 2, null);
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> f : done) {
+                    f.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<String> pinned = RecordingFile.readAllEvents(dump).stream()
+                .filter(e -> e.getEventType().getName().equals("jdk.VirtualThreadPinned"))
+                .filter(e -> !inDriver(e))
+                .map(VirtualThreadPinningTest::stack)
+                .toList();
+        Files.deleteIfExists(dump);
+        assertThat(pinned).as("pinned virtual threads").isEmpty();
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() is Java 21 API; the build still targets 17
+    private static ExecutorService virtualThreadPerTask() throws ReflectiveOperationException {
+        return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    }
+
+    private static boolean inDriver(RecordedEvent event) {
+        return event.getStackTrace() != null && event.getStackTrace().getFrames().stream()
+                .anyMatch(f -> f.getMethod().getType().getName().startsWith("org.h2."));
+    }
+
+    private static String stack(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "(no stack trace)";
+        }
+        return event.getStackTrace().getFrames().stream()
+                .map(RecordedFrame::getMethod)
+                .map(m -> m.getType().getName() + "." + m.getName())
+                .collect(Collectors.joining("\n  at ", "\n  at ", ""));
+    }
+}
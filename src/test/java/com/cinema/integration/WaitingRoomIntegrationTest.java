@@ -0,0 +1,95 @@
+package com.cinema.integration;
+
+import com.cinema.entity.Cinema;
+import com.cinema.entity.Showtime;
+import com.cinema.repository.CinemaRepository;
+import com.cinema.repository.ShowtimeRepository;
+import com.cinema.repository.TicketRepository;
+import com.cinema.service.layout.SeatLayouts;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// A quarter admission per tick: the first one comes a few ticks after the join, never in between
+// the join and its reply
+@SpringBootTest(properties = {
+        "cinema.waiting-room.tick=PT0.05S",
+        "cinema.waiting-room.initial-rate=5"
+})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class WaitingRoomIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private ObjectMapper objectMapper;
+    @Autowired private CinemaRepository cinemaRepo;
+    @Autowired private ShowtimeRepository showtimeRepo;
+    @Autowired private TicketRepository ticketRepo;
+    @Autowired private SeatLayouts seatLayouts;
+
+    @Test
+    @DisplayName("with an open room, only admitted queue tokens reach the seat map and bookings")
+    void waitingRoom_gatesBookings() throws Exception {
+        Cinema cinema = new Cinema();
+        cinema.setName("Premiere Cinema " + System.nanoTime());
+        cinema.setAddressLine("1 Queue St");
+        cinema.setCity("Test City");
+        cinema.setTotalScreens(1);
+        cinema = cinemaRepo.save(cinema);
+        LocalDateTime start = LocalDateTime.of(2038, 12, 17, 19, 0);
+        Showtime show = showtimeRepo.save(new Showtime("Avatar 5", 1, start, start.plusHours(3), 15.0, "EN", "3D", cinema));
+        String seats = "{\"seatIds\": [" + seatLayouts.defaultLayout().seatKeyAt(0) + "]}";
+
+        mockMvc.perform(put("/api/showtimes/{id}/waiting-room", show.getId()))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/showtimes/{id}/seats", show.getId()))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+        mockMvc.perform(post("/api/showtimes/{id}/tickets", show.getId())
+                        .contentType(MediaType.APPLICATION_JSON).content(seats))
+                .andExpect(status().isTooManyRequests());
+        assertThat(ticketRepo.findBookedSeatIds(show.getId())).isEmpty();
+
+        JsonNode joined = objectMapper.readTree(mockMvc.perform(post("/api/showtimes/{id}/queue", show.getId()))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.admitted").value(false))
+                .andExpect(jsonPath("$.position").value(1))
+                .andReturn().getResponse().getContentAsString());
+        String token = joined.get("token").asText();
+
+        boolean admitted = false;
+        for (int i = 0; i < 100 && !admitted; i++) {
+            Thread.sleep(20);
+            String polled = mockMvc.perform(get("/api/showtimes/{id}/queue", show.getId()).header("X-Queue-Token", token))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            admitted = objectMapper.readTree(polled).get("admitted").asBoolean();
+        }
+        assertThat(admitted).isTrue();
+
+        mockMvc.perform(get("/api/showtimes/{id}/seats", show.getId()).header("X-Queue-Token", token))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/showtimes/{id}/tickets", show.getId()).header("X-Queue-Token", token)
+                        .contentType(MediaType.APPLICATION_JSON).content(seats))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(delete("/api/showtimes/{id}/waiting-room", show.getId()))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/showtimes/{id}/seats", show.getId()))
+                .andExpect(status().isOk());
+    }
+}
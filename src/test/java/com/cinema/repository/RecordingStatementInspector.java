@@ -0,0 +1,18 @@
+package com.cinema.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/** Test-only inspector that remembers every SQL statement Hibernate prepares. */
+public class RecordingStatementInspector implements StatementInspector {
+
+    public static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+}
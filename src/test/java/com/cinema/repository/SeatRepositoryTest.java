@@ -0,0 +1,93 @@
+package com.cinema.repository;
+
+import com.cinema.entity.Cinema;
+import com.cinema.entity.Seat;
+import com.cinema.entity.Showtime;
+import com.cinema.entity.Ticket;
+import com.cinema.repository.projection.SeatRow;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+class SeatRepositoryTest {
+
+    @Autowired private TestEntityManager em;
+    @Autowired private SeatRepository repo;
+
+    private Cinema cinema() {
+        Cinema c = new Cinema();
+        c.setName("Seat Map Cinema");
+        c.setAddressLine("1 Test St");
+        c.setCity("Test City");
+        c.setTotalScreens(3);
+        return em.persistAndFlush(c);
+    }
+
+    private Showtime show(Cinema c, int screen) {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 19, 0).plusHours(screen * 3L);
+        return em.persist(new Showtime("Dune", screen, start, start.plusHours(2), 10.0, "EN", "2D", c));
+    }
+
+    @Test
+    @DisplayName("findSeatMapRows: seats of the showtime's screen in grid order, booked only for that showtime")
+    void findSeatMapRows_ok() {
+        Cinema c = cinema();
+        Seat b1 = em.persist(new Seat(c, 1, "B", 1));
+        Seat a2 = em.persist(new Seat(c, 1, "A", 2));
+        Seat a1 = em.persist(new Seat(c, 1, "A", 1));
+        em.persist(new Seat(c, 2, "A", 1)); // other screen
+        Showtime show = show(c, 1);
+        Showtime other = show(c, 1);
+        other.setStartTime(other.getStartTime().plusDays(1));
+        other.setEndTime(other.getEndTime().plusDays(1));
+        em.persist(new Ticket(show, a2.getId(), 10.0));
+        em.persist(new Ticket(other, b1.getId(), 10.0));
+        em.flush();
+        em.clear();
+
+        List<SeatRow> rows = repo.findSeatMapRows(show.getId());
+
+        assertThat(rows).extracting(SeatRow::seatId).containsExactly(a1.getId(), a2.getId(), b1.getId());
+        assertThat(rows).extracting(SeatRow::booked).containsExactly(false, true, false);
+        assertThat(rows).allSatisfy(r -> {
+            assertThat(r.cinemaId()).isEqualTo(c.getId());
+            assertThat(r.screenNumber()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    @DisplayName("findSeatMapRows: empty for unknown showtime or screen without seats")
+    void findSeatMapRows_empty() {
+        Cinema c = cinema();
+        Showtime show = show(c, 3);
+        em.flush();
+
+        assertThat(repo.findSeatMapRows(show.getId())).isEmpty();
+        assertThat(repo.findSeatMapRows(-1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("findShowtimeSlot: the showtime's screen, without loading any seats")
+    void findShowtimeSlot_ok() {
+        Cinema c = cinema();
+        Showtime show = show(c, 2);
+        em.flush();
+        em.clear();
+
+        assertThat(repo.findShowtimeSlot(show.getId())).hasValueSatisfying(slot -> {
+            assertThat(slot.cinemaId()).isEqualTo(c.getId());
+            assertThat(slot.screenNumber()).isEqualTo(2);
+        });
+        assertThat(repo.findShowtimeSlot(-1L)).isEmpty();
+    }
+}
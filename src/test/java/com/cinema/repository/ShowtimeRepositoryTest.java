@@ -2,12 +2,16 @@ package com.cinema.repository;
 
 import com.cinema.entity.Cinema;
 import com.cinema.entity.Showtime;
+import com.cinema.service.paging.ShowtimeCursor;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -67,6 +71,45 @@ class ShowtimeRepositoryTest {
         assertThat(forA).hasSize(2).allMatch(s -> s.getCinema().getId().equals(a.getId()));
     }
 
+    @Test
+    @DisplayName("streamAll yields every showtime in id order")
+    void streamAll_ok() {
+        Cinema c = cinema("S");
+        Showtime first = show(c, "Alien", 1, t(10, 0), t(12, 0));
+        Showtime second = show(c, "Aliens", 2, t(10, 0), t(12, 0));
+        em.flush();
+
+        try (var stream = repo.streamAll()) {
+            assertThat(stream.map(Showtime::getId)).containsExactly(first.getId(), second.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("keyset window walks (startTime, id) order without gaps, ties included")
+    void keysetWindow_walksAllPages() {
+        Cinema c = cinema("K");
+        Showtime late = show(c, "Late", 1, t(22, 0), t(23, 0));
+        Showtime tieA = show(c, "Tie A", 2, t(18, 0), t(19, 0));
+        Showtime tieB = show(c, "Tie B", 3, t(18, 0), t(19, 0));
+        Showtime early = show(c, "Early", 1, t(10, 0), t(11, 0));
+        Showtime noon = show(c, "Noon", 1, t(12, 0), t(13, 0));
+        em.flush();
+
+        List<Long> seen = new java.util.ArrayList<>();
+        ScrollPosition position = ShowtimeCursor.position(null);
+        Window<Showtime> window;
+        do {
+            window = repo.findByCinema_IdOrderByStartTimeAscIdAsc(c.getId(), position, Limit.of(2));
+            window.forEach(s -> seen.add(s.getId()));
+            if (!window.isEmpty()) {
+                // round-trip through the opaque token like a client would
+                position = ShowtimeCursor.position(ShowtimeCursor.after(window.getContent().get(window.size() - 1)).encode());
+            }
+        } while (window.hasNext());
+
+        assertThat(seen).containsExactly(early.getId(), noon.getId(), tieA.getId(), tieB.getId(), late.getId());
+    }
+
     @Test
     @DisplayName("findByMovieTitleContainingIgnoreCase matches case-insensitively")
     void findByMovieTitleContainingIgnoreCase_ok() {
@@ -0,0 +1,142 @@
+package com.cinema.repository;
+
+import com.cinema.entity.Cinema;
+import com.cinema.entity.Showtime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import com.cinema.service.paging.ShowtimeCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@TestPropertySource(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.cinema.repository.RecordingStatementInspector")
+class ShowtimeSpecificationsTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 6, 1, 0, 0);
+
+    @Autowired private TestEntityManager em;
+    @Autowired private ShowtimeRepository repo;
+    @Autowired private JdbcTemplate jdbc;
+
+    private final List<Showtime> all = new ArrayList<>();
+    private Cinema odeon;
+
+    @BeforeEach
+    void seed() {
+        odeon = cinema("Odeon");
+        Cinema vue = cinema("Vue");
+        String[] titles = {"The Batman", "Dune", "Batman Begins", "100%_Real"};
+        int i = 0;
+        for (Cinema c : List.of(odeon, vue)) {
+            for (String title : titles) {
+                LocalDateTime start = DAY.plusHours(10 + 3L * i++);
+                all.add(em.persist(new Showtime(title, i % 3 + 1, start, start.plusHours(2), 10.0, "EN", "2D", c)));
+            }
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    @DisplayName("filter: every criteria combination is one statement with all predicates in SQL")
+    void everyCombination_singleStatement() {
+        String[] titles = {null, "batman"};
+        Long[] cinemas = {null, odeon.getId()};
+        LocalDateTime[] froms = {null, DAY.plusHours(13)};
+        LocalDateTime[] tos = {null, DAY.plusHours(25)};
+
+        for (String q : titles) for (Long cinemaId : cinemas) for (LocalDateTime from : froms) for (LocalDateTime to : tos) {
+            RecordingStatementInspector.STATEMENTS.clear();
+
+            List<Showtime> found = repo.findAll(ShowtimeSpecifications.filter(q, cinemaId, from, to));
+
+            String combo = "q=" + q + " cinema=" + cinemaId + " from=" + from + " to=" + to;
+            assertThat(RecordingStatementInspector.STATEMENTS).as(combo).hasSize(1);
+            String sql = RecordingStatementInspector.STATEMENTS.get(0).toLowerCase(Locale.ROOT);
+            assertThat(sql.contains("cinema_id=?")).as(combo).isEqualTo(cinemaId != null);
+            assertThat(sql.contains("start_time>=?")).as(combo).isEqualTo(from != null);
+            assertThat(sql.contains("start_time<=?")).as(combo).isEqualTo(to != null);
+            assertThat(sql.contains("like")).as(combo).isEqualTo(q != null);
+            assertThat(found).as(combo).extracting(Showtime::getId)
+                    .containsExactlyInAnyOrderElementsOf(expected(q, cinemaId, from, to));
+        }
+    }
+
+    @Test
+    @DisplayName("filter: keyset scroll over the specification pages through every match")
+    void filter_keysetScroll() {
+        var spec = ShowtimeSpecifications.filter("batman", null, DAY, null);
+        List<Long> seen = new ArrayList<>();
+        ScrollPosition position = ShowtimeCursor.position(null);
+        Window<Showtime> window;
+        do {
+            ScrollPosition at = position;
+            window = repo.findBy(spec, query -> query.sortBy(ShowtimeCursor.ORDER).limit(1).scroll(at));
+            window.forEach(s -> seen.add(s.getId()));
+            if (!window.isEmpty()) {
+                position = ShowtimeCursor.after(window.getContent().get(0)).toPosition();
+            }
+        } while (window.hasNext());
+
+        assertThat(seen).containsExactlyElementsOf(expected("batman", null, DAY, null));
+    }
+
+    @Test
+    @DisplayName("filter: LIKE wildcards in the title are matched literally")
+    void title_escapesWildcards() {
+        assertThat(repo.findAll(ShowtimeSpecifications.filter("0%_r", null, null, null)))
+                .extracting(Showtime::getMovieTitle).containsOnly("100%_Real");
+        assertThat(repo.findAll(ShowtimeSpecifications.filter("b_tman", null, null, null))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("indexes: cinema and time-window predicates are served by the composite indexes")
+    void plans_useIndexes() {
+        assertThat(plan("SELECT id FROM showtimes WHERE cinema_id = ? AND start_time >= ?",
+                odeon.getId(), DAY)).contains("idx_showtime_cinema_start");
+        assertThat(plan("SELECT id FROM showtimes WHERE start_time BETWEEN ? AND ?",
+                DAY, DAY.plusDays(1))).contains("idx_showtime_start");
+        assertThat(plan("SELECT id FROM showtimes WHERE screen_number = ?", 2))
+                .contains("idx_showtime_screen");
+    }
+
+    // ---- helpers ----
+    private String plan(String sql, Object... args) {
+        return jdbc.queryForObject("EXPLAIN " + sql, String.class, args).toLowerCase(Locale.ROOT);
+    }
+
+    private List<Long> expected(String q, Long cinemaId, LocalDateTime from, LocalDateTime to) {
+        return all.stream()
+                .filter(s -> q == null || s.getMovieTitle().toLowerCase().contains(q))
+                .filter(s -> cinemaId == null || s.getCinema().getId().equals(cinemaId))
+                .filter(s -> from == null || !s.getStartTime().isBefore(from))
+                .filter(s -> to == null || !s.getStartTime().isAfter(to))
+                .map(Showtime::getId)
+                .toList();
+    }
+
+    private Cinema cinema(String name) {
+        Cinema c = new Cinema();
+        c.setName(name);
+        c.setAddressLine("1 Test St");
+        c.setCity("Test City");
+        c.setTotalScreens(3);
+        return em.persistAndFlush(c);
+    }
+}
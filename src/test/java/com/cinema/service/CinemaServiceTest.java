@@ -0,0 +1,121 @@
+package com.cinema.service;
+
+import com.cinema.entity.Cinema;
+import com.cinema.exception.BusinessRuleViolationException;
+import com.cinema.repository.CinemaRepository;
+import com.cinema.repository.projection.CinemaNameKey;
+import com.cinema.service.cache.ShowtimeCache;
+import com.cinema.service.schedule.ScheduleIndex;
+import com.cinema.service.search.TitleIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CinemaServiceTest {
+
+    @Mock private CinemaRepository repo;
+    @Mock private ShowtimeCache showtimeCache;
+    @Mock private ScheduleIndex scheduleIndex;
+    @Mock private TitleIndex titleIndex;
+
+    @InjectMocks
+    private CinemaService service;
+
+    @Test
+    @DisplayName("normalizeName: trims, lower-cases and collapses whitespace")
+    void normalizeName() {
+        assertEquals("odeon leicester square", Cinema.normalizeName("  Odeon \t LEICESTER\n\nSquare "));
+        assertEquals("", Cinema.normalizeName("   "));
+        assertNull(Cinema.normalizeName(null));
+    }
+
+    @Test
+    @DisplayName("findByName: names from the warmed index resolve without a query")
+    void findByName_fromIndex() {
+        when(repo.findByNormalizedNameIsNull()).thenReturn(List.of());
+        when(repo.findAllNameKeys()).thenReturn(List.of(new CinemaNameKey(7L, "bfi imax waterloo")));
+        Cinema ref = cinema(7L, "BFI IMAX Waterloo");
+        when(repo.getReferenceById(7L)).thenReturn(ref);
+        service.loadNameIndex();
+
+        assertSame(ref, service.findByName("  bfi   IMAX waterloo").orElseThrow());
+        verify(repo, never()).findByNormalizedName(any());
+    }
+
+    @Test
+    @DisplayName("loadNameIndex: a legacy name colliding with a taken one is left unset instead of failing")
+    void loadNameIndex_collision() {
+        Cinema legacy = cinema(8L, "Curzon  SOHO");
+        Cinema fresh = cinema(9L, "Rio Dalston");
+        ReflectionTestUtils.setField(legacy, "normalizedName", null);
+        ReflectionTestUtils.setField(fresh, "normalizedName", null);
+        when(repo.findAllNameKeys()).thenReturn(List.of(
+                new CinemaNameKey(3L, "curzon soho"), new CinemaNameKey(8L, null), new CinemaNameKey(9L, null)));
+        when(repo.findByNormalizedNameIsNull()).thenReturn(List.of(legacy, fresh));
+        when(repo.getReferenceById(3L)).thenReturn(cinema(3L, "Curzon Soho"));
+
+        service.loadNameIndex();
+
+        assertNull(legacy.getNormalizedName());
+        assertEquals("rio dalston", fresh.getNormalizedName());
+        assertEquals(3L, service.findByName("curzon soho").orElseThrow().getId());
+        verify(repo).flush();
+    }
+
+    @Test
+    @DisplayName("create/update/delete keep the index in step")
+    void index_followsWrites() {
+        Cinema created = cinema(5L, "Vue Islington");
+        when(repo.findByNormalizedName("vue islington")).thenReturn(Optional.empty());
+        when(repo.save(any(Cinema.class))).thenAnswer(inv -> {
+            Cinema c = inv.getArgument(0);
+            if (c.getId() == null) c.setId(5L);
+            return c;
+        });
+        when(repo.getReferenceById(5L)).thenReturn(created);
+
+        service.createCinema(cinema(null, "Vue Islington"));
+        assertTrue(service.findByName("vue islington").isPresent());
+
+        when(repo.findById(5L)).thenReturn(Optional.of(created));
+        when(repo.findByNormalizedName("vue angel")).thenReturn(Optional.empty());
+        service.updateCinema(5L, cinema(null, "Vue Angel"));
+        assertTrue(service.findByName("VUE ANGEL").isPresent());
+        assertTrue(service.findByName("Vue Islington").isEmpty()); // falls back to the DB, which says no
+
+        Cinema renamed = cinema(5L, "Vue Angel");
+        when(repo.findById(5L)).thenReturn(Optional.of(renamed));
+        service.deleteCinema(5L);
+        assertTrue(service.findByName("Vue Angel").isEmpty());
+        verify(repo).deleteById(5L);
+        verify(showtimeCache, times(2)).invalidateCinema(5L);
+    }
+
+    @Test
+    @DisplayName("createCinema: rejects a name that only differs in case/spacing")
+    void create_duplicateName() {
+        when(repo.findByNormalizedName("odeon")).thenReturn(Optional.of(cinema(1L, "Odeon")));
+
+        assertThrows(BusinessRuleViolationException.class, () -> service.createCinema(cinema(null, " ODEON ")));
+        verify(repo, never()).save(any());
+    }
+
+    private Cinema cinema(Long id, String name) {
+        Cinema c = new Cinema();
+        c.setId(id);
+        c.setName(name);
+        return c;
+    }
+}
@@ -0,0 +1,132 @@
+package com.cinema.service;
+
+import com.cinema.entity.Cinema;
+import com.cinema.entity.Showtime;
+import com.cinema.repository.RecordingStatementInspector;
+import com.cinema.repository.ShowtimeRepository;
+import com.cinema.service.cache.ShowtimeCache;
+import com.cinema.service.impl.ShowtimeImportServiceImpl;
+import com.cinema.service.schedule.ScheduleIndex;
+import com.cinema.service.search.TitleIndex;
+import com.cinema.web.dto.ShowtimeImportReport;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@Import({ShowtimeImportServiceImpl.class, ScheduleIndex.class, ShowtimeCache.class, TitleIndex.class,
+        ShowtimeImportServiceTest.Meters.class})
+@TestPropertySource(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.cinema.repository.RecordingStatementInspector")
+class ShowtimeImportServiceTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 6, 1, 0, 0);
+
+    @TestConfiguration
+    static class Meters {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired private TestEntityManager em;
+    @Autowired private ShowtimeImportService importService;
+    @Autowired private ShowtimeRepository showtimeRepo;
+
+    private Cinema cinema;
+
+    @BeforeEach
+    void seed() {
+        cinema = new Cinema();
+        cinema.setName("Odeon");
+        cinema.setAddressLine("1 Street");
+        cinema.setCity("London");
+        cinema.setTotalScreens(10);
+        cinema = em.persist(cinema);
+        em.persist(new Showtime("Existing", 1, DAY.plusHours(10), DAY.plusHours(12), 10.0, "EN", "2D", cinema));
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    @DisplayName("importShowtimes: saves valid rows and reports the others by position")
+    void reportsRowErrors() {
+        Showtime noTitle = row(2, 14, 16);
+        noTitle.setMovieTitle(" ");
+        Showtime unknownCinema = row(2, 18, 20);
+        unknownCinema.getCinema().setId(999L);
+
+        ShowtimeImportReport report = importService.importShowtimes(Arrays.asList(
+                row(2, 10, 12),   // 1 ok
+                row(1, 11, 13),   // 2 clashes with the stored showtime
+                noTitle,          // 3
+                row(2, 11, 14),   // 4 clashes with row 1
+                unknownCinema,    // 5
+                row(1, 12, 14),   // 6 ok, starts as the stored one ends
+                null));           // 7
+
+        assertThat(report.getReceived()).isEqualTo(7);
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(ShowtimeImportReport.RowError::getRow)
+                .containsExactly(2, 3, 4, 5, 7);
+        assertThat(report.getErrors().get(2).getMessage()).isEqualTo("Overlaps row 1 of this import");
+        assertThat(report.getErrors().get(3).getMessage()).contains("999");
+        assertThat(showtimeRepo.count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("importShowtimes: errors carry the caller's row numbers, e.g. CSV lines")
+    void reportsGivenRowNumbers() {
+        ShowtimeImportReport report = importService.importShowtimes(
+                List.of(row(2, 10, 12), row(2, 11, 14)), List.of(2, 5));
+
+        assertThat(report.getErrors()).extracting(ShowtimeImportReport.RowError::getRow).containsExactly(5);
+        assertThat(report.getErrors().get(0).getMessage()).isEqualTo("Overlaps row 2 of this import");
+    }
+
+    @Test
+    @DisplayName("importShowtimes: inserts go out in JDBC batches, not one statement per row")
+    void insertsAreBatched() {
+        List<Showtime> rows = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            rows.add(row(3 + i % 4, 24 + i / 4 * 3, 26 + i / 4 * 3));
+        }
+        RecordingStatementInspector.STATEMENTS.clear();
+
+        ShowtimeImportReport report = importService.importShowtimes(rows);
+
+        assertThat(report.getErrors()).isEmpty();
+        assertThat(report.getImported()).isEqualTo(200);
+        long inserts = RecordingStatementInspector.STATEMENTS.stream()
+                .filter(sql -> sql.toLowerCase(Locale.ROOT).startsWith("insert into showtimes"))
+                .count();
+        assertThat(inserts).isBetween(1L, 200L / 50); // hibernate.jdbc.batch_size
+        assertThat(showtimeRepo.count()).isEqualTo(201);
+    }
+
+    private Showtime row(int screen, int fromHour, int toHour) {
+        Cinema ref = new Cinema();
+        ref.setId(cinema.getId());
+        return new Showtime("Imported", screen, DAY.plusHours(fromHour), DAY.plusHours(toHour), 9.5, "EN", "2D", ref);
+    }
+}
@@ -5,18 +5,37 @@ import com.cinema.entity.Showtime;
 import com.cinema.exception.BusinessRuleViolationException;
 import com.cinema.exception.OverlappingShowtimeException;
 import com.cinema.exception.ResourceNotFoundException;
+import com.cinema.metrics.BookingMetrics;
 import com.cinema.repository.CinemaRepository;
 import com.cinema.repository.ShowtimeRepository;
+import com.cinema.repository.projection.ShowtimeSlot;
+import com.cinema.repository.projection.ShowtimeTitle;
+import com.cinema.service.cache.ShowtimeCache;
 import com.cinema.service.impl.ShowtimeServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import com.cinema.repository.SeatRepository;
 import com.cinema.repository.TicketRepository;
+import com.cinema.entity.Seat;
+import com.cinema.service.inventory.PendingTickets;
+import com.cinema.service.inventory.ScreenKey;
+import com.cinema.service.inventory.ScreenLayout;
+import com.cinema.service.inventory.SeatBookingCoordinator;
+import com.cinema.service.inventory.SeatHoldRegistry;
+import com.cinema.service.inventory.SeatInventory;
+import com.cinema.service.inventory.SeatOccupancy;
+import com.cinema.service.layout.SeatLayouts;
+import com.cinema.service.schedule.ScheduleIndex;
+import com.cinema.service.search.TitleIndex;
+import com.cinema.service.tickets.DirectTicketWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -32,15 +51,28 @@ class ShowtimeServiceImplTest {
     @Mock private CinemaRepository cinemaRepo;
     @Mock private SeatRepository seatRepo;
     @Mock private TicketRepository ticketRepo;
+    @Mock private SeatInventory seatInventory;
+    @Mock private EntityManager entityManager;
+    @Mock private CinemaService cinemaService;
+    @Mock private ScheduleIndex scheduleIndex;
+    @Mock private TitleIndex titleIndex;
+    @Mock private SeatLayouts seatLayouts;
+    @Mock private SeatHoldRegistry holds;
 
-    @InjectMocks
     private ShowtimeServiceImpl service;
+    private SimpleMeterRegistry meters;
 
     private Cinema cinema;
     private Showtime base;
 
     @BeforeEach
     void setupData() {
+        meters = new SimpleMeterRegistry();
+        service = new ShowtimeServiceImpl(showtimeRepo, cinemaRepo, new DirectTicketWriter(ticketRepo),
+                seatInventory, new SeatBookingCoordinator(seatRepo, seatLayouts), new BookingMetrics(meters), entityManager, cinemaService,
+                new ShowtimeCache(meters, 100, 1_000, Duration.ofMinutes(5)), scheduleIndex, titleIndex,
+                holds, new PendingTickets());
+
         cinema = new Cinema();
         cinema.setId(100L);
 
@@ -116,6 +148,42 @@ class ShowtimeServiceImplTest {
         verify(showtimeRepo, never()).save(any());
     }
 
+    @Test
+    @DisplayName("create: overlap answered by the schedule index skips the COUNT query")
+    void create_overlapFromIndex() {
+        when(cinemaRepo.existsById(100L)).thenReturn(true);
+        ScheduleIndex index = new ScheduleIndex(showtimeRepo);
+        Showtime existing = copy(base);
+        when(showtimeRepo.findSlots(100L, 1)).thenReturn(List.of(new ShowtimeSlot(
+                7L, 100L, 1, existing.getStartTime().minusMinutes(30), existing.getStartTime().plusMinutes(30))));
+        ReflectionTestUtils.setField(service, "scheduleIndex", index);
+
+        assertThrows(OverlappingShowtimeException.class, () -> service.create(base));
+        verify(showtimeRepo, never()).existsOverlappingShowtimeExcludingId(any(), anyInt(), any(), any(), any());
+        verify(showtimeRepo, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("create: a granted slot is bound to the saved id and blocks the next check")
+    void create_reservesSlotInIndex() {
+        when(cinemaRepo.existsById(100L)).thenReturn(true);
+        ScheduleIndex index = new ScheduleIndex(showtimeRepo);
+        when(showtimeRepo.findSlots(100L, 1)).thenReturn(List.of());
+        when(showtimeRepo.save(any(Showtime.class))).thenAnswer(inv -> {
+            Showtime s = inv.getArgument(0);
+            s.setId(42L);
+            return s;
+        });
+        ReflectionTestUtils.setField(service, "scheduleIndex", index);
+
+        service.create(base);
+
+        ScreenKey screen = new ScreenKey(100L, 1);
+        assertTrue(index.overlaps(screen, base.getStartTime(), base.getEndTime(), null).orElseThrow());
+        assertFalse(index.overlaps(screen, base.getStartTime(), base.getEndTime(), 42L).orElseThrow());
+        verify(showtimeRepo, never()).existsOverlappingShowtimeExcludingId(any(), anyInt(), any(), any(), any());
+    }
+
     // -------- UPDATE --------
     @Test
     @DisplayName("update: excludes self in overlap check and saves")
@@ -173,6 +241,66 @@ class ShowtimeServiceImplTest {
         verify(showtimeRepo, never()).save(any());
     }
 
+    @Test
+    @DisplayName("update: the index answers and holds the new slot, so a clashing create is refused")
+    void update_reservesSlotInIndex() {
+        when(cinemaRepo.existsById(100L)).thenReturn(true);
+        ScheduleIndex index = new ScheduleIndex(showtimeRepo);
+        Showtime existing = copy(base);
+        existing.setId(7L);
+        when(showtimeRepo.findById(7L)).thenReturn(Optional.of(existing));
+        when(showtimeRepo.findSlots(100L, 1)).thenReturn(List.of(new ShowtimeSlot(
+                7L, 100L, 1, existing.getStartTime(), existing.getEndTime())));
+        when(showtimeRepo.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        ReflectionTestUtils.setField(service, "scheduleIndex", index);
+
+        Showtime later = new Showtime();
+        later.setStartTime(base.getStartTime().plusHours(3));
+        later.setEndTime(base.getEndTime().plusHours(3));
+        service.update(7L, later);
+
+        ScreenKey screen = new ScreenKey(100L, 1);
+        assertFalse(index.overlaps(screen, base.getStartTime(), base.getEndTime(), null).orElseThrow());
+        assertTrue(index.overlaps(screen, later.getStartTime(), later.getEndTime(), null).orElseThrow());
+        Showtime clash = copy(base);
+        clash.setStartTime(later.getStartTime().plusMinutes(30));
+        clash.setEndTime(later.getEndTime().plusMinutes(30));
+        assertThrows(OverlappingShowtimeException.class, () -> service.create(clash));
+        verify(showtimeRepo, never()).existsOverlappingShowtimeExcludingId(any(), anyInt(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("update: a price edit keeps the cached seat bitset")
+    void update_priceOnly_keepsOccupancy() {
+        Showtime existing = copy(base);
+        existing.setId(1L);
+        when(showtimeRepo.findById(1L)).thenReturn(Optional.of(existing));
+        when(cinemaRepo.existsById(100L)).thenReturn(true);
+        when(showtimeRepo.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        Showtime price = new Showtime();
+        price.setTicketPrice(14.0);
+        service.update(1L, price);
+
+        verify(seatInventory, never()).evict(any());
+        verify(holds, never()).hasHolds(anyLong());
+    }
+
+    @Test
+    @DisplayName("update: a showtime with seats on hold cannot move to another screen")
+    void update_moveWithHolds_refused() {
+        Showtime existing = copy(base);
+        existing.setId(1L);
+        when(showtimeRepo.findById(1L)).thenReturn(Optional.of(existing));
+        when(cinemaRepo.existsById(100L)).thenReturn(true);
+        when(holds.hasHolds(1L)).thenReturn(true);
+
+        Showtime move = new Showtime();
+        move.setScreenNumber(2);
+        assertThrows(BusinessRuleViolationException.class, () -> service.update(1L, move));
+        verify(showtimeRepo, never()).save(any());
+    }
+
     // -------- DELETE --------
     @Test
     @DisplayName("delete: returns true when present and deleteById called")
@@ -214,14 +342,71 @@ class ShowtimeServiceImplTest {
     }
 
     @Test
-    @DisplayName("findByCinema: delegates to repo")
+    @DisplayName("findByCinema: loads the ordered schedule once, then serves it from cache")
     void findByCinema_ok() {
-        when(showtimeRepo.findByCinema_Id(100L)).thenReturn(List.of(copy(base)));
+        when(showtimeRepo.findByCinema_IdOrderByStartTimeAscIdAsc(100L)).thenReturn(List.of(copy(base)));
 
         var list = service.findByCinema(100L);
+        service.findByCinema(100L);
 
         assertEquals(1, list.size());
-        verify(showtimeRepo).findByCinema_Id(100L);
+        verify(showtimeRepo, times(1)).findByCinema_IdOrderByStartTimeAscIdAsc(100L);
+    }
+
+    // -------- CACHE --------
+    @Test
+    @DisplayName("findById: cached after the first load, reloaded after an update")
+    void findById_cachedUntilUpdate() {
+        Showtime existing = copy(base);
+        existing.setId(5L);
+        when(showtimeRepo.findById(5L)).thenReturn(Optional.of(existing));
+        when(cinemaRepo.existsById(100L)).thenReturn(true);
+        when(showtimeRepo.save(any(Showtime.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        service.findById(5L);
+        service.findById(5L);
+        verify(showtimeRepo, times(1)).findById(5L);
+        verify(entityManager).detach(existing);
+
+        Showtime change = new Showtime();
+        change.setMovieTitle("The Batman Returns");
+        service.update(5L, change); // reads via the repo (2nd call), then invalidates
+
+        service.findById(5L);
+        verify(showtimeRepo, times(3)).findById(5L);
+    }
+
+    @Test
+    @DisplayName("findInWindow: assembled from cached cinema-days and trimmed to the window")
+    void findInWindow_fromDays() {
+        LocalDateTime day = LocalDateTime.of(2030, 3, 1, 0, 0);
+        Showtime morning = showtimeAt(1L, day.plusHours(10));
+        Showtime evening = showtimeAt(2L, day.plusHours(20));
+        Showtime nextDay = showtimeAt(3L, day.plusDays(1).plusHours(12));
+        when(showtimeRepo.findSchedule(100L, day, day.plusDays(1))).thenReturn(List.of(morning, evening));
+        when(showtimeRepo.findSchedule(100L, day.plusDays(1), day.plusDays(2))).thenReturn(List.of(nextDay));
+
+        var window = service.findInWindow(100L, day.plusHours(12), day.plusDays(1).plusHours(23));
+        var again = service.findInWindow(100L, day.plusHours(12), day.plusDays(1).plusHours(23), null, null);
+
+        assertEquals(List.of(evening, nextDay), window);
+        assertEquals(List.of(evening, nextDay), again.items());
+        verify(showtimeRepo, times(1)).findSchedule(100L, day, day.plusDays(1));
+        verify(showtimeRepo, never()).findByCinema_IdAndStartTimeBetween(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("create: drops the cached schedule of the cinema and day it lands on")
+    void create_invalidatesSchedule() {
+        when(showtimeRepo.findByCinema_IdOrderByStartTimeAscIdAsc(100L)).thenReturn(List.of());
+        when(cinemaRepo.existsById(100L)).thenReturn(true);
+        when(showtimeRepo.save(any(Showtime.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        service.findByCinema(100L);
+        service.create(copy(base));
+        service.findByCinema(100L);
+
+        verify(showtimeRepo, times(2)).findByCinema_IdOrderByStartTimeAscIdAsc(100L);
     }
 
     @Test
@@ -235,8 +420,119 @@ class ShowtimeServiceImplTest {
         verify(showtimeRepo).findByMovieTitleIgnoreCaseContaining("bat");
     }
 
+    @Test
+    @DisplayName("searchByTitle: pages title-index matches and fetches only the page by id")
+    void searchByTitle_fromIndex() {
+        Showtime first = copy(base);
+        first.setId(1L);
+        Showtime second = copy(base);
+        second.setId(2L);
+        second.setStartTime(base.getStartTime().plusHours(3));
+        when(titleIndex.search("bat", null, null, null)).thenReturn(Optional.of(List.of(
+                new ShowtimeTitle(1L, 100L, first.getStartTime(), "The Batman"),
+                new ShowtimeTitle(2L, 100L, second.getStartTime(), "The Batman"))));
+        when(showtimeRepo.findAllById(List.of(1L))).thenReturn(List.of(first));
+        when(showtimeRepo.findAllById(List.of(2L))).thenReturn(List.of(second));
+
+        var page = service.searchByTitle("bat", null, 1);
+        assertEquals(List.of(first), page.items());
+        var next = service.searchByTitle("bat", page.nextCursor(), 1);
+        assertEquals(List.of(second), next.items());
+        assertFalse(next.hasNext());
+
+        verify(showtimeRepo, never()).findByMovieTitleIgnoreCaseContainingOrderByStartTimeAscIdAsc(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("streamAll: hands each showtime to the consumer, then detaches it")
+    void streamAll_detachesEach() {
+        Showtime a = copy(base);
+        Showtime b = copy(base);
+        when(showtimeRepo.streamAll()).thenReturn(java.util.stream.Stream.of(a, b));
+        List<Showtime> seen = new java.util.ArrayList<>();
+
+        service.streamAll(s -> {
+            verify(entityManager, never()).detach(s);
+            seen.add(s);
+        });
+
+        assertEquals(List.of(a, b), seen);
+        verify(entityManager).detach(a);
+        verify(entityManager).detach(b);
+    }
+
+    // -------- BOOKING --------
+    @Test
+    @DisplayName("bookSeats: saves tickets and marks seats booked in the inventory")
+    void bookSeats_success() {
+        base.setId(7L);
+        SeatOccupancy occupancy = new SeatOccupancy(layout(11L, 12L, 13L));
+        when(showtimeRepo.findById(7L)).thenReturn(Optional.of(base));
+        when(seatInventory.occupancy(base)).thenReturn(occupancy);
+
+        service.bookSeats(7L, List.of(11L, 13L));
+
+        verify(ticketRepo).saveAllAndFlush(argThat(tickets -> tickets.spliterator().getExactSizeIfKnown() == 2));
+        assertTrue(occupancy.isBooked(0));
+        assertFalse(occupancy.isBooked(1));
+        assertTrue(occupancy.isBooked(2));
+        verify(ticketRepo, never()).findByShowtimeIdAndSeatIdIn(anyLong(), anyList());
+        assertEquals(1.0, outcomeCount("success"));
+        assertEquals(2.0, meters.get("cinema.booking.seats").tag("cinema", "100").summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("bookSeats: rejects seats already booked without touching tickets table")
+    void bookSeats_alreadyBooked() {
+        base.setId(7L);
+        SeatOccupancy occupancy = new SeatOccupancy(layout(11L, 12L));
+        occupancy.markBooked(1);
+        when(showtimeRepo.findById(7L)).thenReturn(Optional.of(base));
+        when(seatInventory.occupancy(base)).thenReturn(occupancy);
+
+        assertThrows(BusinessRuleViolationException.class, () -> service.bookSeats(7L, List.of(11L, 12L)));
+        verifyNoInteractions(ticketRepo);
+        assertFalse(occupancy.isBooked(0)); // partial claim was rolled back
+        assertEquals(1.0, outcomeCount("already_booked"));
+    }
+
+    @Test
+    @DisplayName("bookSeats: unknown seat id -> not found")
+    void bookSeats_unknownSeat() {
+        base.setId(7L);
+        when(showtimeRepo.findById(7L)).thenReturn(Optional.of(base));
+        when(seatInventory.occupancy(base)).thenReturn(new SeatOccupancy(layout(11L)));
+        when(seatRepo.findAllById(List.of(99L))).thenReturn(List.of());
+
+        assertThrows(ResourceNotFoundException.class, () -> service.bookSeats(7L, List.of(11L, 99L)));
+        verify(ticketRepo, never()).saveAllAndFlush(any());
+        assertEquals(1.0, outcomeCount("not_found"));
+    }
+
 
     // ---- helper ----
+    private Showtime showtimeAt(Long id, LocalDateTime start) {
+        Showtime s = copy(base);
+        s.setId(id);
+        s.setStartTime(start);
+        s.setEndTime(start.plusHours(2));
+        return s;
+    }
+
+    private double outcomeCount(String outcome) {
+        return meters.get("cinema.booking.outcomes").tag("cinema", "100").tag("outcome", outcome).counter().count();
+    }
+
+    private ScreenLayout layout(Long... seatIds) {
+        List<Seat> seats = new java.util.ArrayList<>();
+        for (int i = 0; i < seatIds.length; i++) {
+            Seat seat = new Seat(cinema, 1, "A", i + 1);
+            ReflectionTestUtils.setField(seat, "id", seatIds[i]);
+            seats.add(seat);
+        }
+        return ScreenLayout.of(new ScreenKey(100L, 1), seats);
+    }
+
     private Showtime copy(Showtime src) {
         Showtime s = new Showtime();
         s.setId(src.getId());
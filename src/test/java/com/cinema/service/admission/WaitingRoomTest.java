@@ -0,0 +1,127 @@
+package com.cinema.service.admission;
+
+import com.cinema.exception.BusinessRuleViolationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WaitingRoomTest {
+
+    private WaitingRoom room;
+
+    // 10 admissions/s for the first minute, 1 s ticks; the ticker is not started, tests tick by hand
+    @BeforeEach
+    void setUp() {
+        room = newRoom(Duration.ofMinutes(1));
+    }
+
+    private static WaitingRoom newRoom(Duration warmup) {
+        return new WaitingRoom(new SimpleMeterRegistry(), "secret", 10, 2, 100, 1.5,
+                Duration.ofSeconds(1), Duration.ofSeconds(3), Duration.ofSeconds(1), warmup);
+    }
+
+    @Test
+    @DisplayName("without an open room everyone is admitted")
+    void closedRoom_admitsAll() {
+        assertTrue(room.admits(1L, null));
+        assertTrue(room.join(1L).admitted());
+        assertNull(room.join(1L).token());
+    }
+
+    @Test
+    @DisplayName("callers are admitted in join order at the room's rate")
+    void admitsInOrder() {
+        room.open(1L, null);
+        WaitingRoom.Status[] queued = new WaitingRoom.Status[25];
+        for (int i = 0; i < queued.length; i++) {
+            queued[i] = room.join(1L);
+        }
+        assertEquals(25, queued[24].position());
+        assertFalse(room.admits(1L, queued[0].token()));
+
+        room.tick();
+        assertTrue(room.admits(1L, queued[0].token()));
+        assertTrue(room.admits(1L, queued[9].token()));
+        assertFalse(room.admits(1L, queued[10].token()));
+        assertEquals(15, room.status(1L, queued[24].token()).position());
+    }
+
+    @Test
+    @DisplayName("tokens are bound to their showtime and room, and forged ones are refused")
+    void tokensAreSigned() {
+        room.open(1L, null);
+        room.open(2L, null);
+        String token = room.join(1L).token();
+        String next = room.join(1L).token();
+        room.tick();
+
+        assertTrue(room.admits(1L, token));
+        assertFalse(room.admits(2L, token));
+        // seq 0 with the signature of seq 1
+        assertFalse(room.admits(1L, "0" + next.substring(next.indexOf('.'))));
+        assertFalse(room.admits(1L, "garbage"));
+        assertThrows(BusinessRuleViolationException.class, () -> room.status(1L, "3.abc"));
+
+        // A new room for the same showtime does not honour the old room's tokens
+        room.close(1L);
+        room.open(1L, null);
+        room.join(1L);
+        room.tick();
+        assertFalse(room.admits(1L, token));
+    }
+
+    @Test
+    @DisplayName("the rate follows measured bookings times the headroom, within the bounds")
+    void rateFollowsThroughput() {
+        room = newRoom(Duration.ZERO);
+        room.open(1L, null);
+        for (int i = 0; i < 10_000; i++) {
+            room.join(1L);
+        }
+        for (int t = 0; t < 20; t++) {
+            for (int b = 0; b < 40; b++) {
+                room.recordBooking(1L);
+            }
+            room.tick();
+        }
+        assertEquals(60, room.rate(1L), 1.0);
+
+        for (int t = 0; t < 20; t++) {
+            room.tick(); // nobody books any more
+        }
+        assertEquals(2, room.rate(1L), 0.01);
+    }
+
+    @Test
+    @DisplayName("an admission expires after the admission ttl")
+    void admissionExpires() {
+        room.open(1L, null);
+        String token = room.join(1L).token();
+        room.tick();
+        assertTrue(room.admits(1L, token));
+
+        // Keep the queue busy so ticks keep admitting
+        for (int t = 0; t < 5; t++) {
+            room.join(1L);
+            sleep(700);
+            room.tick();
+        }
+        assertFalse(room.admits(1L, token));
+        WaitingRoom.Status expired = room.status(1L, token);
+        assertFalse(expired.admitted());
+        assertEquals(0, expired.position());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
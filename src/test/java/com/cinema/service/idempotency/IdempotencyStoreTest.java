@@ -0,0 +1,119 @@
+package com.cinema.service.idempotency;
+
+import com.cinema.entity.IdempotencyRecord;
+import com.cinema.exception.BusinessRuleViolationException;
+import com.cinema.exception.IdempotencyKeyReusedException;
+import com.cinema.exception.IdempotentRequestInProgressException;
+import com.cinema.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class IdempotencyStoreTest {
+
+    private IdempotencyRecordRepository repo;
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(IdempotencyRecordRepository.class);
+        when(repo.findById(any())).thenReturn(Optional.empty());
+        store = new IdempotencyStore(repo, mock(PlatformTransactionManager.class), new SimpleMeterRegistry(),
+                100, Duration.ofHours(1), Duration.ofHours(1));
+    }
+
+    @Test
+    @DisplayName("the booking runs once per key; later calls replay its seats from memory")
+    void execute_runsOnce() {
+        AtomicInteger runs = new AtomicInteger();
+        IdempotencyStore.Outcome first = store.execute("k", "req", 2, () -> {
+            runs.incrementAndGet();
+            return List.of(7L, 8L);
+        });
+        IdempotencyStore.Outcome again = store.execute("k", "req", 2, () -> {
+            runs.incrementAndGet();
+            return List.of(9L);
+        });
+
+        assertEquals(1, runs.get());
+        assertFalse(first.replayed());
+        assertTrue(again.replayed());
+        assertEquals(List.of(7L, 8L), again.seatIds());
+        verify(repo, times(1)).findById("k");
+        verify(repo, times(1)).saveAndFlush(any());
+        assertThrows(IdempotencyKeyReusedException.class, () -> store.execute("k", "other", 2, List::of));
+    }
+
+    @Test
+    @DisplayName("more seats than a key can store are refused before the booking runs")
+    void execute_tooManySeats() {
+        assertThrows(BusinessRuleViolationException.class, () -> store.execute("k", "req",
+                IdempotencyStore.MAX_STORED_SEATS + 1, () -> fail("must not book")));
+        verifyNoInteractions(repo);
+    }
+
+    @Test
+    @DisplayName("a stored outcome is replayed after a restart; an expired one is deleted and run again")
+    void execute_fromTable() {
+        long hash = IdempotencyStore.fingerprint("req");
+        when(repo.findById("old")).thenReturn(Optional.of(new IdempotencyRecord(
+                "old", hash, IdempotencyStore.pack(List.of(3L)), LocalDateTime.now().minusMinutes(5))));
+        IdempotencyRecord expired = new IdempotencyRecord(
+                "expired", hash, IdempotencyStore.pack(List.of(4L)), LocalDateTime.now().minusHours(2));
+        when(repo.findById("expired")).thenReturn(Optional.of(expired));
+
+        IdempotencyStore.Outcome old = store.execute("old", "req", 2, () -> fail("must not book again"));
+        assertTrue(old.replayed());
+        assertEquals(List.of(3L), old.seatIds());
+
+        IdempotencyStore.Outcome rerun = store.execute("expired", "req", 2, () -> List.of(5L));
+        assertFalse(rerun.replayed());
+        assertEquals(List.of(5L), rerun.seatIds());
+        verify(repo).delete(expired);
+    }
+
+    @Test
+    @DisplayName("a retry while the first request is running is refused, and a failed booking frees the key")
+    void execute_inProgress() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<IdempotencyStore.Outcome> first = CompletableFuture.supplyAsync(() ->
+                store.execute("k", "req", 2, () -> {
+                    started.countDown();
+                    await(release);
+                    throw new IllegalStateException("booking failed");
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertThrows(IdempotentRequestInProgressException.class, () -> store.execute("k", "req", 2, List::of));
+        release.countDown();
+        assertThrows(Exception.class, () -> first.get(5, TimeUnit.SECONDS));
+
+        IdempotencyStore.Outcome retry = store.execute("k", "req", 2, () -> List.of(1L));
+        assertFalse(retry.replayed());
+        assertEquals(List.of(1L), retry.seatIds());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
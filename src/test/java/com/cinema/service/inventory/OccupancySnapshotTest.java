@@ -0,0 +1,156 @@
+package com.cinema.service.inventory;
+
+import com.cinema.entity.Cinema;
+import com.cinema.entity.Showtime;
+import com.cinema.repository.SeatRepository;
+import com.cinema.repository.ShowtimeRepository;
+import com.cinema.repository.TicketRepository;
+import com.cinema.repository.projection.BookedSeat;
+import com.cinema.repository.projection.SeatRow;
+import com.cinema.repository.projection.ShowtimeSlot;
+import com.cinema.service.layout.SeatLayouts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OccupancySnapshotTest {
+
+    @Mock private SeatRepository seatRepo;
+    @Mock private TicketRepository ticketRepo;
+    @Mock private ShowtimeRepository showtimeRepo;
+    @Mock private SeatLayouts seatLayouts;
+
+    @TempDir
+    Path dir;
+
+    private Path file;
+    private Cinema cinema;
+
+    @BeforeEach
+    void setup() {
+        file = dir.resolve("seats.snap");
+        cinema = new Cinema();
+        cinema.setId(1L);
+    }
+
+    @Test
+    @DisplayName("restore: saved bitsets come back for upcoming showtimes with an unchanged layout, plus the catch-up")
+    void writeThenRestore() throws Exception {
+        when(seatRepo.findLayoutRows(1L, 2)).thenReturn(rows(100L, 70));
+        when(seatRepo.findLayoutRows(1L, 3)).thenReturn(rows(200L, 20));
+        when(ticketRepo.findBookedSeatIds(10L)).thenReturn(List.of(100L, 103L, 169L));
+        when(ticketRepo.findBookedSeatIds(11L)).thenReturn(List.of(201L));
+        when(ticketRepo.findBookedSeatIds(12L)).thenReturn(List.of(100L));
+        when(ticketRepo.findMaxId()).thenReturn(500L);
+
+        SeatInventory before = new SeatInventory(seatRepo, ticketRepo, new PendingTickets(), seatLayouts);
+        before.occupancy(showtime(10L, 2));
+        before.occupancy(showtime(11L, 3));
+        before.occupancy(showtime(12L, 2));
+        assertEquals(3, snapshot(before, new PendingTickets()).write());
+
+        // After the restart screen 3 has been re-seated and showtime 12 is over
+        reset(seatRepo, ticketRepo);
+        when(seatRepo.findLayoutRows(1L, 2)).thenReturn(rows(100L, 70));
+        when(seatRepo.findLayoutRows(1L, 3)).thenReturn(rows(300L, 20));
+        LocalDateTime later = LocalDateTime.now().plusDays(1);
+        when(showtimeRepo.findSlotsEndingAfter(any())).thenReturn(List.of(
+                new ShowtimeSlot(10L, 1L, 2, later, later.plusHours(2)),
+                new ShowtimeSlot(11L, 1L, 3, later, later.plusHours(2))));
+        when(ticketRepo.findBookedAfterId(500L)).thenReturn(List.of(new BookedSeat(10L, 105L), new BookedSeat(12L, 101L)));
+        PendingTickets pending = new PendingTickets();
+        pending.add(10L, List.of(107L));
+
+        SeatInventory after = new SeatInventory(seatRepo, ticketRepo, pending, seatLayouts);
+        assertEquals(1, snapshot(after, pending).restore());
+
+        SeatOccupancy restored = after.cached(10L);
+        assertNotNull(restored);
+        for (int pos : new int[]{0, 3, 69, 5, 7}) {
+            assertTrue(restored.isBooked(pos), "position " + pos);
+        }
+        assertEquals(5, restored.bookedCount());
+        assertNull(after.cached(11L));
+        assertNull(after.cached(12L));
+        verify(ticketRepo, never()).findBookedSeatIds(anyLong());
+    }
+
+    @Test
+    @DisplayName("write: a showtime with seats on hold is left out, its tickets may get lower ids")
+    void write_skipsShowtimesWithClaims() throws Exception {
+        when(seatRepo.findLayoutRows(1L, 2)).thenReturn(rows(100L, 10));
+        when(ticketRepo.findBookedSeatIds(anyLong())).thenReturn(List.of(100L));
+        SeatInventory inventory = new SeatInventory(seatRepo, ticketRepo, new PendingTickets(), seatLayouts);
+        inventory.occupancy(showtime(10L, 2));
+        assertTrue(inventory.occupancy(showtime(11L, 2)).tryClaim(new int[]{4}));
+
+        assertEquals(1, snapshot(inventory, new PendingTickets()).write());
+    }
+
+    @Test
+    @DisplayName("restore: a missing or unreadable file leaves everything to the lazy load")
+    void restore_badFile() throws Exception {
+        SeatInventory inventory = new SeatInventory(seatRepo, ticketRepo, new PendingTickets(), seatLayouts);
+        OccupancySnapshot snapshot = snapshot(inventory, new PendingTickets());
+        assertEquals(0, snapshot.restore());
+
+        Files.write(file, new byte[]{1, 2, 3});
+        assertEquals(0, snapshot.restore());
+        verifyNoInteractions(showtimeRepo, ticketRepo);
+    }
+
+    @Test
+    @DisplayName("restore: a showtime loaded from the database in the meantime is kept")
+    void restore_doesNotReplaceLoaded() throws Exception {
+        when(seatRepo.findLayoutRows(1L, 2)).thenReturn(rows(100L, 10));
+        when(ticketRepo.findBookedSeatIds(10L)).thenReturn(List.of(100L));
+        SeatInventory inventory = new SeatInventory(seatRepo, ticketRepo, new PendingTickets(), seatLayouts);
+        SeatOccupancy loaded = inventory.occupancy(showtime(10L, 2));
+        OccupancySnapshot snapshot = snapshot(inventory, new PendingTickets());
+        snapshot.write();
+
+        LocalDateTime later = LocalDateTime.now().plusDays(1);
+        when(showtimeRepo.findSlotsEndingAfter(any()))
+                .thenReturn(List.of(new ShowtimeSlot(10L, 1L, 2, later, later.plusHours(2))));
+
+        assertEquals(0, snapshot.restore());
+        assertSame(loaded, inventory.cached(10L));
+    }
+
+    private OccupancySnapshot snapshot(SeatInventory inventory, PendingTickets pending) {
+        return new OccupancySnapshot(inventory, showtimeRepo, ticketRepo, pending, true, file, Duration.ofMinutes(1));
+    }
+
+    private Showtime showtime(Long id, int screen) {
+        Showtime s = new Showtime();
+        s.setId(id);
+        s.setScreenNumber(screen);
+        s.setCinema(cinema);
+        return s;
+    }
+
+    private List<SeatRow> rows(long firstId, int count) {
+        List<SeatRow> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(new SeatRow(1L, 2, firstId + i, String.valueOf((char) ('A' + i / 10)), i % 10 + 1, false));
+        }
+        return rows;
+    }
+}
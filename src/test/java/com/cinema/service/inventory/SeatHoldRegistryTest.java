@@ -0,0 +1,89 @@
+package com.cinema.service.inventory;
+
+import com.cinema.entity.Seat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatHoldRegistryTest {
+
+    private SeatHoldRegistry registry;
+    private SeatOccupancy occupancy;
+
+    @BeforeEach
+    void setup() {
+        registry = new SeatHoldRegistry(Duration.ofMillis(100), Duration.ofMillis(10), 8);
+        registry.start();
+        occupancy = new SeatOccupancy(layout(20));
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.stop();
+    }
+
+    @Test
+    @DisplayName("expired holds give their seats back without any explicit release")
+    void hold_expires() throws Exception {
+        int[] positions = {3, 4};
+        assertTrue(occupancy.tryClaim(positions));
+        SeatHold hold = registry.register(1L, occupancy, positions, List.of(4L, 5L));
+        assertTrue(occupancy.isHeld(3));
+
+        long deadline = System.currentTimeMillis() + 2_000;
+        while (registry.size() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(SeatHold.State.EXPIRED, hold.getState());
+        assertFalse(occupancy.isHeld(3));
+        assertTrue(occupancy.tryClaim(positions));
+    }
+
+    @Test
+    @DisplayName("a confirmed hold is not expired later and keeps its seats claimed")
+    void hold_confirmedBeforeExpiry() throws Exception {
+        int[] positions = {7};
+        assertTrue(occupancy.tryClaim(positions));
+        SeatHold hold = registry.register(1L, occupancy, positions, List.of(8L));
+
+        assertSame(hold, registry.takeForConfirmation(hold.getId()));
+        assertNull(registry.takeForConfirmation(hold.getId()));
+        Thread.sleep(250);
+
+        assertEquals(SeatHold.State.CONFIRMED, hold.getState());
+        assertTrue(occupancy.isHeld(7));
+        assertFalse(registry.release(hold.getId()));
+    }
+
+    @Test
+    @DisplayName("release frees seats immediately")
+    void hold_release() {
+        int[] positions = {0, 19};
+        assertTrue(occupancy.tryClaim(positions));
+        SeatHold hold = registry.register(1L, occupancy, positions, List.of(1L, 20L));
+
+        assertTrue(registry.release(hold.getId()));
+        assertFalse(occupancy.isHeld(0));
+        assertFalse(occupancy.isHeld(19));
+        assertEquals(0, registry.size());
+    }
+
+    private ScreenLayout layout(int size) {
+        List<Seat> seats = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Seat seat = new Seat(null, 1, "A", i + 1);
+            ReflectionTestUtils.setField(seat, "id", (long) i + 1);
+            seats.add(seat);
+        }
+        return ScreenLayout.of(new ScreenKey(1L, 1), seats);
+    }
+}
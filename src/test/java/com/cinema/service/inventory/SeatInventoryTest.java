@@ -0,0 +1,209 @@
+package com.cinema.service.inventory;
+
+import com.cinema.entity.Cinema;
+import com.cinema.entity.SeatCategory;
+import com.cinema.entity.SeatLayoutRow;
+import com.cinema.entity.SeatLayoutTemplate;
+import com.cinema.entity.Showtime;
+import com.cinema.repository.SeatRepository;
+import com.cinema.repository.TicketRepository;
+import com.cinema.repository.projection.SeatRow;
+import com.cinema.repository.projection.ShowtimeSlot;
+import com.cinema.service.layout.SeatLayout;
+import com.cinema.service.layout.SeatLayouts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatInventoryTest {
+
+    @Mock private SeatRepository seatRepo;
+    @Mock private TicketRepository ticketRepo;
+    @Spy private PendingTickets pending = new PendingTickets();
+    @Mock private SeatLayouts seatLayouts;
+
+    @InjectMocks
+    private SeatInventory inventory;
+
+    private Cinema cinema;
+
+    @BeforeEach
+    void setup() {
+        cinema = new Cinema();
+        cinema.setId(1L);
+    }
+
+    @Test
+    @DisplayName("occupancy: loads layout once per screen and booked seats once per showtime")
+    void occupancy_loadsOnce() {
+        when(seatRepo.findLayoutRows(1L, 2))
+                .thenReturn(rows(100L, 70, Set.of()));
+        when(ticketRepo.findBookedSeatIds(10L)).thenReturn(List.of(100L, 165L));
+        when(ticketRepo.findBookedSeatIds(11L)).thenReturn(List.of());
+
+        SeatOccupancy first = inventory.occupancy(showtime(10L, 2));
+        SeatOccupancy again = inventory.occupancy(showtime(10L, 2));
+        SeatOccupancy other = inventory.occupancy(showtime(11L, 2));
+
+        assertSame(first, again);
+        assertSame(first.getLayout(), other.getLayout());
+        assertTrue(first.isBooked(0));
+        assertTrue(first.isBooked(65)); // second word of the bitset
+        assertEquals(2, first.bookedCount());
+        assertEquals(0, other.bookedCount());
+        verify(seatRepo, times(1)).findLayoutRows(1L, 2);
+        verify(ticketRepo, times(1)).findBookedSeatIds(10L);
+    }
+
+    @Test
+    @DisplayName("occupancy: screens without seats are not cached")
+    void occupancy_emptyScreenNotCached() {
+        when(seatRepo.findLayoutRows(1L, 3))
+                .thenReturn(List.of());
+
+        SeatOccupancy occupancy = inventory.occupancy(showtime(12L, 3));
+
+        assertTrue(occupancy.getLayout().isEmpty());
+        assertNull(inventory.cached(12L));
+        verifyNoInteractions(ticketRepo);
+    }
+
+    @Test
+    @DisplayName("evict: next access reloads booked seats")
+    void evict_reloads() {
+        when(seatRepo.findLayoutRows(1L, 2))
+                .thenReturn(rows(100L, 10, Set.of()));
+        when(ticketRepo.findBookedSeatIds(10L)).thenReturn(List.of()).thenReturn(List.of(101L));
+
+        assertFalse(inventory.occupancy(showtime(10L, 2)).isBooked(1));
+        inventory.evict(10L);
+        assertTrue(inventory.occupancy(showtime(10L, 2)).isBooked(1));
+    }
+
+    @Test
+    @DisplayName("install listener: told about each occupancy installed, not about cache hits")
+    void installListener_toldOnInstall() {
+        when(seatRepo.findLayoutRows(1L, 2))
+                .thenReturn(rows(100L, 10, Set.of()));
+        when(ticketRepo.findBookedSeatIds(10L)).thenReturn(List.of());
+        List<SeatOccupancy> installed = new ArrayList<>();
+        inventory.setInstallListener((id, occupancy) -> installed.add(occupancy));
+
+        SeatOccupancy first = inventory.occupancy(showtime(10L, 2));
+        inventory.occupancy(showtime(10L, 2));
+        inventory.evict(10L);
+        SeatOccupancy reloaded = inventory.occupancy(showtime(10L, 2));
+
+        assertEquals(List.of(first, reloaded), installed);
+    }
+
+    @Test
+    @DisplayName("occupancy by id: one joined query builds layout and booked bits")
+    void occupancyById_singleQuery() {
+        when(seatRepo.findShowtimeSlot(10L)).thenReturn(Optional.of(slot(10L, 2)));
+        when(seatRepo.findSeatMapRows(10L)).thenReturn(rows(100L, 20, Set.of(103L, 119L)));
+
+        SeatOccupancy occupancy = inventory.occupancy(10L);
+
+        assertEquals(20, occupancy.getLayout().size());
+        assertTrue(occupancy.isBooked(3));
+        assertTrue(occupancy.isBooked(19));
+        assertEquals(2, occupancy.bookedCount());
+        assertSame(occupancy, inventory.cached(10L));
+        assertSame(occupancy.getLayout(), inventory.layout(new ScreenKey(1L, 2)));
+        verify(seatRepo, never()).findLayoutRows(anyLong(), anyInt());
+        verifyNoInteractions(ticketRepo);
+    }
+
+    @Test
+    @DisplayName("occupancy by id: null when the showtime does not exist")
+    void occupancyById_unknownShowtime() {
+        when(seatRepo.findShowtimeSlot(10L)).thenReturn(Optional.empty());
+
+        assertNull(inventory.occupancy(10L));
+        assertNull(inventory.cached(10L));
+        verify(seatRepo, never()).findSeatMapRows(anyLong());
+    }
+
+    @Test
+    @DisplayName("occupancy by id: a template screen loads only its booked seats, no seat-row query")
+    void occupancyById_templateScreen() {
+        SeatLayoutTemplate template = new SeatLayoutTemplate("small", List.of(
+                new SeatLayoutRow("A", 4, null, SeatCategory.STANDARD)));
+        ReflectionTestUtils.setField(template, "id", 3L);
+        SeatLayout seatLayout = SeatLayout.of(template);
+        when(seatRepo.findShowtimeSlot(10L)).thenReturn(Optional.of(slot(10L, 2)));
+        when(seatLayouts.forScreen(new ScreenKey(1L, 2))).thenReturn(seatLayout);
+        when(ticketRepo.findBookedSeatIds(10L)).thenReturn(List.of(SeatLayout.seatKey(3L, 2)));
+
+        SeatOccupancy occupancy = inventory.occupancy(10L);
+
+        assertEquals(4, occupancy.getLayout().size());
+        assertTrue(occupancy.isBooked(2));
+        assertEquals(1, occupancy.bookedCount());
+        assertSame(occupancy, inventory.cached(10L));
+        verify(seatRepo, never()).findSeatMapRows(anyLong());
+        verify(seatRepo, never()).findLayoutRows(anyLong(), anyInt());
+    }
+
+    // ---- helpers ----
+    @Test
+    @DisplayName("occupancy: seats still in the booking journal load as booked on both paths")
+    void occupancy_countsJournaledSeats() {
+        when(seatRepo.findLayoutRows(1L, 2)).thenReturn(rows(100L, 20, Set.of()));
+        when(ticketRepo.findBookedSeatIds(10L)).thenReturn(List.of(100L));
+        when(seatRepo.findShowtimeSlot(11L)).thenReturn(Optional.of(slot(11L, 2)));
+        pending.add(10L, List.of(105L));
+        pending.add(11L, List.of(107L));
+
+        SeatOccupancy byShowtime = inventory.occupancy(showtime(10L, 2));
+        SeatOccupancy byId = inventory.occupancy(11L);
+
+        assertTrue(byShowtime.isBooked(0));
+        assertTrue(byShowtime.isBooked(5));
+        assertEquals(2, byShowtime.bookedCount());
+        assertTrue(byId.isBooked(7));
+        assertEquals(1, byId.bookedCount());
+    }
+
+    private Showtime showtime(Long id, int screen) {
+        Showtime s = new Showtime();
+        s.setId(id);
+        s.setScreenNumber(screen);
+        s.setCinema(cinema);
+        return s;
+    }
+
+    private static ShowtimeSlot slot(Long id, int screen) {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 20, 0);
+        return new ShowtimeSlot(id, 1L, screen, start, start.plusHours(2));
+    }
+
+    private List<SeatRow> rows(long firstId, int count, Set<Long> booked) {
+        List<SeatRow> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long id = firstId + i;
+            rows.add(new SeatRow(1L, 2, id, String.valueOf((char) ('A' + i / 10)), i % 10 + 1,
+                    booked.contains(id)));
+        }
+        return rows;
+    }
+}
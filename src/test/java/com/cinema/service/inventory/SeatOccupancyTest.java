@@ -0,0 +1,205 @@
+package com.cinema.service.inventory;
+
+import com.cinema.entity.Seat;
+import com.cinema.entity.SeatCategory;
+import com.cinema.entity.SeatLayoutRow;
+import com.cinema.entity.SeatLayoutTemplate;
+import com.cinema.service.layout.SeatLayout;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatOccupancyTest {
+
+    @Test
+    @DisplayName("tryClaim: all-or-nothing across bitset words")
+    void tryClaim_allOrNothing() {
+        SeatOccupancy occupancy = new SeatOccupancy(layout(200));
+        assertTrue(occupancy.tryClaim(new int[]{70}));
+
+        // 3 and 130 live in other words than 70; none may stay claimed
+        assertFalse(occupancy.tryClaim(new int[]{3, 70, 130}));
+        assertFalse(occupancy.isHeld(3));
+        assertFalse(occupancy.isHeld(130));
+        assertEquals(1, occupancy.claimedCount());
+
+        occupancy.release(new int[]{70});
+        assertTrue(occupancy.tryClaim(new int[]{3, 70, 130}));
+        assertEquals(3, occupancy.claimedCount());
+        assertEquals(0, occupancy.bookedCount());
+    }
+
+    @Test
+    @DisplayName("release: booked seats stay taken, only cancel frees them")
+    void release_keepsBooked() {
+        SeatOccupancy occupancy = new SeatOccupancy(layout(200));
+        assertTrue(occupancy.tryClaim(new int[]{4, 100}));
+        occupancy.markBooked(new int[]{100});
+
+        occupancy.release(new int[]{4, 100});
+        assertFalse(occupancy.isHeld(4));
+        assertTrue(occupancy.isBooked(100));
+        assertFalse(occupancy.tryClaim(new int[]{100}));
+
+        occupancy.cancel(new int[]{100});
+        assertTrue(occupancy.tryClaim(new int[]{100}));
+    }
+
+    @Test
+    @DisplayName("tryClaim: concurrent overlapping claims never double-book a seat")
+    void tryClaim_concurrent() throws Exception {
+        int seats = 800;
+        SeatOccupancy occupancy = new SeatOccupancy(layout(seats));
+        AtomicIntegerArray owners = new AtomicIntegerArray(seats);
+        int threads = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                // pairs of adjacent seats, everyone starting from the centre
+                for (int i = 0; i < seats / 2; i++) {
+                    int base = (seats / 2 + i * 2) % seats;
+                    int[] block = {base, (base + 1) % seats};
+                    if (occupancy.tryClaim(block)) {
+                        owners.incrementAndGet(block[0]);
+                        owners.incrementAndGet(block[1]);
+                    }
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        for (int i = 0; i < seats; i++) {
+            assertEquals(1, owners.get(i), "seat " + i);
+        }
+        assertEquals(seats, occupancy.claimedCount());
+    }
+
+    @Test
+    @DisplayName("version: bumped by every change of seat state, not by a rejected claim; epochs differ per instance")
+    void version_tracksChanges() {
+        SeatOccupancy occupancy = new SeatOccupancy(layout(200));
+        long v0 = occupancy.version();
+
+        assertTrue(occupancy.tryClaim(new int[]{5}));
+        long held = occupancy.version();
+        assertTrue(held > v0);
+
+        assertFalse(occupancy.tryClaim(new int[]{5}));
+        assertEquals(held, occupancy.version());
+
+        occupancy.markBooked(new int[]{5});
+        long booked = occupancy.version();
+        assertTrue(booked > held);
+        occupancy.cancel(new int[]{5});
+        assertTrue(occupancy.version() > booked);
+
+        assertNotEquals(occupancy.epoch(), new SeatOccupancy(layout(200)).epoch());
+    }
+
+    @Test
+    @DisplayName("tryClaimBest: centre of the preferred row first, then the next best free block")
+    void tryClaimBest_ranking() {
+        // 10 rows of 20: the preferred row is R5 (0.6 of the way back), its centre is seats 9-12
+        SeatOccupancy occupancy = new SeatOccupancy(layout(200));
+
+        assertArrayEquals(new int[]{108, 109, 110, 111}, occupancy.tryClaimBest(4, null));
+        assertArrayEquals(new int[]{128, 129, 130, 131}, occupancy.tryClaimBest(4, null));
+
+        // a seat freed in the middle of R5 is the best spot for a single seat again
+        occupancy.release(new int[]{109});
+        assertArrayEquals(new int[]{109}, occupancy.tryClaimBest(1, null));
+        assertEquals(8, occupancy.claimedCount());
+    }
+
+    @Test
+    @DisplayName("tryClaimBest: blocks never span rows or aisles and respect the category")
+    void tryClaimBest_rowsAislesCategories() {
+        SeatLayoutTemplate template = new SeatLayoutTemplate("mixed", List.of(
+                new SeatLayoutRow("A", 6, "3", SeatCategory.ACCESSIBLE),
+                new SeatLayoutRow("B", 6, "3", SeatCategory.STANDARD),
+                new SeatLayoutRow("C", 4, null, SeatCategory.PREMIUM)));
+        ReflectionTestUtils.setField(template, "id", 3L);
+        SeatOccupancy occupancy = new SeatOccupancy(ScreenLayout.of(new ScreenKey(1L, 1), SeatLayout.of(template)));
+
+        // Row B is split 3 + 3 by its aisle; four together only fit in C
+        assertArrayEquals(new int[]{12, 13, 14, 15}, occupancy.tryClaimBest(4, null));
+        assertNull(occupancy.tryClaimBest(4, null));
+        assertNull(occupancy.tryClaimBest(5, null));
+
+        int[] three = occupancy.tryClaimBest(3, null);
+        assertEquals(SeatCategory.STANDARD, occupancy.getLayout().categoryAt(three[0]));
+        assertArrayEquals(new int[]{0, 1, 2}, occupancy.tryClaimBest(3, SeatCategory.ACCESSIBLE));
+        assertNull(occupancy.tryClaimBest(1, SeatCategory.PREMIUM));
+    }
+
+    @Test
+    @DisplayName("tryClaimBest: concurrent allocations on a fragmented map get disjoint contiguous blocks")
+    void tryClaimBest_concurrent() throws Exception {
+        int seats = 800;
+        SeatOccupancy occupancy = new SeatOccupancy(layout(seats));
+        // every fifth seat already taken: only blocks of up to 4 remain
+        for (int pos = 0; pos < seats; pos += 5) {
+            occupancy.markBooked(pos);
+        }
+        AtomicIntegerArray owners = new AtomicIntegerArray(seats);
+        int threads = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                int[] block;
+                while ((block = occupancy.tryClaimBest(4, null)) != null) {
+                    for (int i = 0; i < block.length; i++) {
+                        assertEquals(block[0] + i, block[i]);
+                        owners.incrementAndGet(block[i]);
+                    }
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        for (int i = 0; i < seats; i++) {
+            assertEquals(i % 5 == 0 ? 0 : 1, owners.get(i), "seat " + i);
+        }
+        assertEquals(seats, occupancy.claimedCount());
+    }
+
+    private ScreenLayout layout(int size) {
+        List<Seat> seats = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Seat seat = new Seat(null, 1, "R" + (i / 20), i % 20 + 1);
+            ReflectionTestUtils.setField(seat, "id", (long) i + 1);
+            seats.add(seat);
+        }
+        return ScreenLayout.of(new ScreenKey(1L, 1), seats);
+    }
+}
@@ -0,0 +1,138 @@
+package com.cinema.service.journal;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingJournalTest {
+
+    @TempDir
+    Path dir;
+
+    private final SimpleMeterRegistry meters = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("append: concurrent bookings share fsyncs and reach the listener in sequence order")
+    void append_groupCommits() throws Exception {
+        List<JournalEntry> durable = new CopyOnWriteArrayList<>();
+        try (BookingJournal journal = BookingJournal.open(dir, 1 << 20, 1000, meters)) {
+            journal.start(durable::addAll);
+            List<CompletableFuture<JournalEntry>> appends = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                appends.add(journal.append(entry(10L, List.of((long) i))));
+            }
+            CompletableFuture.allOf(appends.toArray(CompletableFuture[]::new)).join();
+        }
+
+        assertEquals(500, durable.size());
+        for (int i = 0; i < durable.size(); i++) {
+            assertEquals(i + 1, durable.get(i).seq());
+        }
+        var groups = meters.get("cinema.journal.group.size").summary();
+        assertEquals(500, (long) groups.totalAmount());
+        assertTrue(groups.count() < 500, "expected some appends to share an fsync");
+    }
+
+    @Test
+    @DisplayName("open: replays entries after the checkpoint and drops fully drained segments")
+    void open_replaysAfterCheckpoint() throws Exception {
+        try (BookingJournal journal = BookingJournal.open(dir, 64, 1, meters)) {
+            journal.start(entries -> { });
+            for (long seat = 1; seat <= 5; seat++) {
+                journal.append(entry(7L, List.of(seat, seat + 100))).join();
+            }
+            journal.checkpoint(3);
+        }
+
+        try (BookingJournal reopened = BookingJournal.open(dir, 64, 1, meters)) {
+            List<JournalEntry> recovered = reopened.recovered();
+            assertEquals(List.of(4L, 5L), recovered.stream().map(JournalEntry::seq).toList());
+            JournalEntry last = recovered.get(1);
+            assertEquals(7L, last.showtimeId());
+            assertEquals(List.of(5L, 105L), last.seatIds());
+            assertEquals(12.5, last.price());
+            assertEquals(LocalDateTime.of(2030, 1, 1, 19, 30, 15), last.bookedAt());
+
+            // Numbering carries on after the recovered entries
+            reopened.start(entries -> { });
+            assertEquals(6, reopened.append(entry(7L, List.of(6L))).join().seq());
+        }
+        assertTrue(segments().size() < 6, "segments before the checkpoint should be deleted");
+    }
+
+    @Test
+    @DisplayName("open: a cancel record is recovered with the booking it cancels")
+    void open_recoversCancel() throws Exception {
+        try (BookingJournal journal = BookingJournal.open(dir, 1 << 20, 1000, meters)) {
+            journal.start(entries -> { });
+            JournalEntry booking = journal.append(entry(3L, List.of(31L, 32L))).join();
+            journal.append(JournalEntry.cancelling(booking)).join();
+        }
+
+        try (BookingJournal reopened = BookingJournal.open(dir, 1 << 20, 1000, meters)) {
+            List<JournalEntry> recovered = reopened.recovered();
+            assertEquals(2, recovered.size());
+            assertFalse(recovered.get(0).isCancel());
+            JournalEntry cancel = recovered.get(1);
+            assertTrue(cancel.isCancel());
+            assertEquals(1, cancel.cancels());
+            assertEquals(List.of(31L, 32L), cancel.seatIds());
+            assertEquals(recovered.get(0).bookedAt(), cancel.bookedAt());
+        }
+    }
+
+    @Test
+    @DisplayName("open: a torn record at the end (crash mid-write) is cut off")
+    void open_truncatesTornTail() throws Exception {
+        try (BookingJournal journal = BookingJournal.open(dir, 1 << 20, 1000, meters)) {
+            journal.start(entries -> { });
+            journal.append(entry(1L, List.of(1L))).join();
+            journal.append(entry(1L, List.of(2L))).join();
+        }
+        Path segment = segments().get(0);
+        long size = Files.size(segment);
+        try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            ch.truncate(size - 3);
+        }
+
+        try (BookingJournal reopened = BookingJournal.open(dir, 1 << 20, 1000, meters)) {
+            assertEquals(List.of(1L), reopened.recovered().stream().map(JournalEntry::seq).toList());
+        }
+        assertTrue(Files.size(segment) < size - 3);
+    }
+
+    @Test
+    @DisplayName("append: fails once the journal is closed")
+    void append_afterClose_fails() throws Exception {
+        BookingJournal journal = BookingJournal.open(dir, 1 << 20, 1000, meters);
+        journal.start(entries -> { });
+        journal.close();
+
+        assertTrue(journal.append(entry(1L, List.of(1L))).isCompletedExceptionally());
+    }
+
+    private static JournalEntry entry(Long showtimeId, List<Long> seatIds) {
+        return new JournalEntry(0, showtimeId, 12.5, LocalDateTime.of(2030, 1, 1, 19, 30, 15), seatIds);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.cinema.service.layout;
+
+import com.cinema.entity.SeatCategory;
+import com.cinema.entity.SeatLayoutRow;
+import com.cinema.entity.SeatLayoutTemplate;
+import com.cinema.service.inventory.ScreenKey;
+import com.cinema.service.inventory.ScreenLayout;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatLayoutTest {
+
+    private static SeatLayout layout(long id) {
+        SeatLayoutTemplate template = new SeatLayoutTemplate("small", List.of(
+                new SeatLayoutRow("A", 4, "2", SeatCategory.STANDARD),
+                new SeatLayoutRow("B", 3, null, SeatCategory.PREMIUM)));
+        ReflectionTestUtils.setField(template, "id", id);
+        return SeatLayout.of(template);
+    }
+
+    @Test
+    @DisplayName("of: rows are flattened in order with categories and aisles")
+    void of_flattensRows() {
+        SeatLayout layout = layout(7L);
+
+        assertEquals(7, layout.size());
+        assertEquals("A", layout.rowLabelAt(0));
+        assertEquals(4, layout.seatNumberAt(3));
+        assertEquals("B", layout.rowLabelAt(4));
+        assertEquals(1, layout.seatNumberAt(4));
+        assertEquals(SeatCategory.PREMIUM, layout.categoryAt(6));
+        assertTrue(layout.aisleAfter(1));
+        assertFalse(layout.aisleAfter(2));
+    }
+
+    @Test
+    @DisplayName("seat keys: (layout id, position) round-trips and never matches another layout or a seat row id")
+    void seatKeys() {
+        SeatLayout layout = layout(7L);
+        long key = layout.seatKeyAt(5);
+
+        assertEquals((7L << 32) | 5, key);
+        assertEquals(7L, SeatLayout.layoutIdOf(key));
+        assertEquals(5, layout.positionOfKey(key));
+        assertEquals(-1, layout(8L).positionOfKey(key));
+        assertEquals(-1, layout.positionOfKey(5L));
+        assertEquals(-1, layout.positionOfKey(SeatLayout.seatKey(7L, 7)));
+        assertEquals(0, SeatLayout.layoutIdOf(123_456L));
+    }
+
+    @Test
+    @DisplayName("screens on the same template share it and have the same seat ids")
+    void screenLayouts_shareTemplate() {
+        SeatLayout template = layout(7L);
+        ScreenLayout one = ScreenLayout.of(new ScreenKey(1L, 1), template);
+        ScreenLayout two = ScreenLayout.of(new ScreenKey(2L, 5), template);
+
+        assertSame(one.getTemplate(), two.getTemplate());
+        assertEquals(one.seatIdAt(3), two.seatIdAt(3));
+        assertEquals(3, two.positionOf(one.seatIdAt(3)));
+        assertEquals(one.fingerprint(), two.fingerprint());
+        assertEquals(SeatCategory.PREMIUM, one.categoryAt(5));
+    }
+}
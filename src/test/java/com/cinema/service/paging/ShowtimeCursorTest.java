@@ -0,0 +1,58 @@
+package com.cinema.service.paging;
+
+import com.cinema.exception.BusinessRuleViolationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShowtimeCursorTest {
+
+    @Test
+    @DisplayName("encode/decode round-trips and maps to a forward keyset position")
+    void roundTrip() {
+        ShowtimeCursor cursor = new ShowtimeCursor(LocalDateTime.of(2030, 1, 1, 19, 30, 15, 500), 42L);
+
+        String token = cursor.encode();
+        KeysetScrollPosition position = (KeysetScrollPosition) ShowtimeCursor.position(token);
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+        assertEquals(cursor, ShowtimeCursor.decode(token));
+        assertEquals(42L, position.getKeys().get("id"));
+        assertEquals(cursor.startTime(), position.getKeys().get("startTime"));
+    }
+
+    @Test
+    @DisplayName("missing token starts at the beginning, garbage is rejected")
+    void initialAndInvalid() {
+        assertTrue(ShowtimeCursor.position(null).isInitial());
+        assertTrue(ShowtimeCursor.position("").isInitial());
+        assertThrows(BusinessRuleViolationException.class, () -> ShowtimeCursor.decode("not a cursor"));
+        assertThrows(BusinessRuleViolationException.class, () -> ShowtimeCursor.decode("Zm9vfGJhcg")); // "foo|bar"
+    }
+
+    @Test
+    @DisplayName("CursorCodec: any key count round-trips, a token with the wrong number of keys is rejected")
+    void codec() {
+        String token = CursorCodec.encode(17L);
+        assertEquals(Long.valueOf(17), CursorCodec.<Long>decode(token, 1, keys -> Long.parseLong(keys[0])));
+        assertThrows(BusinessRuleViolationException.class,
+                () -> CursorCodec.decode(token, 2, keys -> keys));
+        assertThrows(BusinessRuleViolationException.class,
+                () -> CursorCodec.decode(new ShowtimeCursor(LocalDateTime.of(2030, 1, 1, 0, 0), 1L).encode(), 1,
+                        keys -> Long.parseLong(keys[0])));
+    }
+
+    @Test
+    @DisplayName("page size defaults and is clamped to the server maximum")
+    void pageSize() {
+        assertEquals(PageSize.DEFAULT, PageSize.of(null).max());
+        assertEquals(PageSize.MAX, PageSize.of(10_000).max());
+        assertEquals(1, PageSize.of(0).max());
+        assertEquals(20, PageSize.of(20).max());
+    }
+}
@@ -0,0 +1,152 @@
+package com.cinema.service.schedule;
+
+import com.cinema.repository.ShowtimeRepository;
+import com.cinema.repository.projection.ShowtimeSlot;
+import com.cinema.service.inventory.ScreenKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduleIndexTest {
+
+    private static final LocalDateTime T = LocalDateTime.of(2026, 3, 1, 18, 0);
+    private static final ScreenKey SCREEN = new ScreenKey(1L, 2);
+
+    @Mock private ShowtimeRepository showtimeRepo;
+
+    @InjectMocks
+    private ScheduleIndex index;
+
+    @BeforeEach
+    void setup() {
+        // 18:00-20:00 and 21:00-23:00
+        lenient().when(showtimeRepo.findSlots(1L, 2)).thenReturn(List.of(
+                slot(10L, 2, 0, 120), slot(11L, 2, 180, 300)));
+    }
+
+    @Test
+    @DisplayName("overlaps: touching intervals are free, anything inside a show clashes")
+    void overlaps_halfOpen() {
+        assertFalse(index.overlaps(SCREEN, at(120), at(180), null).orElseThrow()); // the gap exactly
+        assertTrue(index.overlaps(SCREEN, at(119), at(150), null).orElseThrow());
+        assertTrue(index.overlaps(SCREEN, at(150), at(181), null).orElseThrow());
+        assertTrue(index.overlaps(SCREEN, at(-60), at(400), null).orElseThrow()); // spans both
+        assertFalse(index.overlaps(SCREEN, at(300), at(360), null).orElseThrow());
+        verify(showtimeRepo, times(1)).findSlots(1L, 2); // loaded once
+    }
+
+    @Test
+    @DisplayName("overlaps: the showtime being updated does not clash with itself")
+    void overlaps_excludesSelf() {
+        assertFalse(index.overlaps(SCREEN, at(30), at(150), 10L).orElseThrow());
+        assertTrue(index.overlaps(SCREEN, at(30), at(200), 10L).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("reserve: a granted slot blocks later checks until the id is released")
+    void reserve_blocksConcurrentChecks() {
+        ScheduleIndex.Reservation first = index.reserve(SCREEN, at(120), at(180));
+        ScheduleIndex.Reservation second = index.reserve(SCREEN, at(150), at(170));
+
+        assertTrue(first.isGranted());
+        assertFalse(second.isGranted());
+
+        first.bind(12L);
+        index.removeOnCommit(12L, SCREEN); // no transaction: applied straight away
+        assertTrue(index.reserve(SCREEN, at(150), at(170)).isGranted());
+    }
+
+    @Test
+    @DisplayName("reserve: a rolled-back slot is given back")
+    void reserve_cancel() {
+        ScheduleIndex.Reservation r = index.reserve(SCREEN, at(120), at(180));
+        r.cancel();
+        assertFalse(index.overlaps(SCREEN, at(120), at(180), null).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("moveOnCommit: frees the old slot and takes the new one")
+    void moveOnCommit() {
+        ScreenKey other = new ScreenKey(1L, 3);
+        when(showtimeRepo.findSlots(1L, 3)).thenReturn(List.of());
+
+        ScheduleIndex.Reservation slot = index.reserve(other, 10L, at(0), at(120));
+        index.moveOnCommit(10L, SCREEN, other, slot);
+
+        assertFalse(index.overlaps(SCREEN, at(0), at(120), null).orElseThrow());
+        assertTrue(index.overlaps(other, at(60), at(90), null).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("reserve for an update: old and new times are both held until the move commits")
+    void reserve_update() {
+        ScheduleIndex.Reservation r = index.reserve(SCREEN, 10L, at(60), at(150));
+        assertTrue(r.isGranted());
+        assertFalse(index.reserve(SCREEN, at(130), at(150)).isGranted()); // new time
+        assertTrue(index.overlaps(SCREEN, at(0), at(30), null).orElseThrow()); // old time
+        assertFalse(index.reserve(SCREEN, 11L, at(100), at(200)).isGranted());
+
+        index.moveOnCommit(10L, SCREEN, SCREEN, r);
+        assertFalse(index.overlaps(SCREEN, at(0), at(60), null).orElseThrow());
+        assertTrue(index.overlaps(SCREEN, at(140), at(150), null).orElseThrow());
+        assertFalse(index.overlaps(SCREEN, at(60), at(150), 10L).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("reserve for an update: a rollback gives the showtime its old slot back")
+    void reserve_update_cancel() {
+        ScheduleIndex.Reservation r = index.reserve(SCREEN, 10L, at(130), at(170));
+        assertTrue(r.isGranted());
+        r.cancel();
+
+        assertFalse(index.overlaps(SCREEN, at(130), at(170), null).orElseThrow());
+        assertTrue(index.overlaps(SCREEN, at(0), at(30), null).orElseThrow());
+        assertFalse(index.overlaps(SCREEN, at(0), at(30), 10L).orElseThrow());
+    }
+
+    @Test
+    @DisplayName("screens whose rows already overlap are left to the DB")
+    void legacyOverlap_unknown() {
+        when(showtimeRepo.findSlots(1L, 4)).thenReturn(List.of(slot(20L, 4, 0, 120), slot(21L, 4, 60, 90)));
+        ScreenKey legacy = new ScreenKey(1L, 4);
+
+        assertTrue(index.overlaps(legacy, at(200), at(300), null).isEmpty());
+        assertNull(index.reserve(legacy, at(200), at(300)));
+    }
+
+    @Test
+    @DisplayName("warmUp: loads every screen in one query; dropCinema forces a reload")
+    void warmUp_thenDrop() {
+        when(showtimeRepo.streamSlots()).thenReturn(Stream.of(slot(10L, 2, 0, 120), slot(30L, 5, 0, 60)));
+
+        index.warmUp();
+        assertTrue(index.overlaps(new ScreenKey(1L, 5), at(30), at(90), null).orElseThrow());
+        assertTrue(index.overlaps(SCREEN, at(30), at(90), null).orElseThrow());
+        verify(showtimeRepo, never()).findSlots(anyLong(), anyInt());
+
+        index.dropCinema(1L);
+        assertTrue(index.overlaps(SCREEN, at(200), at(250), null).orElseThrow()); // 11L, from findSlots
+        verify(showtimeRepo).findSlots(1L, 2);
+    }
+
+    // ---- helpers ----
+    private static LocalDateTime at(int minutes) {
+        return T.plusMinutes(minutes);
+    }
+
+    private static ShowtimeSlot slot(Long id, int screen, int fromMinutes, int toMinutes) {
+        return new ShowtimeSlot(id, 1L, screen, at(fromMinutes), at(toMinutes));
+    }
+}
@@ -0,0 +1,79 @@
+package com.cinema.service.search;
+
+import com.cinema.repository.projection.ShowtimeTitle;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TitleGramsTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2030, 1, 1, 10, 0);
+
+    private static ShowtimeTitle show(long id, long cinemaId, int hour, String title) {
+        return new ShowtimeTitle(id, cinemaId, T0.plusHours(hour), title);
+    }
+
+    private static List<Long> ids(TitleGrams grams, String query) {
+        return grams.search(TitleGrams.normalize(query), s -> true).stream().map(ShowtimeTitle::id).toList();
+    }
+
+    @Test
+    @DisplayName("substring queries of any length ignore case and accents, ordered by start time")
+    void search_caseAndAccentInsensitive() {
+        TitleGrams grams = new TitleGrams();
+        grams.put(show(1, 1, 5, "Le Fabuleux Destin d'Amélie Poulain"));
+        grams.put(show(2, 1, 1, "AMELIE"));
+        grams.put(show(3, 2, 3, "Dune: Part Two"));
+
+        assertEquals(List.of(2L, 1L), ids(grams, "amélie"));
+        assertEquals(List.of(2L, 1L), ids(grams, "Amel"));
+        assertEquals(List.of(2L, 1L), ids(grams, "mé"));
+        assertEquals(List.of(3L), ids(grams, "PART t"));
+        assertEquals(List.of(3L), ids(grams, "w"));
+        assertEquals(List.of(), ids(grams, "dunes"));
+    }
+
+    @Test
+    @DisplayName("a title with every trigram of the query, but not in order, is not a match")
+    void search_confirmsCandidates() {
+        TitleGrams grams = new TitleGrams();
+        grams.put(show(1, 1, 0, "abc bcd"));
+        grams.put(show(2, 1, 1, "xabcdx"));
+
+        assertEquals(List.of(2L), ids(grams, "abcd"));
+    }
+
+    @Test
+    @DisplayName("renaming and removing showtimes moves them between titles and drops empty titles")
+    void putAndRemove() {
+        TitleGrams grams = new TitleGrams();
+        grams.put(show(1, 1, 0, "Barbie"));
+        grams.put(show(2, 1, 1, "Barbie"));
+        assertEquals(1, grams.titleCount());
+
+        grams.put(show(2, 1, 1, "Oppenheimer"));
+        assertEquals(List.of(1L), ids(grams, "barbie"));
+        assertEquals(List.of(2L), ids(grams, "heim"));
+
+        grams.remove(1L);
+        assertEquals(List.of(), ids(grams, "barbie"));
+        assertEquals(List.of(), ids(grams, "b"));
+        assertEquals(1, grams.titleCount());
+        assertEquals(1, grams.size());
+    }
+
+    @Test
+    @DisplayName("the filter applies to the showtimes of matching titles")
+    void search_filtered() {
+        TitleGrams grams = new TitleGrams();
+        grams.put(show(1, 1, 0, "Inside Out 2"));
+        grams.put(show(2, 2, 1, "Inside Out 2"));
+
+        assertEquals(List.of(2L), grams.search("inside", s -> s.cinemaId() == 2L)
+                .stream().map(ShowtimeTitle::id).toList());
+    }
+}
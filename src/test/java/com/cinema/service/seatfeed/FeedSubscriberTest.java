@@ -0,0 +1,59 @@
+package com.cinema.service.seatfeed;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeedSubscriberTest {
+
+    @Test
+    @DisplayName("a new subscriber starts with a snapshot, then gets deltas in order")
+    void snapshotThenDeltas() {
+        FeedSubscriber subscriber = new FeedSubscriber(new SseEmitter(), 4);
+        assertTrue(subscriber.hasWork());
+        assertTrue(subscriber.takeResync());
+        assertFalse(subscriber.takeResync());
+
+        assertTrue(subscriber.offer("d1"));
+        assertTrue(subscriber.offer("d2"));
+        assertEquals("d1", subscriber.poll());
+        assertEquals("d2", subscriber.poll());
+        assertNull(subscriber.poll());
+        assertFalse(subscriber.hasWork());
+    }
+
+    @Test
+    @DisplayName("overflowing the queue drops the queued deltas and asks for a snapshot")
+    void overflow_dropsToResync() {
+        FeedSubscriber subscriber = new FeedSubscriber(new SseEmitter(), 2);
+        subscriber.takeResync();
+
+        assertTrue(subscriber.offer("d1"));
+        assertTrue(subscriber.offer("d2"));
+        assertFalse(subscriber.offer("d3"));
+
+        assertTrue(subscriber.isResyncDue());
+        assertNull(subscriber.poll());
+        assertTrue(subscriber.takeResync());
+
+        // deltas after the snapshot are kept again
+        assertTrue(subscriber.offer("d4"));
+        assertEquals("d4", subscriber.poll());
+    }
+
+    @Test
+    @DisplayName("only one sender drains a subscriber at a time; a closed one has no work")
+    void drainGuardAndClose() {
+        FeedSubscriber subscriber = new FeedSubscriber(new SseEmitter(), 2);
+        assertTrue(subscriber.startDrain());
+        assertFalse(subscriber.startDrain());
+        subscriber.endDrain();
+        assertTrue(subscriber.startDrain());
+
+        subscriber.offer("d1");
+        subscriber.close();
+        assertFalse(subscriber.hasWork());
+    }
+}
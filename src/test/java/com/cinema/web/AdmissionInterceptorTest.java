@@ -0,0 +1,58 @@
+package com.cinema.web;
+
+import com.cinema.controller.ShowtimeController;
+import com.cinema.service.admission.WaitingRoom;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdmissionInterceptorTest {
+
+    @Mock private WaitingRoom waitingRoom;
+
+    @Test
+    @DisplayName("afterCompletion: a successful booking counts towards the room's throughput")
+    void booking_recorded() {
+        new AdmissionInterceptor(waitingRoom).afterCompletion(booking(), new MockHttpServletResponse(), null, null);
+
+        verify(waitingRoom).recordBooking(7L);
+    }
+
+    @Test
+    @DisplayName("afterCompletion: an Idempotency-Key replay is not counted again")
+    void replay_notRecorded() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setHeader(ShowtimeController.IDEMPOTENT_REPLAYED_HEADER, "true");
+
+        new AdmissionInterceptor(waitingRoom).afterCompletion(booking(), response, null, null);
+
+        verifyNoInteractions(waitingRoom);
+    }
+
+    @Test
+    @DisplayName("afterCompletion: a refused booking is not counted")
+    void failedBooking_notRecorded() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(409);
+
+        new AdmissionInterceptor(waitingRoom).afterCompletion(booking(), response, null, null);
+
+        verifyNoInteractions(waitingRoom);
+    }
+
+    private static MockHttpServletRequest booking() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/showtimes/7/tickets");
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("id", "7"));
+        return request;
+    }
+}